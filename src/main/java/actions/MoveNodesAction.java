@@ -2,14 +2,13 @@ package actions;
 
 import context.GBContext;
 import graph.components.display.NodePanel;
-import structures.OrderedPair;
+import io.GraphJournal;
 
-import java.awt.*;
 import java.awt.event.ActionEvent;
-import java.util.Map;
 
 /**
  * An instance is a movement of one or more node(s) on the editor workspace.
+ * All nodes move by the same amount, so only that amount is recorded.
  *
  * @author Brian Yao
  */
@@ -17,29 +16,50 @@ public class MoveNodesAction extends ReversibleAction {
 
 	private static final long serialVersionUID = -844830261170043610L;
 
-	// Mapping node panels to its previous and current positions
-	private Map<NodePanel, OrderedPair<Point>> movementMap;
+	private NodePanel[] panels; // The panels of the moved nodes
+	private int dx;
+	private int dy;
 
 	/**
-	 * @param ctxt        The context this action belongs in.
-	 * @param movementMap The map from node panel to starting and ending points.
+	 * @param ctxt   The context this action belongs in.
+	 * @param panels The panels of the moved nodes.
+	 * @param dx     The distance the nodes moved horizontally.
+	 * @param dy     The distance the nodes moved vertically.
 	 */
-	public MoveNodesAction(GBContext ctxt, Map<NodePanel, OrderedPair<Point>> movementMap) {
+	public MoveNodesAction(GBContext ctxt, NodePanel[] panels, int dx, int dy) {
 		super(ctxt);
-		this.movementMap = movementMap;
+		this.panels = panels;
+		this.dx = dx;
+		this.dy = dy;
 	}
 
 	@Override
 	public void actionPerformed(ActionEvent e) {
-		for (Map.Entry<NodePanel, OrderedPair<Point>> entry : movementMap.entrySet())
-			entry.getKey().setCoords(entry.getValue().getSecond());
-		this.getContext().getGUI().getEditor().repaint();
+		this.moveBy(dx, dy);
 	}
 
 	@Override
 	public void undo() {
-		for (Map.Entry<NodePanel, OrderedPair<Point>> entry : movementMap.entrySet())
-			entry.getKey().setCoords(entry.getValue().getFirst());
+		this.moveBy(-dx, -dy);
+	}
+
+	@Override
+	public void journal(GraphJournal journal) {
+		for (NodePanel panel : panels) {
+			journal.recordMove(panel.getGbNode());
+		}
+	}
+
+	/**
+	 * Move all of the nodes by the same amount.
+	 *
+	 * @param dx The distance to move the nodes horizontally.
+	 * @param dy The distance to move the nodes vertically.
+	 */
+	private void moveBy(int dx, int dy) {
+		for (NodePanel panel : panels) {
+			panel.setCoords(panel.getXCoord() + dx, panel.getYCoord() + dy);
+		}
 		this.getContext().getGUI().getEditor().repaint();
 	}
 
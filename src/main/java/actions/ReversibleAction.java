@@ -1,6 +1,7 @@
 package actions;
 
 import context.GBContext;
+import io.GraphJournal;
 
 /**
  * An abstract class for a reversible (undo-able) action, such as placing a node or drawing an edge.
@@ -34,4 +35,14 @@ public abstract class ReversibleAction extends SimpleAction {
 	 */
 	public abstract void undo();
 
+	/**
+	 * Record the changes this action made which graph listeners cannot see,
+	 * such as node movements, in a journal. This is called each time the
+	 * action is performed or undone. By default there are no such changes.
+	 *
+	 * @param journal The journal to record the changes in.
+	 */
+	public void journal(GraphJournal journal) {
+	}
+
 }
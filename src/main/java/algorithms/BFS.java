@@ -2,6 +2,7 @@ package algorithms;
 
 import algorithms.util.Search;
 import graph.Graph;
+import graph.IndexedGraph;
 import graph.components.Node;
 import graph.path.Path;
 
@@ -26,9 +27,16 @@ public final class BFS {
 	 * @return The set of all nodes reached during the BFS.
 	 */
 	public static Set<Node> explore(Graph graph, Node start, boolean followDirected) {
-		Set<Node> visited = new HashSet<>();
+		boolean[] visited = new boolean[graph.getNumNodes()];
 		bfs(graph, start, visited, followDirected, ($, $$) -> false);
-		return visited;
+
+		Set<Node> explored = new HashSet<>();
+		for (int i = 0 ; i < visited.length ; i++) {
+			if (visited[i]) {
+				explored.add(graph.getNodeAt(i));
+			}
+		}
+		return explored;
 	}
 
 	/**
@@ -68,7 +76,7 @@ public final class BFS {
 	 */
 	public static Path search(Graph graph, Node start, Node target, boolean followDirected) {
 		return Search.search(graph, start, target, followDirected, parentMap ->
-			bfs(graph, start, new HashSet<>(), followDirected, (visiting, neighbor) -> {
+			bfs(graph, start, new boolean[graph.getNumNodes()], followDirected, (visiting, neighbor) -> {
 				if (!parentMap.containsKey(neighbor)) {
 					parentMap.put(neighbor, visiting);
 				}
@@ -89,7 +97,47 @@ public final class BFS {
 	 */
 	public static boolean connected(Graph graph, Node start, Node target, boolean followDirected) {
 		return start == target ||
-			bfs(graph, start, new HashSet<>(), followDirected, ($, neighbor) -> neighbor == target);
+			bfs(graph, start, new boolean[graph.getNumNodes()], followDirected, ($, neighbor) -> neighbor == target);
+	}
+
+	/**
+	 * Use BFS to compute the number of arcs on a shortest path from the start
+	 * node to every node of an indexed graph. Arc direction is always
+	 * followed; undirected edges are represented by arcs in both directions.
+	 *
+	 * @param graph The graph to search in.
+	 * @param start The index of the node from which the search begins.
+	 * @return the distance of each node from the start, by node index, or -1
+	 *         for nodes which cannot be reached.
+	 */
+	public static int[] distances(IndexedGraph graph, int start) {
+		int numNodes = graph.getNumNodes();
+		if (start < 0 || start >= numNodes) {
+			throw new IllegalArgumentException("Start node must belong to the provided graph.");
+		}
+
+		int[] distances = new int[numNodes];
+		Arrays.fill(distances, -1);
+		distances[start] = 0;
+
+		// Each node enters the queue at most once, so an array suffices
+		int[] toVisit = new int[numNodes];
+		int head = 0;
+		int tail = 0;
+		toVisit[tail++] = start;
+
+		while (head < tail) {
+			int visiting = toVisit[head++];
+			for (int arc = graph.arcStart(visiting), end = graph.arcEnd(visiting) ; arc < end ; arc++) {
+				int neighbor = graph.arcTarget(arc);
+				if (distances[neighbor] < 0) {
+					distances[neighbor] = distances[visiting] + 1;
+					toVisit[tail++] = neighbor;
+				}
+			}
+		}
+
+		return distances;
 	}
 
 	/**
@@ -98,7 +146,7 @@ public final class BFS {
 	 *
 	 * @param graph           The graph to search in.
 	 * @param start           The node to start the search from.
-	 * @param visited         A set containing visited nodes.
+	 * @param visited         The visited flag of each node, by node index.
 	 * @param followDirected  false if we want to ignore edge direction.
 	 * @param exploreNeighbor A BiFunction which takes as input the node being
 	 *                        visited and the neighbor being discovered, and
@@ -106,7 +154,7 @@ public final class BFS {
 	 *                        halted immediately, otherwise it continues.
 	 * @return true iff exploreNeighbor returned true at some point.
 	 */
-	private static boolean bfs(Graph graph, Node start, Set<Node> visited, boolean followDirected,
+	private static boolean bfs(Graph graph, Node start, boolean[] visited, boolean followDirected,
 							   BiFunction<Node, Node, Boolean> exploreNeighbor) {
 		Queue<Node> toVisit = new LinkedList<>();
 		toVisit.add(start);
@@ -114,7 +162,7 @@ public final class BFS {
 		while (!toVisit.isEmpty()) {
 			Node visiting = toVisit.poll();
 			for (Node neighbor : graph.getAdjListOf(visiting).getNeighbors(followDirected)) {
-				if (!visited.contains(neighbor)) {
+				if (!visited[graph.getNodeIndex(neighbor)]) {
 					toVisit.add(neighbor);
 					if (exploreNeighbor.apply(visiting, neighbor)) {
 						return true;
@@ -122,7 +170,7 @@ public final class BFS {
 				}
 			}
 
-			visited.add(visiting);
+			visited[graph.getNodeIndex(visiting)] = true;
 		}
 
 		return false;
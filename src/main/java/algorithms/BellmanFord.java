@@ -7,11 +7,8 @@ import graph.components.Node;
 import graph.path.Path;
 import util.GraphUtils;
 
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Map;
-import java.util.Set;
-import java.util.function.BiConsumer;
+import java.util.*;
+import java.util.function.ObjIntConsumer;
 import java.util.stream.IntStream;
 
 /**
@@ -41,41 +38,49 @@ public final class BellmanFord {
 		}
 
 		// Initialize memoization array and keep track of next edge in the
-		// shortest path given a node
-		Map<Node, Double> distances = new HashMap<>();
-		Map<Node, Edge> next = new HashMap<>();
-		graph.getNodes().forEach(node -> distances.put(node, Double.POSITIVE_INFINITY));
-		distances.put(destination, 0.);
+		// shortest path given a node, by node index
+		int numNodes = graph.getNumNodes();
+		double[] distances = new double[numNodes];
+		Edge[] next = new Edge[numNodes];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		distances[graph.getNodeIndex(destination)] = 0.;
 
 		// Compute shortest path distances from start, |V| - 1 iterations
-		IntStream.range(1, graph.getNodes().size()).forEach($ ->
-			forEachEdge(graph, distances, (node, edge) -> {
-				Node neighbor = edge.getOtherEndpoint(node);
-				next.put(node, edge);
-				distances.put(node, edge.getNumericWeight() + distances.get(neighbor));
+		IntStream.range(1, numNodes).forEach($ ->
+			forEachEdge(graph, distances, (edge, node) -> {
+				next[node] = edge;
+				distances[node] = edge.getNumericWeight() +
+					distances[graph.getNodeIndex(edge.getOtherEndpoint(graph.getNodeAt(node)))];
 			})
 		);
 
 		// Check for negative cycles
-		forEachEdge(graph, distances, (node, $) -> {
+		forEachEdge(graph, distances, ($, node) -> {
 			// If distances would be updated, there must be a negative cycle
 			// with a path to the destination node. The path from the node
 			// being iterated to the destination node must contain a negative
 			// cycle.
-			if (reachableFromStart.contains(node)) {
+			if (reachableFromStart.contains(graph.getNodeAt(node))) {
 				// The negative cycle is reachable from the start node, so
 				// there is no shortest path.
+				Map<Node, Edge> nextMap = new HashMap<>();
+				for (int i = 0 ; i < numNodes ; i++) {
+					if (next[i] != null) {
+						nextMap.put(graph.getNodeAt(i), next[i]);
+					}
+				}
 				throw new NegativeCycleException("The shortest path does not exist as the graph contains a " +
 													 "negative cycle reachable from the start node and which " +
-													 "can reach the destination node.", next, node);
+													 "can reach the destination node.", nextMap,
+												 graph.getNodeAt(node));
 			}
 		});
 
 		// Construct shortest path from start to destination
 		Path shortestPath = new Path(start);
 		Node currentNode = start;
-		while (next.get(currentNode) != null) {
-			Edge toNextNode = next.get(currentNode);
+		while (next[graph.getNodeIndex(currentNode)] != null) {
+			Edge toNextNode = next[graph.getNodeIndex(currentNode)];
 			currentNode = toNextNode.getOtherEndpoint(currentNode);
 			shortestPath.appendNode(currentNode, toNextNode);
 		}
@@ -87,29 +92,28 @@ public final class BellmanFord {
 	 * Helper method to iterate through nodes and perform the specified
 	 * operation when the "distances" value is updated for that node.
 	 *
-	 * The onUpdate consumer takes two pieces of data: the node which
-	 * is currently being iterated on, and the edge to the node's neighbor
-	 * being iterated on.
+	 * The onUpdate consumer takes two pieces of data: the index of the node
+	 * which is currently being iterated on, and the edge to the node's
+	 * neighbor being iterated on.
 	 *
 	 * @param graph     The graph to iterate through.
-	 * @param distances The memoization map containing distance values to
-	 *                  the destination.
-	 * @param onUpdate  The BiConsumer action to perform when the distance
-	 *                  value to a node's neighbor would replace the current
-	 *                  distance value of that node.
+	 * @param distances The memoization array containing distance values to
+	 *                  the destination, by node index.
+	 * @param onUpdate  The action to perform when the distance value to a
+	 *                  node's neighbor would replace the current distance
+	 *                  value of that node.
 	 */
-	private static void forEachEdge(Graph graph, Map<Node, Double> distances,
-									BiConsumer<Node, Edge> onUpdate) {
-		for (Node node : graph.getNodes()) {
+	private static void forEachEdge(Graph graph, double[] distances, ObjIntConsumer<Edge> onUpdate) {
+		for (int i = 0 ; i < distances.length ; i++) {
+			Node node = graph.getNodeAt(i);
 			for (Node neighbor : graph.getAdjListOf(node).getNeighbors(true)) {
 				// Use the minimum weight edge between node and neighbor
 				Edge minWeightEdge = GraphUtils.minWeightEdge(graph, node, neighbor, true);
 
-				// Compute the new value to put in the memo map
-				Double currentDist = distances.get(node);
-				Double neighborDist = minWeightEdge.getNumericWeight() + distances.get(neighbor);
-				if (neighborDist < currentDist) {
-					onUpdate.accept(node, minWeightEdge);
+				// Compute the new value to put in the memo array
+				double neighborDist = minWeightEdge.getNumericWeight() + distances[graph.getNodeIndex(neighbor)];
+				if (neighborDist < distances[i]) {
+					onUpdate.accept(minWeightEdge, i);
 				}
 			}
 		}
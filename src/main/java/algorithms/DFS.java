@@ -29,9 +29,16 @@ public final class DFS {
 	 * @return The set of all nodes reached during the DFS.
 	 */
 	public static Set<Node> explore(Graph graph, Node start, boolean followDirected) {
-		Set<Node> visited = new HashSet<>();
+		boolean[] visited = new boolean[graph.getNumNodes()];
 		dfs(graph, start, visited, followDirected, ($, $$) -> false);
-		return visited;
+
+		Set<Node> explored = new HashSet<>();
+		for (int i = 0 ; i < visited.length ; i++) {
+			if (visited[i]) {
+				explored.add(graph.getNodeAt(i));
+			}
+		}
+		return explored;
 	}
 
 	/**
@@ -71,7 +78,7 @@ public final class DFS {
 	 */
 	public static Path search(Graph graph, Node start, Node target, boolean followDirected) {
 		return Search.search(graph, start, target, followDirected, parentMap ->
-			dfs(graph, start, new HashSet<>(), followDirected,(visiting, neighbor) -> {
+			dfs(graph, start, new boolean[graph.getNumNodes()], followDirected,(visiting, neighbor) -> {
 				if (!parentMap.containsKey(neighbor)) {
 					parentMap.put(neighbor, visiting);
 				}
@@ -92,7 +99,7 @@ public final class DFS {
 	 */
 	public static boolean connected(Graph graph, Node start, Node target, boolean followDirected) {
 		return start == target ||
-			dfs(graph, start, new HashSet<>(), followDirected, ($, neighbor) -> neighbor == target);
+			dfs(graph, start, new boolean[graph.getNumNodes()], followDirected, ($, neighbor) -> neighbor == target);
 	}
 
 	/**
@@ -101,7 +108,7 @@ public final class DFS {
 	 *
 	 * @param graph           The graph to search in.
 	 * @param start           The node to start the search from.
-	 * @param visited         A set containing visited nodes.
+	 * @param visited         The visited flag of each node, by node index.
 	 * @param followDirected  false if we want to ignore edge direction.
 	 * @param exploreNeighbor A BiFunction which takes as input the node being
 	 *                        visited and the neighbor being discovered, and
@@ -109,7 +116,7 @@ public final class DFS {
 	 *                        halted immediately, otherwise it continues.
 	 * @return true iff exploreNeighbor returned true at some point.
 	 */
-	private static boolean dfs(Graph graph, Node start, Set<Node> visited, boolean followDirected,
+	private static boolean dfs(Graph graph, Node start, boolean[] visited, boolean followDirected,
 							   BiFunction<Node, Node, Boolean> exploreNeighbor) {
 		Stack<Node> toVisit = new Stack<>();
 		toVisit.push(start);
@@ -117,7 +124,7 @@ public final class DFS {
 		while (!toVisit.isEmpty()) {
 			Node visiting = toVisit.pop();
 			for (Node neighbor : graph.getAdjListOf(visiting).getNeighbors(followDirected)) {
-				if (!visited.contains(neighbor)) {
+				if (!visited[graph.getNodeIndex(neighbor)]) {
 					toVisit.push(neighbor);
 					if (exploreNeighbor.apply(visiting, neighbor)) {
 						return true;
@@ -125,7 +132,7 @@ public final class DFS {
 				}
 			}
 
-			visited.add(visiting);
+			visited[graph.getNodeIndex(visiting)] = true;
 		}
 
 		return false;
@@ -1,12 +1,10 @@
 package algorithms;
 
 import graph.Graph;
+import graph.IndexedGraph;
 import graph.components.Edge;
 import graph.components.Node;
 import graph.path.Path;
-import lombok.Getter;
-import lombok.NonNull;
-import lombok.Setter;
 import util.GraphUtils;
 
 import java.util.*;
@@ -19,42 +17,95 @@ import java.util.*;
 public final class Dijkstra {
 
 	/**
-	 * An instance is a item containing the necessary information for
-	 * Dijkstra's algorithm.
+	 * A binary min-heap of node indices keyed by their tentative distances.
+	 * The position of each node in the heap is tracked so that its key can
+	 * be decreased in place.
 	 *
 	 * @author Brian Yao
 	 */
-	private static final class DijkstraItem {
+	private static final class IndexedHeap {
 
-		@Getter @Setter @NonNull
-		private Double priority;
-		private Node currentNode;
-		private Node previousNode;
-		private Edge fromPreviousNode;
+		private double[] keys;
+		private int[] heap;
+		private int[] positions; // Position of each node in the heap, or -1
+		private int size;
 
 		/**
-		 * @param priority    The initial priority of this item.
-		 * @param currentNode The node this item encapsulates.
+		 * @param keys The keys of the nodes, by node index. The heap reads
+		 *             keys from this array, so it must be updated before
+		 *             calling {@link IndexedHeap#decrease(int)}.
 		 */
-		private DijkstraItem(Double priority, Node currentNode) {
-			if (priority == null || currentNode == null) {
-				throw new IllegalArgumentException("Contents of DijkstraItem cannot be null.");
-			}
-			this.priority = priority;
-			this.currentNode = currentNode;
-			this.previousNode = null;
-			this.fromPreviousNode = null;
+		private IndexedHeap(double[] keys) {
+			this.keys = keys;
+			this.heap = new int[keys.length];
+			this.positions = new int[keys.length];
+			Arrays.fill(positions, -1);
 		}
 
 		/**
-		 * Set previous node and edge.
+		 * Insert the given node, or restore the heap order after its key
+		 * was decreased.
 		 *
-		 * @param newNode   New previous node.
-		 * @param toNewNode New previous edge.
+		 * @param node The node whose key was set or decreased.
+		 */
+		private void decrease(int node) {
+			int position = positions[node];
+			if (position < 0) {
+				position = size++;
+			}
+
+			// Sift up
+			while (position > 0) {
+				int parent = (position - 1) / 2;
+				if (keys[heap[parent]] <= keys[node]) {
+					break;
+				}
+				place(heap[parent], position);
+				position = parent;
+			}
+			place(node, position);
+		}
+
+		/**
+		 * @return the node with the minimum key, which is removed.
+		 */
+		private int poll() {
+			int min = heap[0];
+			positions[min] = -1;
+			int last = heap[--size];
+			if (size > 0) {
+				// Sift down
+				int position = 0;
+				while (2 * position + 1 < size) {
+					int child = 2 * position + 1;
+					if (child + 1 < size && keys[heap[child + 1]] < keys[heap[child]]) {
+						child++;
+					}
+					if (keys[last] <= keys[heap[child]]) {
+						break;
+					}
+					place(heap[child], position);
+					position = child;
+				}
+				place(last, position);
+			}
+			return min;
+		}
+
+		/**
+		 * @return true iff the heap contains no nodes.
+		 */
+		private boolean isEmpty() {
+			return size == 0;
+		}
+
+		/**
+		 * @param node     The node to place.
+		 * @param position The position of the heap to place it in.
 		 */
-		public void setPrevious(Node newNode, Edge toNewNode) {
-			previousNode = newNode;
-			fromPreviousNode = toNewNode;
+		private void place(int node, int position) {
+			heap[position] = node;
+			positions[node] = position;
 		}
 
 	}
@@ -74,77 +125,119 @@ public final class Dijkstra {
 	public static Path execute(Graph graph, Node start, Node destination) {
 		validateDijkstraInput(graph, start, destination);
 
-		Set<Node> reachableFromStart = DFS.explore(graph, start, true);
-		if (!reachableFromStart.contains(destination)) {
-			// If there is no connecting path from start to destination
-			return null;
-		}
-
 		if (start == destination) {
 			// If the start and end are the same node
 			return new Path(start);
 		}
 
-		// Keep track of which item contains which node
-		Map<Node, DijkstraItem> nodeToItem = new HashMap<>();
-
-		Comparator<DijkstraItem> comparator = Comparator.comparingDouble(DijkstraItem::getPriority);
-		PriorityQueue<DijkstraItem> priorityQueue = new PriorityQueue<>(comparator);
-
-		// Populate the priority queue
-		DijkstraItem startItem = new DijkstraItem(0., start);
-		priorityQueue.add(startItem);
-		nodeToItem.put(start, startItem);
-		for (Node node : reachableFromStart) {
-			if (node != start) {
-				DijkstraItem nodeItem = new DijkstraItem(Double.POSITIVE_INFINITY, node);
-				priorityQueue.add(nodeItem);
-				nodeToItem.put(node, nodeItem);
-			}
-		}
+		// Per-node state, by node index
+		int numNodes = graph.getNumNodes();
+		double[] distances = new double[numNodes];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		Edge[] fromPrevious = new Edge[numNodes];
+		boolean[] settled = new boolean[numNodes];
+
+		int startIndex = graph.getNodeIndex(start);
+		int destinationIndex = graph.getNodeIndex(destination);
+		IndexedHeap heap = new IndexedHeap(distances);
+		distances[startIndex] = 0.;
+		heap.decrease(startIndex);
 
 		// Visit neighbors until we visit the destination node
-		while (!priorityQueue.isEmpty()) {
-			DijkstraItem currentItem = priorityQueue.poll();
-			Node currentNode = currentItem.currentNode;
+		while (!heap.isEmpty()) {
+			int current = heap.poll();
+			settled[current] = true;
 
 			// Terminate the search
-			if (currentNode == destination) {
+			if (current == destinationIndex) {
 				break;
 			}
 
 			// Calculate tentative distance for each neighbor
+			Node currentNode = graph.getNodeAt(current);
 			for (Node neighbor : graph.getAdjListOf(currentNode).getNeighbors(true)) {
 				Edge minEdge = GraphUtils.minWeightEdge(graph, currentNode, neighbor, true);
-				double minEdgeWeight = minEdge.getNumericWeight();
-
-				// Check if tentative priority is lower than existing priority
-				// for this neighbor. If so, set the priority to be the new lower one
-				DijkstraItem neighborItem = nodeToItem.get(neighbor);
-				double newPriority = currentItem.priority + minEdgeWeight;
-				if (newPriority < neighborItem.priority) {
-					neighborItem.setPriority(newPriority);
-					neighborItem.setPrevious(currentNode, minEdge);
-
-					// Re-add the item to update its priority
-					priorityQueue.remove(neighborItem);
-					priorityQueue.add(neighborItem);
+
+				// Check if the tentative distance is lower than the existing
+				// distance for this neighbor. If so, replace it
+				int neighborIndex = graph.getNodeIndex(neighbor);
+				double newDistance = distances[current] + minEdge.getNumericWeight();
+				if (!settled[neighborIndex] && newDistance < distances[neighborIndex]) {
+					distances[neighborIndex] = newDistance;
+					fromPrevious[neighborIndex] = minEdge;
+					heap.decrease(neighborIndex);
 				}
 			}
 		}
 
+		if (fromPrevious[destinationIndex] == null) {
+			// If there is no connecting path from start to destination
+			return null;
+		}
+
 		// Construct the shortest path
 		Path shortestPath = new Path(destination);
 		Node current = destination;
 		while (current != start) {
-			DijkstraItem currItem = nodeToItem.get(current);
-			shortestPath.prependNode(currItem.previousNode, currItem.fromPreviousNode);
-			current = currItem.previousNode;
+			Edge toCurrent = fromPrevious[graph.getNodeIndex(current)];
+			Node previous = toCurrent.getOtherEndpoint(current);
+			shortestPath.prependNode(previous, toCurrent);
+			current = previous;
 		}
 
 		return shortestPath;
 	}
 
+	/**
+	 * An implementation of Dijkstra's algorithm on an indexed graph, which
+	 * computes the length of a shortest path from the start node to every
+	 * node. Per-node state is kept in primitive arrays.
+	 *
+	 * @param graph The graph to search for paths in.
+	 * @param start The index of the start node.
+	 * @return the shortest path distance of each node from the start, by node
+	 *         index, or positive infinity for nodes which cannot be reached.
+	 * @throws IllegalArgumentException if an arc with a negative weight is
+	 *                                  reachable from the start.
+	 */
+	public static double[] distances(IndexedGraph graph, int start) {
+		int numNodes = graph.getNumNodes();
+		if (start < 0 || start >= numNodes) {
+			throw new IllegalArgumentException("Start node must belong to the provided graph.");
+		}
+
+		double[] distances = new double[numNodes];
+		Arrays.fill(distances, Double.POSITIVE_INFINITY);
+		boolean[] settled = new boolean[numNodes];
+
+		IndexedHeap heap = new IndexedHeap(distances);
+		distances[start] = 0.;
+		heap.decrease(start);
+
+		while (!heap.isEmpty()) {
+			int current = heap.poll();
+			settled[current] = true;
+
+			// Calculate tentative distance for each neighbor
+			for (int arc = graph.arcStart(current), end = graph.arcEnd(current) ; arc < end ; arc++) {
+				double weight = graph.arcWeight(arc);
+				if (weight < 0.) {
+					throw new IllegalArgumentException("Cannot use Dijkstra's algorithm on a graph with negative " +
+														   "weights. Use Bellman-Ford instead.");
+				}
+
+				int neighbor = graph.arcTarget(arc);
+				double newDistance = distances[current] + weight;
+				if (!settled[neighbor] && newDistance < distances[neighbor]) {
+					distances[neighbor] = newDistance;
+					heap.decrease(neighbor);
+				}
+			}
+		}
+
+		return distances;
+	}
+
 	/**
 	 * Helper function for validating the input of Dijkstra's algorithm.
 	 *
@@ -1,6 +1,7 @@
 package config;
 
 import java.awt.Color;
+import java.util.zip.Deflater;
 
 /**
  * A class for holding user preferences. Currently, these are hard-coded, but eventually
@@ -12,6 +13,25 @@ public final class Preferences {
 
 	public static final String LOG_FILE_PATH = "log.txt";
 
+	// Save new graphs in the binary format rather than the text format; files loaded in one format are saved in it
+	public static final boolean BINARY_FILE_FORMAT = true;
+
+	// Compress saved graphs, which is smaller but slower to load than the binary format
+	public static final boolean COMPRESSED_FILE_FORMAT = false;
+	public static final int COMPRESSION_LEVEL = Deflater.BEST_SPEED;
+
+	// Journal changes next to the graph file, and fold the journal into a checkpoint once it grows this large
+	public static final boolean JOURNAL_ENABLED = true;
+	public static final long JOURNAL_COMPACTION_SIZE = 1 << 22; // In bytes
+
+	// Add node panels to the editor as their region scrolls into view, and the rest in chunks
+	public static final int LAZY_LOADING_CELL_SIZE = 256; // In pixels
+	public static final int LAZY_LOADING_CHUNK_SIZE = 2000; // Node panels added per chunk
+	public static final int LAZY_LOADING_DELAY = 10; // In milliseconds between chunks
+
+	// Graphs with at least this many nodes are drawn by the editor without a panel component per node
+	public static final int LIGHTWEIGHT_NODE_THRESHOLD = 5000;
+
 	public static final Color SELECTION_COLOR = Color.BLUE;
 	public static final Color HIGHLIGHT_COLOR = Color.RED;
 	public static final Color EDGE_BASE_POINT_COLOR = new Color(202, 38, 255);
@@ -28,6 +48,32 @@ public final class Preferences {
 
 	public static final double PAN_SENSITIVITY = 1.0;
 
+	// The cell size of the grid used to find the edge closest to the cursor, in pixels
+	public static final int EDGE_GRID_CELL_SIZE = 64;
+
+	// The cell size of the grid used to find the node under the cursor when nodes are drawn by the editor
+	public static final int NODE_GRID_CELL_SIZE = 64;
+
+	// Level of detail; the sizes are on screen, in pixels
+	public static final int LOD_LABEL_MIN_RADIUS = 6; // Smaller nodes are drawn without their text
+	public static final int LOD_ARROW_MIN_LENGTH = 20; // Shorter edges are drawn without arrow tips
+	public static final int LOD_CURVE_MIN_LENGTH = 40; // Shorter edges are drawn as straight lines
+	public static final int LOD_NODE_MIN_RADIUS = 2; // Smaller nodes are drawn as density tiles
+	public static final int LOD_MAX_DRAWN_NODES = 20_000; // Beyond this many visible nodes, all are tiles
+	public static final int LOD_TILE_SIZE = 4;
+	public static final Color LOD_TILE_COLOR = new Color(64, 64, 64);
+
+	// A batch of more graph changes than this redraws the editor's cached layers in full
+	public static final int LAYER_MAX_REDRAWN_CHANGES = 64;
+
+	// How often the performance statistics overlay is refreshed, in milliseconds
+	public static final int STATS_REFRESH_DELAY = 500;
+
+	// The refresh rate assumed when the display's is unknown, in hertz; drags repaint at most this often
+	public static final int DEFAULT_REFRESH_RATE = 60;
+	public static final Color STATS_BACKGROUND_COLOR = new Color(0, 0, 0, 160);
+	public static final Color STATS_TEXT_COLOR = Color.WHITE;
+
 	public static final Color ACTION_COLOR1 = Color.ORANGE;
 	public static final Color ACTION_COLOR2 = Color.CYAN;
 
@@ -2,10 +2,14 @@ package context;
 
 import actions.ReversibleAction;
 import clipboard.Clipboard;
+import graph.components.Edge;
+import graph.components.Node;
 import graph.components.gb.GBComponent;
 import graph.components.gb.GBEdge;
 import graph.components.gb.GBGraph;
 import graph.components.gb.GBNode;
+import io.GraphFileFormat;
+import io.GraphJournal;
 import lombok.Getter;
 import lombok.Setter;
 import structures.EditorData;
@@ -14,8 +18,11 @@ import ui.Editor;
 import ui.GBFrame;
 import util.StructureUtils;
 
+import java.awt.*;
 import java.io.File;
 import java.util.*;
+import java.util.List;
+import java.util.stream.Collectors;
 
 /**
  * A collection of fields necessary to keep track of the program's state. Any time
@@ -50,6 +57,13 @@ public class GBContext {
 
 	@Getter @Setter
 	private File currentlyLoadedFile;
+	// The format of the currently loaded file, which saving it again keeps
+	@Getter @Setter
+	private GraphFileFormat fileFormat;
+
+	// The journal recording changes to the graph, if it is saved in a file
+	@Getter @Setter
+	private GraphJournal journal;
 
 	/**
 	 * @param graphConstraints The constraints on the graph this context manages.
@@ -117,12 +131,28 @@ public class GBContext {
 	}
 
 	/**
-	 * Remove the specified graph components.
+	 * Remove the specified graph components. Edges are removed before nodes,
+	 * and the editor is only updated once.
 	 *
 	 * @param components The collection of graph components to remove.
 	 */
 	public void removeAll(Collection<? extends GBComponent> components) {
-		components.forEach(this::remove);
+		List<GBNode> nodes = new ArrayList<>();
+		List<GBEdge> edges = new ArrayList<>();
+		for (GBComponent gc : components) {
+			if (gc instanceof GBNode) {
+				nodes.add((GBNode) gc);
+			} else if (gc instanceof GBEdge) {
+				edges.add((GBEdge) gc);
+			}
+		}
+
+		if (!edges.isEmpty()) {
+			removeEdges(edges);
+		}
+		if (!nodes.isEmpty()) {
+			removeNodes(nodes);
+		}
 	}
 
 	/**
@@ -137,19 +167,33 @@ public class GBContext {
 		// Add to the editor panel
 		if (gui != null) {
 			Editor editor = gui.getEditor();
-			editor.add(n.getPanel());
+			if (!editor.isLightweight()) {
+				editor.add(n.getPanel());
+			}
 			editor.repaint();
 			editor.revalidate();
 		}
 	}
 
 	/**
-	 * Add all the provided nodes to the graph.
+	 * Add all the provided nodes to the graph in one batch. The editor is
+	 * only repainted once.
 	 *
 	 * @param nodes The nodes to add.
 	 */
 	public void addNodes(Collection<? extends GBNode> nodes) {
-		nodes.forEach(this::addNode);
+		graph.addNodes(nodes.stream().map(GBNode::getNode).collect(Collectors.toList()));
+		nodes.forEach(n -> idMap.put(n.getId(), n));
+
+		// Add to the editor panel
+		if (gui != null) {
+			Editor editor = gui.getEditor();
+			if (!editor.isLightweight()) {
+				nodes.forEach(n -> editor.add(n.getPanel()));
+			}
+			editor.repaint();
+			editor.revalidate();
+		}
 	}
 
 	/**
@@ -161,28 +205,21 @@ public class GBContext {
 	public Map<UOPair<GBNode>, List<GBEdge>> removeNode(GBNode n) {
 		// Remove the node from the set of all nodes in this context
 		Map<UOPair<GBNode>, List<GBEdge>> removedEdges = StructureUtils.toGbEdges(graph.removeNode(n.getNode()));
+		this.updateEditorOnRemoval(Collections.singletonList(n), removedEdges);
 
-		if (gui != null) {
-			EditorData editorData = gui.getEditor().getData();
-
-			// If this node was the "base point" for an edge, reset the base point
-			if (editorData.getEdgeBasePoint() == n) {
-				editorData.clearEdgeBasePoint();
-			}
-
-			// Remove this node and removed edges from selections
-			editorData.removeSelection(n);
-			removedEdges.values().forEach(editorData::removeSelections);
-
-			// Update GBFrame appearance and button states
-			this.getGUI().getMainMenuBar().updateWithSelection();
+		return removedEdges;
+	}
 
-			// Revalidate the editor panel after removing the panel
-			Editor editor = gui.getEditor();
-			editor.remove(n.getPanel());
-			editor.repaint();
-			editor.revalidate();
-		}
+	/**
+	 * Removes all of the specified nodes from the graph.
+	 *
+	 * @param nodes The nodes to remove.
+	 * @return The map of edges that was removed as a result of the nodes' removal.
+	 */
+	public Map<UOPair<GBNode>, List<GBEdge>> removeNodes(Collection<? extends GBNode> nodes) {
+		List<Node> removed = nodes.stream().map(GBNode::getNode).collect(Collectors.toList());
+		Map<UOPair<GBNode>, List<GBEdge>> removedEdges = StructureUtils.toGbEdges(graph.removeNodes(removed));
+		this.updateEditorOnRemoval(nodes, removedEdges);
 
 		return removedEdges;
 	}
@@ -210,12 +247,13 @@ public class GBContext {
 	}
 
 	/**
-	 * Add all provided edges to the graph.
+	 * Add all provided edges to the graph in one batch.
 	 *
 	 * @param edges The edges to add.
 	 */
 	public void addEdges(Collection<? extends GBEdge> edges) {
-		edges.forEach(this::addEdge);
+		edges.forEach(e -> idMap.put(e.getId(), e));
+		graph.addEdges(edges.stream().map(GBEdge::getEdge).collect(Collectors.toList()));
 	}
 
 	/**
@@ -240,7 +278,11 @@ public class GBContext {
 	 * @param edges The edges to remove.
 	 */
 	public void removeEdges(Collection<? extends GBEdge> edges) {
-		edges.forEach(this::removeEdge);
+		graph.removeEdges(edges.stream().map(GBEdge::getEdge).collect(Collectors.toList()));
+
+		// Remove the edges from selections
+		gui.getEditor().getData().removeSelections(edges);
+		gui.getMainMenuBar().updateWithSelection();
 	}
 
 	/**
@@ -253,6 +295,7 @@ public class GBContext {
 	 */
 	public void pushReversibleAction(ReversibleAction action, boolean affectsSaveState, boolean redo) {
 		actionHistory.push(action);
+		this.journal(action);
 		if (affectsSaveState) {
 			updateSaveState();
 		}
@@ -270,11 +313,25 @@ public class GBContext {
 	 */
 	public void pushReversibleUndoAction(ReversibleAction action, boolean affectsSaveState) {
 		undoHistory.push(action);
+		this.journal(action);
 		if (affectsSaveState) {
 			updateSaveState();
 		}
 	}
 
+	/**
+	 * Record the changes made by an action which was just performed or
+	 * undone in the journal, if there is one.
+	 *
+	 * @param action The action.
+	 */
+	private void journal(ReversibleAction action) {
+		if (journal != null) {
+			action.journal(journal);
+			journal.commit();
+		}
+	}
+
 	/**
 	 * Updates the "saved" state of the current context.
 	 */
@@ -407,7 +464,56 @@ public class GBContext {
 	 * @return All edges in this context with those endpoints.
 	 */
 	public List<GBEdge> getEdgesBetweenNodes(UOPair<GBNode> nodes) {
-		return this.getGbEdges().get(nodes);
+		List<Edge> edges = graph.getEdges().get(nodes.map(GBNode::getNode));
+		return edges == null ? null : edges.stream().map(Edge::getGbEdge).collect(Collectors.toList());
+	}
+
+	// Private methods
+
+	/**
+	 * Clear any editor state referring to removed nodes and edges, and
+	 * remove the nodes' panels from the editor.
+	 *
+	 * @param nodes        The nodes which were removed.
+	 * @param removedEdges The edges which were removed along with the nodes.
+	 */
+	private void updateEditorOnRemoval(Collection<? extends GBNode> nodes,
+									   Map<UOPair<GBNode>, List<GBEdge>> removedEdges) {
+		if (gui == null) {
+			return;
+		}
+
+		EditorData editorData = gui.getEditor().getData();
+
+		// If a removed node was the "base point" for an edge, reset the base point
+		if (editorData.getEdgeBasePoint() != null && nodes.contains(editorData.getEdgeBasePoint())) {
+			editorData.clearEdgeBasePoint();
+		}
+
+		// Remove the nodes and removed edges from selections
+		editorData.removeSelections(nodes);
+		removedEdges.values().forEach(editorData::removeSelections);
+
+		// Update GBFrame appearance and button states
+		this.getGUI().getMainMenuBar().updateWithSelection();
+
+		// Remove the panels in one sweep from the back, rather than searching
+		// the editor's children once per panel
+		Editor editor = gui.getEditor();
+		if (editor.isLightweight()) {
+			nodes.forEach(editorData.getNodeGrid()::remove);
+		} else {
+			Set<Component> panels = nodes.stream().map(GBNode::getPanel).collect(Collectors.toSet());
+			for (int i = editor.getComponentCount() - 1 ; i >= 0 ; i--) {
+				if (panels.contains(editor.getComponent(i))) {
+					editor.remove(i);
+				}
+			}
+		}
+
+		// Revalidate the editor panel after removing the panels
+		editor.repaint();
+		editor.revalidate();
 	}
 
 }
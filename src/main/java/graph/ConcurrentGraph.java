@@ -0,0 +1,353 @@
+package graph;
+
+import graph.components.Edge;
+import graph.components.GraphComponent;
+import graph.components.Node;
+import graph.components.WeightedEdge;
+import structures.UOPair;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A graph which supports adding nodes and edges from several threads at once.
+ * The top-level collections are concurrent, and each node is guarded by one
+ * of a fixed number of striped locks. Adding or removing an edge holds the
+ * locks of both of its endpoints, so edges between unrelated nodes are
+ * inserted in parallel while the constraints of the graph (such as
+ * {@link GraphConstraint#SIMPLE}) are still checked atomically.
+ *
+ * Removing a node touches the data of all of its neighbors, so it (like
+ * bulk edge removal) excludes every other mutation while it runs. Reading
+ * the graph while it is being mutated is not supported; read it once all
+ * producer threads are done.
+ *
+ * Each thread opens its own batches of changes. The changes made by every
+ * thread are recorded in one queue, which is drained and delivered to
+ * listeners whenever a thread ends its outermost batch, so a batch may be
+ * delivered in pieces if other threads are changing the graph at the same
+ * time. Listeners are called without any of the graph's locks held,
+ * possibly from several threads at once.
+ *
+ * @author Brian Yao
+ */
+public class ConcurrentGraph extends Graph {
+
+	private static final int DEFAULT_STRIPES = 64;
+
+	private ReentrantLock[] stripes;
+
+	// Mutations which only lock stripes share this lock, while node removal
+	// holds it exclusively
+	private ReentrantReadWriteLock structureLock;
+
+	// Guard the dense indices of nodes and edges, which are shared by all nodes
+	// and edges, for the moment it takes to append to or compact them
+	private ReentrantLock nodeIndexLock;
+	private ReentrantLock edgeIndexLock;
+
+	// The batch depth of each thread, in a mutable cell so it is not boxed on every change
+	private ThreadLocal<int[]> batchDepth;
+	private Queue<GraphEvent> pendingEvents;
+
+	/**
+	 * Create an empty concurrent graph with the provided constraints and the
+	 * default number of lock stripes.
+	 *
+	 * @param constraints The graph's constraints.
+	 * @see GraphConstraint
+	 */
+	public ConcurrentGraph(int constraints) {
+		this(constraints, DEFAULT_STRIPES);
+	}
+
+	/**
+	 * Create an empty concurrent graph with the provided constraints.
+	 *
+	 * @param constraints The graph's constraints.
+	 * @param numStripes  The number of node locks; rounded up to a power of
+	 *                    two. More stripes mean less contention between
+	 *                    threads inserting unrelated edges.
+	 * @see GraphConstraint
+	 */
+	public ConcurrentGraph(int constraints, int numStripes) {
+		super(constraints, ConcurrentHashMap.newKeySet(), new ConcurrentHashMap<>(), new ConcurrentHashMap<>());
+		if (numStripes < 1) {
+			throw new IllegalArgumentException("A concurrent graph needs at least one lock stripe.");
+		}
+
+		int size = Integer.highestOneBit(numStripes);
+		stripes = new ReentrantLock[size < numStripes ? size << 1 : size];
+		for (int i = 0 ; i < stripes.length ; i++) {
+			stripes[i] = new ReentrantLock();
+		}
+		structureLock = new ReentrantReadWriteLock();
+		nodeIndexLock = new ReentrantLock();
+		edgeIndexLock = new ReentrantLock();
+		batchDepth = ThreadLocal.withInitial(() -> new int[1]);
+		pendingEvents = new ConcurrentLinkedQueue<>();
+	}
+
+	@Override
+	public void addNode(Node n) {
+		int[] depth = this.openBatch();
+		try {
+			ReentrantLock stripe = stripeOf(n);
+			structureLock.readLock().lock();
+			stripe.lock();
+			try {
+				super.addNode(n);
+			} finally {
+				stripe.unlock();
+				structureLock.readLock().unlock();
+			}
+		} finally {
+			this.closeBatch(depth);
+		}
+	}
+
+	@Override
+	public Map<UOPair<Node>, List<Edge>> removeNode(Node n) {
+		int[] depth = this.openBatch();
+		try {
+			structureLock.writeLock().lock();
+			try {
+				return super.removeNode(n);
+			} finally {
+				structureLock.writeLock().unlock();
+			}
+		} finally {
+			this.closeBatch(depth);
+		}
+	}
+
+	@Override
+	public boolean addEdge(Edge e) {
+		int[] depth = this.openBatch();
+		try {
+			ReentrantLock[] locks = lockEndpoints(e);
+			try {
+				return super.addEdge(e);
+			} finally {
+				unlockEndpoints(locks);
+			}
+		} finally {
+			this.closeBatch(depth);
+		}
+	}
+
+	@Override
+	public boolean addEdge(Edge e, int index) {
+		int[] depth = this.openBatch();
+		try {
+			ReentrantLock[] locks = lockEndpoints(e);
+			try {
+				return super.addEdge(e, index);
+			} finally {
+				unlockEndpoints(locks);
+			}
+		} finally {
+			this.closeBatch(depth);
+		}
+	}
+
+	@Override
+	public int removeEdge(Edge e) {
+		int[] depth = this.openBatch();
+		try {
+			ReentrantLock[] locks = lockEndpoints(e);
+			try {
+				return super.removeEdge(e);
+			} finally {
+				unlockEndpoints(locks);
+			}
+		} finally {
+			this.closeBatch(depth);
+		}
+	}
+
+	@Override
+	public void removeEdges(Iterable<Edge> edges) {
+		int[] depth = this.openBatch();
+		try {
+			structureLock.writeLock().lock();
+			try {
+				super.removeEdges(edges);
+			} finally {
+				structureLock.writeLock().unlock();
+			}
+		} finally {
+			this.closeBatch(depth);
+		}
+	}
+
+	@Override
+	public void setEdgeWeight(WeightedEdge e, double weight) {
+		int[] depth = this.openBatch();
+		try {
+			ReentrantLock[] locks = lockEndpoints(e);
+			try {
+				super.setEdgeWeight(e, weight);
+			} finally {
+				unlockEndpoints(locks);
+			}
+		} finally {
+			this.closeBatch(depth);
+		}
+	}
+
+	// Every mutation opens a batch before taking any lock and ends it after
+	// releasing them all, so events are only delivered outside of the locks.
+
+	@Override
+	public void beginBatch() {
+		this.openBatch();
+	}
+
+	@Override
+	public void endBatch() {
+		this.closeBatch(batchDepth.get());
+	}
+
+	@Override
+	protected void fireEvent(GraphEvent.Type type, GraphComponent component, double oldWeight) {
+		if (this.hasListeners()) {
+			pendingEvents.add(new GraphEvent(type, component, oldWeight));
+		}
+	}
+
+	@Override
+	protected void indexNode(Node n) {
+		nodeIndexLock.lock();
+		try {
+			super.indexNode(n);
+		} finally {
+			nodeIndexLock.unlock();
+		}
+	}
+
+	@Override
+	protected void unindexNode(Node n) {
+		// Nodes are only removed while the structure lock is held exclusively,
+		// so no node is being indexed at the same time
+		super.unindexNode(n);
+	}
+
+	@Override
+	protected void indexEdge(Edge e) {
+		edgeIndexLock.lock();
+		try {
+			super.indexEdge(e);
+		} finally {
+			edgeIndexLock.unlock();
+		}
+	}
+
+	@Override
+	protected void unindexEdge(Edge e) {
+		edgeIndexLock.lock();
+		try {
+			super.unindexEdge(e);
+		} finally {
+			edgeIndexLock.unlock();
+		}
+	}
+
+	// Private methods
+
+	/**
+	 * Begin a batch of changes on the current thread.
+	 *
+	 * @return the current thread's batch depth, to pass back to
+	 *         {@link ConcurrentGraph#closeBatch(int[])}.
+	 */
+	private int[] openBatch() {
+		int[] depth = batchDepth.get();
+		depth[0]++;
+		return depth;
+	}
+
+	/**
+	 * End a batch of changes on the current thread. If it was the thread's
+	 * outermost batch, deliver every queued change to the listeners.
+	 *
+	 * @param depth The current thread's batch depth.
+	 */
+	private void closeBatch(int[] depth) {
+		if (depth[0] == 0) {
+			throw new IllegalStateException("Cannot end a batch of changes which was never started.");
+		}
+
+		if (--depth[0] == 0 && !pendingEvents.isEmpty()) {
+			List<GraphEvent> events = new ArrayList<>();
+			GraphEvent event;
+			while ((event = pendingEvents.poll()) != null) {
+				events.add(event);
+			}
+			if (!events.isEmpty()) {
+				this.deliverEvents(events);
+			}
+		}
+	}
+
+	/**
+	 * @param n The node to get the lock of.
+	 * @return the lock stripe guarding the given node.
+	 */
+	private ReentrantLock stripeOf(Node n) {
+		return stripes[stripeIndex(n)];
+	}
+
+	/**
+	 * @param n The node to get the lock index of.
+	 * @return the index of the lock stripe guarding the given node.
+	 */
+	private int stripeIndex(Node n) {
+		int hash = System.identityHashCode(n);
+		return (hash ^ (hash >>> 16)) & (stripes.length - 1);
+	}
+
+	/**
+	 * Acquire the shared structure lock and the stripes of both endpoints of
+	 * the given edge. Stripes are always acquired in increasing index order,
+	 * so two threads locking the same pair of stripes cannot deadlock.
+	 *
+	 * @param e The edge whose endpoints to lock.
+	 * @return the stripes which were locked.
+	 */
+	private ReentrantLock[] lockEndpoints(Edge e) {
+		int first = stripeIndex(e.getFirstEnd());
+		int second = stripeIndex(e.getSecondEnd());
+		ReentrantLock[] locks;
+		if (first == second) {
+			locks = new ReentrantLock[] {stripes[first]};
+		} else {
+			locks = new ReentrantLock[] {stripes[Math.min(first, second)], stripes[Math.max(first, second)]};
+		}
+
+		structureLock.readLock().lock();
+		for (ReentrantLock lock : locks) {
+			lock.lock();
+		}
+		return locks;
+	}
+
+	/**
+	 * Release the locks acquired by {@link ConcurrentGraph#lockEndpoints(Edge)}.
+	 *
+	 * @param locks The stripes which were locked.
+	 */
+	private void unlockEndpoints(ReentrantLock[] locks) {
+		for (int i = locks.length - 1 ; i >= 0 ; i--) {
+			locks[i].unlock();
+		}
+		structureLock.readLock().unlock();
+	}
+
+}
@@ -1,7 +1,9 @@
 package graph;
 
 import graph.components.Edge;
+import graph.components.GraphComponent;
 import graph.components.Node;
+import graph.components.WeightedEdge;
 import lombok.Getter;
 import structures.AdjListData;
 import structures.UOPair;
@@ -9,6 +11,7 @@ import util.GraphUtils;
 import util.StructureUtils;
 
 import java.util.*;
+import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -39,24 +42,35 @@ public class Graph {
 	@Getter
 	private Map<Node, AdjListData> adjList;
 
+	// Nodes and edges by their dense index in this graph. A node's index is
+	// kept in its adjacency list data; an edge's index is kept in edgeIndices.
+	private List<Node> nodeList;
+	private List<Edge> edgeList;
+	private Map<Edge, Integer> edgeIndices;
+
+	// Listeners to changes of this graph, and the events of the current batch
+	// which have not been delivered to them yet
+	private List<GraphListener> listeners;
+	private List<GraphEvent> pendingEvents;
+	private int batchDepth;
+
 	/**
-	 * Copy constructor.
+	 * Copy constructor. Each node of the copy has the same index as the node
+	 * it was copied from.
 	 *
 	 * @param graph The graph to create a copy of.
 	 */
 	public Graph(Graph graph) {
-		this.constraints = graph.constraints;
+		this(graph.constraints);
 
 		// Copy nodes
-		Map<Node, Node> oldToNew = graph.getNodes().stream()
-			.collect(Collectors.toMap(Function.identity(), $ -> new Node()));
-		this.nodes = new HashSet<>(oldToNew.values());
-
-		// Initialize adjacency list
-		this.adjList = new HashMap<>();
-		this.nodes.forEach(node -> adjList.put(node, new AdjListData(node)));
+		Map<Node, Node> oldToNew = new HashMap<>();
+		for (Node node : graph.nodeList) {
+			Node copy = new Node();
+			oldToNew.put(node, copy);
+			this.addNode(copy);
+		}
 
-		this.edges = new HashMap<>();
 		for (Map.Entry<UOPair<Node>, List<Edge>> oldEntry : graph.getEdges().entrySet()) {
 			// Copy edges
 			Node newNode1 = oldToNew.get(oldEntry.getKey().getFirst());
@@ -69,7 +83,10 @@ public class Graph {
 			this.edges.put(new UOPair<>(newNode1, newNode2), newEdgeList);
 
 			// Update adjacency list
-			newEdgeList.forEach(this::addEdgeToAdjList);
+			newEdgeList.forEach(e -> {
+				this.addEdgeToAdjList(e);
+				this.indexEdge(e);
+			});
 		}
 	}
 
@@ -80,22 +97,31 @@ public class Graph {
 	 * @see GraphConstraint
 	 */
 	public Graph(int constraints) {
-		this(constraints, new HashSet<>(), new HashMap<>());
+		this(constraints, new HashSet<>(), new HashMap<>(), new HashMap<>());
 	}
 
 	/**
-	 * Create a graph with the given nodes and edges.
+	 * Create an empty graph backed by the given (empty) collections. This
+	 * allows subclasses to choose the implementations of the underlying
+	 * collections.
 	 *
 	 * @param constraints The graph's constraints.
 	 * @param nodes       The set of nodes belonging to this graph.
 	 * @param edges       The edges belonging to this graph.
+	 * @param adjList     The adjacency list data of the nodes in this graph.
 	 * @see GraphConstraint
 	 */
-	private Graph(int constraints, Set<Node> nodes, Map<UOPair<Node>, List<Edge>> edges) {
+	protected Graph(int constraints, Set<Node> nodes, Map<UOPair<Node>, List<Edge>> edges,
+					Map<Node, AdjListData> adjList) {
 		this.constraints = constraints;
 		this.nodes = nodes;
 		this.edges = edges;
-		this.adjList = new HashMap<>();
+		this.adjList = adjList;
+		this.nodeList = new ArrayList<>();
+		this.edgeList = new ArrayList<>();
+		this.edgeIndices = new HashMap<>();
+		this.listeners = new CopyOnWriteArrayList<>();
+		this.pendingEvents = new ArrayList<>();
 	}
 
 	/**
@@ -172,18 +198,87 @@ public class Graph {
 		return adjList.get(n);
 	}
 
+	/**
+	 * @return the number of nodes in this graph.
+	 */
+	public int getNumNodes() {
+		return nodeList.size();
+	}
+
+	/**
+	 * @return the number of edges in this graph.
+	 */
+	public int getNumEdges() {
+		return edgeList.size();
+	}
+
+	/**
+	 * Get the index of a node in this graph. The nodes of a graph are indexed
+	 * from 0 to (number of nodes - 1), so per-node state can be kept in
+	 * arrays. When a node is removed, the node with the last index takes over
+	 * its index; all other indices are unchanged.
+	 *
+	 * @param n The node to get the index of.
+	 * @return the index of the node in this graph.
+	 */
+	public int getNodeIndex(Node n) {
+		AdjListData data = adjList.get(n);
+		if (data == null) {
+			throw new IllegalArgumentException("Cannot get the index of a node that is not in the graph.");
+		}
+		return data.getIndex();
+	}
+
+	/**
+	 * @param index The index of a node.
+	 * @return the node with the given index in this graph.
+	 */
+	public Node getNodeAt(int index) {
+		return nodeList.get(index);
+	}
+
+	/**
+	 * Get the index of an edge in this graph. Edges are indexed from 0 to
+	 * (number of edges - 1), and are compacted on removal in the same way as
+	 * {@link Graph#getNodeIndex(Node) nodes}.
+	 *
+	 * @param e The edge to get the index of.
+	 * @return the index of the edge in this graph.
+	 */
+	public int getEdgeIndex(Edge e) {
+		Integer index = edgeIndices.get(e);
+		if (index == null) {
+			throw new IllegalArgumentException("Cannot get the index of an edge that is not in the graph.");
+		}
+		return index;
+	}
+
+	/**
+	 * @param index The index of an edge.
+	 * @return the edge with the given index in this graph.
+	 */
+	public Edge getEdgeAt(int index) {
+		return edgeList.get(index);
+	}
+
 	/**
 	 * Add the provided node to this graph.
 	 *
 	 * @param n The node to add.
 	 */
 	public void addNode(Node n) {
-		if (this.containsNode(n)) {
-			throw new IllegalArgumentException("Cannot add a node to this graph more than once.");
-		}
+		this.beginBatch();
+		try {
+			if (this.containsNode(n)) {
+				throw new IllegalArgumentException("Cannot add a node to this graph more than once.");
+			}
 
-		nodes.add(n);
-		adjList.put(n, new AdjListData(n));
+			nodes.add(n);
+			adjList.put(n, new AdjListData(n));
+			this.indexNode(n);
+		} finally {
+			this.endBatch();
+		}
 	}
 
 	/**
@@ -192,7 +287,12 @@ public class Graph {
 	 * @param nodes The nodes to add.
 	 */
 	public void addNodes(Iterable<Node> nodes) {
-		nodes.forEach(this::addNode);
+		this.beginBatch();
+		try {
+			nodes.forEach(this::addNode);
+		} finally {
+			this.endBatch();
+		}
 	}
 
 	/**
@@ -201,7 +301,12 @@ public class Graph {
 	 * @param nodes The nodes to add.
 	 */
 	public void addNodes(Node... nodes) {
-		Arrays.stream(nodes).forEach(this::addNode);
+		this.beginBatch();
+		try {
+			Arrays.stream(nodes).forEach(this::addNode);
+		} finally {
+			this.endBatch();
+		}
 	}
 
 	/**
@@ -212,28 +317,55 @@ public class Graph {
 	 * @return The edges removed as a result of the node's removal.
 	 */
 	public Map<UOPair<Node>, List<Edge>> removeNode(Node n) {
-		if (!this.containsNode(n)) {
-			throw new IllegalArgumentException("Cannot remove a node that is not in the graph.");
-		}
-
-		Map<UOPair<Node>, List<Edge>> removedEdgeMap = new HashMap<>();
-		for (Node neighbor : adjList.get(n).getNeighbors(false)) {
-			UOPair<Node> key = new UOPair<>(neighbor, n);
+		this.beginBatch();
+		try {
+			if (!this.containsNode(n)) {
+				throw new IllegalArgumentException("Cannot remove a node that is not in the graph.");
+			}
 
-			// Remove edges connected to the deleted node
-			if (edges.get(key) != null) {
+			// Remove edges connected to the deleted node. The node's own data is
+			// discarded below, so only its neighbors' data needs updating.
+			AdjListData data = adjList.get(n);
+			Map<UOPair<Node>, List<Edge>> removedEdgeMap = new HashMap<>();
+			this.removeIncidentEdges(n, data.getUndirectedEdges(), removedEdgeMap);
+			this.removeIncidentEdges(n, data.getOutgoingDirectedEdges(), removedEdgeMap);
+			this.removeIncidentEdges(n, data.getIncomingDirectedEdges(), removedEdgeMap);
+			if (!data.getSelfEdges().isEmpty()) {
+				UOPair<Node> key = data.getSelfEdges().iterator().next().getUoEndpoints();
 				List<Edge> removedEdgeList = edges.remove(key);
-				removedEdgeList.forEach(this::removeEdgeFromAdjList);
-
+				removedEdgeList.forEach(this::unindexEdge);
 				removedEdgeMap.put(key, removedEdgeList);
 			}
-		}
 
-		// Remove node
-		nodes.remove(n);
-		adjList.remove(n);
+			// Remove node
+			this.unindexNode(n);
+			nodes.remove(n);
+			adjList.remove(n);
 
-		return removedEdgeMap;
+			return removedEdgeMap;
+		} finally {
+			this.endBatch();
+		}
+	}
+
+	/**
+	 * Remove all of the specified nodes from the graph, along with any edges
+	 * incident to them.
+	 *
+	 * @param nodes The nodes to remove.
+	 * @return The edges removed as a result of the nodes' removal.
+	 */
+	public Map<UOPair<Node>, List<Edge>> removeNodes(Iterable<Node> nodes) {
+		this.beginBatch();
+		try {
+			Map<UOPair<Node>, List<Edge>> removedEdgeMap = new HashMap<>();
+			for (Node n : nodes) {
+				removedEdgeMap.putAll(this.removeNode(n));
+			}
+			return removedEdgeMap;
+		} finally {
+			this.endBatch();
+		}
 	}
 
 	/**
@@ -263,40 +395,46 @@ public class Graph {
 	 *         already been added.
 	 */
 	public boolean addEdge(Edge e, int index) {
-		if (this.containsEdge(e)) {
-			throw new IllegalArgumentException("Cannot add an edge to this graph more than once.");
-		} else if (!this.containsNode(e.getFirstEnd()) || !this.containsNode(e.getSecondEnd())) {
-			throw new IllegalArgumentException("Cannot add an edge whose endpoints are not in the graph.");
-		}
+		this.beginBatch();
+		try {
+			if (this.containsEdge(e)) {
+				throw new IllegalArgumentException("Cannot add an edge to this graph more than once.");
+			} else if (!this.containsNode(e.getFirstEnd()) || !this.containsNode(e.getSecondEnd())) {
+				throw new IllegalArgumentException("Cannot add an edge whose endpoints are not in the graph.");
+			}
 
-		UOPair<Node> key = e.getUoEndpoints();
+			UOPair<Node> key = e.getUoEndpoints();
 
-		// Check if the provided index is valid
-		int maxIndex = edges.get(key) == null ? 0 : edges.get(key).size();
-		if (index < 0 || index > maxIndex) {
-			throw new IndexOutOfBoundsException("Index out of bounds when inserting edge: " + index +
-													" ; it should be between 0 and " + maxIndex + ", inclusive.");
-		}
+			// Check if the provided index is valid
+			int maxIndex = edges.get(key) == null ? 0 : edges.get(key).size();
+			if (index < 0 || index > maxIndex) {
+				throw new IndexOutOfBoundsException("Index out of bounds when inserting edge: " + index +
+														" ; it should be between 0 and " + maxIndex + ", inclusive.");
+			}
 
-		if (this.hasConstraint(GraphConstraint.SIMPLE)) {
-			if (edges.get(key) == null && !e.isSelfEdge()) {
-				edges.put(key, Collections.singletonList(e));
-			} else {
-				// Simple graph restriction violated
-				throw new IllegalArgumentException("Cannot add edge if the graph is to remain simple.");
+			if (this.hasConstraint(GraphConstraint.SIMPLE)) {
+				if (edges.get(key) == null && !e.isSelfEdge()) {
+					edges.put(key, Collections.singletonList(e));
+				} else {
+					// Simple graph restriction violated
+					throw new IllegalArgumentException("Cannot add edge if the graph is to remain simple.");
+				}
 			}
-		}
 
-		if (this.hasConstraint(GraphConstraint.MULTIGRAPH)) {
-			// Multigraph-specific procedure
-			edges.computeIfAbsent(key, $ -> new ArrayList<>());
-			edges.get(key).add(index, e);
-		}
+			if (this.hasConstraint(GraphConstraint.MULTIGRAPH)) {
+				// Multigraph-specific procedure
+				edges.computeIfAbsent(key, $ -> new ArrayList<>());
+				edges.get(key).add(index, e);
+			}
 
-		// Add this edge to its endpoints' data
-		this.addEdgeToAdjList(e);
+			// Add this edge to its endpoints' data
+			this.addEdgeToAdjList(e);
+			this.indexEdge(e);
 
-		return true;
+			return true;
+		} finally {
+			this.endBatch();
+		}
 	}
 
 	/**
@@ -306,11 +444,16 @@ public class Graph {
 	 * @return true iff all edges were successfully added.
 	 */
 	public boolean addEdges(Iterable<Edge> edges) {
-		boolean allAdded = true;
-		for (Edge edge : edges) {
-			allAdded = allAdded && this.addEdge(edge);
+		this.beginBatch();
+		try {
+			boolean allAdded = true;
+			for (Edge edge : edges) {
+				allAdded = allAdded && this.addEdge(edge);
+			}
+			return allAdded;
+		} finally {
+			this.endBatch();
 		}
-		return allAdded;
 	}
 
 	/**
@@ -320,11 +463,16 @@ public class Graph {
 	 * @return true iff all edges were successfully added.
 	 */
 	public boolean addEdges(Edge... edges) {
-		boolean allAdded = true;
-		for (Edge edge : edges) {
-			allAdded = allAdded && this.addEdge(edge);
+		this.beginBatch();
+		try {
+			boolean allAdded = true;
+			for (Edge edge : edges) {
+				allAdded = allAdded && this.addEdge(edge);
+			}
+			return allAdded;
+		} finally {
+			this.endBatch();
 		}
-		return allAdded;
 	}
 
 	/**
@@ -336,26 +484,135 @@ public class Graph {
 	 * graphs.
 	 */
 	public int removeEdge(Edge e) {
-		// Remove this edge from its endpoints' data
-		this.removeEdgeFromAdjList(e);
+		this.beginBatch();
+		try {
+			UOPair<Node> key = e.getUoEndpoints();
+			List<Edge> pairEdges = edges.get(key);
+			int removedIndex = pairEdges == null ? -1 : pairEdges.indexOf(e);
+			if (removedIndex < 0) {
+				// The given edge isn't in this graph
+				throw new IllegalArgumentException("Cannot remove an edge that is not in the graph.");
+			}
 
-		UOPair<Node> key = e.getUoEndpoints();
-		List<Edge> pairEdges = edges.get(key);
-
-		// If the edge e is in the graph
-		if (pairEdges.size() == 1) {
-			// If there is only one edge to remove (includes simple graph case)
-			edges.remove(key);
-			return 0;
-		} else if (this.hasConstraint(GraphConstraint.MULTIGRAPH)) {
-			// Perform multigraph procedures
-			int removedIndex = pairEdges.indexOf(e);
-			pairEdges.remove(removedIndex);
+			// Remove this edge from its endpoints' data
+			this.removeEdgeFromAdjList(e);
+			this.unindexEdge(e);
+
+			if (pairEdges.size() == 1) {
+				// If there is only one edge to remove (includes simple graph case)
+				edges.remove(key);
+			} else {
+				pairEdges.remove(removedIndex);
+			}
 			return removedIndex;
+		} finally {
+			this.endBatch();
+		}
+	}
+
+	/**
+	 * Remove all of the specified edges from this graph. Edges sharing the
+	 * same endpoints are removed together, so removing many parallel edges
+	 * takes time linear in the number of edges between those endpoints.
+	 *
+	 * @param edges The edges to remove.
+	 */
+	public void removeEdges(Iterable<Edge> edges) {
+		this.beginBatch();
+		try {
+			Map<UOPair<Node>, Set<Edge>> byPair = new HashMap<>();
+			for (Edge e : edges) {
+				byPair.computeIfAbsent(e.getUoEndpoints(), $ -> new HashSet<>()).add(e);
+			}
+
+			// Make sure every edge is in the graph before removing any of them
+			byPair.forEach((key, removed) -> {
+				List<Edge> pairEdges = this.edges.get(key);
+				if (pairEdges == null || pairEdges.stream().filter(removed::contains).count() != removed.size()) {
+					throw new IllegalArgumentException("Cannot remove an edge that is not in the graph.");
+				}
+			});
+
+			byPair.forEach((key, removed) -> {
+				List<Edge> pairEdges = this.edges.get(key);
+				if (pairEdges.size() == removed.size()) {
+					this.edges.remove(key);
+				} else {
+					pairEdges.removeIf(removed::contains);
+				}
+				removed.forEach(e -> {
+					this.removeEdgeFromAdjList(e);
+					this.unindexEdge(e);
+				});
+			});
+		} finally {
+			this.endBatch();
+		}
+	}
+
+	/**
+	 * Change the weight of an edge in this graph. Weights should be changed
+	 * through this method, rather than on the edge itself, so that listeners
+	 * are notified of the change.
+	 *
+	 * @param e      The edge whose weight to change.
+	 * @param weight The new weight.
+	 */
+	public void setEdgeWeight(WeightedEdge e, double weight) {
+		if (!this.containsEdge(e)) {
+			throw new IllegalArgumentException("Cannot change the weight of an edge that is not in the graph.");
 		}
 
-		// The given edge isn't in this graph
-		throw new IllegalArgumentException("Cannot remove an edge that is not in the graph.");
+		this.beginBatch();
+		try {
+			double oldWeight = e.getWeight();
+			e.setWeight(weight);
+			this.fireEvent(GraphEvent.Type.WEIGHT_CHANGED, e, oldWeight);
+		} finally {
+			this.endBatch();
+		}
+	}
+
+	/**
+	 * Register a listener to be notified of changes to this graph.
+	 *
+	 * @param listener The listener to add.
+	 */
+	public void addGraphListener(GraphListener listener) {
+		listeners.add(listener);
+	}
+
+	/**
+	 * @param listener The listener to stop notifying.
+	 */
+	public void removeGraphListener(GraphListener listener) {
+		listeners.remove(listener);
+	}
+
+	/**
+	 * Start a batch of changes. Until the matching call to
+	 * {@link Graph#endBatch()}, changes to this graph are collected rather
+	 * than delivered to listeners, and are then delivered all at once.
+	 * Batches may be nested; events are delivered when the outermost batch
+	 * ends.
+	 */
+	public void beginBatch() {
+		batchDepth++;
+	}
+
+	/**
+	 * End a batch of changes started by {@link Graph#beginBatch()}.
+	 */
+	public void endBatch() {
+		if (batchDepth == 0) {
+			throw new IllegalStateException("Cannot end a batch of changes which was never started.");
+		}
+
+		if (--batchDepth == 0 && !pendingEvents.isEmpty()) {
+			List<GraphEvent> events = pendingEvents;
+			pendingEvents = new ArrayList<>();
+			this.deliverEvents(events);
+		}
 	}
 
 	/**
@@ -369,16 +626,17 @@ public class Graph {
 	 */
 	public Graph inducedSubgraph(Collection<Node> nodes) {
 		Set<Node> subsetNodes = new HashSet<>(nodes);
-		Map<UOPair<Node>, List<Edge>> subsetEdges = new HashMap<>();
+		Graph subgraph = new Graph(constraints);
+		subgraph.addNodes(subsetNodes);
 
-		// Add edges included in subgraph
+		// Add edges included in subgraph, keeping their order
 		edges.forEach((pair, edgeList) -> {
-			if (nodes.contains(pair.getFirst()) && nodes.contains(pair.getSecond())) {
-				subsetEdges.put(pair, edgeList);
+			if (subsetNodes.contains(pair.getFirst()) && subsetNodes.contains(pair.getSecond())) {
+				subgraph.addEdges(edgeList);
 			}
 		});
 
-		return new Graph(constraints, subsetNodes, subsetEdges);
+		return subgraph;
 	}
 
 	@Override
@@ -396,6 +654,93 @@ public class Graph {
 		return nodes.toString() + '\n' + this.getEdgeSet().toString();
 	}
 
+	// Index bookkeeping. These are only called while the affected node or
+	// edge is being added to or removed from this graph's other collections,
+	// inside a batch, and record the corresponding event.
+
+	/**
+	 * Give the newly added node the next node index.
+	 *
+	 * @param n The node to index.
+	 */
+	protected void indexNode(Node n) {
+		adjList.get(n).setIndex(nodeList.size());
+		nodeList.add(n);
+		this.fireEvent(GraphEvent.Type.NODE_ADDED, n, 0.);
+	}
+
+	/**
+	 * Release the index of a node being removed, moving the last node into it.
+	 *
+	 * @param n The node to unindex.
+	 */
+	protected void unindexNode(Node n) {
+		int index = adjList.get(n).getIndex();
+		Node last = nodeList.remove(nodeList.size() - 1);
+		if (last != n) {
+			nodeList.set(index, last);
+			adjList.get(last).setIndex(index);
+		}
+		this.fireEvent(GraphEvent.Type.NODE_REMOVED, n, 0.);
+	}
+
+	/**
+	 * Give the newly added edge the next edge index.
+	 *
+	 * @param e The edge to index.
+	 */
+	protected void indexEdge(Edge e) {
+		edgeIndices.put(e, edgeList.size());
+		edgeList.add(e);
+		this.fireEvent(GraphEvent.Type.EDGE_ADDED, e, 0.);
+	}
+
+	/**
+	 * Release the index of an edge being removed, moving the last edge into it.
+	 *
+	 * @param e The edge to unindex.
+	 */
+	protected void unindexEdge(Edge e) {
+		int index = edgeIndices.remove(e);
+		Edge last = edgeList.remove(edgeList.size() - 1);
+		if (last != e) {
+			edgeList.set(index, last);
+			edgeIndices.put(last, index);
+		}
+		this.fireEvent(GraphEvent.Type.EDGE_REMOVED, e, 0.);
+	}
+
+	/**
+	 * Record a change to this graph, to be delivered to listeners at the end
+	 * of the current batch. Nothing is recorded if there are no listeners.
+	 *
+	 * @param type      The kind of change.
+	 * @param component The changed node or edge.
+	 * @param oldWeight The previous weight of a changed edge.
+	 */
+	protected void fireEvent(GraphEvent.Type type, GraphComponent component, double oldWeight) {
+		if (this.hasListeners()) {
+			pendingEvents.add(new GraphEvent(type, component, oldWeight));
+		}
+	}
+
+	/**
+	 * @return true iff any listener is registered, so changes are worth recording.
+	 */
+	protected boolean hasListeners() {
+		return !listeners.isEmpty();
+	}
+
+	/**
+	 * Deliver a batch of recorded changes to every listener.
+	 *
+	 * @param events The changes, in the order they were made.
+	 */
+	protected void deliverEvents(List<GraphEvent> events) {
+		List<GraphEvent> delivered = Collections.unmodifiableList(events);
+		listeners.forEach(listener -> listener.graphChanged(delivered));
+	}
+
 	// Private methods
 
 	/**
@@ -408,6 +753,32 @@ public class Graph {
 		}
 	}
 
+	/**
+	 * Remove the edges between the given node and each of its neighbors in
+	 * the given map from this graph, and from the neighbors' adjacency list
+	 * data.
+	 *
+	 * @param n              The node being removed.
+	 * @param incident       A map from neighbors of n to edges shared with n.
+	 * @param removedEdgeMap The map to record removed edges in.
+	 */
+	private void removeIncidentEdges(Node n, Map<Node, Set<Edge>> incident,
+									 Map<UOPair<Node>, List<Edge>> removedEdgeMap) {
+		for (Set<Edge> neighborEdges : incident.values()) {
+			UOPair<Node> key = neighborEdges.iterator().next().getUoEndpoints();
+
+			// The list is gone if it was reached through another of n's maps
+			List<Edge> removedEdgeList = edges.remove(key);
+			if (removedEdgeList != null) {
+				for (Edge e : removedEdgeList) {
+					adjList.get(e.getOtherEndpoint(n)).removeEdge(e);
+					this.unindexEdge(e);
+				}
+				removedEdgeMap.put(key, removedEdgeList);
+			}
+		}
+	}
+
 	/**
 	 * @param e the edge to remove from this graph's adjacency list data.
 	 */
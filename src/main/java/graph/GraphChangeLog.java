@@ -0,0 +1,89 @@
+package graph;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A bounded log of the most recent changes to a graph, kept in a ring buffer.
+ * Each logged event has a sequence number, so a derived structure can record
+ * the {@link GraphChangeLog#getSequence() current sequence} when it is built
+ * and later catch up on only the events logged since. If more events than
+ * the log's capacity have happened in between, the structure must be rebuilt
+ * from scratch instead.
+ *
+ * The log is opt-in; register it with {@link Graph#addGraphListener}.
+ *
+ * @author Brian Yao
+ */
+public class GraphChangeLog implements GraphListener {
+
+	private GraphEvent[] buffer;
+
+	// The sequence number the next logged event will have
+	private long sequence;
+
+	/**
+	 * @param capacity The maximum number of events kept in this log.
+	 */
+	public GraphChangeLog(int capacity) {
+		if (capacity < 1) {
+			throw new IllegalArgumentException("The capacity of a change log must be positive.");
+		}
+		buffer = new GraphEvent[capacity];
+	}
+
+	@Override
+	public synchronized void graphChanged(List<GraphEvent> events) {
+		for (GraphEvent event : events) {
+			buffer[(int) (sequence++ % buffer.length)] = event;
+		}
+	}
+
+	/**
+	 * @return the sequence number the next logged event will have.
+	 */
+	public synchronized long getSequence() {
+		return sequence;
+	}
+
+	/**
+	 * @return the sequence number of the oldest event still in this log.
+	 */
+	public synchronized long getOldestSequence() {
+		return Math.max(0, sequence - buffer.length);
+	}
+
+	/**
+	 * Check whether all events logged from the given sequence number onwards
+	 * are still available.
+	 *
+	 * @param since A sequence number previously returned by getSequence().
+	 * @return true iff {@link GraphChangeLog#getEventsSince(long)} can be
+	 *         called with the given sequence number.
+	 */
+	public synchronized boolean isAvailable(long since) {
+		return since >= this.getOldestSequence() && since <= sequence;
+	}
+
+	/**
+	 * Get the events logged from the given sequence number onwards.
+	 *
+	 * @param since A sequence number previously returned by getSequence().
+	 * @return the events logged since, oldest first.
+	 * @throws IllegalArgumentException if some of those events have already
+	 *                                  been overwritten.
+	 */
+	public synchronized List<GraphEvent> getEventsSince(long since) {
+		if (!this.isAvailable(since)) {
+			throw new IllegalArgumentException("Events since " + since + " are no longer available; the oldest " +
+												   "logged event is " + this.getOldestSequence() + ".");
+		}
+
+		List<GraphEvent> events = new ArrayList<>((int) (sequence - since));
+		for (long i = since ; i < sequence ; i++) {
+			events.add(buffer[(int) (i % buffer.length)]);
+		}
+		return events;
+	}
+
+}
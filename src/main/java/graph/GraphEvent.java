@@ -0,0 +1,72 @@
+package graph;
+
+import graph.components.Edge;
+import graph.components.GraphComponent;
+import graph.components.Node;
+import lombok.Getter;
+
+/**
+ * A single change made to a graph. Events are delivered to a graph's
+ * {@link GraphListener listeners} in the order the changes were made.
+ *
+ * @author Brian Yao
+ */
+public class GraphEvent {
+
+	/**
+	 * The kinds of changes which can be made to a graph.
+	 */
+	public enum Type {
+
+		NODE_ADDED,
+		NODE_REMOVED,
+		EDGE_ADDED,
+		EDGE_REMOVED,
+		WEIGHT_CHANGED
+
+	}
+
+	@Getter
+	private Type type;
+
+	// The node or edge which was changed
+	@Getter
+	private GraphComponent component;
+
+	// The weight of the edge before the change (weight changes only)
+	@Getter
+	private double oldWeight;
+
+	/**
+	 * @param type      The kind of change.
+	 * @param component The node or edge which was changed.
+	 * @param oldWeight The previous weight of the edge, if its weight changed.
+	 */
+	GraphEvent(Type type, GraphComponent component, double oldWeight) {
+		this.type = type;
+		this.component = component;
+		this.oldWeight = oldWeight;
+	}
+
+	/**
+	 * @return the node which was changed.
+	 * @throws ClassCastException if this event is about an edge.
+	 */
+	public Node getNode() {
+		return (Node) component;
+	}
+
+	/**
+	 * @return the edge which was changed.
+	 * @throws ClassCastException if this event is about a node.
+	 */
+	public Edge getEdge() {
+		return (Edge) component;
+	}
+
+	@Override
+	public String toString() {
+		return type + " " + component;
+	}
+
+}
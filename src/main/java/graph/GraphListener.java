@@ -0,0 +1,23 @@
+package graph;
+
+import java.util.List;
+
+/**
+ * A listener notified of changes to a graph. Changes are delivered in
+ * batches: once per mutating call on the graph, or once per
+ * {@link Graph#beginBatch() batch} if the changes were made inside one.
+ *
+ * @author Brian Yao
+ */
+@FunctionalInterface
+public interface GraphListener {
+
+	/**
+	 * Called after the graph has been changed. The graph is in a consistent
+	 * state when this is called.
+	 *
+	 * @param events The changes made, in the order they were made.
+	 */
+	void graphChanged(List<GraphEvent> events);
+
+}
@@ -0,0 +1,64 @@
+package graph;
+
+/**
+ * A read-only view of a graph whose nodes are identified by dense integer
+ * indices from 0 to (number of nodes - 1). The outgoing arcs of each node
+ * occupy a contiguous range of arc indices, as in a compressed sparse row
+ * (CSR) layout. An undirected edge is represented by one arc in each
+ * direction; a directed edge by a single arc from its source to its sink.
+ *
+ * This view is meant for algorithms which only need to traverse a graph, and
+ * which would rather keep their per-node state in primitive arrays than in
+ * maps keyed by Node objects.
+ *
+ * @author Brian Yao
+ */
+public interface IndexedGraph {
+
+	/**
+	 * @return the constraints of the graph this view was created from.
+	 * @see GraphConstraint
+	 */
+	int getConstraints();
+
+	/**
+	 * @return the number of nodes in this graph.
+	 */
+	int getNumNodes();
+
+	/**
+	 * @return the total number of arcs in this graph.
+	 */
+	int getNumArcs();
+
+	/**
+	 * @param node The index of a node.
+	 * @return the component ID of the node at the given index.
+	 */
+	int getNodeId(int node);
+
+	/**
+	 * @param node The index of a node.
+	 * @return the index of the first outgoing arc of the given node.
+	 */
+	int arcStart(int node);
+
+	/**
+	 * @param node The index of a node.
+	 * @return one past the index of the last outgoing arc of the given node.
+	 */
+	int arcEnd(int node);
+
+	/**
+	 * @param arc The index of an arc.
+	 * @return the index of the node the given arc points to.
+	 */
+	int arcTarget(int arc);
+
+	/**
+	 * @param arc The index of an arc.
+	 * @return the numeric weight of the given arc (1.0 if unweighted).
+	 */
+	double arcWeight(int arc);
+
+}
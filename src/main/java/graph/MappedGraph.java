@@ -0,0 +1,365 @@
+package graph;
+
+import graph.components.Edge;
+import graph.components.Node;
+import lombok.Getter;
+import structures.AdjListData;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * A graph whose adjacency structure lives in a memory-mapped file rather than
+ * on the Java heap. The structure is stored in compressed sparse row (CSR)
+ * form: an array of node IDs, an array of arc offsets per node, an array of
+ * arc targets and (for weighted graphs) an array of arc weights. Only the
+ * pages actually touched by an algorithm are brought into memory, so graphs
+ * much larger than the heap can be traversed.
+ *
+ * The on-disk section is laid out as follows, with all values little-endian:
+ * <pre>
+ * header   magic, version, constraints, node count, arc count, flags (32 bytes)
+ * ids      int[nodes]
+ * offsets  int[nodes + 1]
+ * targets  int[arcs]
+ * weights  double[arcs] (only if the weighted flag is set; 8-byte aligned)
+ * </pre>
+ * Each array is mapped separately, so no single array may exceed 2 GB.
+ *
+ * @author Brian Yao
+ */
+public class MappedGraph implements IndexedGraph {
+
+	/**
+	 * A source of arcs for building a mapped graph. The source must produce
+	 * exactly the same arcs, in the same order, every time it is iterated,
+	 * since building a graph requires two passes over the arcs.
+	 */
+	@FunctionalInterface
+	public interface ArcSource {
+
+		/**
+		 * Pass every arc of the graph to the given consumer.
+		 *
+		 * @param consumer The consumer receiving the arcs.
+		 * @throws IOException if the arcs cannot be read.
+		 */
+		void forEachArc(ArcConsumer consumer) throws IOException;
+
+	}
+
+	/**
+	 * A consumer of the arcs produced by an {@link ArcSource}.
+	 */
+	@FunctionalInterface
+	public interface ArcConsumer {
+
+		/**
+		 * @param source The index of the node the arc leaves.
+		 * @param target The index of the node the arc enters.
+		 * @param weight The numeric weight of the arc.
+		 */
+		void accept(int source, int target, double weight);
+
+	}
+
+	public static final int MAGIC = 0x53434247; // "GBCS" in little-endian order
+	public static final int VERSION = 1;
+	public static final int HEADER_SIZE = 32;
+
+	private static final int WEIGHTED_FLAG = 0b1;
+
+	@Getter
+	private int constraints;
+	@Getter
+	private int numNodes;
+	@Getter
+	private int numArcs;
+
+	// The size in bytes of this graph's section of the file
+	@Getter
+	private long sectionSize;
+
+	private IntBuffer ids;
+	private IntBuffer offsets;
+	private IntBuffer targets;
+	private DoubleBuffer weights;
+
+	/**
+	 * Map the graph section starting at the given position of a file.
+	 *
+	 * @param channel  The channel of the file containing the graph.
+	 * @param position The position at which the graph section begins.
+	 * @throws IOException if the section is malformed or cannot be mapped.
+	 */
+	private MappedGraph(FileChannel channel, long position) throws IOException {
+		ByteBuffer header = map(channel, FileChannel.MapMode.READ_ONLY, position, HEADER_SIZE);
+		if (header.getInt(0) != MAGIC) {
+			throw new IOException("The file does not contain a mapped graph at position " + position + ".");
+		} else if (header.getInt(4) != VERSION) {
+			throw new IOException("Unsupported mapped graph version: " + header.getInt(4));
+		}
+
+		constraints = header.getInt(8);
+		numNodes = header.getInt(12);
+		numArcs = header.getInt(16);
+		boolean weighted = (header.getInt(20) & WEIGHTED_FLAG) != 0;
+
+		long[] layout = layout(numNodes, numArcs, weighted);
+		ids = map(channel, FileChannel.MapMode.READ_ONLY, position + layout[0], 4L * numNodes).asIntBuffer();
+		offsets = map(channel, FileChannel.MapMode.READ_ONLY, position + layout[1], 4L * (numNodes + 1))
+			.asIntBuffer();
+		targets = map(channel, FileChannel.MapMode.READ_ONLY, position + layout[2], 4L * numArcs).asIntBuffer();
+		if (weighted) {
+			weights = map(channel, FileChannel.MapMode.READ_ONLY, position + layout[3], 8L * numArcs)
+				.asDoubleBuffer();
+		}
+		sectionSize = layout[4];
+	}
+
+	/**
+	 * Map the graph stored in the given file.
+	 *
+	 * @param file The file written by one of the write or build methods.
+	 * @return the mapped graph.
+	 * @throws IOException if the file is malformed or cannot be mapped.
+	 */
+	public static MappedGraph open(File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "r")) {
+			return open(raf.getChannel(), 0);
+		}
+	}
+
+	/**
+	 * Map the graph section starting at the given position of a file. The
+	 * mapping remains valid after the channel is closed.
+	 *
+	 * @param channel  The channel of the file containing the graph.
+	 * @param position The position at which the graph section begins.
+	 * @return the mapped graph.
+	 * @throws IOException if the section is malformed or cannot be mapped.
+	 */
+	public static MappedGraph open(FileChannel channel, long position) throws IOException {
+		return new MappedGraph(channel, position);
+	}
+
+	/**
+	 * Write the adjacency structure of the given graph into a file, and map
+	 * the result. Node indices are the graph's own dense node indices.
+	 *
+	 * @param graph The graph to write.
+	 * @param file  The destination file; its contents are replaced.
+	 * @return the mapped graph.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static MappedGraph write(Graph graph, File file) throws IOException {
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.setLength(0);
+			write(graph, raf.getChannel(), 0);
+			return open(raf.getChannel(), 0);
+		}
+	}
+
+	/**
+	 * Write the adjacency structure of the given graph into a file starting
+	 * at the given position. Node indices are the graph's own dense node
+	 * indices, so the mapped graph can be matched against anything else
+	 * stored by node index.
+	 *
+	 * @param graph    The graph to write.
+	 * @param channel  The channel of the destination file.
+	 * @param position The position at which the graph section begins.
+	 * @return the size in bytes of the written section.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static long write(Graph graph, FileChannel channel, long position) throws IOException {
+		int[] nodeIds = new int[graph.getNumNodes()];
+		for (int i = 0 ; i < nodeIds.length ; i++) {
+			nodeIds[i] = graph.getNodeAt(i).getId();
+		}
+
+		return build(channel, position, graph.getConstraints(), nodeIds, consumer -> {
+			for (int i = 0 ; i < nodeIds.length ; i++) {
+				AdjListData adjListData = graph.getAdjListOf(graph.getNodeAt(i));
+				forEachArc(i, adjListData.getUndirectedEdges(), graph, consumer);
+				forEachArc(i, adjListData.getOutgoingDirectedEdges(), graph, consumer);
+				for (Edge selfEdge : adjListData.getSelfEdges()) {
+					consumer.accept(i, i, selfEdge.getNumericWeight());
+				}
+			}
+		}, graph.hasConstraint(GraphConstraint.WEIGHTED));
+	}
+
+	/**
+	 * Build a mapped graph section from a stream of arcs, without holding
+	 * the arcs on the heap. The arcs are read twice: once to count the
+	 * out-degree of each node, and once to scatter them into the mapped
+	 * target and weight arrays. The section is forced to the storage device
+	 * before this returns.
+	 *
+	 * @param channel     The channel of the destination file.
+	 * @param position    The position at which the graph section begins.
+	 * @param constraints The constraints of the graph.
+	 * @param nodeIds     The component ID of each node, by node index.
+	 * @param arcs        The source of the graph's arcs.
+	 * @param weighted    Whether arc weights should be stored.
+	 * @return the size in bytes of the written section.
+	 * @throws IOException if the file cannot be written.
+	 */
+	public static long build(FileChannel channel, long position, int constraints, int[] nodeIds, ArcSource arcs,
+							 boolean weighted) throws IOException {
+		int numNodes = nodeIds.length;
+
+		// First pass: count the outgoing arcs of each node
+		int[] cursor = new int[numNodes + 1];
+		arcs.forEachArc((source, target, weight) -> cursor[source + 1]++);
+
+		long totalArcs = 0;
+		for (int i = 1 ; i <= numNodes ; i++) {
+			totalArcs += cursor[i];
+			if (totalArcs > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Cannot map a graph with more than " + Integer.MAX_VALUE +
+													   " arcs.");
+			}
+			cursor[i] = (int) totalArcs;
+		}
+		int numArcs = (int) totalArcs;
+		long[] layout = layout(numNodes, numArcs, weighted);
+
+		MappedByteBuffer header = map(channel, FileChannel.MapMode.READ_WRITE, position, HEADER_SIZE);
+		header.putInt(0, MAGIC);
+		header.putInt(4, VERSION);
+		header.putInt(8, constraints);
+		header.putInt(12, numNodes);
+		header.putInt(16, numArcs);
+		header.putInt(20, weighted ? WEIGHTED_FLAG : 0);
+
+		MappedByteBuffer idSection = map(channel, FileChannel.MapMode.READ_WRITE, position + layout[0],
+										 4L * numNodes);
+		idSection.asIntBuffer().put(nodeIds);
+		MappedByteBuffer offsetSection = map(channel, FileChannel.MapMode.READ_WRITE, position + layout[1],
+											 4L * (numNodes + 1));
+		offsetSection.asIntBuffer().put(cursor);
+
+		// Second pass: scatter each arc into the range of its source node
+		MappedByteBuffer targetSection = map(channel, FileChannel.MapMode.READ_WRITE, position + layout[2],
+											 4L * numArcs);
+		MappedByteBuffer weightSection = !weighted ? null :
+			map(channel, FileChannel.MapMode.READ_WRITE, position + layout[3], 8L * numArcs);
+		IntBuffer targets = targetSection.asIntBuffer();
+		DoubleBuffer weights = weightSection == null ? null : weightSection.asDoubleBuffer();
+		arcs.forEachArc((source, target, weight) -> {
+			int arc = cursor[source]++;
+			targets.put(arc, target);
+			if (weights != null) {
+				weights.put(arc, weight);
+			}
+		});
+
+		// Forcing the channel is not guaranteed to write out changes made through mapped buffers
+		header.force();
+		idSection.force();
+		offsetSection.force();
+		targetSection.force();
+		if (weightSection != null) {
+			weightSection.force();
+		}
+		return layout[4];
+	}
+
+	@Override
+	public int getNodeId(int node) {
+		return ids.get(node);
+	}
+
+	@Override
+	public int arcStart(int node) {
+		return offsets.get(node);
+	}
+
+	@Override
+	public int arcEnd(int node) {
+		return offsets.get(node + 1);
+	}
+
+	@Override
+	public int arcTarget(int arc) {
+		return targets.get(arc);
+	}
+
+	@Override
+	public double arcWeight(int arc) {
+		return weights == null ? 1.0 : weights.get(arc);
+	}
+
+	@Override
+	public String toString() {
+		return String.format("MappedGraph[nodes=%d,arcs=%d]", numNodes, numArcs);
+	}
+
+	// Private methods
+
+	/**
+	 * Pass the arcs leaving the given node through the edges in the given
+	 * adjacency map to the consumer.
+	 *
+	 * @param source      The index of the node the arcs leave.
+	 * @param adjacent A map from neighbor to the edges shared with it.
+	 * @param graph    The graph providing the index of each neighbor.
+	 * @param consumer The consumer receiving the arcs.
+	 */
+	private static void forEachArc(int source, Map<Node, Set<Edge>> adjacent, Graph graph, ArcConsumer consumer) {
+		adjacent.forEach((neighbor, edges) -> {
+			int target = graph.getNodeIndex(neighbor);
+			edges.forEach(edge -> consumer.accept(source, target, edge.getNumericWeight()));
+		});
+	}
+
+	/**
+	 * Compute the relative positions of the arrays in a graph section.
+	 *
+	 * @param numNodes The number of nodes.
+	 * @param numArcs  The number of arcs.
+	 * @param weighted Whether the section stores arc weights.
+	 * @return the positions of the ids, offsets, targets and weights arrays,
+	 *         followed by the total size of the section.
+	 */
+	private static long[] layout(int numNodes, int numArcs, boolean weighted) {
+		long idsPosition = HEADER_SIZE;
+		long offsetsPosition = idsPosition + 4L * numNodes;
+		long targetsPosition = offsetsPosition + 4L * (numNodes + 1);
+		long weightsPosition = (targetsPosition + 4L * numArcs + 7) & ~7L;
+		long end = weighted ? weightsPosition + 8L * numArcs : targetsPosition + 4L * numArcs;
+		return new long[] {idsPosition, offsetsPosition, targetsPosition, weightsPosition, end};
+	}
+
+	/**
+	 * Map a region of a file as a little-endian buffer.
+	 *
+	 * @param channel  The channel of the file.
+	 * @param mode     The mapping mode.
+	 * @param position The start of the region.
+	 * @param size     The size of the region in bytes.
+	 * @return the mapped buffer.
+	 * @throws IOException if the region cannot be mapped.
+	 */
+	private static MappedByteBuffer map(FileChannel channel, FileChannel.MapMode mode, long position, long size)
+		throws IOException {
+		if (size > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Cannot map an array larger than 2 GB.");
+		}
+		MappedByteBuffer buffer = channel.map(mode, position, size);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+		return buffer;
+	}
+
+}
@@ -17,6 +17,10 @@ public class Edge extends GraphComponent {
 	@Getter
 	private OrderedPair<Node> endpoints;
 
+	// The same endpoints as an unordered pair; this is the edge's key in a
+	// graph, so it is created once rather than on every lookup
+	private UOPair<Node> uoEndpoints;
+
 	// Whether this edge is directed
 	@Getter @Setter
 	private boolean directed;
@@ -34,6 +38,7 @@ public class Edge extends GraphComponent {
 	 */
 	public Edge(Node n1, Node n2, boolean directed) {
 		this.endpoints = new OrderedPair<>(n1, n2);
+		this.uoEndpoints = new UOPair<>(n1, n2);
 		this.directed = directed;
 	}
 
@@ -72,7 +77,7 @@ public class Edge extends GraphComponent {
 	 * @return an unordered pair of this edge's endpoints.
 	 */
 	public UOPair<Node> getUoEndpoints() {
-		return new UOPair<>(this.getFirstEnd(), this.getSecondEnd());
+		return uoEndpoints;
 	}
 
 	/**
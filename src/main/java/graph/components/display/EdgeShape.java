@@ -0,0 +1,306 @@
+package graph.components.display;
+
+import config.Preferences;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import lombok.Getter;
+
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.awt.geom.QuadCurve2D;
+import java.awt.geom.Rectangle2D;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The geometry of an edge as drawn on the editor: the line, curve or loop
+ * itself, the arrow tip if the edge is directed, and the bounds of both.
+ * The geometry is cached on the edge, and is only recomputed when one of
+ * the edge's endpoint panels moves or resizes, or when the position of the
+ * edge among the edges between its endpoints changes.
+ *
+ * @author Brian Yao
+ */
+public final class EdgeShape {
+
+	// Strokes are immutable, so one is shared by all edges of the same weight
+	private static final Map<Integer, BasicStroke> STROKES = new ConcurrentHashMap<>();
+
+	@Getter
+	private Shape shape;
+	@Getter
+	private Polygon arrow; // Null if the edge is undirected
+	@Getter
+	private Rectangle2D bounds; // Contains the shape and arrow, including the stroke
+
+	// The state of the endpoints and the edge which the geometry was computed from
+	private int x1;
+	private int y1;
+	private int r1;
+	private int x2;
+	private int y2;
+	private int r2;
+	private int position;
+	private int count;
+	private int weight;
+	private double angle;
+
+	/**
+	 * Record the state an edge's geometry is computed from.
+	 *
+	 * @param edge     The edge.
+	 * @param first    The endpoint from which the edge positions are counted.
+	 * @param position The position of the edge among the edges drawn between
+	 *                 its endpoints.
+	 * @param count    The number of edges drawn between its endpoints.
+	 */
+	private EdgeShape(GBEdge edge, GBNode first, int position, int count) {
+		NodePanel p1 = first.getPanel();
+		NodePanel p2 = otherPanel(edge, first);
+		this.x1 = p1.getXCoord();
+		this.y1 = p1.getYCoord();
+		this.r1 = p1.getRadius();
+		this.x2 = p2.getXCoord();
+		this.y2 = p2.getYCoord();
+		this.r2 = p2.getRadius();
+		this.position = position;
+		this.count = count;
+		this.weight = edge.getWeight();
+		this.angle = edge.getAngle();
+	}
+
+	/**
+	 * Get the geometry of an edge at the given position among the edges
+	 * drawn between its endpoints. The geometry cached on the edge is
+	 * returned if nothing it depends on has changed.
+	 *
+	 * @param edge     The edge.
+	 * @param first    The first node of the pair of endpoints, from which the
+	 *                 edge positions are counted.
+	 * @param position The position of the edge among the edges drawn between
+	 *                 its endpoints.
+	 * @param count    The number of edges drawn between its endpoints.
+	 * @param cache    Whether newly computed geometry should replace the
+	 *                 geometry cached on the edge. This should be false while
+	 *                 the edges are drawn with a preview edge among them.
+	 * @return the geometry of the edge.
+	 */
+	public static EdgeShape of(GBEdge edge, GBNode first, int position, int count, boolean cache) {
+		EdgeShape cached = edge.getShape();
+		if (cached != null && cached.matches(edge, first, position, count)) {
+			return cached;
+		}
+
+		EdgeShape current = new EdgeShape(edge, first, position, count);
+
+		if (edge.isSelfEdge()) {
+			current.computeSelfEdge(edge, cache);
+		} else {
+			current.computeEdge(edge, edge.getFirstEnd() != first, cache);
+		}
+
+		// Grow the bounds by the stroke width
+		Rectangle2D bounds = current.shape.getBounds2D();
+		if (current.arrow != null) {
+			bounds.add(current.arrow.getBounds2D());
+		}
+		double margin = current.weight / 2.0 + 1;
+		bounds.setRect(bounds.getX() - margin, bounds.getY() - margin,
+					   bounds.getWidth() + 2 * margin, bounds.getHeight() + 2 * margin);
+		current.bounds = bounds;
+
+		if (cache) {
+			edge.setShape(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Get the stroke for drawing an edge of the given weight.
+	 *
+	 * @param weight The weight (thickness) of the edge.
+	 * @return the shared stroke of that width.
+	 */
+	public static BasicStroke getStroke(int weight) {
+		return STROKES.computeIfAbsent(weight, BasicStroke::new);
+	}
+
+	/**
+	 * Compute the tip of a directed edge (a triangle) given the direction in
+	 * which the edge is pointing, the location of the arrow's tip, and the
+	 * weight (thickness) of the edge.
+	 *
+	 * @param vectorX The x component of a vector in the direction the edge is pointing.
+	 * @param vectorY The y component of a vector in the direction the edge is pointing.
+	 * @param tip     The Point object representing the coordinates of the edge's tip.
+	 * @param weight  The weight of the edge.
+	 * @return the triangle to fill.
+	 */
+	public static Polygon arrowTip(double vectorX, double vectorY, Point tip, int weight) {
+		double scale = Preferences.ARROW_TIP_SCALE_FACTOR;
+		double halfScale = scale / 2;
+
+		double mag = Math.sqrt(vectorX * vectorX + vectorY * vectorY);
+		double unitVectorX = vectorX / mag;
+		double unitVectorY = vectorY / mag;
+		double leftCornerX = tip.x - scale * weight * unitVectorX + halfScale * weight * unitVectorY;
+		double leftCornerY = tip.y - scale * weight * unitVectorY - halfScale * weight * unitVectorX;
+		double rightCornerX = leftCornerX - scale * weight * unitVectorY;
+		double rightCornerY = leftCornerY + scale * weight * unitVectorX;
+		return new Polygon(new int[] {tip.x, (int) leftCornerX, (int) rightCornerX},
+						   new int[] {tip.y, (int) leftCornerY, (int) rightCornerY}, 3);
+	}
+
+	// Private methods
+
+	/**
+	 * Check whether this geometry was computed from the current state of an
+	 * edge and its endpoints. The arguments are those given to
+	 * {@link #of(GBEdge, GBNode, int, int, boolean)}.
+	 *
+	 * @return true iff this geometry is up to date.
+	 */
+	private boolean matches(GBEdge edge, GBNode first, int position, int count) {
+		NodePanel p1 = first.getPanel();
+		NodePanel p2 = otherPanel(edge, first);
+		return x1 == p1.getXCoord() && y1 == p1.getYCoord() && r1 == p1.getRadius() && x2 == p2.getXCoord() &&
+			y2 == p2.getYCoord() && r2 == p2.getRadius() && this.position == position && this.count == count &&
+			weight == edge.getWeight() && angle == edge.getAngle();
+	}
+
+	/**
+	 * @param edge  An edge.
+	 * @param first One of the edge's endpoints.
+	 * @return the panel of the edge's other endpoint.
+	 */
+	private static NodePanel otherPanel(GBEdge edge, GBNode first) {
+		return edge.getFirstEnd() == first ? edge.getSecondEnd().getPanel() : edge.getFirstEnd().getPanel();
+	}
+
+	/**
+	 * Compute the geometry of an edge between two distinct nodes. If the
+	 * edges between them are spread apart, it is drawn as a quadratic bezier
+	 * curve; otherwise (the middle edge of an odd number of edges) it is a
+	 * straight line.
+	 *
+	 * @param edge     The edge.
+	 * @param reversed True iff the edge's first end is not the node the
+	 *                 edge positions are counted from.
+	 * @param cache    Whether to store the curve's points on the edge.
+	 */
+	private void computeEdge(GBEdge edge, boolean reversed, boolean cache) {
+		double initAngle = (1 - count) * Preferences.EDGE_SPREAD_ANGLE / 2.0 + position * Preferences.EDGE_SPREAD_ANGLE;
+		if (reversed) {
+			initAngle *= -1;
+		}
+		NodePanel panel1 = edge.getFirstEnd().getPanel();
+		NodePanel panel2 = edge.getSecondEnd().getPanel();
+		Point p1 = panel1.getCenter();
+		Point p2 = panel2.getCenter();
+
+		// Distance between the centers of the nodes
+		double dist = p1.distance(p2);
+
+		// Get the radii of both ends
+		int p1r = panel1.getRadius();
+		int p2r = panel2.getRadius();
+
+		// Compute components of vectors pointing from one node to the other
+		// The length of the vectors is the radius of the node they point from
+		double radiusVectorX1 = p1r * (p2.x - p1.x) / dist;
+		double radiusVectorY1 = p1r * (p2.y - p1.y) / dist;
+		double radiusVectorX2 = p2r * (p1.x - p2.x) / dist;
+		double radiusVectorY2 = p2r * (p1.y - p2.y) / dist;
+
+		if (count % 2 == 1 && position == count / 2) {
+			// If the index corresponds to the "center" edge, it is a straight line.
+			double linep1X = radiusVectorX1 + p1.x;
+			double linep1Y = radiusVectorY1 + p1.y;
+			double linep2X = radiusVectorX2 + p2.x;
+			double linep2Y = radiusVectorY2 + p2.y;
+			shape = new Line2D.Double((int) linep1X, (int) linep1Y, (int) linep2X, (int) linep2Y);
+			if (cache) {
+				edge.setLineEnds(linep1X, linep1Y, linep2X, linep2Y);
+			}
+
+			// If this edge is directed, add the arrow
+			if (edge.isDirected()) {
+				Point tip = new Point((int) radiusVectorX2 + p2.x, (int) radiusVectorY2 + p2.y);
+				arrow = arrowTip(-radiusVectorX2, -radiusVectorY2, tip, weight);
+			}
+		} else {
+			// Rotate the radius vectors by an angle; this is how the curved edges are separated
+			double cos = Math.cos(initAngle);
+			double sin = Math.sin(initAngle);
+			double circ1X = radiusVectorX1 * cos + radiusVectorY1 * sin;
+			double circ1Y = radiusVectorY1 * cos - radiusVectorX1 * sin;
+			double circ2X = radiusVectorX2 * cos - radiusVectorY2 * sin;
+			double circ2Y = radiusVectorX2 * sin + radiusVectorY2 * cos;
+
+			if (edge.isDirected()) {
+				// Add the triangular tip of the arrow if the edge is directed
+				Point tip = new Point((int) circ2X + p2.x, (int) circ2Y + p2.y);
+				arrow = arrowTip(-circ2X, -circ2Y, tip, weight);
+			}
+
+			// Compute slopes of the rotated "radius vectors"
+			double slope1 = circ1Y / circ1X;
+			double slope2 = circ2Y / circ2X;
+
+			// Set the "base point" of these vectors
+			circ1X += p1.x;
+			circ1Y += p1.y;
+			circ2X += p2.x;
+			circ2Y += p2.y;
+
+			// Compute the intersection of the two radius vectors (the control point for quadratic beziers)
+			double controlX = (slope2 * circ2X - slope1 * circ1X + circ1Y - circ2Y) / (slope2 - slope1);
+			double controlY = slope1 * (controlX - circ1X) + circ1Y;
+
+			shape = new QuadCurve2D.Double(circ1X, circ1Y, controlX, controlY, circ2X, circ2Y);
+			if (cache) {
+				edge.setBezierPoints(circ1X, circ1Y, controlX, controlY, circ2X, circ2Y);
+			}
+		}
+	}
+
+	/**
+	 * Compute the geometry of a self edge, which is a circle overlapping its
+	 * node's circle at the edge's offset angle.
+	 *
+	 * @param edge  The self edge.
+	 * @param cache Whether to store the arc's center and radius on the edge.
+	 */
+	private void computeSelfEdge(GBEdge edge, boolean cache) {
+		NodePanel panel = edge.getFirstEnd().getPanel();
+		Point nodeCenter = panel.getCenter();
+
+		double centralAngle = Preferences.SELF_EDGE_SUBTENDED_ANGLE;
+		double edgeAngle = Preferences.SELF_EDGE_ARC_ANGLE;
+
+		double edgeRadius = Math.sin(centralAngle / 2) * r1 / Math.sin(edgeAngle / 2);
+		double unitX = Math.cos(angle);
+		double unitY = Math.sin(angle);
+		double centralDist = edgeRadius * Math.cos(edgeAngle / 2) + r1 * Math.cos(centralAngle / 2);
+		double edgeCenterX = centralDist * unitX + nodeCenter.x;
+		double edgeCenterY = centralDist * unitY + nodeCenter.y;
+		shape = new Ellipse2D.Double((int) (edgeCenterX - edgeRadius), (int) (edgeCenterY - edgeRadius),
+									 (int) (2 * edgeRadius), (int) (2 * edgeRadius));
+
+		// If the edge is directed, add the arrow tip
+		if (edge.isDirected()) {
+			double toEndX = r1 * unitX * Math.cos(centralAngle / 2) - r1 * unitY * Math.sin(centralAngle / 2);
+			double toEndY = r1 * unitX * Math.sin(centralAngle / 2) + r1 * unitY * Math.cos(centralAngle / 2);
+			arrow = arrowTip(-toEndX, -toEndY, new Point((int) toEndX + nodeCenter.x, (int) toEndY + nodeCenter.y),
+							 weight);
+		}
+
+		if (cache) {
+			edge.setArcCenter(new Point2D.Double(edgeCenterX, edgeCenterY));
+			edge.setRadius(edgeRadius);
+		}
+	}
+
+}
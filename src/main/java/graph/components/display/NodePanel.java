@@ -18,11 +18,11 @@ import lombok.Getter;
 import lombok.Setter;
 import config.Preferences;
 import structures.EditorData;
-import structures.OrderedPair;
 import structures.UOPair;
 import tool.Tool;
 import ui.Editor;
 import ui.GBFrame;
+import ui.NodeDrag;
 import ui.menus.NodeRightClickMenu;
 import util.CoordinateUtils;
 import util.StructureUtils;
@@ -31,12 +31,11 @@ import javax.swing.*;
 import java.awt.*;
 import java.awt.event.MouseAdapter;
 import java.awt.event.MouseEvent;
-import java.awt.event.MouseMotionListener;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
-import java.util.HashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Map;
+import java.util.Set;
 
 /**
  * The visual panel which represents a node on the editor panel.
@@ -48,10 +47,13 @@ public class NodePanel extends JPanel {
 	private static final long serialVersionUID = 2475149319858394032L;
 
 	// Constants for maintaining a smooth appearance
-	private static final int BORDER_THICKNESS = 2;
+	public static final int BORDER_THICKNESS = 2;
 	private static final int SELECTED_BORDER_THICKNESS = 1;
 	private static final int PADDING = 1;
 
+	// Handles the mouse events of every panel added to the editor as a component
+	private static final MouseAdapter MOUSE_HANDLER = new NodeMouseHandler();
+
 	// The node this panel visualizes
 	@Getter
 	private GBNode gbNode;
@@ -63,6 +65,7 @@ public class NodePanel extends JPanel {
 
 	@Getter
 	private int radius; // Radius in pixels
+	private Ellipse2D.Double circle; // The circle which depicts this node, relative to the panel
 	@Getter @Setter
 	private String text;
 	@Getter @Setter
@@ -74,6 +77,7 @@ public class NodePanel extends JPanel {
 
 	// Fields for temporarily storing state
 	private Point clickPoint; // Coordinate of mouse click relative to the top left corner of its bounding box
+	@Getter
 	private boolean hovering; // True when the mouse is hovering within the circle
 
 	/**
@@ -102,6 +106,7 @@ public class NodePanel extends JPanel {
 		this.x = x;
 		this.y = y;
 		this.radius = r;
+		this.circle = new Ellipse2D.Double(PADDING, PADDING, 2 * r - BORDER_THICKNESS, 2 * r - BORDER_THICKNESS);
 
 		this.text = GBNode.DEFAULT_TEXT;
 		this.fillColor = GBNode.DEFAULT_FILL_COLOR;
@@ -113,380 +118,403 @@ public class NodePanel extends JPanel {
 
 		this.setOpaque(false);
 		this.setVisible(true);
+		this.enforceLocation();
 
-		// Listen for mouse events
-		addMouseListener(new MouseAdapter() {
+		// Listen for mouse events through the handler shared by all panels
+		this.addMouseListener(MOUSE_HANDLER);
+		this.addMouseMotionListener(MOUSE_HANDLER);
+	}
 
-			@Override
-			public void mouseClicked(MouseEvent e) {}
+	/**
+	 * Handle a mouse event on this panel. Panels added to the editor as
+	 * components receive their events through Swing; panels of nodes drawn
+	 * by the editor itself are passed the editor's events by the editor.
+	 *
+	 * @param e The mouse event, relative to this panel's upper left corner.
+	 */
+	public void handleMouseEvent(MouseEvent e) {
+		switch (e.getID()) {
+			case MouseEvent.MOUSE_PRESSED:
+				this.handleMousePressed(e);
+				break;
+			case MouseEvent.MOUSE_RELEASED:
+				this.handleMouseReleased(e);
+				break;
+			case MouseEvent.MOUSE_ENTERED:
+				this.handleMouseEntered(e);
+				break;
+			case MouseEvent.MOUSE_EXITED:
+				this.handleMouseExited(e);
+				break;
+			case MouseEvent.MOUSE_DRAGGED:
+				this.handleMouseDragged(e);
+				break;
+			case MouseEvent.MOUSE_MOVED:
+				this.handleMouseMoved(e);
+				break;
+			default:
+				break;
+		}
+	}
 
-			@Override
-			public void mousePressed(MouseEvent e) {
-				// Store the point we clicked on relative to the upper left corner of the panel
-				clickPoint = e.getPoint();
+	/**
+	 * Handle a mouse press on this panel: selection with the select tool, edge placement with
+	 * the edge tools, the shortest path tool, and the right click menu.
+	 *
+	 * @param e The mouse event, relative to this panel's upper left corner.
+	 */
+	private void handleMousePressed(MouseEvent e) {
+		// Store the point we clicked on relative to the upper left corner of the panel
+		clickPoint = e.getPoint();
 
-				NodePanel thisPanel = NodePanel.this;
-				boolean contains = thisPanel.containsPoint(clickPoint);
-				Editor editor = gbNode.getContext().getGUI().getEditor();
-				EditorData editorData = editor.getData();
+		NodePanel thisPanel = this;
+		boolean contains = thisPanel.containsPoint(clickPoint);
+		Editor editor = gbNode.getContext().getGUI().getEditor();
+		EditorData editorData = editor.getData();
+
+		if (SwingUtilities.isRightMouseButton(e)) {
+			// Handle right click events
+			if (editorData.getEdgeBasePoint() != null) {
+				editorData.clearEdgeBasePoint();
+				editorData.clearPreviewEdge();
+			} else if (editorData.getPathBasePoint() != null) {
+				editorData.clearPathBasePoint();
+			} else if (containsPoint(clickPoint)) {
+				if (editorData.getEdgeBasePoint() == null) {
+					// Display the right click menu if the node is right clicked
+					if (thisPanel.getParent() == null) {
+						// The node is drawn by the editor, so the menu is shown on the editor
+						NodeRightClickMenu.show(thisPanel, editor, x + e.getX(), y + e.getY());
+					} else {
+						NodeRightClickMenu.show(thisPanel, thisPanel, e.getX(), e.getY());
+					}
+				}
 
-				if (SwingUtilities.isRightMouseButton(e)) {
-					// Handle right click events
-					if (editorData.getEdgeBasePoint() != null) {
-						editorData.clearEdgeBasePoint();
-						editorData.clearPreviewEdge();
-					} else if (editorData.getPathBasePoint() != null) {
-						editorData.clearPathBasePoint();
-					} else if (containsPoint(clickPoint)) {
-						if (editorData.getEdgeBasePoint() == null) {
-							// Display the right click menu if the node is right clicked
-							NodeRightClickMenu.show(thisPanel, e.getX(), e.getY());
-						}
+				if (!gbNode.isSelected()) {
+					// Right click also selects the node if none of the above occur
+					editorData.addSelection(gbNode);
+				}
+			}
+		}
 
-						if (!gbNode.isSelected()) {
-							// Right click also selects the node if none of the above occur
-							editorData.addSelection(gbNode);
-						}
+		if (SwingUtilities.isLeftMouseButton(e)) {
+			// Handle left click events
+			Tool tool = gbNode.getContext().getGUI().getCurrentTool();
+			if (!editorData.highlightsEmpty()) {
+				// Remove all highlights if clicked anywhere on this panel
+				editorData.removeAllHighlights();
+			} else if (contains && tool == Tool.SELECT) {
+				// If this node was clicked while the select tool is held
+				if (e.isControlDown() || e.isShiftDown()) {
+					// If the user was holding down the control or shift keys, add or remove
+					// this node from the set of selections
+					if (gbNode.isSelected()) {
+						editorData.removeSelection(gbNode);
+					} else {
+						editorData.addSelection(gbNode);
 					}
+				} else if (!gbNode.isSelected()) {
+					// Otherwise, if this node is not already selected, remove all existing
+					// selections and select this node
+					editorData.removeAllSelections();
+					editorData.addSelection(gbNode);
 				}
 
-				if (SwingUtilities.isLeftMouseButton(e)) {
-					// Handle left click events
-					Tool tool = gbNode.getContext().getGUI().getCurrentTool();
-					if (!editorData.highlightsEmpty()) {
-						// Remove all highlights if clicked anywhere on this panel
-						editorData.removeAllHighlights();
-					} else if (contains && tool == Tool.SELECT) {
-						// If this node was clicked while the select tool is held
-						if (e.isControlDown() || e.isShiftDown()) {
-							// If the user was holding down the control or shift keys, add or remove
-							// this node from the set of selections
-							if (gbNode.isSelected()) {
-								editorData.removeSelection(gbNode);
-								editorData.removeNodePanelEntry(thisPanel);
-							} else {
-								editorData.addSelection(gbNode);
-								editorData.addNodePanelEntry(thisPanel);
-							}
-						} else if (!gbNode.isSelected()) {
-							// Otherwise, if this node is not already selected, remove all existing
-							// selections and select this node
-							editorData.removeAllSelections();
-							for (GBNode wasSelected : editorData.getSelectedNodes()) {
-								editorData.removeNodePanelEntry(wasSelected.getPanel());
-							}
+				// Update the main menu bar item states
+				editor.getGUI().getMainMenuBar().updateWithSelection();
+			} else if (contains && tool == Tool.EDGE || tool == Tool.DIRECTED_EDGE) {
+				// If we left click on the node with an edge tool
+				if (editorData.getEdgeBasePoint() == null) {
+					// If the base point is not set, set this node as the base point
+					editorData.setEdgeBasePoint(gbNode);
+				} else {
+					// If the base point is set, draw a new edge
+					GBNode source = editorData.getEdgeBasePoint();
+					NodePanel sourcePanel = source.getPanel();
+					Color currentLineColor = editor.getGUI().getEdgeOptionsBar().getLineColor();
+					int currentLineWeight = editor.getGUI().getEdgeOptionsBar().getCurrentLineWeight();
+					boolean directed = tool == Tool.DIRECTED_EDGE;
+
+					// Create the new edge object
+					Edge newEdge = new Edge(gbNode.getContext().getNextIdAndInc(), source.getNode(),
+											gbNode.getNode(), directed);
+					GBEdge newGbEdge = new GBEdge(newEdge);
+					if (gbNode.getNode() == source.getNode()) {
+						// Additional field if new edge is a self-edge
+						double angle = getSelfEdgeOffsetAngle(this, e.getPoint());
+						newGbEdge.setAngle(angle);
+					}
 
-							// Add this node as a selection
-							editorData.addSelection(gbNode);
-							editorData.addNodePanelEntry(thisPanel);
-						} else {
-							// If this node is already selected, we don't change the selections
-							for (GBNode selectedNode : editorData.getSelectedNodes()) {
-								editorData.addNodePanelEntry(selectedNode.getPanel());
-							}
-						}
+					// Set the new edge's appearance
+					newGbEdge.setColor(currentLineColor);
+					newGbEdge.setWeight(currentLineWeight);
+
+					// Compute the position of this edge (only matters if not a self edge)
+					List<GBEdge> pairEdges = gbNode.getContext().getGbEdges().get(new UOPair<>(gbNode, source));
+					int edgePosition = getEdgePosition(sourcePanel, thisPanel, e.getPoint(), pairEdges);
+
+					// Add the new edge between the chosen nodes if no constraints are violated
+					Graph currentGraph = gbNode.getContext().getGraph();
+					boolean violatesLoops = !currentGraph.hasConstraint(GraphConstraint.MULTIGRAPH) &&
+						newGbEdge.isSelfEdge();
+					boolean violatesSimple = currentGraph.hasConstraint(GraphConstraint.SIMPLE) &&
+						pairEdges != null;
+					if (!violatesLoops && !violatesSimple) {
+						PlaceEdgeAction placeAction = new PlaceEdgeAction(gbNode.getContext(),
+																		  newGbEdge, edgePosition);
+						placeAction.perform();
+						gbNode.getContext().pushReversibleAction(placeAction, true, false);
+					}
 
-						// Update the main menu bar item states
-						editor.getGUI().getMainMenuBar().updateWithSelection();
-					} else if (contains && tool == Tool.EDGE || tool == Tool.DIRECTED_EDGE) {
-						// If we left click on the node with an edge tool
-						if (editorData.getEdgeBasePoint() == null) {
-							// If the base point is not set, set this node as the base point
-							editorData.setEdgeBasePoint(gbNode);
-						} else {
-							// If the base point is set, draw a new edge
-							GBNode source = editorData.getEdgeBasePoint();
-							NodePanel sourcePanel = source.getPanel();
-							Color currentLineColor = editor.getGUI().getEdgeOptionsBar().getLineColor();
-							int currentLineWeight = editor.getGUI().getEdgeOptionsBar().getCurrentLineWeight();
-							boolean directed = tool == Tool.DIRECTED_EDGE;
-
-							// Create the new edge object
-							Edge newEdge = new Edge(gbNode.getContext().getNextIdAndInc(), source.getNode(),
-													gbNode.getNode(), directed);
-							GBEdge newGbEdge = new GBEdge(newEdge);
-							if (gbNode.getNode() == source.getNode()) {
-								// Additional field if new edge is a self-edge
-								double angle = getSelfEdgeOffsetAngle(NodePanel.this, e.getPoint());
-								newGbEdge.setAngle(angle);
-							}
+					// Reset base point, now that the edge has been placed
+					// and clear the preview edge object
+					editorData.clearEdgeBasePoint();
+					editorData.clearPreviewEdge();
+				}
+			} else if (contains && tool == Tool.SHORTEST_PATH) {
+				// If left click on a node with the shortest path tool
+				if (editorData.getPathBasePoint() == null) {
+					// This node is the base point (start)
+					editorData.setPathBasePoint(gbNode);
+				} else {
+					// This node is the destination; highlight the path
+					Node start = editorData.getPathBasePoint().getNode();
+					Node end = gbNode.getNode();
 
-							// Set the new edge's appearance
-							newGbEdge.setColor(currentLineColor);
-							newGbEdge.setWeight(currentLineWeight);
-
-							// Compute the position of this edge (only matters if not a self edge)
-							List<GBEdge> pairEdges = gbNode.getContext().getGbEdges().get(new UOPair<>(gbNode, source));
-							int edgePosition = getEdgePosition(sourcePanel, thisPanel, e.getPoint(), pairEdges);
-
-							// Add the new edge between the chosen nodes if no constraints are violated
-							Graph currentGraph = gbNode.getContext().getGraph();
-							boolean violatesLoops = !currentGraph.hasConstraint(GraphConstraint.MULTIGRAPH) &&
-								newGbEdge.isSelfEdge();
-							boolean violatesSimple = currentGraph.hasConstraint(GraphConstraint.SIMPLE) &&
-								pairEdges != null;
-							if (!violatesLoops && !violatesSimple) {
-								PlaceEdgeAction placeAction = new PlaceEdgeAction(gbNode.getContext(),
-																				  newGbEdge, edgePosition);
-								placeAction.perform();
-								gbNode.getContext().pushReversibleAction(placeAction, true, false);
-							}
+					Graph graph = gbNode.getContext().getGraph();
+					GBFrame frame = gbNode.getContext().getGUI();
 
-							// Reset base point, now that the edge has been placed
-							// and clear the preview edge object
-							editorData.clearEdgeBasePoint();
-							editorData.clearPreviewEdge();
+					Path shortestPath = null;
+					if (graph.hasConstraint(GraphConstraint.UNWEIGHTED)) {
+						// In unweighted graphs, BFS yields the shortest path
+						shortestPath = BFS.search(graph, start, end, true);
+					} else {
+						// Attempt to run Dijkstra's algorithm
+						try {
+							shortestPath = Dijkstra.execute(graph, start, end);
+						} catch (IllegalArgumentException iae) {
+							// Dijkstra's algorithm could not be executed
 						}
-					} else if (contains && tool == Tool.SHORTEST_PATH) {
-						// If left click on a node with the shortest path tool
-						if (editorData.getPathBasePoint() == null) {
-							// This node is the base point (start)
-							editorData.setPathBasePoint(gbNode);
-						} else {
-							// This node is the destination; highlight the path
-							Node start = editorData.getPathBasePoint().getNode();
-							Node end = gbNode.getNode();
-
-							Graph graph = gbNode.getContext().getGraph();
-							GBFrame frame = gbNode.getContext().getGUI();
-
-							Path shortestPath = null;
-							if (graph.hasConstraint(GraphConstraint.UNWEIGHTED)) {
-								// In unweighted graphs, BFS yields the shortest path
-								shortestPath = BFS.search(graph, start, end, true);
-							} else {
-								// Attempt to run Dijkstra's algorithm
-								try {
-									shortestPath = Dijkstra.execute(graph, start, end);
-								} catch (IllegalArgumentException iae) {
-									// Dijkstra's algorithm could not be executed
-								}
 
-								// Attempt to run the Bellman-Ford algorithm
-								try {
-									shortestPath = BellmanFord.execute(graph, start, end);
-								} catch (NegativeCycleException nce) {
-									// Bellman-Ford failed due to negative cycle(s)
-									if (nce.getNegativeEdges() != null) {
-										editorData.addHighlights(StructureUtils.toGbEdges(nce.getNegativeEdges()));
-										JOptionPane.showMessageDialog(frame, nce.getMessage() + " The negative " +
-											"edges are highlighted.", "Shortest Path", JOptionPane.ERROR_MESSAGE);
-									} else {
-										Cycle negCycle = nce.getNegativeCycle();
-										if (negCycle != null) {
-											editorData.addHighlights(StructureUtils.toGbNodes(negCycle.getNodes()));
-											editorData.addHighlights(StructureUtils.toGbEdges(negCycle.getEdges()));
-											JOptionPane.showMessageDialog(frame, nce.getMessage() + " The negative " +
-												"cycle is highlighted.", "Shortest Path", JOptionPane.ERROR_MESSAGE);
-										}
-									}
+						// Attempt to run the Bellman-Ford algorithm
+						try {
+							shortestPath = BellmanFord.execute(graph, start, end);
+						} catch (NegativeCycleException nce) {
+							// Bellman-Ford failed due to negative cycle(s)
+							if (nce.getNegativeEdges() != null) {
+								editorData.addHighlights(StructureUtils.toGbEdges(nce.getNegativeEdges()));
+								JOptionPane.showMessageDialog(frame, nce.getMessage() + " The negative " +
+									"edges are highlighted.", "Shortest Path", JOptionPane.ERROR_MESSAGE);
+							} else {
+								Cycle negCycle = nce.getNegativeCycle();
+								if (negCycle != null) {
+									editorData.addHighlights(StructureUtils.toGbNodes(negCycle.getNodes()));
+									editorData.addHighlights(StructureUtils.toGbEdges(negCycle.getEdges()));
+									JOptionPane.showMessageDialog(frame, nce.getMessage() + " The negative " +
+										"cycle is highlighted.", "Shortest Path", JOptionPane.ERROR_MESSAGE);
 								}
 							}
-
-							if (shortestPath != null) {
-								editorData.addHighlights(StructureUtils.toGbNodes(shortestPath.getNodes()));
-								editorData.addHighlights(StructureUtils.toGbEdges(shortestPath.getEdges()));
-							}
-
-							// Reset base point of the shortest path tool
-							editorData.clearPathBasePoint();
 						}
 					}
-				}
 
-				// Repaint the editor
-				editor.repaint();
-			}
-
-			@Override
-			public void mouseReleased(MouseEvent e) {
-				// A mapping from the moved panels to their original position (before the move)
-				Editor editor = gbNode.getContext().getGUI().getEditor();
-				EditorData editorData = editor.getData();
-				HashMap<NodePanel, OrderedPair<Point>> movementMap = new HashMap<>();
-				Point originalPoint;
-				Point currentPoint;
-
-				for (Map.Entry<NodePanel, Point> npEntry : editorData.getNodePanelPositionMap().entrySet()) {
-					originalPoint = npEntry.getValue();
-					currentPoint = npEntry.getKey().getCoords();
-
-					// Only add this node panel to movement map if it moved (start and end points are different)
-					if (!originalPoint.equals(currentPoint)) {
-						OrderedPair<Point> movement = new OrderedPair<>(originalPoint, currentPoint);
-						movementMap.put(npEntry.getKey(), movement);
+					if (shortestPath != null) {
+						editorData.addHighlights(StructureUtils.toGbNodes(shortestPath.getNodes()));
+						editorData.addHighlights(StructureUtils.toGbEdges(shortestPath.getEdges()));
 					}
-				}
 
-				// If the map is not empty, push a move node action
-				if (!movementMap.isEmpty()) {
-					MoveNodesAction moveAction = new MoveNodesAction(gbNode.getContext(), movementMap);
-					gbNode.getContext().pushReversibleAction(moveAction, true, false);
-
-					// The movement is complete, so we clear the node panel position map
-					editorData.getNodePanelPositionMap().clear();
+					// Reset base point of the shortest path tool
+					editorData.clearPathBasePoint();
 				}
 			}
+		}
 
-			@Override
-			public void mouseEntered(MouseEvent e) {
-				if (containsPoint(e.getPoint())) {
-					hovering = true;
+		// Repaint the editor
+		editor.repaint();
+	}
 
-					// Repaint to clear preview edge artifacts
-					Editor editor = gbNode.getContext().getGUI().getEditor();
-					editor.getData().setPreviewUsingObject(true);
-					editor.repaint();
-				}
+	/**
+	 * Handle a mouse release on this panel, which completes a drag of the selected nodes.
+	 *
+	 * @param e The mouse event, relative to this panel's upper left corner.
+	 */
+	private void handleMouseReleased(MouseEvent e) {
+		Editor editor = gbNode.getContext().getGUI().getEditor();
+		EditorData editorData = editor.getData();
+		editor.setDragging(false);
+
+		// If the nodes moved, push a move node action
+		NodeDrag drag = editorData.getNodeDrag();
+		if (drag != null) {
+			editorData.setNodeDrag(null);
+			MoveNodesAction moveAction = drag.finish();
+			if (moveAction != null) {
+				gbNode.getContext().pushReversibleAction(moveAction, true, false);
 			}
+		}
+	}
 
-			@Override
-			public void mouseExited(MouseEvent e) {
-				hovering = false;
-
-				// Remove any existing preview edge object
-				Editor editor = gbNode.getContext().getGUI().getEditor();
-				editor.getData().clearPreviewEdge();
-				editor.getData().setPreviewUsingObject(false);
-				editor.repaint();
+	/**
+	 * Handle the mouse entering this panel.
+	 *
+	 * @param e The mouse event, relative to this panel's upper left corner.
+	 */
+	private void handleMouseEntered(MouseEvent e) {
+		if (containsPoint(e.getPoint())) {
+			boolean wasHovering = hovering;
+			hovering = true;
+
+			// Repaint to clear preview edge artifacts
+			Editor editor = gbNode.getContext().getGUI().getEditor();
+			Rectangle before = editor.getPreviewBounds();
+			editor.getData().setPreviewUsingObject(true);
+			editor.repaintPreview(before);
+			if (!wasHovering) {
+				this.repaintNode();
 			}
+		}
+	}
 
-		});
-
-		// Listen for dragging and hovering mouse events
-		addMouseMotionListener(new MouseMotionListener() {
-
-			@Override
-			public void mouseDragged(MouseEvent e) {
-				Editor editor = gbNode.getContext().getGUI().getEditor();
-				if (editor.getGUI().getCurrentTool() == Tool.SELECT &&
-					containsPoint(clickPoint) && SwingUtilities.isLeftMouseButton(e)) {
-					// If the panel is dragged using left click and the select tool
-					NodePanel thisPanel = NodePanel.this;
-					Point dragPoint = e.getPoint();
-
-					// The new point of this node on the editor
-					Point newPoint;
-					if (editor.getGUI().getGridSettingsDialog().getSnapToGrid()) {
-						// Enforce grid snap
-						Point mouseCenter = new Point(thisPanel.x + dragPoint.x, thisPanel.y + dragPoint.y);
-
-						newPoint = CoordinateUtils.closestGridPoint(editor.getGUI(), mouseCenter);
-						newPoint.x -= radius;
-						newPoint.y -= radius;
-					} else {
-						// Drag the node as normal
-						newPoint = new Point(thisPanel.x + dragPoint.x - clickPoint.x,
-											 thisPanel.y + dragPoint.y - clickPoint.y);
-					}
+	/**
+	 * Handle the mouse leaving this panel.
+	 *
+	 * @param e The mouse event, relative to this panel's upper left corner.
+	 */
+	private void handleMouseExited(MouseEvent e) {
+		boolean wasHovering = hovering;
+		hovering = false;
 
-					// Keep newPoint in the bounds of the editor
-					CoordinateUtils.enforceBoundaries(newPoint, 0, editor.getWidth() - 2 * thisPanel.radius, 0,
-													  editor.getHeight() - 2 * thisPanel.radius);
-
-					// Compute the net change in position for this node
-					int changeX = newPoint.x - thisPanel.x;
-					int changeY = newPoint.y - thisPanel.y;
-
-					// Set the new coordinates of the current node panel
-					thisPanel.setCoords(newPoint);
-
-					// Iterate through all selected nodes, and move them the same amount, bypassing
-					// grid snap to maintain the structure
-					GBNode thisPanelNode = thisPanel.gbNode;
-					for (GBNode selectedNode : editor.getData().getSelectedNodes()) {
-						if (selectedNode != thisPanelNode) {
-							// Compute the new coordinates of the selected nodes, and update them
-							NodePanel selectionNodePanel = selectedNode.getPanel();
-							int selectionRadius = selectionNodePanel.getRadius();
-							Point newSelectionPoint = new Point(selectionNodePanel.getXCoord() + changeX,
-																selectionNodePanel.getYCoord() + changeY);
-							CoordinateUtils.enforceBoundaries(newSelectionPoint, 0,
-															  editor.getWidth() - 2 * selectionRadius, 0,
-															  editor.getHeight() - 2 * selectionRadius);
-							selectionNodePanel.setCoords(newSelectionPoint);
-						}
-					}
+		// Remove any existing preview edge object
+		Editor editor = gbNode.getContext().getGUI().getEditor();
+		Rectangle before = editor.getPreviewBounds();
+		editor.getData().clearPreviewEdge();
+		editor.getData().setPreviewUsingObject(false);
+		editor.repaintPreview(before);
+		if (wasHovering) {
+			this.repaintNode();
+		}
+	}
 
-					// Redraw the editor to update the position of the panel(s)
-					editor.repaint();
-				}
+	/**
+	 * Handle a mouse drag on this panel, which moves the selected nodes with the select tool.
+	 *
+	 * @param e The mouse event, relative to this panel's upper left corner.
+	 */
+	private void handleMouseDragged(MouseEvent e) {
+		Editor editor = gbNode.getContext().getGUI().getEditor();
+		if (editor.getGUI().getCurrentTool() == Tool.SELECT &&
+			containsPoint(clickPoint) && SwingUtilities.isLeftMouseButton(e)) {
+			// If the panel is dragged using left click and the select tool, the selected
+			// nodes are dragged along with this one
+			EditorData editorData = editor.getData();
+			NodeDrag drag = editorData.getNodeDrag();
+			if (drag == null) {
+				Set<GBNode> moving = new LinkedHashSet<>(editorData.getSelectedNodes());
+				moving.add(gbNode);
+				drag = new NodeDrag(editor, moving, this);
+				editorData.setNodeDrag(drag);
 			}
 
-			@Override
-			public void mouseMoved(MouseEvent e) {
-				Editor editor = gbNode.getContext().getGUI().getEditor();
-				EditorData editorData = editor.getData();
-				if (containsPoint(e.getPoint())) {
-					hovering = true;
-
-					// Preview edges (if applicable) should be drawn using a preview edge object
-					editorData.setPreviewUsingObject(true);
-
-					// Draw preview edges
-					if (editorData.getEdgeBasePoint() != null) {
-						NodePanel ebpPanel = editorData.getEdgeBasePoint().getPanel();
-						Tool ctool = editor.getGUI().getCurrentTool();
-
-						if ((ctool == Tool.EDGE || ctool == Tool.DIRECTED_EDGE) && ebpPanel != null) {
-							Color previewColor = Preferences.PREVIEW_COLOR;
-							int weight = editor.getGUI().getEdgeOptionsBar().getCurrentLineWeight();
-							boolean directed = ctool == Tool.DIRECTED_EDGE;
-
-							// Create edge and set it as the preview
-							GBEdge preview = new GBEdge(-1, ebpPanel.gbNode, gbNode, directed);
-							preview.setColor(previewColor);
-							preview.setWeight(weight);
-
-							Graph currentGraph = gbNode.getContext().getGraph();
-							boolean violatesSimple = currentGraph.hasConstraint(GraphConstraint.SIMPLE) &&
-								gbNode.getContext().getEdgesBetweenNodes(preview.getUoEndpoints()) != null;
-							boolean violatesLoops = !currentGraph.hasConstraint(GraphConstraint.MULTIGRAPH) &&
-								preview.isSelfEdge();
-							if (!preview.isSelfEdge() && !violatesSimple) {
-								// Compute preview if edge is not a self edge
-								List<GBEdge> existingEdges = gbNode.getContext().getGbEdges()
-									.get(new UOPair<>(ebpPanel.gbNode, gbNode));
-
-								// Get the position of this edge within the existing edges
-								int edgePosition = getEdgePosition(ebpPanel, NodePanel.this,
-																   e.getPoint(), existingEdges);
-
-								editorData.setPreviewEdge(preview, edgePosition);
-							} else if (preview.isSelfEdge() && !violatesLoops) {
-								// Draw preview self edge
-								double angle = getSelfEdgeOffsetAngle(NodePanel.this, e.getPoint());
-								preview.setAngle(angle);
-								editorData.setPreviewEdge(preview, -1);
-							} else {
-								// No preview edge to be drawn
-								editorData.clearPreviewEdge();
-							}
+			// The new position of this node on the editor
+			Point dragPoint = e.getPoint();
+			int newX;
+			int newY;
+			if (editor.getGUI().getGridSettingsDialog().getSnapToGrid()) {
+				// Enforce grid snap
+				int level = editor.getGUI().getGridSettingsDialog().getGridLevel();
+				newX = CoordinateUtils.closestGridCoordinate(x + dragPoint.x, level) - radius;
+				newY = CoordinateUtils.closestGridCoordinate(y + dragPoint.y, level) - radius;
+			} else {
+				// Drag the node as normal
+				newX = x + dragPoint.x - clickPoint.x;
+				newY = y + dragPoint.y - clickPoint.y;
+			}
 
-							editor.repaint(); // Repaint editor to update preview edge
-						}
+			// Draw without antialiasing until the drag ends
+			editor.setDragging(true);
+
+			// Move all selected nodes the same amount, bypassing grid snap for the others to
+			// maintain the structure, and keeping them all in the bounds of the editor
+			drag.moveAnchorTo(newX, newY);
+		}
+	}
+
+	/**
+	 * Handle the mouse moving within this panel, which updates the hover effect and the
+	 * preview edge.
+	 *
+	 * @param e The mouse event, relative to this panel's upper left corner.
+	 */
+	private void handleMouseMoved(MouseEvent e) {
+		Editor editor = gbNode.getContext().getGUI().getEditor();
+		EditorData editorData = editor.getData();
+		Rectangle before = editor.getPreviewBounds();
+		if (containsPoint(e.getPoint())) {
+			hovering = true;
+
+			// Preview edges (if applicable) should be drawn using a preview edge object
+			editorData.setPreviewUsingObject(true);
+
+			// Draw preview edges
+			if (editorData.getEdgeBasePoint() != null) {
+				NodePanel ebpPanel = editorData.getEdgeBasePoint().getPanel();
+				Tool ctool = editor.getGUI().getCurrentTool();
+
+				if ((ctool == Tool.EDGE || ctool == Tool.DIRECTED_EDGE) && ebpPanel != null) {
+					Color previewColor = Preferences.PREVIEW_COLOR;
+					int weight = editor.getGUI().getEdgeOptionsBar().getCurrentLineWeight();
+					boolean directed = ctool == Tool.DIRECTED_EDGE;
+
+					// Create edge and set it as the preview
+					GBEdge preview = new GBEdge(-1, ebpPanel.gbNode, gbNode, directed);
+					preview.setColor(previewColor);
+					preview.setWeight(weight);
+
+					Graph currentGraph = gbNode.getContext().getGraph();
+					boolean violatesSimple = currentGraph.hasConstraint(GraphConstraint.SIMPLE) &&
+						gbNode.getContext().getEdgesBetweenNodes(preview.getUoEndpoints()) != null;
+					boolean violatesLoops = !currentGraph.hasConstraint(GraphConstraint.MULTIGRAPH) &&
+						preview.isSelfEdge();
+					if (!preview.isSelfEdge() && !violatesSimple) {
+						// Compute preview if edge is not a self edge
+						List<GBEdge> existingEdges = gbNode.getContext().getGbEdges()
+							.get(new UOPair<>(ebpPanel.gbNode, gbNode));
+
+						// Get the position of this edge within the existing edges
+						int edgePosition = getEdgePosition(ebpPanel, this,
+														   e.getPoint(), existingEdges);
+
+						editorData.setPreviewEdge(preview, edgePosition);
+					} else if (preview.isSelfEdge() && !violatesLoops) {
+						// Draw preview self edge
+						double angle = getSelfEdgeOffsetAngle(this, e.getPoint());
+						preview.setAngle(angle);
+						editorData.setPreviewEdge(preview, -1);
+					} else {
+						// No preview edge to be drawn
+						editorData.clearPreviewEdge();
 					}
-				} else {
-					hovering = false;
 
-					// Check for movement within this Node's panel but not within the node itself
-					editor.getData().setLastMousePoint(NodePanel.this.x + e.getPoint().x,
-													   NodePanel.this.y + e.getPoint().y);
+					editor.repaintPreview(before); // Repaint editor to update preview edge
+				}
+			}
+		} else {
+			hovering = false;
 
-					// Remove any existing preview edge object
-					editorData.clearPreviewEdge();
+			// Check for movement within this Node's panel but not within the node itself
+			editor.getData().setLastMousePoint(this.x + e.getPoint().x,
+											   this.y + e.getPoint().y);
 
-					// Preview edges should not be drawn using a preview edge object since the mouse is not hovering
-					// over a second endpoint
-					editorData.setPreviewUsingObject(false);
+			// Remove any existing preview edge object
+			editorData.clearPreviewEdge();
 
-					editor.repaint();
-				}
+			// Preview edges should not be drawn using a preview edge object since the mouse is not hovering
+			// over a second endpoint
+			editorData.setPreviewUsingObject(false);
 
-				repaint();
-			}
+			editor.repaintPreview(before);
+		}
 
-		});
+		this.repaintNode();
 	}
 
 	/**
@@ -623,8 +651,7 @@ public class NodePanel extends JPanel {
 	 * @param p The point which will become the panel's upper left corner.
 	 */
 	public void setCoords(Point p) {
-		x = p.x;
-		y = p.y;
+		this.setCoords(p.x, p.y);
 	}
 
 	/**
@@ -636,14 +663,34 @@ public class NodePanel extends JPanel {
 	public void setCoords(int x, int y) {
 		this.x = x;
 		this.y = y;
+		this.enforceLocation();
+
+		// An editor drawing the node itself finds it by its bounds
+		if (gbNode != null && gbNode.getContext().getGUI() != null) {
+			gbNode.getContext().getGUI().getEditor().nodeMoved(gbNode);
+		}
 	}
 
 	/**
-	 * Sets this panel's absolute position on the parent container (in this
-	 * case, the parent container is the Editor panel).
+	 * Sets this panel's absolute position and size on the parent container
+	 * (in this case, the parent container is the Editor panel, which has no
+	 * layout manager).
 	 */
 	public void enforceLocation() {
-		this.setLocation(x, y);
+		int size = 2 * (radius + PADDING + SELECTED_BORDER_THICKNESS);
+		this.setBounds(x, y, size, size);
+	}
+
+	/**
+	 * Repaint this node, whether it is a component of the editor or drawn
+	 * by the editor itself.
+	 */
+	private void repaintNode() {
+		if (this.getParent() != null) {
+			this.repaint();
+		} else if (gbNode != null && gbNode.getContext().getGUI() != null) {
+			gbNode.getContext().getGUI().getEditor().repaint(this.getBounds());
+		}
 	}
 
 	/**
@@ -671,19 +718,44 @@ public class NodePanel extends JPanel {
 							 2 * (radius + PADDING + SELECTED_BORDER_THICKNESS));
 	}
 
+	@Override
+	protected void processMouseEvent(MouseEvent e) {
+		long start = System.nanoTime();
+		super.processMouseEvent(e);
+		gbNode.getContext().getGUI().getEditor().getStats().getMouseTimes().record(System.nanoTime() - start);
+	}
+
+	@Override
+	protected void processMouseMotionEvent(MouseEvent e) {
+		long start = System.nanoTime();
+		super.processMouseMotionEvent(e);
+		gbNode.getContext().getGUI().getEditor().getStats().getMouseTimes().record(System.nanoTime() - start);
+	}
+
 	@Override
 	public void paintComponent(Graphics g) {
+		long start = System.nanoTime();
 		super.paintComponent(g);
 
 		Graphics2D g2d = (Graphics2D) g;
-		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-		g2d.setStroke(new BasicStroke(BORDER_THICKNESS));
-		g2d.setColor(fillColor);
-
-		// The circle which depicts this node
-		Ellipse2D.Double circle = new Ellipse2D.Double(PADDING, PADDING,
-													   2 * radius - BORDER_THICKNESS, 2 * radius - BORDER_THICKNESS);
+		Editor editor = gbNode.getContext().getGUI().getEditor();
+		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, editor.isDragging() ?
+			RenderingHints.VALUE_ANTIALIAS_OFF : RenderingHints.VALUE_ANTIALIAS_ON);
+		this.paintNode(g2d, radius * Editor.getScale(g2d) >= Preferences.LOD_LABEL_MIN_RADIUS, hovering);
+		editor.getStats().getNodePaintTimes().record(System.nanoTime() - start);
+	}
 
+	/**
+	 * Draw this node's circle, border and text, with the origin of the
+	 * graphics at the panel's upper left corner. The editor calls this
+	 * directly for nodes it draws itself.
+	 *
+	 * @param g2d      The graphics object to draw with.
+	 * @param withText Whether to draw the node's text; it is left out when
+	 *                 the node is too small on screen to read it.
+	 * @param hovered  Whether to draw the node's hover effect.
+	 */
+	public void paintNode(Graphics2D g2d, boolean withText, boolean hovered) {
 		Color trueFillColor = fillColor;
 		Color trueBorderColor = borderColor;
 
@@ -698,7 +770,7 @@ public class NodePanel extends JPanel {
 			trueBorderColor = Preferences.SELECTION_COLOR;
 		}
 
-		if (hovering) {
+		if (hovered) {
 			// Set colors for "hover" visual effects
 			EditorData editorData = editor.getData();
 			Tool tool = gbNode.getContext().getGUI().getCurrentTool();
@@ -711,21 +783,83 @@ public class NodePanel extends JPanel {
 			}
 		}
 
-		// Draw the circle, border, and text
-		g2d.setColor(trueFillColor);
+		this.paintNode(g2d, trueFillColor, trueBorderColor, withText);
+	}
+
+	/**
+	 * Draw this node's circle, border and text in the given colors, with the
+	 * origin of the graphics at the panel's upper left corner. Nothing about
+	 * the state of the editor is consulted, so this may be called without
+	 * one, and from any thread.
+	 *
+	 * @param g2d      The graphics object to draw with.
+	 * @param fill     The color to fill the circle with.
+	 * @param border   The color of the circle's border.
+	 * @param withText Whether to draw the node's text.
+	 */
+	public void paintNode(Graphics2D g2d, Color fill, Color border, boolean withText) {
+		g2d.setStroke(EdgeShape.getStroke(BORDER_THICKNESS));
+		g2d.setColor(fill);
 		g2d.fill(circle);
-		g2d.setColor(trueBorderColor);
+		g2d.setColor(border);
 		g2d.draw(circle);
-		if (text != null && !text.isEmpty()) {
+		if (withText && text != null && !text.isEmpty()) {
 			g2d.setColor(textColor);
 			Rectangle stringBounds = g2d.getFontMetrics().getStringBounds(text, g2d).getBounds();
 			g2d.drawString(text, radius - stringBounds.width / 2, radius + stringBounds.height / 2);
 		}
 	}
 
+	/**
+	 * Get the circle which depicts this node, relative to the editor.
+	 *
+	 * @return a new ellipse with the circle's bounds.
+	 */
+	public Ellipse2D.Double getCircle() {
+		return new Ellipse2D.Double(x + circle.x, y + circle.y, circle.width, circle.height);
+	}
+
 	@Override
 	public String toString() {
 		return String.format("NP[%d, %d]", x, y);
 	}
 
+	/**
+	 * Passes the mouse events of a panel added to the editor as a component
+	 * on to the panel.
+	 */
+	private static final class NodeMouseHandler extends MouseAdapter {
+
+		@Override
+		public void mousePressed(MouseEvent e) {
+			((NodePanel) e.getComponent()).handleMouseEvent(e);
+		}
+
+		@Override
+		public void mouseReleased(MouseEvent e) {
+			((NodePanel) e.getComponent()).handleMouseEvent(e);
+		}
+
+		@Override
+		public void mouseEntered(MouseEvent e) {
+			((NodePanel) e.getComponent()).handleMouseEvent(e);
+		}
+
+		@Override
+		public void mouseExited(MouseEvent e) {
+			((NodePanel) e.getComponent()).handleMouseEvent(e);
+		}
+
+		@Override
+		public void mouseDragged(MouseEvent e) {
+			((NodePanel) e.getComponent()).handleMouseEvent(e);
+		}
+
+		@Override
+		public void mouseMoved(MouseEvent e) {
+			((NodePanel) e.getComponent()).handleMouseEvent(e);
+		}
+
+	}
+
 }
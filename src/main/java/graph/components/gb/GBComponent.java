@@ -50,7 +50,8 @@ public abstract class GBComponent extends GraphComponent {
 
 	/**
 	 * A method for converting GBComponents into strings. This is how
-	 * GraphBuilder saves graphs to files.
+	 * GraphBuilder saves graphs to files. Text is escaped, so a file holding
+	 * these lines must be marked with {@link util.FileUtils#ESCAPED_TEXT_TAG}.
 	 *
 	 * @return the serialized GBComponent.
 	 */
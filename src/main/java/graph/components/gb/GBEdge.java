@@ -2,6 +2,7 @@ package graph.components.gb;
 
 import context.GBContext;
 import graph.components.Edge;
+import graph.components.display.EdgeShape;
 import lombok.Getter;
 import lombok.Setter;
 import structures.OrderedPair;
@@ -47,6 +48,10 @@ public class GBEdge extends GBComponent {
 	@Getter @Setter
 	private double radius;
 
+	// The geometry of this edge as last drawn on the editor
+	@Getter @Setter
+	private EdgeShape shape;
+
 	@Getter
 	private OrderedPair<GBNode> endpoints;
 
@@ -194,7 +199,7 @@ public class GBEdge extends GBComponent {
 		GBNode n1 = endpoints.getFirst();
 		GBNode n2 = endpoints.getSecond();
 		return String.format("%s%d,%d,%d,%d,%d,%d,%s,%s", FileUtils.EDGE_PREFIX, this.getId(), n1.getId(),
-							 n2.getId(), color.getRGB(), weight, edge.isDirected() ? 1 : 0, text, angle);
+							 n2.getId(), color.getRGB(), weight, edge.isDirected() ? 1 : 0, FileUtils.escapeText(text), angle);
 	}
 
 }
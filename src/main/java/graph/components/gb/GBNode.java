@@ -69,7 +69,7 @@ public class GBNode extends GBComponent {
 	public String toStorageString() {
 		Point coords = panel.getCoords();
 		return String.format("%s%d,%d,%d,%d,%s,%d,%d,%d", FileUtils.NODE_PREFIX, this.getId(), coords.x,
-							 coords.y, panel.getRadius(), panel.getText(), panel.getFillColor().getRGB(),
+							 coords.y, panel.getRadius(), FileUtils.escapeText(panel.getText()), panel.getFillColor().getRGB(),
 							 panel.getBorderColor().getRGB(), panel.getTextColor().getRGB());
 	}
 
@@ -0,0 +1,413 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.MappedGraph;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+
+import java.awt.*;
+import java.io.EOFException;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.IntConsumer;
+
+/**
+ * Reads and writes the binary GraphBuilder file format. All numbers are
+ * little-endian. A file consists of:
+ *
+ * <ul>
+ *     <li>A header: magic number, version, ID pool, graph constraints, node
+ *     count, edge count, string count and flags (4 bytes each), followed by
+ *     the 8-byte position of the mapped section.</li>
+ *     <li>The string pool: each string is its UTF-8 byte length followed by
+ *     its bytes. Node and edge text refer to strings by pool index; index 0
+ *     is always the empty string.</li>
+ *     <li>The node table: one fixed-width record per node, holding the ID,
+ *     x, y, radius, text index, and fill, border and text colors.</li>
+ *     <li>The edge table: one fixed-width record per edge, holding the ID,
+ *     the positions of both endpoints in the node table, color, weight,
+ *     flags (bit 0 set if directed), text index and self-edge angle. Edges
+ *     between the same two nodes are stored in their order in the graph.</li>
+ *     <li>The mapped section: the graph's adjacency structure in the form
+ *     written by {@link MappedGraph}, starting at an 8-byte aligned
+ *     position. Node indices in this section are node table positions.</li>
+ * </ul>
+ *
+ * The string pool, node table and mapped section can be used in place
+ * through a {@link MappedGraphFile}, without reading the whole file.
+ * Version 1 files have a 28-byte header ending at the string count, and no
+ * mapped section; they can still be read.
+ *
+ * Text files never start with the magic number, so the format of a file can
+ * be detected from its first four bytes.
+ *
+ * @author Brian Yao
+ */
+public class BinaryGraphFile {
+
+	public static final int MAGIC = 0x46424247; // "GBBF" when read as bytes
+	public static final int VERSION = 2;
+
+	static final int V1_HEADER_SIZE = 28;
+	static final int HEADER_SIZE = 40;
+	static final int MAPPED_POSITION_OFFSET = 32;
+	static final int NODE_RECORD_SIZE = 32;
+	static final int EDGE_RECORD_SIZE = 36;
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int DIRECTED_FLAG = 1;
+
+	/**
+	 * Check if the given file is in the binary format.
+	 *
+	 * @param file The file to check.
+	 * @return true iff the file starts with the binary format's magic number.
+	 * @throws IOException if the file could not be read.
+	 */
+	public static boolean isBinary(File file) throws IOException {
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			ByteBuffer magic = ByteBuffer.allocate(4).order(ByteOrder.LITTLE_ENDIAN);
+			while (magic.hasRemaining() && channel.read(magic) >= 0) {
+				// Keep reading until the magic number is complete or the file ends
+			}
+			return !magic.hasRemaining() && magic.getInt(0) == MAGIC;
+		}
+	}
+
+	/**
+	 * Write the graph in the given context to a file in the binary format.
+	 *
+	 * @param context The context containing the graph to write.
+	 * @param target  The file to write to; it is replaced if it exists.
+	 * @throws IOException if the file could not be written.
+	 */
+	public static void write(GBContext context, File target) throws IOException {
+		write(GraphSnapshot.of(context), target, progress -> {});
+	}
+
+	/**
+	 * Write a snapshot of a graph to a file in the binary format, and force
+	 * the file's contents to the storage device.
+	 *
+	 * @param snapshot The snapshot of the graph to write.
+	 * @param target   The file to write to; it is replaced if it exists.
+	 * @param progress Receives the percentage of the file written so far,
+	 *                 each time it changes.
+	 * @throws IOException if the file could not be written.
+	 */
+	public static void write(GraphSnapshot snapshot, File target, IntConsumer progress) throws IOException {
+		int numNodes = snapshot.getNumNodes();
+		int numEdges = snapshot.getNumEdges();
+
+		// Pool the distinct strings used by the components
+		Map<String, Integer> pool = new LinkedHashMap<>();
+		pool.put("", 0);
+		for (String text : snapshot.nodeTexts) {
+			pool.putIfAbsent(text, pool.size());
+		}
+		for (String text : snapshot.edgeTexts) {
+			pool.putIfAbsent(text, pool.size());
+		}
+
+		// The mapped section is written through a mapping, which needs read access
+		try (FileChannel channel = FileChannel.open(target.toPath(), StandardOpenOption.READ,
+													StandardOpenOption.WRITE, StandardOpenOption.CREATE,
+													StandardOpenOption.TRUNCATE_EXISTING)) {
+			ChannelWriter writer = new ChannelWriter(channel);
+			writer.putInt(MAGIC);
+			writer.putInt(VERSION);
+			writer.putInt(snapshot.getIdPool());
+			writer.putInt(snapshot.getConstraints());
+			writer.putInt(numNodes);
+			writer.putInt(numEdges);
+			writer.putInt(pool.size());
+			writer.putInt(0);
+			writer.putLong(0); // Filled in once the mapped section is written
+
+			for (String string : pool.keySet()) {
+				writer.putString(string);
+			}
+
+			// Records are reported as written; the mapped section counts as the last percent
+			long numRecords = numNodes + numEdges;
+			int percent = 0;
+			progress.accept(percent);
+
+			// Nodes are written in index order, so an endpoint's position in
+			// the node table is its index in the graph
+			for (int i = 0 ; i < numNodes ; i++) {
+				writer.ensure(NODE_RECORD_SIZE);
+				writer.buffer.putInt(snapshot.nodeIds[i])
+					.putInt(snapshot.nodeX[i])
+					.putInt(snapshot.nodeY[i])
+					.putInt(snapshot.nodeRadii[i])
+					.putInt(pool.get(snapshot.nodeTexts[i]))
+					.putInt(snapshot.nodeFillColors[i])
+					.putInt(snapshot.nodeBorderColors[i])
+					.putInt(snapshot.nodeTextColors[i]);
+				percent = report(progress, percent, (int) (99L * (i + 1) / numRecords));
+			}
+
+			for (int i = 0 ; i < numEdges ; i++) {
+				writer.ensure(EDGE_RECORD_SIZE);
+				writer.buffer.putInt(snapshot.edgeIds[i])
+					.putInt(snapshot.edgeNode1[i])
+					.putInt(snapshot.edgeNode2[i])
+					.putInt(snapshot.edgeColors[i])
+					.putInt(snapshot.edgeWeights[i])
+					.putInt(snapshot.edgeDirected[i] ? DIRECTED_FLAG : 0)
+					.putInt(pool.get(snapshot.edgeTexts[i]))
+					.putDouble(snapshot.edgeAngles[i]);
+				percent = report(progress, percent, (int) (99L * (numNodes + i + 1) / numRecords));
+			}
+
+			writer.flush();
+
+			long mappedPosition = (channel.position() + 7) & ~7L;
+			MappedGraph.build(channel, mappedPosition, snapshot.getConstraints(), snapshot.nodeIds,
+							  consumer -> forEachArc(snapshot, consumer),
+							  (snapshot.getConstraints() & GraphConstraint.WEIGHTED) != 0);
+			ByteBuffer position = ByteBuffer.allocate(8).order(ByteOrder.LITTLE_ENDIAN).putLong(0, mappedPosition);
+			while (position.hasRemaining()) {
+				channel.write(position, MAPPED_POSITION_OFFSET + position.position());
+			}
+
+			channel.force(true);
+			report(progress, percent, 100);
+		}
+	}
+
+	/**
+	 * Read a graph in the binary format into a new context.
+	 *
+	 * @param source The file to read.
+	 * @return a new context containing the graph in the file.
+	 * @throws IOException if the file could not be read, or is not a valid
+	 *                     binary GraphBuilder file.
+	 */
+	public static GBContext read(File source) throws IOException {
+		try (FileChannel channel = FileChannel.open(source.toPath(), StandardOpenOption.READ)) {
+			ChannelReader reader = new ChannelReader(channel);
+			reader.ensure(V1_HEADER_SIZE);
+			if (reader.buffer.getInt() != MAGIC) {
+				throw new IOException("Not a binary GraphBuilder file.");
+			}
+			int version = reader.buffer.getInt();
+			if (version < 1 || version > VERSION) {
+				throw new IOException("Unsupported binary GraphBuilder file version: " + version);
+			}
+			int idPool = reader.buffer.getInt();
+			int constraints = reader.buffer.getInt();
+			int numNodes = reader.buffer.getInt();
+			int numEdges = reader.buffer.getInt();
+			int numStrings = reader.buffer.getInt();
+
+			// The rest of the header only locates the mapped section, which is not needed here
+			if (version > 1) {
+				reader.ensure(HEADER_SIZE - V1_HEADER_SIZE);
+				reader.buffer.position(reader.buffer.position() + HEADER_SIZE - V1_HEADER_SIZE);
+			}
+
+			String[] pool = new String[numStrings];
+			for (int i = 0 ; i < numStrings ; i++) {
+				pool[i] = reader.getString();
+			}
+
+			// Colors are repeated heavily, so share one instance per value
+			Map<Integer, Color> colors = new HashMap<>();
+			GBContext context = new GBContext(constraints);
+			GBNode[] nodes = new GBNode[numNodes];
+			for (int i = 0 ; i < numNodes ; i++) {
+				reader.ensure(NODE_RECORD_SIZE);
+				ByteBuffer buffer = reader.buffer;
+				int id = buffer.getInt();
+				NodePanel panel = new NodePanel(buffer.getInt(), buffer.getInt(), buffer.getInt());
+				panel.setText(pool[buffer.getInt()]);
+				panel.setFillColor(colors.computeIfAbsent(buffer.getInt(), Color::new));
+				panel.setBorderColor(colors.computeIfAbsent(buffer.getInt(), Color::new));
+				panel.setTextColor(colors.computeIfAbsent(buffer.getInt(), Color::new));
+
+				nodes[i] = new GBNode(new Node(id), context, panel);
+				context.addNode(nodes[i]);
+			}
+
+			for (int i = 0 ; i < numEdges ; i++) {
+				reader.ensure(EDGE_RECORD_SIZE);
+				ByteBuffer buffer = reader.buffer;
+				int id = buffer.getInt();
+				GBNode node1 = nodes[buffer.getInt()];
+				GBNode node2 = nodes[buffer.getInt()];
+				Color color = colors.computeIfAbsent(buffer.getInt(), Color::new);
+				int weight = buffer.getInt();
+				boolean directed = (buffer.getInt() & DIRECTED_FLAG) != 0;
+
+				GBEdge edge = new GBEdge(id, node1, node2, directed);
+				edge.setColor(color);
+				edge.setWeight(weight);
+				edge.setText(pool[buffer.getInt()]);
+				edge.setAngle(buffer.getDouble());
+				context.addEdge(edge);
+			}
+
+			context.setNextId(idPool);
+			return context;
+		} catch (ArrayIndexOutOfBoundsException e) {
+			throw new IOException("Corrupt binary GraphBuilder file: " + e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Pass the arcs of the graph in a snapshot to a consumer, following the
+	 * directions in which {@link MappedGraph} traverses edges: undirected
+	 * edges in both directions, directed edges from their first endpoint, and
+	 * self edges once.
+	 *
+	 * @param snapshot The snapshot of the graph.
+	 * @param consumer The consumer receiving the arcs.
+	 */
+	private static void forEachArc(GraphSnapshot snapshot, MappedGraph.ArcConsumer consumer) {
+		for (int i = 0 ; i < snapshot.getNumEdges() ; i++) {
+			int node1 = snapshot.edgeNode1[i];
+			int node2 = snapshot.edgeNode2[i];
+			double weight = snapshot.edgeNumericWeights[i];
+			consumer.accept(node1, node2, weight);
+			if (node1 != node2 && !snapshot.edgeDirected[i]) {
+				consumer.accept(node2, node1, weight);
+			}
+		}
+	}
+
+	/**
+	 * Report progress if it has changed.
+	 *
+	 * @param progress The receiver of the progress.
+	 * @param previous The last percentage reported.
+	 * @param current  The current percentage.
+	 * @return the current percentage.
+	 */
+	private static int report(IntConsumer progress, int previous, int current) {
+		if (current != previous) {
+			progress.accept(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Writes to a channel through a direct buffer.
+	 */
+	private static final class ChannelWriter {
+
+		private FileChannel channel;
+		private ByteBuffer buffer;
+
+		private ChannelWriter(FileChannel channel) {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+		}
+
+		/**
+		 * Make room in the buffer for the given number of bytes.
+		 */
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() < bytes) {
+				this.flush();
+			}
+		}
+
+		private void putInt(int value) throws IOException {
+			this.ensure(4);
+			buffer.putInt(value);
+		}
+
+		private void putLong(long value) throws IOException {
+			this.ensure(8);
+			buffer.putLong(value);
+		}
+
+		private void putString(String string) throws IOException {
+			byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+			this.putInt(bytes.length);
+			int offset = 0;
+			while (offset < bytes.length) {
+				this.ensure(1);
+				int length = Math.min(buffer.remaining(), bytes.length - offset);
+				buffer.put(bytes, offset, length);
+				offset += length;
+			}
+		}
+
+		/**
+		 * Write everything in the buffer to the channel.
+		 */
+		private void flush() throws IOException {
+			buffer.flip();
+			while (buffer.hasRemaining()) {
+				channel.write(buffer);
+			}
+			buffer.clear();
+		}
+
+	}
+
+	/**
+	 * Reads from a channel through a direct buffer.
+	 */
+	private static final class ChannelReader {
+
+		private FileChannel channel;
+		private ByteBuffer buffer;
+
+		private ChannelReader(FileChannel channel) {
+			this.channel = channel;
+			this.buffer = ByteBuffer.allocateDirect(BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+			this.buffer.flip();
+		}
+
+		/**
+		 * Make sure the buffer holds at least the given number of unread
+		 * bytes, which must not exceed the buffer's capacity.
+		 */
+		private void ensure(int bytes) throws IOException {
+			if (buffer.remaining() >= bytes) {
+				return;
+			}
+
+			buffer.compact();
+			while (buffer.position() < bytes) {
+				if (channel.read(buffer) < 0) {
+					throw new EOFException("Unexpected end of binary GraphBuilder file.");
+				}
+			}
+			buffer.flip();
+		}
+
+		private String getString() throws IOException {
+			this.ensure(4);
+			int length = buffer.getInt();
+			if (length < 0) {
+				throw new IOException("Corrupt binary GraphBuilder file: negative string length.");
+			}
+
+			byte[] bytes = new byte[length];
+			int offset = 0;
+			while (offset < length) {
+				this.ensure(1);
+				int chunk = Math.min(buffer.remaining(), length - offset);
+				buffer.get(bytes, offset, chunk);
+				offset += chunk;
+			}
+			return new String(bytes, StandardCharsets.UTF_8);
+		}
+
+	}
+
+}
@@ -0,0 +1,477 @@
+package io;
+
+import context.GBContext;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+
+import java.awt.*;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.IntConsumer;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Reads and writes the compressed GraphBuilder file format. A file starts
+ * with a magic number and version (4 bytes each, little-endian), followed by
+ * a Deflate stream holding:
+ *
+ * <ul>
+ *     <li>The ID pool, graph constraints, node count and edge count.</li>
+ *     <li>The color dictionary: the number of distinct colors, then each
+ *     color's RGB value (4 bytes). Components refer to colors by index.</li>
+ *     <li>The string pool: the number of strings, then each string's UTF-8
+ *     byte length and bytes. Index 0 is always the empty string.</li>
+ *     <li>The node table, one column at a time: IDs, x and y coordinates as
+ *     differences from the previous node, then radii, text indices and fill,
+ *     border and text color indices.</li>
+ *     <li>The edge table, one column at a time: IDs as differences from the
+ *     previous edge, first endpoints as differences from the previous edge's,
+ *     second endpoints as differences from the first, then flags (bit 0
+ *     set if directed), color indices, weights, text indices and self-edge
+ *     angles (8 bytes). Endpoints are node table positions.</li>
+ * </ul>
+ *
+ * Integers inside the stream are variable-length, 7 bits per byte, and
+ * signed values are zigzag encoded, so sequential IDs and nearby coordinates
+ * take a byte each before compression. Storing columns together puts
+ * similar values next to each other, which Deflate compresses well.
+ *
+ * Unlike the {@link BinaryGraphFile binary} format, a compressed file has
+ * no mapped section and cannot be used in place.
+ *
+ * @author Brian Yao
+ */
+public class CompressedGraphFile {
+
+	public static final int MAGIC = 0x5A424247; // "GBBZ" when read as bytes
+	public static final int VERSION = 1;
+
+	private static final int HEADER_SIZE = 8;
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int DIRECTED_FLAG = 1;
+
+	// The number of columns in the node and edge tables, for reporting progress
+	private static final int NODE_COLUMNS = 8;
+	private static final int EDGE_COLUMNS = 8;
+
+	/**
+	 * Check if the given file is in the compressed format.
+	 *
+	 * @param file The file to check.
+	 * @return true iff the file starts with the compressed format's magic
+	 *         number.
+	 * @throws IOException if the file could not be read.
+	 */
+	public static boolean isCompressed(File file) throws IOException {
+		try (InputStream stream = new FileInputStream(file)) {
+			byte[] magic = new byte[4];
+			int read = 0;
+			int count;
+			while (read < magic.length && (count = stream.read(magic, read, magic.length - read)) >= 0) {
+				read += count;
+			}
+			return read == magic.length && getIntLE(magic, 0) == MAGIC;
+		}
+	}
+
+	/**
+	 * Write the graph in the given context to a file in the compressed
+	 * format, at the given compression level.
+	 *
+	 * @param context The context containing the graph to write.
+	 * @param target  The file to write to; it is replaced if it exists.
+	 * @param level   The Deflate compression level, from
+	 *                {@link Deflater#BEST_SPEED} to
+	 *                {@link Deflater#BEST_COMPRESSION}.
+	 * @throws IOException if the file could not be written.
+	 */
+	public static void write(GBContext context, File target, int level) throws IOException {
+		write(GraphSnapshot.of(context), target, level, progress -> {});
+	}
+
+	/**
+	 * Write a snapshot of a graph to a file in the compressed format, and
+	 * force the file's contents to the storage device.
+	 *
+	 * @param snapshot The snapshot of the graph to write.
+	 * @param target   The file to write to; it is replaced if it exists.
+	 * @param level    The Deflate compression level, from
+	 *                 {@link Deflater#BEST_SPEED} to
+	 *                 {@link Deflater#BEST_COMPRESSION}.
+	 * @param progress Receives the percentage of the file written so far,
+	 *                 each time it changes.
+	 * @throws IOException if the file could not be written.
+	 */
+	public static void write(GraphSnapshot snapshot, File target, int level,
+							 IntConsumer progress) throws IOException {
+		if (level < Deflater.BEST_SPEED || level > Deflater.BEST_COMPRESSION) {
+			throw new IllegalArgumentException("Invalid compression level: " + level);
+		}
+
+		int numNodes = snapshot.getNumNodes();
+		int numEdges = snapshot.getNumEdges();
+
+		// Build the dictionaries of distinct colors and strings
+		Map<Integer, Integer> colors = new LinkedHashMap<>();
+		Map<String, Integer> pool = new LinkedHashMap<>();
+		pool.put("", 0);
+		for (int i = 0 ; i < numNodes ; i++) {
+			colors.putIfAbsent(snapshot.nodeFillColors[i], colors.size());
+			colors.putIfAbsent(snapshot.nodeBorderColors[i], colors.size());
+			colors.putIfAbsent(snapshot.nodeTextColors[i], colors.size());
+			pool.putIfAbsent(snapshot.nodeTexts[i], pool.size());
+		}
+		for (int i = 0 ; i < numEdges ; i++) {
+			colors.putIfAbsent(snapshot.edgeColors[i], colors.size());
+			pool.putIfAbsent(snapshot.edgeTexts[i], pool.size());
+		}
+
+		Deflater deflater = new Deflater(level);
+		try (FileOutputStream file = new FileOutputStream(target)) {
+			byte[] header = new byte[HEADER_SIZE];
+			putIntLE(header, 0, MAGIC);
+			putIntLE(header, 4, VERSION);
+			file.write(header);
+
+			DeflaterOutputStream deflated = new DeflaterOutputStream(file, deflater, BUFFER_SIZE);
+			DataOutputStream out = new DataOutputStream(new BufferedOutputStream(deflated, BUFFER_SIZE));
+			writeVarInt(out, snapshot.getIdPool());
+			writeVarInt(out, snapshot.getConstraints());
+			writeVarInt(out, numNodes);
+			writeVarInt(out, numEdges);
+
+			writeVarInt(out, colors.size());
+			for (int color : colors.keySet()) {
+				out.writeInt(color);
+			}
+			writeVarInt(out, pool.size());
+			for (String string : pool.keySet()) {
+				byte[] bytes = string.getBytes(StandardCharsets.UTF_8);
+				writeVarInt(out, bytes.length);
+				out.write(bytes);
+			}
+
+			// Progress is reported after each column, weighted by its length
+			long total = (long) NODE_COLUMNS * numNodes + (long) EDGE_COLUMNS * numEdges;
+			Progress reporter = new Progress(progress, total);
+
+			writeDeltas(out, snapshot.nodeIds, numNodes);
+			reporter.advance(numNodes);
+			writeDeltas(out, snapshot.nodeX, numNodes);
+			reporter.advance(numNodes);
+			writeDeltas(out, snapshot.nodeY, numNodes);
+			reporter.advance(numNodes);
+			for (int i = 0 ; i < numNodes ; i++) {
+				writeVarInt(out, zigzag(snapshot.nodeRadii[i]));
+			}
+			reporter.advance(numNodes);
+			for (int i = 0 ; i < numNodes ; i++) {
+				writeVarInt(out, pool.get(snapshot.nodeTexts[i]));
+			}
+			reporter.advance(numNodes);
+			writeIndices(out, colors, snapshot.nodeFillColors, numNodes);
+			reporter.advance(numNodes);
+			writeIndices(out, colors, snapshot.nodeBorderColors, numNodes);
+			reporter.advance(numNodes);
+			writeIndices(out, colors, snapshot.nodeTextColors, numNodes);
+			reporter.advance(numNodes);
+
+			writeDeltas(out, snapshot.edgeIds, numEdges);
+			reporter.advance(numEdges);
+			writeDeltas(out, snapshot.edgeNode1, numEdges);
+			reporter.advance(numEdges);
+			for (int i = 0 ; i < numEdges ; i++) {
+				writeVarInt(out, zigzag(snapshot.edgeNode2[i] - snapshot.edgeNode1[i]));
+			}
+			reporter.advance(numEdges);
+			for (int i = 0 ; i < numEdges ; i++) {
+				out.write(snapshot.edgeDirected[i] ? DIRECTED_FLAG : 0);
+			}
+			reporter.advance(numEdges);
+			writeIndices(out, colors, snapshot.edgeColors, numEdges);
+			reporter.advance(numEdges);
+			for (int i = 0 ; i < numEdges ; i++) {
+				writeVarInt(out, zigzag(snapshot.edgeWeights[i]));
+			}
+			reporter.advance(numEdges);
+			for (int i = 0 ; i < numEdges ; i++) {
+				writeVarInt(out, pool.get(snapshot.edgeTexts[i]));
+			}
+			reporter.advance(numEdges);
+			for (int i = 0 ; i < numEdges ; i++) {
+				out.writeDouble(snapshot.edgeAngles[i]);
+			}
+			reporter.advance(numEdges);
+
+			out.flush();
+			deflated.finish();
+			file.getFD().sync();
+			reporter.finish();
+		} finally {
+			deflater.end();
+		}
+	}
+
+	/**
+	 * Read a graph in the compressed format into a new context.
+	 *
+	 * @param source The file to read.
+	 * @return a new context containing the graph in the file.
+	 * @throws IOException if the file could not be read, or is not a valid
+	 *                     compressed GraphBuilder file.
+	 */
+	public static GBContext read(File source) throws IOException {
+		Inflater inflater = new Inflater();
+		try (FileInputStream file = new FileInputStream(source)) {
+			byte[] header = new byte[HEADER_SIZE];
+			int read = 0;
+			int count;
+			while (read < HEADER_SIZE && (count = file.read(header, read, HEADER_SIZE - read)) >= 0) {
+				read += count;
+			}
+			if (read < HEADER_SIZE || getIntLE(header, 0) != MAGIC) {
+				throw new IOException("Not a compressed GraphBuilder file.");
+			}
+			int version = getIntLE(header, 4);
+			if (version != VERSION) {
+				throw new IOException("Unsupported compressed GraphBuilder file version: " + version);
+			}
+
+			InflaterInputStream inflated = new InflaterInputStream(file, inflater, BUFFER_SIZE);
+			DataInputStream in = new DataInputStream(new BufferedInputStream(inflated, BUFFER_SIZE));
+			int idPool = readVarInt(in);
+			int constraints = readVarInt(in);
+			int numNodes = readCount(in);
+			int numEdges = readCount(in);
+
+			Color[] colors = new Color[readCount(in)];
+			for (int i = 0 ; i < colors.length ; i++) {
+				colors[i] = new Color(in.readInt());
+			}
+			String[] pool = new String[readCount(in)];
+			for (int i = 0 ; i < pool.length ; i++) {
+				byte[] bytes = new byte[readCount(in)];
+				in.readFully(bytes);
+				pool[i] = new String(bytes, StandardCharsets.UTF_8);
+			}
+
+			int[] ids = readDeltas(in, numNodes);
+			int[] x = readDeltas(in, numNodes);
+			int[] y = readDeltas(in, numNodes);
+			GBContext context = new GBContext(constraints);
+			NodePanel[] panels = new NodePanel[numNodes];
+			for (int i = 0 ; i < numNodes ; i++) {
+				panels[i] = new NodePanel(x[i], y[i], unzigzag(readVarInt(in)));
+			}
+			for (NodePanel panel : panels) {
+				panel.setText(pool[readVarInt(in)]);
+			}
+			for (NodePanel panel : panels) {
+				panel.setFillColor(colors[readVarInt(in)]);
+			}
+			for (NodePanel panel : panels) {
+				panel.setBorderColor(colors[readVarInt(in)]);
+			}
+			for (NodePanel panel : panels) {
+				panel.setTextColor(colors[readVarInt(in)]);
+			}
+
+			List<GBNode> nodes = new ArrayList<>(numNodes);
+			for (int i = 0 ; i < numNodes ; i++) {
+				nodes.add(new GBNode(new Node(ids[i]), context, panels[i]));
+			}
+			context.addNodes(nodes);
+
+			ids = readDeltas(in, numEdges);
+			int[] node1 = readDeltas(in, numEdges);
+			int[] node2 = new int[numEdges];
+			for (int i = 0 ; i < numEdges ; i++) {
+				node2[i] = node1[i] + unzigzag(readVarInt(in));
+			}
+			List<GBEdge> edges = new ArrayList<>(numEdges);
+			for (int i = 0 ; i < numEdges ; i++) {
+				boolean directed = (in.readUnsignedByte() & DIRECTED_FLAG) != 0;
+				edges.add(new GBEdge(ids[i], nodes.get(node1[i]), nodes.get(node2[i]), directed));
+			}
+			for (GBEdge edge : edges) {
+				edge.setColor(colors[readVarInt(in)]);
+			}
+			for (GBEdge edge : edges) {
+				edge.setWeight(unzigzag(readVarInt(in)));
+			}
+			for (GBEdge edge : edges) {
+				edge.setText(pool[readVarInt(in)]);
+			}
+			for (GBEdge edge : edges) {
+				edge.setAngle(in.readDouble());
+			}
+			context.addEdges(edges);
+
+			// Reading to the end of the stream verifies its checksum
+			if (in.read() >= 0 || !inflater.finished()) {
+				throw new IOException("Corrupt compressed GraphBuilder file: unexpected trailing data.");
+			}
+
+			context.setNextId(idPool);
+			return context;
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Corrupt compressed GraphBuilder file: " + e.getMessage(), e);
+		} finally {
+			inflater.end();
+		}
+	}
+
+	/**
+	 * Write the first values in an array as zigzag encoded differences from
+	 * the previous value, starting from 0.
+	 */
+	private static void writeDeltas(OutputStream out, int[] values, int length) throws IOException {
+		int previous = 0;
+		for (int i = 0 ; i < length ; i++) {
+			writeVarInt(out, zigzag(values[i] - previous));
+			previous = values[i];
+		}
+	}
+
+	/**
+	 * Read values written by {@link #writeDeltas}.
+	 */
+	private static int[] readDeltas(InputStream in, int length) throws IOException {
+		int[] values = new int[length];
+		int previous = 0;
+		for (int i = 0 ; i < length ; i++) {
+			previous += unzigzag(readVarInt(in));
+			values[i] = previous;
+		}
+		return values;
+	}
+
+	/**
+	 * Write the dictionary index of each of the first colors in an array.
+	 */
+	private static void writeIndices(OutputStream out, Map<Integer, Integer> dictionary, int[] colors,
+									 int length) throws IOException {
+		for (int i = 0 ; i < length ; i++) {
+			writeVarInt(out, dictionary.get(colors[i]));
+		}
+	}
+
+	/**
+	 * Write an integer, treated as unsigned, 7 bits at a time starting from
+	 * the lowest; the high bit of each byte is set if more bytes follow.
+	 */
+	private static void writeVarInt(OutputStream out, int value) throws IOException {
+		while ((value & ~0x7F) != 0) {
+			out.write((value & 0x7F) | 0x80);
+			value >>>= 7;
+		}
+		out.write(value);
+	}
+
+	/**
+	 * Read an integer written by {@link #writeVarInt}.
+	 */
+	private static int readVarInt(InputStream in) throws IOException {
+		int value = 0;
+		for (int shift = 0 ; shift < 35 ; shift += 7) {
+			int b = in.read();
+			if (b < 0) {
+				throw new EOFException("Unexpected end of compressed GraphBuilder file.");
+			}
+			value |= (b & 0x7F) << shift;
+			if ((b & 0x80) == 0) {
+				return value;
+			}
+		}
+		throw new IOException("Corrupt compressed GraphBuilder file: integer too long.");
+	}
+
+	/**
+	 * Read a count, which must not be negative.
+	 */
+	private static int readCount(InputStream in) throws IOException {
+		int count = readVarInt(in);
+		if (count < 0) {
+			throw new IOException("Corrupt compressed GraphBuilder file: negative count.");
+		}
+		return count;
+	}
+
+	/**
+	 * Map a signed integer to an unsigned one, so that values close to 0
+	 * have short encodings.
+	 */
+	private static int zigzag(int value) {
+		return (value << 1) ^ (value >> 31);
+	}
+
+	private static int unzigzag(int value) {
+		return (value >>> 1) ^ -(value & 1);
+	}
+
+	private static void putIntLE(byte[] bytes, int offset, int value) {
+		for (int i = 0 ; i < 4 ; i++) {
+			bytes[offset + i] = (byte) (value >>> (8 * i));
+		}
+	}
+
+	private static int getIntLE(byte[] bytes, int offset) {
+		int value = 0;
+		for (int i = 0 ; i < 4 ; i++) {
+			value |= (bytes[offset + i] & 0xFF) << (8 * i);
+		}
+		return value;
+	}
+
+	/**
+	 * Reports the percentage of work done, each time it changes. The last
+	 * percent is only reported once the file is complete.
+	 */
+	private static final class Progress {
+
+		private IntConsumer consumer;
+		private long total;
+		private long done;
+		private int percent;
+
+		private Progress(IntConsumer consumer, long total) {
+			this.consumer = consumer;
+			this.total = total;
+			consumer.accept(0);
+		}
+
+		private void advance(long work) {
+			done += work;
+			int current = total == 0 ? 99 : (int) (99 * done / total);
+			if (current != percent) {
+				percent = current;
+				consumer.accept(current);
+			}
+		}
+
+		private void finish() {
+			consumer.accept(100);
+		}
+
+	}
+
+}
@@ -0,0 +1,472 @@
+package io;
+
+import graph.Graph;
+import graph.GraphConstraint;
+import graph.components.Edge;
+import graph.components.Node;
+import graph.components.WeightedEdge;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Imports and exports graphs in the plain text formats used by public graph
+ * datasets, so that the algorithms can be run on them. Graphs are read into
+ * a headless {@link Graph}, with no GraphBuilder components attached, and
+ * files are streamed in both directions: apart from the graph itself, only
+ * a fixed-size buffer and batch of edges are held in memory. The supported
+ * formats are:
+ *
+ * <ul>
+ *     <li>{@link Format#EDGE_LIST Edge lists}, as distributed by SNAP: one
+ *     edge per line, given by the IDs of its endpoints and optionally a
+ *     weight, separated by whitespace. Lines starting with '#' or '%' are
+ *     comments. Node IDs must not be negative.</li>
+ *     <li>{@link Format#DIMACS DIMACS} shortest path graphs (.gr): a problem
+ *     line "p sp n m", followed by m arc lines "a u v w", where nodes are
+ *     numbered from 1 to n. Lines starting with 'c' are comments.</li>
+ *     <li>{@link Format#MATRIX_MARKET Matrix Market} coordinate matrices
+ *     (.mtx) with pattern, integer or real entries, in general or symmetric
+ *     form. Row i and column j refer to nodes i and j, numbered from 1.</li>
+ * </ul>
+ *
+ * In an imported graph, a node's ID is its ID in the file (for edge lists)
+ * or its number (for the other formats).
+ *
+ * @author Brian Yao
+ */
+public class DatasetFile {
+
+	/**
+	 * The dataset formats which can be read and written.
+	 */
+	public enum Format {
+
+		EDGE_LIST, DIMACS, MATRIX_MARKET;
+
+		/**
+		 * Guess the format of a file from its extension: ".gr" for DIMACS,
+		 * ".mtx" for Matrix Market, and an edge list otherwise.
+		 *
+		 * @param file The file whose format to guess.
+		 * @return the format of the file.
+		 */
+		public static Format of(File file) {
+			String name = file.getName().toLowerCase();
+			if (name.endsWith(".gr")) {
+				return DIMACS;
+			} else if (name.endsWith(".mtx")) {
+				return MATRIX_MARKET;
+			}
+			return EDGE_LIST;
+		}
+
+	}
+
+	private static final String MATRIX_MARKET_BANNER = "%%MatrixMarket";
+
+	private static final int BUFFER_SIZE = 1 << 16;
+	private static final int BATCH_SIZE = 1 << 14;
+
+	/**
+	 * Read a graph from a file, guessing its format from its extension. Edge
+	 * lists are read as unweighted directed multigraphs.
+	 *
+	 * @param file The file to read.
+	 * @return the graph in the file.
+	 * @throws IOException if the file could not be read or is malformed.
+	 * @see Format#of(File)
+	 */
+	public static Graph read(File file) throws IOException {
+		Format format = Format.of(file);
+		if (format == Format.EDGE_LIST) {
+			return readEdgeList(file, GraphConstraint.MULTIGRAPH | GraphConstraint.DIRECTED |
+				GraphConstraint.UNWEIGHTED);
+		}
+		return read(file, format);
+	}
+
+	/**
+	 * Read a DIMACS or Matrix Market file. DIMACS files are read as weighted
+	 * directed multigraphs. Matrix Market files are read as multigraphs,
+	 * undirected if the matrix is symmetric and weighted unless the matrix
+	 * is a pattern.
+	 *
+	 * @param file   The file to read.
+	 * @param format The format of the file; edge lists must be read with
+	 *               {@link #readEdgeList}, since they do not describe
+	 *               themselves.
+	 * @return the graph in the file.
+	 * @throws IOException if the file could not be read or is malformed.
+	 */
+	public static Graph read(File file, Format format) throws IOException {
+		try (InputStream stream = new FileInputStream(file)) {
+			TextScanner scanner = new TextScanner(stream, ' ');
+			switch (format) {
+				case DIMACS:
+					return readDimacs(scanner);
+				case MATRIX_MARKET:
+					return readMatrixMarket(scanner);
+				default:
+					throw new IllegalArgumentException("Edge lists must be read with readEdgeList.");
+			}
+		}
+	}
+
+	/**
+	 * Read an edge list into a graph with the given constraints. Edges are
+	 * directed unless the graph is undirected. Each edge's weight is the
+	 * third value on its line if the graph is weighted, and 1 if the line
+	 * has no third value; anything after the endpoints of an unweighted
+	 * graph's edge is ignored.
+	 *
+	 * @param file        The file to read.
+	 * @param constraints The constraints of the graph; a simple graph can
+	 *                    only be read if the file has no self or duplicate
+	 *                    edges.
+	 * @return the graph in the file.
+	 * @throws IOException if the file could not be read or is malformed.
+	 */
+	public static Graph readEdgeList(File file, int constraints) throws IOException {
+		try (InputStream stream = new FileInputStream(file)) {
+			TextScanner scanner = new TextScanner(stream, ' ');
+			Builder builder = new Builder(constraints);
+
+			// Nodes are created the first time their ID appears
+			Node[] nodesById = new Node[16];
+			int c;
+			while ((c = scanner.startLine()) >= 0) {
+				if (c == '#' || c == '%') {
+					scanner.skipLine();
+					continue;
+				}
+
+				int[] ids = {scanner.nextInt(), scanner.nextInt()};
+				double weight = builder.weighted && scanner.hasNext() ? scanner.nextDouble() : 1;
+				scanner.skipLine();
+
+				for (int id : ids) {
+					if (id < 0) {
+						throw scanner.error("Negative node ID: " + id);
+					} else if (id >= nodesById.length) {
+						nodesById = Arrays.copyOf(nodesById, Math.max(id + 1, 2 * nodesById.length));
+					}
+					if (nodesById[id] == null) {
+						nodesById[id] = new Node(id);
+						builder.addNode(nodesById[id]);
+					}
+				}
+				builder.addEdge(nodesById[ids[0]], nodesById[ids[1]], weight);
+			}
+			return builder.finish();
+		}
+	}
+
+	/**
+	 * Write a graph to a file in the given format. Edges are written in the
+	 * order of their indices in the graph. An undirected edge is written as
+	 * two arcs in DIMACS files, and as two entries in a general Matrix
+	 * Market file; a Matrix Market file is symmetric if the graph is
+	 * undirected. Edge lists use node IDs and the other formats use node
+	 * indices plus one. Weights are only written for weighted graphs.
+	 *
+	 * Edge lists do not record isolated nodes or edge directions, so the
+	 * constraints given to {@link #readEdgeList} decide how they are read
+	 * back.
+	 *
+	 * @param graph  The graph to write.
+	 * @param file   The file to write to; it is replaced if it exists.
+	 * @param format The format to write.
+	 * @throws IOException if the file could not be written.
+	 */
+	public static void write(Graph graph, File file, Format format) throws IOException {
+		boolean weighted = graph.hasConstraint(GraphConstraint.WEIGHTED);
+		boolean symmetric =
+			(graph.getConstraints() & GraphConstraint.EDGE_BEHAVIOR_MASK) == GraphConstraint.UNDIRECTED;
+		int numNodes = graph.getNumNodes();
+		int numEdges = graph.getNumEdges();
+
+		try (Writer writer = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(file),
+																	   StandardCharsets.US_ASCII), BUFFER_SIZE)) {
+			switch (format) {
+				case EDGE_LIST:
+					writer.write("# Nodes: " + numNodes + " Edges: " + numEdges + "\n");
+					for (int i = 0 ; i < numEdges ; i++) {
+						Edge e = graph.getEdgeAt(i);
+						writeEntry(writer, "", e.getFirstEnd().getId(), e.getSecondEnd().getId(), weighted,
+								   e.getNumericWeight());
+					}
+					break;
+				case DIMACS:
+					long numArcs = 0;
+					for (int i = 0 ; i < numEdges ; i++) {
+						numArcs += isTwoWay(graph.getEdgeAt(i)) ? 2 : 1;
+					}
+					writer.write("p sp " + numNodes + " " + numArcs + "\n");
+					for (int i = 0 ; i < numEdges ; i++) {
+						Edge e = graph.getEdgeAt(i);
+						int u = graph.getNodeIndex(e.getFirstEnd()) + 1;
+						int v = graph.getNodeIndex(e.getSecondEnd()) + 1;
+						writeEntry(writer, "a ", u, v, true, e.getNumericWeight());
+						if (isTwoWay(e)) {
+							writeEntry(writer, "a ", v, u, true, e.getNumericWeight());
+						}
+					}
+					break;
+				case MATRIX_MARKET:
+					long numEntries = 0;
+					for (int i = 0 ; !symmetric && i < numEdges ; i++) {
+						numEntries += isTwoWay(graph.getEdgeAt(i)) ? 2 : 1;
+					}
+					writer.write(MATRIX_MARKET_BANNER + " matrix coordinate " + (weighted ? "real" : "pattern") +
+									 (symmetric ? " symmetric\n" : " general\n"));
+					writer.write(numNodes + " " + numNodes + " " + (symmetric ? numEdges : numEntries) + "\n");
+					for (int i = 0 ; i < numEdges ; i++) {
+						Edge e = graph.getEdgeAt(i);
+						int u = graph.getNodeIndex(e.getFirstEnd()) + 1;
+						int v = graph.getNodeIndex(e.getSecondEnd()) + 1;
+						if (symmetric) {
+							// Symmetric matrices only store the lower triangle
+							writeEntry(writer, "", Math.max(u, v), Math.min(u, v), weighted, e.getNumericWeight());
+						} else {
+							writeEntry(writer, "", u, v, weighted, e.getNumericWeight());
+							if (isTwoWay(e)) {
+								writeEntry(writer, "", v, u, weighted, e.getNumericWeight());
+							}
+						}
+					}
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Read a DIMACS shortest path graph.
+	 */
+	private static Graph readDimacs(TextScanner scanner) throws IOException {
+		Builder builder = null;
+		Node[] nodes = null;
+		long numArcs = 0;
+		long expectedArcs = 0;
+		int c;
+		while ((c = scanner.startLine()) >= 0) {
+			String type = scanner.next();
+			if (c == 'c') {
+				// Comment
+			} else if (type.equals("p") && builder == null) {
+				String problem = scanner.next();
+				if (!problem.equals("sp")) {
+					throw scanner.error("Unsupported DIMACS problem: " + problem);
+				}
+				nodes = createNodes(scanner, scanner.nextInt());
+				expectedArcs = scanner.nextLong();
+				builder = new Builder(GraphConstraint.MULTIGRAPH | GraphConstraint.DIRECTED |
+										  GraphConstraint.WEIGHTED);
+				builder.addNodes(nodes);
+			} else if (type.equals("a") && builder != null) {
+				Node u = node(scanner, nodes, scanner.nextInt());
+				Node v = node(scanner, nodes, scanner.nextInt());
+				builder.addEdge(u, v, scanner.nextDouble());
+				numArcs++;
+			} else {
+				throw scanner.error("Unexpected DIMACS line: " + type);
+			}
+			scanner.skipLine();
+		}
+
+		if (builder == null) {
+			throw scanner.error("Missing DIMACS problem line.");
+		} else if (numArcs != expectedArcs) {
+			throw scanner.error("Expected " + expectedArcs + " arcs, but found " + numArcs + ".");
+		}
+		return builder.finish();
+	}
+
+	/**
+	 * Read a Matrix Market coordinate matrix.
+	 */
+	private static Graph readMatrixMarket(TextScanner scanner) throws IOException {
+		scanner.startLine();
+		String[] banner = {scanner.next(), scanner.next(), scanner.next(), scanner.next(), scanner.next()};
+		if (!banner[0].equals(MATRIX_MARKET_BANNER) || !banner[1].equalsIgnoreCase("matrix")) {
+			throw scanner.error("Not a Matrix Market matrix.");
+		} else if (!banner[2].equalsIgnoreCase("coordinate")) {
+			throw scanner.error("Unsupported Matrix Market format: " + banner[2]);
+		}
+
+		boolean weighted;
+		if (banner[3].equalsIgnoreCase("pattern")) {
+			weighted = false;
+		} else if (banner[3].equalsIgnoreCase("real") || banner[3].equalsIgnoreCase("integer")) {
+			weighted = true;
+		} else {
+			throw scanner.error("Unsupported Matrix Market field: " + banner[3]);
+		}
+
+		boolean symmetric;
+		if (banner[4].equalsIgnoreCase("general")) {
+			symmetric = false;
+		} else if (banner[4].equalsIgnoreCase("symmetric")) {
+			symmetric = true;
+		} else {
+			throw scanner.error("Unsupported Matrix Market symmetry: " + banner[4]);
+		}
+		scanner.skipLine();
+
+		// Skip comments up to the size line
+		int c;
+		while ((c = scanner.startLine()) == '%') {
+			scanner.skipLine();
+		}
+		if (c < 0) {
+			throw scanner.error("Missing Matrix Market size line.");
+		}
+		int rows = scanner.nextInt();
+		int columns = scanner.nextInt();
+		long expectedEntries = scanner.nextLong();
+		scanner.skipLine();
+
+		Builder builder = new Builder(GraphConstraint.MULTIGRAPH |
+										  (symmetric ? GraphConstraint.UNDIRECTED : GraphConstraint.DIRECTED) |
+										  (weighted ? GraphConstraint.WEIGHTED : GraphConstraint.UNWEIGHTED));
+		Node[] nodes = createNodes(scanner, Math.max(rows, columns));
+		builder.addNodes(nodes);
+
+		long numEntries = 0;
+		while ((c = scanner.startLine()) >= 0) {
+			if (c == '%') {
+				scanner.skipLine();
+				continue;
+			}
+
+			Node u = node(scanner, nodes, scanner.nextInt());
+			Node v = node(scanner, nodes, scanner.nextInt());
+			builder.addEdge(u, v, weighted ? scanner.nextDouble() : 1);
+			scanner.skipLine();
+			numEntries++;
+		}
+
+		if (numEntries != expectedEntries) {
+			throw scanner.error("Expected " + expectedEntries + " entries, but found " + numEntries + ".");
+		}
+		return builder.finish();
+	}
+
+	/**
+	 * Create the nodes numbered 1 to the given count.
+	 */
+	private static Node[] createNodes(TextScanner scanner, int count) throws IOException {
+		if (count < 0) {
+			throw scanner.error("Negative node count: " + count);
+		}
+
+		Node[] nodes = new Node[count];
+		for (int i = 0 ; i < count ; i++) {
+			nodes[i] = new Node(i + 1);
+		}
+		return nodes;
+	}
+
+	/**
+	 * Get the node with the given number, counting from 1.
+	 */
+	private static Node node(TextScanner scanner, Node[] nodes, int number) throws IOException {
+		if (number < 1 || number > nodes.length) {
+			throw scanner.error("Node number out of range: " + number);
+		}
+		return nodes[number - 1];
+	}
+
+	/**
+	 * Check if an edge must be written as arcs in both directions.
+	 */
+	private static boolean isTwoWay(Edge e) {
+		return !e.isDirected() && !e.isSelfEdge();
+	}
+
+	/**
+	 * Write a line holding two node numbers and possibly a weight. Integral
+	 * weights are written without a fractional part.
+	 */
+	private static void writeEntry(Writer writer, String prefix, int u, int v, boolean weighted,
+								   double weight) throws IOException {
+		writer.write(prefix);
+		writer.write(Integer.toString(u));
+		writer.write(' ');
+		writer.write(Integer.toString(v));
+		if (weighted) {
+			writer.write(' ');
+			if (weight == Math.rint(weight) && Math.abs(weight) < 1e15) {
+				writer.write(Long.toString((long) weight));
+			} else {
+				writer.write(Double.toString(weight));
+			}
+		}
+		writer.write('\n');
+	}
+
+	/**
+	 * Adds components to a new graph in batches, so that the graph's bulk
+	 * methods are used without holding every edge in a separate list.
+	 */
+	private static final class Builder {
+
+		private Graph graph;
+		private boolean directed;
+		private boolean weighted;
+		private List<Node> nodes;
+		private List<Edge> edges;
+
+		private Builder(int constraints) {
+			this.graph = new Graph(constraints);
+			this.directed = (constraints & GraphConstraint.EDGE_BEHAVIOR_MASK) != GraphConstraint.UNDIRECTED;
+			this.weighted = graph.hasConstraint(GraphConstraint.WEIGHTED);
+			this.nodes = new ArrayList<>();
+			this.edges = new ArrayList<>(BATCH_SIZE);
+			graph.beginBatch();
+		}
+
+		private void addNode(Node node) {
+			nodes.add(node);
+		}
+
+		private void addNodes(Node[] nodes) {
+			graph.addNodes(nodes);
+		}
+
+		private void addEdge(Node u, Node v, double weight) {
+			edges.add(weighted ? new WeightedEdge(u, v, directed, weight) : new Edge(u, v, directed));
+			if (edges.size() == BATCH_SIZE) {
+				this.flush();
+			}
+		}
+
+		/**
+		 * Add the pending nodes, then the pending edges, to the graph.
+		 */
+		private void flush() {
+			graph.addNodes(nodes);
+			graph.addEdges(edges);
+			nodes.clear();
+			edges.clear();
+		}
+
+		private Graph finish() {
+			this.flush();
+			graph.endBatch();
+			return graph;
+		}
+
+	}
+
+}
@@ -1,5 +1,6 @@
 package io;
 
+import config.Preferences;
 import context.GBContext;
 import graph.components.Node;
 import graph.components.display.NodePanel;
@@ -7,17 +8,20 @@ import graph.components.gb.GBComponent;
 import graph.components.gb.GBEdge;
 import graph.components.gb.GBNode;
 import logger.Logger;
+import ui.GBFrame;
+import ui.ViewportLoader;
 import util.ExceptionUtils;
 import util.FileUtils;
 
 import javax.swing.*;
 import java.awt.*;
-import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileInputStream;
-import java.io.InputStreamReader;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
 
 /**
  * A utility class for loading graphs from files.
@@ -26,112 +30,270 @@ import java.util.List;
  */
 public class FileLoader {
 
-	private static final int NUM_NODE_FIELDS = 8;
-	private static final int NUM_EDGE_FIELDS = 8;
+	// Text files at least this large (in bytes) are parsed in parallel
+	private static final long PARALLEL_THRESHOLD = 1 << 20;
 
 	/**
 	 * Load the specified file into a context object. The file is assumed to
-	 * exist since it will be chosen using a JFileChooser.
+	 * exist since it will be chosen using a JFileChooser. If the file cannot
+	 * be loaded, the error is shown in a dialog.
 	 *
 	 * @param graphFile The file containing the graph we want to load.
-	 * @return The new context object containing the graph in the file.
+	 * @return The new context object containing the graph in the file, or
+	 *         null if it could not be loaded.
+	 * @see #readGraph(File)
 	 */
 	public static GBContext loadGraph(File graphFile) {
-		// Read the file, parse the graph's components, and add them to our context
 		try {
-			BufferedReader fileReader = new BufferedReader(new InputStreamReader(new FileInputStream(graphFile)));
+			return readGraph(graphFile);
+		} catch (Exception e) {
+			showLoadError(null, e);
+		}
 
-			int idPool = Integer.parseInt(fileReader.readLine());
-			int constraints = Integer.parseInt(fileReader.readLine());
+		return null;
+	}
+
+	/**
+	 * Open the specified file in the given GUI without blocking the event
+	 * dispatch thread. The file is read into a new context on a background
+	 * thread, without adding anything to the editor. The GUI then switches
+	 * to the new context, and its node panels are added to the editor by a
+	 * {@link ViewportLoader}, starting with the ones in view. If the file
+	 * cannot be loaded, the error is shown in a dialog and the GUI keeps its
+	 * current context.
+	 *
+	 * @param gui       The GUI to open the file in.
+	 * @param graphFile The file containing the graph we want to open.
+	 * @param onOpened  Run on the event dispatch thread once the GUI has
+	 *                  switched to the new context, and not at all if the
+	 *                  file could not be loaded.
+	 * @return the worker reading the file.
+	 */
+	public static SwingWorker<GBContext, Void> openGraph(GBFrame gui, File graphFile, Runnable onOpened) {
+		SwingWorker<GBContext, Void> worker = new OpenWorker(gui, graphFile, onOpened);
+		gui.showProgress("Opening " + graphFile.getName());
+		worker.execute();
+		return worker;
+	}
+
+	/**
+	 * Read the specified file into a new context. The text,
+	 * {@link BinaryGraphFile binary} and {@link CompressedGraphFile
+	 * compressed} formats are all accepted, and the context remembers which
+	 * one the file is in, to save it back the same way. If the file's
+	 * {@link GraphJournal journal} has a checkpoint, the checkpoint is read
+	 * instead of the file. Changes in the journal are replayed onto the
+	 * loaded graph, and the context keeps journaling to it if journaling is
+	 * enabled.
+	 *
+	 * @param graphFile The file containing the graph we want to load.
+	 * @return The new context object containing the graph in the file.
+	 * @throws IOException if the file could not be read or is malformed.
+	 */
+	public static GBContext readGraph(File graphFile) throws IOException {
+		// Read the file, parse the graph's components, and add them to our context
+		File checkpoint = GraphJournal.checkpointFileFor(graphFile);
+		GraphFileFormat format = GraphFileFormat.of(graphFile);
+		GBContext loadedContext;
+		if (checkpoint.exists()) {
+			loadedContext = BinaryGraphFile.read(checkpoint);
+		} else if (format == GraphFileFormat.COMPRESSED) {
+			loadedContext = CompressedGraphFile.read(graphFile);
+		} else if (format == GraphFileFormat.BINARY) {
+			loadedContext = BinaryGraphFile.read(graphFile);
+		} else if (graphFile.length() >= PARALLEL_THRESHOLD) {
+			loadedContext = ParallelFileLoader.load(graphFile);
+		} else {
+			loadedContext = loadTextGraph(graphFile);
+		}
+
+		// Recover the changes made after the file was last written, and keep journaling
+		GraphJournal.replay(loadedContext, graphFile);
+		if (Preferences.JOURNAL_ENABLED) {
+			loadedContext.setJournal(GraphJournal.open(loadedContext, graphFile));
+		}
+
+		loadedContext.setCurrentlyLoadedFile(graphFile);
+		loadedContext.setFileFormat(format);
+		loadedContext.setAsSaved();
+		return loadedContext;
+	}
+
+	/**
+	 * Parse a graph in the text format into a new context, one line at a
+	 * time on the calling thread.
+	 *
+	 * @param graphFile The text file containing the graph.
+	 * @return a new context containing the graph in the file.
+	 * @throws IOException if the file could not be read or is malformed.
+	 */
+	public static GBContext loadTextGraph(File graphFile) throws IOException {
+		try (InputStream stream = new FileInputStream(graphFile)) {
+			TextScanner scanner = new TextScanner(stream, ',');
+			scanner.startLine();
+			int idPool = scanner.nextInt();
+			scanner.skipLine();
+			scanner.startLine();
+			int constraints = scanner.nextInt();
+			boolean escaped = scanner.hasNext() && FileUtils.ESCAPED_TEXT_TAG.equals(scanner.next());
+			scanner.skipLine();
 			GBContext loadedContext = new GBContext(constraints);
 
 			// Read the file line by line (each line contains one component)
-			String line;
-			while ((line = fileReader.readLine()) != null) {
-				if (line.startsWith(FileUtils.NODE_PREFIX)) {
-					loadedContext.add(readNode(loadedContext, line));
-				} else if (line.startsWith(FileUtils.EDGE_PREFIX)) {
-					loadedContext.add(readEdge(loadedContext, line));
+			Map<Integer, Color> colors = new HashMap<>();
+			while (scanner.startLine() >= 0) {
+				if (scanner.skipPrefix(FileUtils.NODE_PREFIX)) {
+					loadedContext.add(readNode(loadedContext, scanner, colors, escaped));
+				} else if (scanner.skipPrefix(FileUtils.EDGE_PREFIX)) {
+					loadedContext.add(readEdge(loadedContext, scanner, colors, escaped));
 				}
+				scanner.skipLine();
 			}
-			fileReader.close();
 
 			// Set the ID pool afterward, to start where it left off
 			loadedContext.setNextId(idPool);
-
-			// Replace the old context with the one we just loaded
-			loadedContext.setCurrentlyLoadedFile(graphFile);
-			loadedContext.setAsSaved();
-
 			return loadedContext;
-		} catch (Exception e) {
-			JOptionPane.showMessageDialog(null, "GraphBuilder was unable to open the selected file. " +
-				"Make sure it is a valid GraphBuilder file. If this error is unexpected, hand the following " +
-				"information to a developer:\n\n" + ExceptionUtils.exceptionToString(e),
-										  "Unable to Open File", JOptionPane.ERROR_MESSAGE);
-			Logger.writeEntry(Logger.ERROR, ExceptionUtils.exceptionToString(e));
 		}
+	}
 
-		return null;
+	/**
+	 * Map a binary graph file for read-only use, without deserializing it.
+	 * Algorithms can run directly on the mapped graph, and nodes are only
+	 * built when requested. Unlike {@link #loadGraph(File)}, failures are
+	 * reported to the caller rather than in a dialog, since mapping is meant
+	 * for analysis as well as the editor.
+	 *
+	 * @param graphFile The binary graph file to map.
+	 * @return the mapped file.
+	 * @throws IOException if the file is not a binary GraphBuilder file with a
+	 *                     mapped section, or could not be mapped.
+	 */
+	public static MappedGraphFile mapGraph(File graphFile) throws IOException {
+		return MappedGraphFile.open(graphFile);
 	}
 
 	/**
-	 * Parses a Node from its String form.
+	 * Parses a Node from the rest of the scanner's line. The text is
+	 * located by parsing the colors from the end of the line, so it may
+	 * contain commas.
 	 *
 	 * @param context The context this Node will be added to.
-	 * @param nodeStr The String to parse.
+	 * @param scanner The scanner, positioned after the node prefix.
+	 * @param colors  The colors parsed so far, by RGB value.
+	 * @param escaped Whether the text is escaped.
 	 * @return The parsed Node object.
+	 * @throws IOException if the line is malformed.
 	 */
-	private static GBNode readNode(GBContext context, String nodeStr) {
-		String[] vals = nodeStr.substring(2).split(",", NUM_NODE_FIELDS); // 2 is the length of "N:"
-		int id = Integer.parseInt(vals[0]);
-		int x = Integer.parseInt(vals[1]);
-		int y = Integer.parseInt(vals[2]);
-		int radius = Integer.parseInt(vals[3]);
-		String text = vals[4];
-		Color fillColor = new Color(Integer.parseInt(vals[5]));
-		Color borderColor = new Color(Integer.parseInt(vals[6]));
-		Color textColor = new Color(Integer.parseInt(vals[7]));
-
-		NodePanel panel = new NodePanel(x, y, radius);
-		panel.setText(text);
-		panel.setFillColor(fillColor);
-		panel.setBorderColor(borderColor);
-		panel.setTextColor(textColor);
+	private static GBNode readNode(GBContext context, TextScanner scanner,
+								   Map<Integer, Color> colors, boolean escaped) throws IOException {
+		int id = scanner.nextInt();
+		NodePanel panel = new NodePanel(scanner.nextInt(), scanner.nextInt(), scanner.nextInt());
+		panel.setTextColor(colors.computeIfAbsent(scanner.lastInt(), Color::new));
+		panel.setBorderColor(colors.computeIfAbsent(scanner.lastInt(), Color::new));
+		panel.setFillColor(colors.computeIfAbsent(scanner.lastInt(), Color::new));
+		panel.setText(scanner.text(escaped));
 
 		return new GBNode(new Node(id), context, panel);
 	}
 
 	/**
-	 * Parses an Edge from its String form.
+	 * Parses an Edge from the rest of the scanner's line. The weight (line
+	 * thickness) may be written as a decimal number, and is rounded.
 	 *
 	 * @param context The context this Edge will be added to.
-	 * @param edgeStr The String to parse.
+	 * @param scanner The scanner, positioned after the edge prefix.
+	 * @param colors  The colors parsed so far, by RGB value.
+	 * @param escaped Whether the text is escaped.
 	 * @return The parsed Edge object.
+	 * @throws IOException if the line is malformed, or an endpoint is not
+	 *                     in the context.
 	 */
-	private static GBEdge readEdge(GBContext context, String edgeStr) {
-		String[] vals = edgeStr.substring(2).split(",", NUM_EDGE_FIELDS); // 2 is the length of "E:"
-		int id = Integer.parseInt(vals[0]);
-		int idnode1 = Integer.parseInt(vals[1]);
-		int idnode2 = Integer.parseInt(vals[2]);
-		Color color = new Color(Integer.parseInt(vals[3]));
-		int weight = Integer.parseInt(vals[4]);
-		boolean directed = Integer.parseInt(vals[5]) == 1;
-		String text = vals[6];
+	private static GBEdge readEdge(GBContext context, TextScanner scanner,
+								   Map<Integer, Color> colors, boolean escaped) throws IOException {
+		int id = scanner.nextInt();
+		int idnode1 = scanner.nextInt();
+		int idnode2 = scanner.nextInt();
+		Color color = colors.computeIfAbsent(scanner.nextInt(), Color::new);
+		int weight = (int) Math.round(scanner.nextDouble());
+		boolean directed = scanner.nextInt() == 1;
+		double angle = scanner.lastDouble();
 
 		// Get the endpoints of the edge, assuming they have already been added to the context
-		GBNode node1 = (GBNode) context.getFromId(idnode1);
-		GBNode node2 = (GBNode) context.getFromId(idnode2);
+		GBComponent node1 = context.getFromId(idnode1);
+		GBComponent node2 = context.getFromId(idnode2);
+		if (!(node1 instanceof GBNode) || !(node2 instanceof GBNode)) {
+			throw scanner.error("Edge " + id + " has an endpoint which is not in the file.");
+		}
 
-		GBEdge loadedEdge = new GBEdge(id, node1, node2, directed);
+		GBEdge loadedEdge = new GBEdge(id, (GBNode) node1, (GBNode) node2, directed);
 		if (idnode1 == idnode2) {
-			loadedEdge.setAngle(Double.parseDouble(vals[7]));
+			loadedEdge.setAngle(angle);
 		}
 		loadedEdge.setColor(color);
 		loadedEdge.setWeight(weight);
-		loadedEdge.setText(text);
+		loadedEdge.setText(scanner.text(escaped));
 
 		return loadedEdge;
 	}
 
+	/**
+	 * Tell the user that a file could not be loaded, and log the error.
+	 *
+	 * @param gui   The GUI to show the dialog over, or null.
+	 * @param error The error which occurred.
+	 */
+	private static void showLoadError(GBFrame gui, Exception error) {
+		JOptionPane.showMessageDialog(gui, "GraphBuilder was unable to open the selected file. " +
+			"Make sure it is a valid GraphBuilder file. If this error is unexpected, hand the following " +
+			"information to a developer:\n\n" + ExceptionUtils.exceptionToString(error),
+									  "Unable to Open File", JOptionPane.ERROR_MESSAGE);
+		Logger.writeEntry(Logger.ERROR, ExceptionUtils.exceptionToString(error));
+	}
+
+	/**
+	 * Reads a graph file in the background, and switches the GUI to it on
+	 * the event dispatch thread.
+	 */
+	private static final class OpenWorker extends SwingWorker<GBContext, Void> {
+
+		private GBFrame gui;
+		private File graphFile;
+		private Runnable onOpened;
+
+		private OpenWorker(GBFrame gui, File graphFile, Runnable onOpened) {
+			this.gui = gui;
+			this.graphFile = graphFile;
+			this.onOpened = onOpened;
+		}
+
+		@Override
+		protected GBContext doInBackground() throws IOException {
+			return readGraph(graphFile);
+		}
+
+		@Override
+		protected void done() {
+			gui.hideProgress();
+
+			GBContext loadedContext;
+			try {
+				loadedContext = this.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				showLoadError(gui, e.getCause() instanceof Exception ? (Exception) e.getCause() : e);
+				return;
+			}
+
+			// Replace the old context with the one we just loaded
+			gui.updateContext(loadedContext);
+			onOpened.run();
+			ViewportLoader.load(gui);
+			gui.getEditor().repaint();
+			gui.getEditor().revalidate();
+		}
+
+	}
+
 }
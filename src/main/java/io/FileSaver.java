@@ -1,12 +1,27 @@
 package io;
 
+import config.Preferences;
 import context.GBContext;
+import ui.GBFrame;
 import util.ExceptionUtils;
+import util.FileUtils;
 
+import javax.swing.*;
+import java.io.BufferedWriter;
 import java.io.File;
-import java.io.PrintWriter;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.IntConsumer;
 
 /**
  * A utility class for saving graphs to files.
@@ -16,34 +31,183 @@ import java.util.List;
 public class FileSaver {
 
 	private static final String EXTENSION = ".gbf";
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	// Saves run one at a time, in order, so an older snapshot never replaces a newer one
+	private static final ExecutorService SAVE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "GraphBuilder save");
+		thread.setDaemon(true);
+		return thread;
+	});
 
 	/**
-	 * Saves the graph specified by the context to the target file.
+	 * Saves the graph specified by the context to the target file, without
+	 * blocking the caller. A snapshot of the graph is taken immediately, and
+	 * written on a background thread (see {@link #writeGraph}). A file is
+	 * saved back in the format it was loaded in; a graph saved to a new file
+	 * is written in the {@link GraphFileFormat#preferred() preferred}
+	 * format. Progress is
+	 * shown in the context's GUI. Once the file is in place, the context is
+	 * marked as saved, unless it was changed during the save, and the
+	 * context's journal is trimmed to the changes made since the snapshot.
+	 * Saves run one at a time, in the order they were requested.
 	 *
 	 * @param context The context containing the graph components we want to save to disk.
 	 * @param target  The destination file which will contain the saved data.
+	 * @return the worker performing the save.
+	 */
+	public static SwingWorker<File, Void> saveGraph(GBContext context, File target) {
+		if (!target.getName().endsWith(EXTENSION)) {
+			target = new File(target.getAbsolutePath() + EXTENSION);
+		}
+
+		GraphFileFormat format = target.equals(context.getCurrentlyLoadedFile()) && context.getFileFormat() != null ?
+			context.getFileFormat() : GraphFileFormat.preferred();
+		SwingWorker<File, Void> worker = new SaveWorker(context, GraphSnapshot.of(context), target, format);
+		SAVE_EXECUTOR.execute(worker);
+		return worker;
+	}
+
+	/**
+	 * Writes a checkpoint of the graph specified by the context for its
+	 * {@link GraphJournal journal}, without blocking the caller. Like
+	 * {@link #saveGraph}, a snapshot is taken immediately and written in the
+	 * background, always in the binary format, and the journal is trimmed to
+	 * the changes made since the snapshot. The context's file and save state
+	 * are left as they are.
+	 *
+	 * @param context The context whose graph to checkpoint.
+	 * @param target  The checkpoint file.
+	 * @return the worker writing the checkpoint.
+	 */
+	public static SwingWorker<File, Void> saveCheckpoint(GBContext context, File target) {
+		SwingWorker<File, Void> worker = new SaveWorker(context, GraphSnapshot.of(context), target, null);
+		SAVE_EXECUTOR.execute(worker);
+		return worker;
+	}
+
+	/**
+	 * Write a snapshot of a graph to the target file, blocking until it is
+	 * done. The snapshot is written to a temporary file in the target's
+	 * directory and forced to disk, and the temporary file is then moved
+	 * over the target (see {@link #moveIntoPlace}). A failure or crash at any
+	 * point leaves the target as it was, and once this returns the new
+	 * contents survive a crash.
+	 *
+	 * @param snapshot The snapshot of the graph to write.
+	 * @param target   The destination file.
+	 * @param format   The format to write the file in.
+	 * @param progress Receives the percentage of the file written so far.
+	 * @throws IOException if the file could not be written.
 	 */
-	public static void saveGraph(GBContext context, File target) {
+	public static void writeGraph(GraphSnapshot snapshot, File target, GraphFileFormat format,
+								  IntConsumer progress) throws IOException {
+		File directory = target.getAbsoluteFile().getParentFile();
+		File temp = File.createTempFile(target.getName(), TEMP_SUFFIX, directory);
 		try {
-			if (!target.getName().endsWith(EXTENSION)) {
-				target = new File(target.getAbsolutePath() + EXTENSION);
+			if (format == GraphFileFormat.COMPRESSED) {
+				CompressedGraphFile.write(snapshot, temp, Preferences.COMPRESSION_LEVEL, progress);
+			} else if (format == GraphFileFormat.BINARY) {
+				BinaryGraphFile.write(snapshot, temp, progress);
+			} else {
+				writeText(snapshot, temp, progress);
 			}
 
-			// Write all components to the file (create it if it does not exist)
-			target.createNewFile();
-			PrintWriter writer = new PrintWriter(target);
-			writeln(writer, String.valueOf(context.getNextId())); // Write id pool
-			writeln(writer, String.valueOf(context.getGraph().getConstraints())); // Write graph constraints
-			context.getGbNodes().forEach(gbNode -> writeln(writer, gbNode.toStorageString()));
-			context.getGbEdgeSet().forEach(gbEdge -> writeln(writer, gbEdge.toStorageString()));
-			writer.close();
+			moveIntoPlace(temp, target);
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
 
-			// Update the context to indicate it is saved
-			context.setCurrentlyLoadedFile(target);
-			context.setActionIdOnLastSave(context.getActionHistory().peek().actionId());
-			context.setAsSaved();
-		} catch (Exception e) {
-			ExceptionUtils.displayException(context.getGUI(), e);
+	/**
+	 * Write a snapshot of a graph to a checkpoint file in the binary format,
+	 * blocking until it is done. Like {@link #writeGraph}, a failure or
+	 * crash at any point leaves the target as it was.
+	 *
+	 * @param snapshot The snapshot of the graph to write.
+	 * @param target   The checkpoint file.
+	 * @param progress Receives the percentage of the file written so far.
+	 * @throws IOException if the file could not be written.
+	 */
+	public static void writeCheckpoint(GraphSnapshot snapshot, File target, IntConsumer progress)
+		throws IOException {
+		File directory = target.getAbsoluteFile().getParentFile();
+		File temp = File.createTempFile(target.getName(), TEMP_SUFFIX, directory);
+		try {
+			BinaryGraphFile.write(snapshot, temp, progress);
+			moveIntoPlace(temp, target);
+		} finally {
+			Files.deleteIfExists(temp.toPath());
+		}
+	}
+
+	/**
+	 * Move a fully written file over a target in the same directory, as one
+	 * atomic step where the file system allows it, and force the directory
+	 * to disk so the move itself survives a crash.
+	 *
+	 * @param source The file to move, which should already be forced to disk.
+	 * @param target The file to replace.
+	 * @throws IOException if the file could not be moved.
+	 */
+	public static void moveIntoPlace(File source, File target) throws IOException {
+		try {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					   StandardCopyOption.REPLACE_EXISTING);
+		} catch (AtomicMoveNotSupportedException e) {
+			Files.move(source.toPath(), target.toPath(), StandardCopyOption.REPLACE_EXISTING);
+		}
+
+		// The rename is only durable once the directory entry is
+		FileChannel directory;
+		try {
+			directory = FileChannel.open(target.getAbsoluteFile().getParentFile().toPath(), StandardOpenOption.READ);
+		} catch (IOException e) {
+			return; // Some platforms, such as Windows, cannot open a directory, and leave this to the file system
+		}
+		try (FileChannel channel = directory) {
+			channel.force(true);
+		}
+	}
+
+	/**
+	 * Write a snapshot of a graph to a file in the text format, and force the
+	 * file's contents to the storage device.
+	 *
+	 * @param snapshot The snapshot of the graph to write.
+	 * @param target   The destination file.
+	 * @param progress Receives the percentage of the file written so far.
+	 * @throws IOException if the file could not be written.
+	 */
+	private static void writeText(GraphSnapshot snapshot, File target, IntConsumer progress) throws IOException {
+		try (FileOutputStream stream = new FileOutputStream(target)) {
+			Writer writer = new BufferedWriter(new OutputStreamWriter(stream));
+			writeln(writer, String.valueOf(snapshot.getIdPool())); // Write id pool
+			writeln(writer, snapshot.getConstraints() + "," + FileUtils.ESCAPED_TEXT_TAG); // Write graph constraints
+
+			long numRecords = snapshot.getNumNodes() + snapshot.getNumEdges();
+			int percent = 0;
+			progress.accept(percent);
+			for (int i = 0 ; i < snapshot.getNumNodes() ; i++) {
+				writeln(writer, String.format("%s%d,%d,%d,%d,%s,%d,%d,%d", FileUtils.NODE_PREFIX,
+											  snapshot.nodeIds[i], snapshot.nodeX[i], snapshot.nodeY[i],
+											  snapshot.nodeRadii[i], FileUtils.escapeText(snapshot.nodeTexts[i]),
+											  snapshot.nodeFillColors[i], snapshot.nodeBorderColors[i],
+											  snapshot.nodeTextColors[i]));
+				percent = report(progress, percent, (int) (99L * (i + 1) / numRecords));
+			}
+			for (int i = 0 ; i < snapshot.getNumEdges() ; i++) {
+				writeln(writer, String.format("%s%d,%d,%d,%d,%d,%d,%s,%s", FileUtils.EDGE_PREFIX,
+											  snapshot.edgeIds[i], snapshot.nodeIds[snapshot.edgeNode1[i]],
+											  snapshot.nodeIds[snapshot.edgeNode2[i]], snapshot.edgeColors[i],
+											  snapshot.edgeWeights[i], snapshot.edgeDirected[i] ? 1 : 0,
+											  FileUtils.escapeText(snapshot.edgeTexts[i]), snapshot.edgeAngles[i]));
+				percent = report(progress, percent, (int) (99L * (snapshot.getNumNodes() + i + 1) / numRecords));
+			}
+
+			writer.flush();
+			stream.getFD().sync();
+			report(progress, percent, 100);
 		}
 	}
 
@@ -53,8 +217,143 @@ public class FileSaver {
 	 * @param writer The writer to write with.
 	 * @param string The string to write.
 	 */
-	private static void writeln(PrintWriter writer, String string) {
+	private static void writeln(Writer writer, String string) throws IOException {
 		writer.write(string + '\n');
 	}
 
+	/**
+	 * Report progress if it has changed.
+	 *
+	 * @param progress The receiver of the progress.
+	 * @param previous The last percentage reported.
+	 * @param current  The current percentage.
+	 * @return the current percentage.
+	 */
+	private static int report(IntConsumer progress, int previous, int current) {
+		if (current != previous) {
+			progress.accept(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Writes a snapshot in the background, and updates the context and its
+	 * GUI on the event dispatch thread.
+	 */
+	private static final class SaveWorker extends SwingWorker<File, Void> {
+
+		private GBContext context;
+		private GraphSnapshot snapshot;
+		private File target;
+
+		// The format of the graph file, or null if the snapshot is a journal checkpoint
+		private GraphFileFormat format;
+		private boolean checkpoint;
+
+		// The journal when the snapshot was taken, and its length at the time
+		private GraphJournal journal;
+		private long journalLength;
+
+		private SaveWorker(GBContext context, GraphSnapshot snapshot, File target, GraphFileFormat format) {
+			this.context = context;
+			this.snapshot = snapshot;
+			this.target = target;
+			this.format = format;
+			this.checkpoint = format == null;
+			this.journal = context.getJournal();
+			this.journalLength = journal == null ? 0 : journal.getLength();
+
+			GBFrame gui = context.getGUI();
+			if (gui != null) {
+				this.addPropertyChangeListener(event -> {
+					if ("progress".equals(event.getPropertyName())) {
+						gui.showProgress(checkpoint ? "Writing checkpoint" : "Saving", (Integer) event.getNewValue());
+					}
+				});
+			}
+		}
+
+		@Override
+		protected File doInBackground() throws IOException {
+			if (checkpoint) {
+				writeCheckpoint(snapshot, target, this::setProgress);
+			} else {
+				writeGraph(snapshot, target, format, this::setProgress);
+			}
+			return target;
+		}
+
+		@Override
+		protected void done() {
+			GBFrame gui = context.getGUI();
+			if (gui != null) {
+				gui.hideProgress();
+			}
+
+			try {
+				this.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+				return;
+			} catch (ExecutionException e) {
+				Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+				ExceptionUtils.displayException(gui, cause);
+				return;
+			}
+
+			if (checkpoint) {
+				// The checkpoint holds every change up to the snapshot, but the graph file is still unsaved.
+				// If the changes were discarded meanwhile, so is the checkpoint.
+				try {
+					if (journal != null && journal.isDiscarded()) {
+						journal.deleteCheckpoint();
+					} else if (journal != null) {
+						journal.drop(journalLength);
+					}
+				} catch (IOException e) {
+					ExceptionUtils.displayException(gui, e);
+				}
+				return;
+			}
+
+			// Update the context to indicate it is saved, up to the snapshot
+			context.setCurrentlyLoadedFile(target);
+			context.setFileFormat(format);
+			context.setActionIdOnLastSave(snapshot.getActionId());
+			if (gui != null && gui.getContext() == context) {
+				context.updateSaveState();
+			}
+
+			try {
+				this.updateJournal(gui);
+			} catch (IOException e) {
+				ExceptionUtils.displayException(gui, e);
+			}
+		}
+
+		/**
+		 * Drop the saved changes from the context's journal, and its
+		 * checkpoint, which is older than the file now. This applies to the
+		 * journal the context had when the save started, even if it has been
+		 * closed since. If the graph was saved to a different file, a journal
+		 * for that file is started instead, as long as the context is still
+		 * being edited.
+		 */
+		private void updateJournal(GBFrame gui) throws IOException {
+			GraphJournal current = context.getJournal();
+			if (journal != null && journal.getGraphFile().equals(target) && (current == journal || !journal.isOpen())) {
+				// The checkpoint goes first, so a crash never pairs it with a journal missing its changes
+				journal.deleteCheckpoint();
+				journal.drop(journalLength);
+			} else if (Preferences.JOURNAL_ENABLED && gui != null && gui.getContext() == context &&
+				(current == null || !current.getGraphFile().equals(target))) {
+				if (current != null) {
+					current.close();
+				}
+				context.setJournal(GraphJournal.open(context, target));
+			}
+		}
+
+	}
+
 }
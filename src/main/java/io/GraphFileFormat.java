@@ -0,0 +1,44 @@
+package io;
+
+import config.Preferences;
+
+import java.io.File;
+import java.io.IOException;
+
+/**
+ * An enumeration of the formats a graph file can be saved in.
+ *
+ * @author Brian Yao
+ */
+public enum GraphFileFormat {
+
+	TEXT,
+	BINARY,
+	COMPRESSED;
+
+	/**
+	 * @return the format new graph files are saved in, according to the
+	 *         preferences.
+	 */
+	public static GraphFileFormat preferred() {
+		if (Preferences.COMPRESSED_FILE_FORMAT) {
+			return COMPRESSED;
+		}
+		return Preferences.BINARY_FILE_FORMAT ? BINARY : TEXT;
+	}
+
+	/**
+	 * Detect the format of an existing graph file.
+	 *
+	 * @param graphFile The graph file.
+	 * @return the format of the file.
+	 * @throws IOException if the file could not be read.
+	 */
+	public static GraphFileFormat of(File graphFile) throws IOException {
+		if (CompressedGraphFile.isCompressed(graphFile)) {
+			return COMPRESSED;
+		}
+		return BinaryGraphFile.isBinary(graphFile) ? BINARY : TEXT;
+	}
+
+}
@@ -0,0 +1,663 @@
+package io;
+
+import config.Preferences;
+import context.GBContext;
+import graph.Graph;
+import graph.GraphEvent;
+import graph.GraphListener;
+import graph.components.Edge;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBComponent;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import logger.Logger;
+import lombok.Getter;
+import util.ExceptionUtils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.zip.CRC32;
+
+/**
+ * An append-only journal of the changes made to the graph in a context since
+ * it was last written to its file. The journal is kept in a sidecar file
+ * next to the graph file, so that a crash loses nothing even though the graph
+ * file itself is only rewritten occasionally.
+ *
+ * Changes are collected from the graph's events, plus any changes graph
+ * listeners cannot see (such as node movements) which reversible actions
+ * {@link actions.ReversibleAction#journal record} themselves. Each performed,
+ * undone or redone action becomes one transaction, appended as soon as the
+ * action is pushed onto the context's history. Transactions are forced to
+ * disk on a background thread, so the event dispatch thread never waits for
+ * the disk; every transaction appended while a force is under way is forced
+ * at once by the next one. A
+ * transaction consists of its payload length, the payload (the ID pool
+ * followed by the change records), and a CRC-32 of the payload; a torn
+ * transaction at the end of the file is ignored. All numbers are
+ * little-endian.
+ *
+ * Every record states the outcome of a change rather than the change itself
+ * (a node with all its fields, or a node's new location), and replaying a
+ * record whose outcome is already in place does nothing. The journal can
+ * therefore always be replayed onto its graph file, even if the file already
+ * includes some of the changes.
+ *
+ * Whenever the journal grows large, a checkpoint of the whole graph is
+ * written next to it in the background, in the binary format, and the
+ * transactions covered by the checkpoint are dropped from the journal. The
+ * graph file itself is only ever written when the user saves it. When a
+ * graph file is loaded, its checkpoint (if any) is read in its place before
+ * the journal is replayed. Saving the graph file deletes the checkpoint, and
+ * discarding the journal discards the checkpoint with it.
+ *
+ * @author Brian Yao
+ */
+public class GraphJournal implements GraphListener {
+
+	public static final String EXTENSION = ".gbj";
+	public static final String CHECKPOINT_EXTENSION = ".gbc";
+	public static final int MAGIC = 0x4A424247; // "GBBJ" when read as bytes
+	public static final int VERSION = 1;
+
+	static final int HEADER_SIZE = 8;
+
+	// Record types
+	private static final byte NODE = 1;
+	private static final byte REMOVE_NODE = 2;
+	private static final byte EDGE = 3;
+	private static final byte REMOVE_EDGE = 4;
+	private static final byte MOVE = 5;
+
+	private static final int DIRECTED_FLAG = 1;
+	private static final int INITIAL_BUFFER_SIZE = 1 << 10;
+
+	// Forces the appended transactions of every journal to disk, off the event dispatch thread
+	private static final ExecutorService FORCE_EXECUTOR = Executors.newSingleThreadExecutor(runnable -> {
+		Thread thread = new Thread(runnable, "GraphBuilder journal");
+		thread.setDaemon(true);
+		return thread;
+	});
+
+	@Getter
+	private File graphFile;
+	@Getter
+	private File file;
+	@Getter
+	private File checkpointFile;
+
+	private GBContext context;
+	private volatile FileChannel channel;
+
+	// Held while the channel is forced, closed or replaced
+	private final Object channelLock = new Object();
+	// Whether a force has been requested which has not started yet
+	private final AtomicBoolean forcePending = new AtomicBoolean();
+
+	// Records of the changes since the last transaction
+	private ByteBuffer pending;
+
+	// The number of transaction bytes dropped from the start of the journal
+	private long dropped;
+	@Getter
+	private boolean discarded;
+
+	private SwingWorker<File, Void> compaction;
+
+	/**
+	 * Open the journal of the given graph file for appending, creating it if
+	 * it does not exist, and start recording the changes in the context.
+	 *
+	 * @param context   The context to record.
+	 * @param graphFile The file the context's graph is saved in.
+	 * @throws IOException if the journal could not be opened.
+	 */
+	private GraphJournal(GBContext context, File graphFile) throws IOException {
+		this.context = context;
+		this.graphFile = graphFile;
+		this.file = journalFileFor(graphFile);
+		this.checkpointFile = checkpointFileFor(graphFile);
+		this.pending = ByteBuffer.allocate(INITIAL_BUFFER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE,
+								   StandardOpenOption.CREATE);
+		try {
+			if (channel.size() == 0) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+				header.putInt(MAGIC).putInt(VERSION).flip();
+				writeFully(channel, header, 0);
+				channel.force(true);
+			} else {
+				// Drop any transaction torn by a crash, so new ones follow the last complete one
+				long end = validEnd(read(channel), null);
+				if (end < channel.size()) {
+					channel.truncate(end);
+					channel.force(true);
+				}
+			}
+		} catch (IOException e) {
+			channel.close();
+			throw e;
+		}
+
+		context.getGraph().addGraphListener(this);
+	}
+
+	/**
+	 * Open the journal of the given graph file for appending, creating it if
+	 * it does not exist, and start recording the changes in the context. Any
+	 * existing journal should be replayed onto the context first.
+	 *
+	 * @param context   The context to record.
+	 * @param graphFile The file the context's graph is saved in.
+	 * @return the open journal.
+	 * @throws IOException if the journal could not be opened.
+	 */
+	public static GraphJournal open(GBContext context, File graphFile) throws IOException {
+		return new GraphJournal(context, graphFile);
+	}
+
+	/**
+	 * @param graphFile A graph file.
+	 * @return the journal file for the graph file, which may not exist.
+	 */
+	public static File journalFileFor(File graphFile) {
+		return sidecarFile(graphFile, EXTENSION);
+	}
+
+	/**
+	 * @param graphFile A graph file.
+	 * @return the checkpoint file for the graph file, which may not exist.
+	 */
+	public static File checkpointFileFor(File graphFile) {
+		return sidecarFile(graphFile, CHECKPOINT_EXTENSION);
+	}
+
+	/**
+	 * Apply the changes recorded in the journal of the given graph file to a
+	 * context loaded from that file. Nothing happens if there is no journal.
+	 *
+	 * @param context   The context loaded from the graph file.
+	 * @param graphFile The graph file.
+	 * @return the number of transactions replayed.
+	 * @throws IOException if the journal could not be read.
+	 */
+	public static int replay(GBContext context, File graphFile) throws IOException {
+		File journalFile = journalFileFor(graphFile);
+		if (!journalFile.exists()) {
+			return 0;
+		}
+
+		ByteBuffer journal;
+		try (FileChannel channel = FileChannel.open(journalFile.toPath(), StandardOpenOption.READ)) {
+			journal = read(channel);
+		}
+
+		int[] count = new int[1];
+		int[] idPool = new int[] {context.getNextId()};
+		validEnd(journal, payload -> {
+			idPool[0] = Math.max(idPool[0], payload.getInt());
+			while (payload.hasRemaining()) {
+				apply(context, payload);
+			}
+			count[0]++;
+		});
+		context.setNextId(idPool[0]);
+		return count[0];
+	}
+
+	@Override
+	public void graphChanged(List<GraphEvent> events) {
+		Graph graph = context.getGraph();
+		for (GraphEvent event : events) {
+			switch (event.getType()) {
+				case NODE_ADDED:
+					this.recordNode(event.getNode().getGbNode());
+					break;
+				case NODE_REMOVED:
+					this.ensure(5);
+					pending.put(REMOVE_NODE).putInt(event.getNode().getId());
+					break;
+				case EDGE_ADDED:
+					Edge edge = event.getEdge();
+					List<Edge> pairEdges = graph.getEdges().get(edge.getUoEndpoints());
+					this.recordEdge(edge.getGbEdge(), pairEdges == null ? 0 : Math.max(0, pairEdges.indexOf(edge)));
+					break;
+				case EDGE_REMOVED:
+					this.ensure(5);
+					pending.put(REMOVE_EDGE).putInt(event.getEdge().getId());
+					break;
+				default:
+					// Edge weights are not edited through the graph
+					break;
+			}
+		}
+	}
+
+	/**
+	 * Record the current location of a node.
+	 *
+	 * @param node The node which moved.
+	 */
+	public void recordMove(GBNode node) {
+		this.ensure(13);
+		pending.put(MOVE).putInt(node.getId()).putInt(node.getPanel().getXCoord())
+			.putInt(node.getPanel().getYCoord());
+	}
+
+	/**
+	 * Append the changes recorded since the last transaction as a new
+	 * transaction, and have it forced to disk in the background. If the
+	 * journal has grown large, a checkpoint is written in the background.
+	 */
+	public void commit() {
+		if (pending.position() == 0) {
+			return;
+		}
+
+		pending.flip();
+		ByteBuffer transaction = ByteBuffer.allocate(pending.remaining() + 12).order(ByteOrder.LITTLE_ENDIAN);
+		transaction.putInt(pending.remaining() + 4).putInt(context.getNextId()).put(pending);
+		CRC32 crc = new CRC32();
+		crc.update(transaction.array(), 4, transaction.position() - 4);
+		transaction.putInt((int) crc.getValue()).flip();
+		pending.clear();
+
+		try {
+			writeFully(channel, transaction, channel.size());
+		} catch (IOException e) {
+			Logger.writeEntry(Logger.ERROR, ExceptionUtils.exceptionToString(e));
+			return;
+		}
+		if (forcePending.compareAndSet(false, true)) {
+			FORCE_EXECUTOR.execute(this::force);
+		}
+
+		if (this.getLength() >= Preferences.JOURNAL_COMPACTION_SIZE) {
+			this.compact();
+		}
+	}
+
+	/**
+	 * Get the position just after the last transaction. Positions count every
+	 * transaction ever appended to this journal, including those dropped
+	 * since, so they can be compared across calls to {@link #drop}.
+	 *
+	 * @return the position of the end of the journal.
+	 */
+	public long getLength() {
+		try {
+			return dropped + channel.size() - HEADER_SIZE;
+		} catch (IOException e) {
+			return dropped;
+		}
+	}
+
+	/**
+	 * Drop the transactions before the given position, once the changes in
+	 * them are saved in the graph file or a checkpoint. The remaining
+	 * transactions are copied into a new journal, which then atomically
+	 * replaces this one. A journal which was closed since the position was
+	 * taken (by a save still running when the GUI switched contexts) is
+	 * trimmed on disk all the same; a discarded journal is left alone.
+	 *
+	 * @param position A position returned by {@link #getLength()}.
+	 * @throws IOException if the journal could not be rewritten.
+	 */
+	public void drop(long position) throws IOException {
+		long count = position - dropped;
+		if (count <= 0 || discarded) {
+			return;
+		}
+
+		synchronized (channelLock) {
+			boolean open = channel.isOpen();
+			ByteBuffer rest;
+			try (FileChannel source = open ? null : FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+				FileChannel current = open ? channel : source;
+				rest = ByteBuffer.allocate((int) (current.size() - HEADER_SIZE - count));
+				readFully(current, rest, HEADER_SIZE + count);
+				rest.flip();
+			}
+
+			File temp = File.createTempFile(file.getName(), ".tmp", file.getAbsoluteFile().getParentFile());
+			try (FileChannel tempChannel = FileChannel.open(temp.toPath(), StandardOpenOption.WRITE)) {
+				ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE).order(ByteOrder.LITTLE_ENDIAN);
+				header.putInt(MAGIC).putInt(VERSION).flip();
+				writeFully(tempChannel, header, 0);
+				writeFully(tempChannel, rest, HEADER_SIZE);
+				tempChannel.force(true);
+			}
+
+			if (open) {
+				channel.close();
+			}
+			Files.move(temp.toPath(), file.toPath(), StandardCopyOption.ATOMIC_MOVE,
+					   StandardCopyOption.REPLACE_EXISTING);
+			if (open) {
+				channel = FileChannel.open(file.toPath(), StandardOpenOption.READ, StandardOpenOption.WRITE);
+			}
+		}
+		dropped = position;
+	}
+
+	/**
+	 * @return true iff the journal is recording changes, and has not been
+	 *         closed or discarded.
+	 */
+	public boolean isOpen() {
+		return channel.isOpen();
+	}
+
+	/**
+	 * Write a checkpoint of the graph in the background, unless one is
+	 * already being written. The checkpoint drops the transactions it covers
+	 * once it is in place. The graph file and the context's save state are
+	 * left as they are.
+	 */
+	public void compact() {
+		if (this.getLength() > dropped && (compaction == null || compaction.isDone())) {
+			compaction = FileSaver.saveCheckpoint(context, checkpointFile);
+		}
+	}
+
+	/**
+	 * Delete the checkpoint, once the graph file includes every change in it.
+	 *
+	 * @throws IOException if the checkpoint could not be deleted.
+	 */
+	public void deleteCheckpoint() throws IOException {
+		Files.deleteIfExists(checkpointFile.toPath());
+	}
+
+	/**
+	 * Stop recording changes, force the journal to disk and close it. The
+	 * journal stays on disk, to be replayed the next time the graph file is
+	 * loaded.
+	 */
+	public void close() {
+		context.getGraph().removeGraphListener(this);
+		synchronized (channelLock) {
+			try (FileChannel closed = channel) {
+				if (closed.isOpen()) {
+					closed.force(false);
+				}
+			} catch (IOException e) {
+				Logger.writeEntry(Logger.ERROR, ExceptionUtils.exceptionToString(e));
+			}
+		}
+	}
+
+	/**
+	 * Close the journal and delete it along with its checkpoint, discarding
+	 * the changes made since the graph file was last written.
+	 */
+	public void discard() {
+		this.close();
+		discarded = true;
+		if (checkpointFile.exists() && !checkpointFile.delete()) {
+			Logger.writeEntry(Logger.ERROR, "Unable to delete the checkpoint " + checkpointFile);
+		}
+		if (!file.delete()) {
+			Logger.writeEntry(Logger.ERROR, "Unable to delete the journal " + file);
+		}
+	}
+
+	// Private methods
+
+	/**
+	 * Force the transactions appended so far to disk. Transactions appended
+	 * from here on request another force.
+	 */
+	private void force() {
+		forcePending.set(false);
+		synchronized (channelLock) {
+			if (!channel.isOpen()) {
+				return; // Closing forced the journal already
+			}
+			try {
+				channel.force(false);
+			} catch (IOException e) {
+				Logger.writeEntry(Logger.ERROR, ExceptionUtils.exceptionToString(e));
+			}
+		}
+	}
+
+	/**
+	 * @param graphFile A graph file.
+	 * @param extension The extension of the sidecar file.
+	 * @return the file with the graph file's base name and the given
+	 *         extension, in the same directory.
+	 */
+	private static File sidecarFile(File graphFile, String extension) {
+		String name = graphFile.getName();
+		int lastDot = name.lastIndexOf('.');
+		String baseName = lastDot > 0 ? name.substring(0, lastDot) : name;
+		return new File(graphFile.getAbsoluteFile().getParentFile(), baseName + extension);
+	}
+
+	/**
+	 * Record a node with all of its fields.
+	 *
+	 * @param node The node to record.
+	 */
+	private void recordNode(GBNode node) {
+		NodePanel panel = node.getPanel();
+		byte[] text = panel.getText().getBytes(StandardCharsets.UTF_8);
+		this.ensure(33 + text.length);
+		pending.put(NODE).putInt(node.getId()).putInt(panel.getXCoord()).putInt(panel.getYCoord())
+			.putInt(panel.getRadius()).putInt(panel.getFillColor().getRGB())
+			.putInt(panel.getBorderColor().getRGB()).putInt(panel.getTextColor().getRGB())
+			.putInt(text.length).put(text);
+	}
+
+	/**
+	 * Record an edge with all of its fields.
+	 *
+	 * @param edge     The edge to record.
+	 * @param position The position of the edge among the edges between its
+	 *                 endpoints.
+	 */
+	private void recordEdge(GBEdge edge, int position) {
+		byte[] text = edge.getText().getBytes(StandardCharsets.UTF_8);
+		this.ensure(45 + text.length);
+		pending.put(EDGE).putInt(edge.getId()).putInt(edge.getFirstEnd().getId())
+			.putInt(edge.getSecondEnd().getId()).putInt(edge.getColor().getRGB()).putInt(edge.getWeight())
+			.putInt(edge.isDirected() ? DIRECTED_FLAG : 0).putInt(position).putDouble(edge.getAngle())
+			.putInt(text.length).put(text);
+	}
+
+	/**
+	 * Make room for the given number of bytes in the pending records.
+	 */
+	private void ensure(int bytes) {
+		if (pending.remaining() < bytes) {
+			ByteBuffer larger = ByteBuffer.allocate(Math.max(2 * pending.capacity(), pending.position() + bytes))
+				.order(ByteOrder.LITTLE_ENDIAN);
+			pending.flip();
+			pending = larger.put(pending);
+		}
+	}
+
+	/**
+	 * Apply the next record in a transaction to a context.
+	 *
+	 * @param context The context to change.
+	 * @param payload The transaction, positioned at the start of a record.
+	 */
+	private static void apply(GBContext context, ByteBuffer payload) {
+		Graph graph = context.getGraph();
+		byte type = payload.get();
+		int id = payload.getInt();
+		GBComponent existing = context.getFromId(id);
+		GBNode existingNode = existing instanceof GBNode && graph.containsNode(((GBNode) existing).getNode()) ?
+			(GBNode) existing : null;
+		GBEdge existingEdge = existing instanceof GBEdge && graph.containsEdge(((GBEdge) existing).getEdge()) ?
+			(GBEdge) existing : null;
+
+		switch (type) {
+			case NODE:
+				NodePanel panel = existingNode != null ? existingNode.getPanel() :
+					new NodePanel(payload.getInt(), payload.getInt(), payload.getInt());
+				if (existingNode != null) {
+					panel.setCoords(payload.getInt(), payload.getInt());
+					payload.getInt(); // The radius of a node never changes
+				}
+				panel.setFillColor(new Color(payload.getInt()));
+				panel.setBorderColor(new Color(payload.getInt()));
+				panel.setTextColor(new Color(payload.getInt()));
+				panel.setText(getString(payload));
+				if (existingNode == null) {
+					context.addNode(new GBNode(new Node(id), context, panel));
+				}
+				break;
+			case REMOVE_NODE:
+				if (existingNode != null) {
+					context.removeNode(existingNode);
+				}
+				break;
+			case EDGE:
+				GBComponent end1 = context.getFromId(payload.getInt());
+				GBComponent end2 = context.getFromId(payload.getInt());
+				int color = payload.getInt();
+				int weight = payload.getInt();
+				boolean directed = (payload.getInt() & DIRECTED_FLAG) != 0;
+				int position = payload.getInt();
+				double angle = payload.getDouble();
+				String text = getString(payload);
+				if (existingEdge != null || !(end1 instanceof GBNode) || !(end2 instanceof GBNode) ||
+					!graph.containsNode(((GBNode) end1).getNode()) || !graph.containsNode(((GBNode) end2).getNode())) {
+					break;
+				}
+
+				GBEdge edge = new GBEdge(id, (GBNode) end1, (GBNode) end2, directed);
+				edge.setColor(new Color(color));
+				edge.setWeight(weight);
+				edge.setAngle(angle);
+				edge.setText(text);
+				List<Edge> pairEdges = graph.getEdges().get(edge.getEdge().getUoEndpoints());
+				context.addEdge(edge, Math.min(position, pairEdges == null ? 0 : pairEdges.size()));
+				break;
+			case REMOVE_EDGE:
+				if (existingEdge != null) {
+					graph.removeEdge(existingEdge.getEdge());
+				}
+				break;
+			case MOVE:
+				int x = payload.getInt();
+				int y = payload.getInt();
+				if (existingNode != null) {
+					existingNode.getPanel().setCoords(x, y);
+				}
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown journal record type: " + type);
+		}
+	}
+
+	/**
+	 * Find the end of the last complete transaction in a journal, passing
+	 * each complete transaction's payload to the given consumer.
+	 *
+	 * @param journal  The contents of the journal file.
+	 * @param consumer The consumer of the payloads, or null.
+	 * @return the position just after the last complete transaction.
+	 * @throws IOException if the journal has an invalid header, or a complete
+	 *                     transaction cannot be applied.
+	 */
+	private static long validEnd(ByteBuffer journal, PayloadConsumer consumer) throws IOException {
+		if (journal.limit() < HEADER_SIZE || journal.getInt(0) != MAGIC) {
+			throw new IOException("Not a GraphBuilder journal.");
+		} else if (journal.getInt(4) != VERSION) {
+			throw new IOException("Unsupported journal version: " + journal.getInt(4));
+		}
+
+		int position = HEADER_SIZE;
+		CRC32 crc = new CRC32();
+		while (journal.limit() - position >= 4) {
+			int length = journal.getInt(position);
+			if (length < 4 || journal.limit() - position - 8 < length) {
+				break;
+			}
+
+			ByteBuffer payload = journal.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+			payload.limit(position + 4 + length).position(position + 4);
+			crc.reset();
+			crc.update(payload.duplicate());
+			if ((int) crc.getValue() != journal.getInt(position + 4 + length)) {
+				break;
+			}
+
+			if (consumer != null) {
+				try {
+					consumer.accept(payload.slice().order(ByteOrder.LITTLE_ENDIAN));
+				} catch (BufferUnderflowException | IllegalArgumentException e) {
+					throw new IOException("Corrupt journal transaction at position " + position + ".", e);
+				}
+			}
+			position += length + 8;
+		}
+		return position;
+	}
+
+	/**
+	 * Read a length-prefixed UTF-8 string.
+	 */
+	private static String getString(ByteBuffer buffer) {
+		byte[] bytes = new byte[buffer.getInt()];
+		buffer.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * Read the whole of a journal file into memory.
+	 */
+	private static ByteBuffer read(FileChannel channel) throws IOException {
+		if (channel.size() > Integer.MAX_VALUE) {
+			throw new IOException("The journal is too large to read.");
+		}
+		ByteBuffer buffer = ByteBuffer.allocate((int) channel.size()).order(ByteOrder.LITTLE_ENDIAN);
+		readFully(channel, buffer, 0);
+		return buffer.flip();
+	}
+
+	private static void readFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				throw new IOException("Unexpected end of journal.");
+			}
+			position += read;
+		}
+	}
+
+	private static void writeFully(FileChannel channel, ByteBuffer buffer, long position) throws IOException {
+		while (buffer.hasRemaining()) {
+			position += channel.write(buffer, position);
+		}
+	}
+
+	/**
+	 * A consumer of transaction payloads which may fail.
+	 */
+	@FunctionalInterface
+	private interface PayloadConsumer {
+		void accept(ByteBuffer payload) throws IOException;
+	}
+
+}
@@ -0,0 +1,129 @@
+package io;
+
+import context.GBContext;
+import graph.Graph;
+import graph.components.Edge;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import lombok.Getter;
+
+import java.util.List;
+
+/**
+ * An immutable copy of everything needed to write the graph in a context to
+ * a file. Taking a snapshot only copies fields into arrays, so it is cheap
+ * enough to do on the event dispatch thread; the snapshot can then be
+ * written on another thread while the graph keeps changing.
+ *
+ * Nodes are stored by their index in the graph. Edges are stored grouped by
+ * endpoints, in the order they appear between those endpoints, and refer to
+ * their endpoints by node index.
+ *
+ * @author Brian Yao
+ */
+public final class GraphSnapshot {
+
+	@Getter
+	private final int idPool;
+	@Getter
+	private final int constraints;
+	@Getter
+	private final int numNodes;
+	@Getter
+	private final int numEdges;
+
+	// The ID of the most recent action when the snapshot was taken, or -1
+	@Getter
+	private final int actionId;
+
+	final int[] nodeIds;
+	final int[] nodeX;
+	final int[] nodeY;
+	final int[] nodeRadii;
+	final String[] nodeTexts;
+	final int[] nodeFillColors;
+	final int[] nodeBorderColors;
+	final int[] nodeTextColors;
+
+	final int[] edgeIds;
+	final int[] edgeNode1;
+	final int[] edgeNode2;
+	final int[] edgeColors;
+	final int[] edgeWeights;
+	final double[] edgeNumericWeights;
+	final boolean[] edgeDirected;
+	final String[] edgeTexts;
+	final double[] edgeAngles;
+
+	/**
+	 * Copy the graph in the given context.
+	 *
+	 * @param context The context to copy.
+	 */
+	private GraphSnapshot(GBContext context) {
+		Graph graph = context.getGraph();
+		idPool = context.getNextId();
+		constraints = graph.getConstraints();
+		numNodes = graph.getNumNodes();
+		numEdges = graph.getNumEdges();
+		actionId = context.getActionHistory().isEmpty() ? -1 : context.getActionHistory().peek().actionId();
+
+		nodeIds = new int[numNodes];
+		nodeX = new int[numNodes];
+		nodeY = new int[numNodes];
+		nodeRadii = new int[numNodes];
+		nodeTexts = new String[numNodes];
+		nodeFillColors = new int[numNodes];
+		nodeBorderColors = new int[numNodes];
+		nodeTextColors = new int[numNodes];
+		for (int i = 0 ; i < numNodes ; i++) {
+			NodePanel panel = graph.getNodeAt(i).getGbNode().getPanel();
+			nodeIds[i] = graph.getNodeAt(i).getId();
+			nodeX[i] = panel.getXCoord();
+			nodeY[i] = panel.getYCoord();
+			nodeRadii[i] = panel.getRadius();
+			nodeTexts[i] = panel.getText();
+			nodeFillColors[i] = panel.getFillColor().getRGB();
+			nodeBorderColors[i] = panel.getBorderColor().getRGB();
+			nodeTextColors[i] = panel.getTextColor().getRGB();
+		}
+
+		edgeIds = new int[numEdges];
+		edgeNode1 = new int[numEdges];
+		edgeNode2 = new int[numEdges];
+		edgeColors = new int[numEdges];
+		edgeWeights = new int[numEdges];
+		edgeNumericWeights = new double[numEdges];
+		edgeDirected = new boolean[numEdges];
+		edgeTexts = new String[numEdges];
+		edgeAngles = new double[numEdges];
+		int i = 0;
+		for (List<Edge> pairEdges : graph.getEdges().values()) {
+			for (Edge e : pairEdges) {
+				GBEdge gbEdge = e.getGbEdge();
+				edgeIds[i] = e.getId();
+				edgeNode1[i] = graph.getNodeIndex(e.getFirstEnd());
+				edgeNode2[i] = graph.getNodeIndex(e.getSecondEnd());
+				edgeColors[i] = gbEdge.getColor().getRGB();
+				edgeWeights[i] = gbEdge.getWeight();
+				edgeNumericWeights[i] = e.getNumericWeight();
+				edgeDirected[i] = e.isDirected();
+				edgeTexts[i] = gbEdge.getText();
+				edgeAngles[i] = gbEdge.getAngle();
+				i++;
+			}
+		}
+	}
+
+	/**
+	 * Take a snapshot of the graph in the given context. This must be called
+	 * on the thread which modifies the context.
+	 *
+	 * @param context The context to copy.
+	 * @return the snapshot.
+	 */
+	public static GraphSnapshot of(GBContext context) {
+		return new GraphSnapshot(context);
+	}
+
+}
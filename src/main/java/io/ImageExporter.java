@@ -0,0 +1,593 @@
+package io;
+
+import context.GBContext;
+import graph.components.Edge;
+import graph.components.Node;
+import graph.components.display.EdgeShape;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import structures.BoundsGrid;
+import structures.UOPair;
+import ui.GBFrame;
+import util.ExceptionUtils;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.Ellipse2D;
+import java.awt.geom.PathIterator;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import java.io.BufferedOutputStream;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.IntConsumer;
+
+/**
+ * Exports the graph of a context as an image, without an editor or a
+ * display, so it runs with java.awt.headless=true. Edges are drawn from the
+ * same geometry the editor draws (see EdgeShape), and nodes are drawn by
+ * their panels, in the colors stored with the graph: the selections and
+ * highlights of an editor are not shown. The image covers the bounds of
+ * the graph.
+ *
+ * The nodes and edges are captured when an export begins, on the caller's
+ * thread, and can then be written on any thread while the graph is edited.
+ *
+ * PNG images are rendered in tiles on a ForkJoinPool. The tiles of a band
+ * of rows are rendered in parallel into their own images, each drawing
+ * only the components which a grid of their bounds places in the tile,
+ * and the band is written out while the next band renders, so the whole
+ * image is never held in memory. SVG images are written as one element
+ * per edge, arrow tip and node.
+ *
+ * @author Brian Yao
+ */
+public class ImageExporter {
+
+	private static final int TILE_SIZE = 512;
+	private static final int MIN_TILE_WIDTH = 64;
+	private static final int MARGIN = 16; // Blank space around the graph, in editor coordinates
+
+	private static final int FONT_SIZE = 12;
+
+	private static final String SVG_EXTENSION = ".svg";
+	private static final String TEMP_SUFFIX = ".tmp";
+
+	/**
+	 * Get the region of the editor an exported image of the context covers:
+	 * the bounds of its nodes and edges, with a margin around them.
+	 *
+	 * @param context The context to export.
+	 * @return the bounds of the exported image, in editor coordinates.
+	 */
+	public static Rectangle getBounds(GBContext context) {
+		return new Scene(context, TILE_SIZE).bounds;
+	}
+
+	/**
+	 * Export the graph of a context as an image file, without blocking the
+	 * caller. The graph is captured immediately, and the image is written
+	 * on a background thread to a temporary file in the target's directory,
+	 * which is moved over the target once it is complete, so a failure
+	 * leaves no partial image behind. Progress is shown in the context's GUI.
+	 *
+	 * @param context The context to export.
+	 * @param target  The image file, written as SVG if its name ends in ".svg",
+	 *                and as PNG otherwise.
+	 * @param scale   The number of pixels per unit of editor coordinates of a PNG.
+	 * @return the worker performing the export.
+	 */
+	public static SwingWorker<File, Void> exportImage(GBContext context, File target, double scale) {
+		checkScale(scale);
+		boolean svg = target.getName().toLowerCase().endsWith(SVG_EXTENSION);
+		SwingWorker<File, Void> worker = new ExportWorker(context, new Scene(context, TILE_SIZE / scale), target,
+														  svg, scale);
+		if (context.getGUI() != null) {
+			context.getGUI().showProgress("Exporting " + target.getName());
+		}
+		worker.execute();
+		return worker;
+	}
+
+	/**
+	 * Write the graph of a context as a PNG image, rendering it on the
+	 * common ForkJoinPool.
+	 *
+	 * @param context The context to export.
+	 * @param out     The stream to write the image to, which is flushed but not closed.
+	 * @param scale   The number of pixels per unit of editor coordinates.
+	 * @throws IOException if the image could not be written.
+	 */
+	public static void writePng(GBContext context, OutputStream out, double scale) throws IOException {
+		writePng(context, out, scale, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Write the graph of a context as a PNG image, rendering it on the given pool.
+	 *
+	 * @param context The context to export.
+	 * @param out     The stream to write the image to, which is flushed but not closed.
+	 * @param scale   The number of pixels per unit of editor coordinates.
+	 * @param pool    The pool to render the tiles of the image on.
+	 * @throws IOException if the image could not be written.
+	 */
+	public static void writePng(GBContext context, OutputStream out, double scale,
+								ForkJoinPool pool) throws IOException {
+		writePng(context, out, scale, pool, TILE_SIZE);
+	}
+
+	/**
+	 * Write the graph of a context as a PNG image, rendering it on the given pool.
+	 *
+	 * @param context  The context to export.
+	 * @param out      The stream to write the image to, which is flushed but not closed.
+	 * @param scale    The number of pixels per unit of editor coordinates.
+	 * @param pool     The pool to render the tiles of the image on.
+	 * @param tileSize The largest width and height of a tile, in pixels.
+	 * @throws IOException if the image could not be written.
+	 */
+	static void writePng(GBContext context, OutputStream out, double scale, ForkJoinPool pool,
+						 int tileSize) throws IOException {
+		checkScale(scale);
+		if (tileSize <= 0) {
+			throw new IllegalArgumentException("The tile size must be positive.");
+		}
+		writePng(new Scene(context, tileSize / scale), out, scale, pool, tileSize, percent -> {});
+	}
+
+	/**
+	 * Write the graph of a context as an SVG image, in editor coordinates.
+	 * The writer is flushed but not closed.
+	 *
+	 * @param context The context to export.
+	 * @param out     The writer to write the image to.
+	 * @throws IOException if the image could not be written.
+	 */
+	public static void writeSvg(GBContext context, Writer out) throws IOException {
+		writeSvg(new Scene(context, TILE_SIZE), out, percent -> {});
+	}
+
+	// Private static methods
+
+	/**
+	 * Write a captured graph as a PNG image.
+	 *
+	 * @param scene    The components to draw, indexed in cells of the tile size.
+	 * @param out      The stream to write the image to, which is flushed but not closed.
+	 * @param scale    The number of pixels per unit of editor coordinates.
+	 * @param pool     The pool to render the tiles of the image on.
+	 * @param tileSize The largest width and height of a tile, in pixels.
+	 * @param progress Receives the percentage of the image written so far.
+	 * @throws IOException if the image could not be written.
+	 */
+	private static void writePng(Scene scene, OutputStream out, double scale, ForkJoinPool pool, int tileSize,
+								 IntConsumer progress) throws IOException {
+		long width = (long) Math.ceil(scene.bounds.width * scale);
+		long height = (long) Math.ceil(scene.bounds.height * scale);
+		if (width * tileSize > Integer.MAX_VALUE || height > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("The image would be too large: " + width + " by " + height);
+		}
+
+		// Split each band into at least as many tiles as there are threads, if it is wide enough
+		int tileWidth = (int) Math.max(Math.min(Math.min(MIN_TILE_WIDTH, tileSize), width),
+									   Math.min(tileSize, (width + pool.getParallelism() - 1) / pool.getParallelism()));
+		int bands = (int) ((height + tileSize - 1) / tileSize);
+		try (PngWriter writer = new PngWriter(out, (int) width, (int) height)) {
+			List<Future<BufferedImage>> band = submitBand(scene, scale, pool, 0, tileWidth, tileSize,
+														  (int) width, (int) height);
+			int[] rows = new int[(int) width * tileSize];
+			int percent = 0;
+			for (int b = 0 ; b < bands ; b++) {
+				// Render the next band while this one is written
+				List<Future<BufferedImage>> next = b + 1 < bands ?
+					submitBand(scene, scale, pool, (b + 1) * tileSize, tileWidth, tileSize, (int) width, (int) height) :
+					null;
+				int bandHeight = 0;
+				for (int t = 0 ; t < band.size() ; t++) {
+					BufferedImage tile = band.get(t).get();
+					bandHeight = tile.getHeight();
+					int[] pixels = ((DataBufferInt) tile.getRaster().getDataBuffer()).getData();
+					for (int r = 0 ; r < tile.getHeight() ; r++) {
+						System.arraycopy(pixels, r * tile.getWidth(), rows, r * (int) width + t * tileWidth,
+										 tile.getWidth());
+					}
+				}
+				writer.writeRows(rows, 0, (int) width, bandHeight);
+				percent = report(progress, percent, (int) (100L * (b + 1) / bands));
+				band = next;
+			}
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while rendering the image.", e);
+		} catch (ExecutionException e) {
+			throw new IOException("Failed to render the image.", e.getCause());
+		}
+	}
+
+	/**
+	 * Write a captured graph as an SVG image, in editor coordinates.
+	 *
+	 * @param scene    The components to draw.
+	 * @param out      The writer to write the image to, which is flushed but not closed.
+	 * @param progress Receives the percentage of the image written so far.
+	 * @throws IOException if the image could not be written.
+	 */
+	private static void writeSvg(Scene scene, Writer out, IntConsumer progress) throws IOException {
+		Rectangle bounds = scene.bounds;
+		out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n");
+		out.write(String.format("<svg xmlns=\"http://www.w3.org/2000/svg\" width=\"%d\" height=\"%d\" " +
+									"viewBox=\"%d %d %d %d\">\n", bounds.width, bounds.height,
+								bounds.x, bounds.y, bounds.width, bounds.height));
+		out.write(String.format("<rect x=\"%d\" y=\"%d\" width=\"%d\" height=\"%d\" fill=\"#FFFFFF\"/>\n",
+								bounds.x, bounds.y, bounds.width, bounds.height));
+
+		long numElements = scene.shapes.length + scene.nodes.length;
+		int percent = 0;
+		StringBuilder element = new StringBuilder();
+		for (int i = 0 ; i < scene.shapes.length ; i++) {
+			EdgeShape shape = scene.shapes[i];
+			element.setLength(0);
+			element.append("<path d=\"");
+			appendPath(element, shape.getShape());
+			element.append("\" fill=\"none\" stroke=\"").append(hex(scene.edgeColors[i]))
+				.append("\" stroke-width=\"").append(scene.edgeWeights[i]).append("\"/>\n");
+			if (shape.getArrow() != null) {
+				element.append("<path d=\"");
+				appendPath(element, shape.getArrow());
+				element.append("\" fill=\"").append(hex(scene.edgeColors[i])).append("\"/>\n");
+			}
+			out.append(element);
+			percent = report(progress, percent, (int) (99L * (i + 1) / numElements));
+		}
+
+		for (int i = 0 ; i < scene.nodes.length ; i++) {
+			NodePanel panel = scene.nodes[i];
+			Ellipse2D.Double circle = panel.getCircle();
+			element.setLength(0);
+			element.append(String.format("<circle cx=\"%s\" cy=\"%s\" r=\"%s\" fill=\"%s\" stroke=\"%s\" " +
+											 "stroke-width=\"%d\"/>\n", number(circle.getCenterX()),
+										 number(circle.getCenterY()), number(circle.width / 2),
+										 hex(panel.getFillColor()), hex(panel.getBorderColor()),
+										 NodePanel.BORDER_THICKNESS));
+			String text = panel.getText();
+			if (text != null && !text.isEmpty()) {
+				Point center = panel.getCenter();
+				element.append(String.format("<text x=\"%d\" y=\"%d\" fill=\"%s\" font-family=\"sans-serif\" " +
+												 "font-size=\"%d\" text-anchor=\"middle\" " +
+												 "dominant-baseline=\"central\">", center.x, center.y,
+											 hex(panel.getTextColor()), FONT_SIZE));
+				appendEscaped(element, text);
+				element.append("</text>\n");
+			}
+			out.append(element);
+			percent = report(progress, percent, (int) (99L * (scene.shapes.length + i + 1) / numElements));
+		}
+		out.write("</svg>\n");
+		out.flush();
+		report(progress, percent, 100);
+	}
+
+	/**
+	 * @param scale The number of pixels per unit of editor coordinates.
+	 * @throws IllegalArgumentException if the scale is not a positive number.
+	 */
+	private static void checkScale(double scale) {
+		if (!(scale > 0) || Double.isInfinite(scale)) {
+			throw new IllegalArgumentException("The scale must be positive: " + scale);
+		}
+	}
+
+	/**
+	 * Report progress if it has changed.
+	 *
+	 * @param progress The receiver of the progress.
+	 * @param previous The last percentage reported.
+	 * @param current  The current percentage.
+	 * @return the current percentage.
+	 */
+	private static int report(IntConsumer progress, int previous, int current) {
+		if (current != previous) {
+			progress.accept(current);
+		}
+		return current;
+	}
+
+	/**
+	 * Start rendering the tiles of a band of the image.
+	 *
+	 * @param scene      The components to draw.
+	 * @param scale      The number of pixels per unit of editor coordinates.
+	 * @param pool       The pool to render the tiles on.
+	 * @param top        The first row of the band, in pixels.
+	 * @param tileWidth  The width of each tile but the last, in pixels.
+	 * @param bandHeight The height of the band, unless the image ends sooner.
+	 * @param width      The width of the image, in pixels.
+	 * @param height     The height of the image, in pixels.
+	 * @return the tiles of the band, from left to right.
+	 */
+	private static List<Future<BufferedImage>> submitBand(Scene scene, double scale, ForkJoinPool pool, int top,
+														  int tileWidth, int bandHeight, int width, int height) {
+		List<Future<BufferedImage>> tiles = new ArrayList<>();
+		int tileHeight = Math.min(bandHeight, height - top);
+		for (int left = 0 ; left < width ; left += tileWidth) {
+			Rectangle tile = new Rectangle(left, top, Math.min(tileWidth, width - left), tileHeight);
+			tiles.add(pool.submit(() -> renderTile(scene, scale, tile)));
+		}
+		return tiles;
+	}
+
+	/**
+	 * Render one tile of the image.
+	 *
+	 * @param scene The components to draw.
+	 * @param scale The number of pixels per unit of editor coordinates.
+	 * @param tile  The region of the image covered by the tile, in pixels.
+	 * @return the rendered tile.
+	 */
+	private static BufferedImage renderTile(Scene scene, double scale, Rectangle tile) {
+		BufferedImage image = new BufferedImage(tile.width, tile.height, BufferedImage.TYPE_INT_RGB);
+		Graphics2D g2d = image.createGraphics();
+		g2d.setColor(Color.WHITE);
+		g2d.fillRect(0, 0, tile.width, tile.height);
+		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+		g2d.setRenderingHint(RenderingHints.KEY_TEXT_ANTIALIASING, RenderingHints.VALUE_TEXT_ANTIALIAS_ON);
+		g2d.setFont(new Font(Font.DIALOG, Font.PLAIN, FONT_SIZE));
+		g2d.translate(-tile.x, -tile.y);
+		g2d.scale(scale, scale);
+		g2d.translate(-scene.bounds.x, -scene.bounds.y);
+
+		// The region of the editor covered by the tile, grown by a pixel for antialiasing
+		double x1 = scene.bounds.x + (tile.x - 1) / scale;
+		double y1 = scene.bounds.y + (tile.y - 1) / scale;
+		double x2 = scene.bounds.x + (tile.x + tile.width + 1) / scale;
+		double y2 = scene.bounds.y + (tile.y + tile.height + 1) / scale;
+
+		// Draw the edges and then the nodes in the tile, in the order of the graph
+		Integer[] edges = scene.edgeGrid.query(x1, y1, x2, y2).toArray(new Integer[0]);
+		Arrays.sort(edges);
+		for (int i : edges) {
+			EdgeShape shape = scene.shapes[i];
+			g2d.setStroke(EdgeShape.getStroke(scene.edgeWeights[i]));
+			g2d.setColor(scene.edgeColors[i]);
+			g2d.draw(shape.getShape());
+			if (shape.getArrow() != null) {
+				g2d.fill(shape.getArrow());
+			}
+		}
+
+		Integer[] nodes = scene.nodeGrid.query(x1, y1, x2, y2).toArray(new Integer[0]);
+		Arrays.sort(nodes);
+		for (int i : nodes) {
+			NodePanel panel = scene.nodes[i];
+			g2d.translate(panel.getXCoord(), panel.getYCoord());
+			panel.paintNode(g2d, panel.getFillColor(), panel.getBorderColor(), true);
+			g2d.translate(-panel.getXCoord(), -panel.getYCoord());
+		}
+		g2d.dispose();
+		return image;
+	}
+
+	/**
+	 * Append the SVG path data of a shape.
+	 *
+	 * @param path  The path data so far.
+	 * @param shape The shape to append.
+	 */
+	private static void appendPath(StringBuilder path, Shape shape) {
+		double[] coords = new double[6];
+		for (PathIterator it = shape.getPathIterator(null) ; !it.isDone() ; it.next()) {
+			int points;
+			switch (it.currentSegment(coords)) {
+				case PathIterator.SEG_MOVETO: path.append('M'); points = 1; break;
+				case PathIterator.SEG_LINETO: path.append('L'); points = 1; break;
+				case PathIterator.SEG_QUADTO: path.append('Q'); points = 2; break;
+				case PathIterator.SEG_CUBICTO: path.append('C'); points = 3; break;
+				default: path.append('Z'); points = 0; break;
+			}
+			for (int i = 0 ; i < 2 * points ; i++) {
+				path.append(i == 0 ? "" : " ").append(number(coords[i]));
+			}
+		}
+	}
+
+	/**
+	 * Append text to an XML element, escaping the characters XML reserves.
+	 *
+	 * @param element The element so far.
+	 * @param text    The text to append.
+	 */
+	private static void appendEscaped(StringBuilder element, String text) {
+		for (int i = 0 ; i < text.length() ; i++) {
+			char c = text.charAt(i);
+			switch (c) {
+				case '<': element.append("&lt;"); break;
+				case '>': element.append("&gt;"); break;
+				case '&': element.append("&amp;"); break;
+				case '"': element.append("&quot;"); break;
+				default:
+					// Control characters are not allowed in XML, except for whitespace
+					element.append(c < ' ' && c != '\t' && c != '\n' && c != '\r' ? ' ' : c);
+			}
+		}
+	}
+
+	/**
+	 * @param color A color.
+	 * @return the color in the #RRGGBB form.
+	 */
+	private static String hex(Color color) {
+		return String.format("#%06X", color.getRGB() & 0xFFFFFF);
+	}
+
+	/**
+	 * @param value A coordinate.
+	 * @return the coordinate rounded to two decimal places, without trailing zeros.
+	 */
+	private static String number(double value) {
+		double rounded = Math.round(value * 100) / 100.0;
+		return rounded == Math.rint(rounded) ? Long.toString((long) rounded) : Double.toString(rounded);
+	}
+
+	/**
+	 * Writes a captured graph to a temporary file in the background, moves
+	 * it over the target, and reports the outcome on the event dispatch thread.
+	 */
+	private static final class ExportWorker extends SwingWorker<File, Void> {
+
+		private GBContext context;
+		private Scene scene;
+		private File target;
+		private boolean svg;
+		private double scale;
+
+		private ExportWorker(GBContext context, Scene scene, File target, boolean svg, double scale) {
+			this.context = context;
+			this.scene = scene;
+			this.target = target;
+			this.svg = svg;
+			this.scale = scale;
+
+			GBFrame gui = context.getGUI();
+			if (gui != null) {
+				this.addPropertyChangeListener(event -> {
+					if ("progress".equals(event.getPropertyName())) {
+						gui.showProgress("Exporting", (Integer) event.getNewValue());
+					}
+				});
+			}
+		}
+
+		@Override
+		protected File doInBackground() throws IOException {
+			File directory = target.getAbsoluteFile().getParentFile();
+			File temp = File.createTempFile(target.getName(), TEMP_SUFFIX, directory);
+			try {
+				try (FileOutputStream stream = new FileOutputStream(temp)) {
+					if (svg) {
+						Writer writer = new BufferedWriter(new OutputStreamWriter(stream, StandardCharsets.UTF_8));
+						writeSvg(scene, writer, this::setProgress);
+					} else {
+						writePng(scene, new BufferedOutputStream(stream), scale, ForkJoinPool.commonPool(), TILE_SIZE,
+								 this::setProgress);
+					}
+					stream.getFD().sync();
+				}
+				FileSaver.moveIntoPlace(temp, target);
+			} finally {
+				Files.deleteIfExists(temp.toPath());
+			}
+			return target;
+		}
+
+		@Override
+		protected void done() {
+			GBFrame gui = context.getGUI();
+			if (gui != null) {
+				gui.hideProgress();
+			}
+
+			try {
+				this.get();
+			} catch (InterruptedException e) {
+				Thread.currentThread().interrupt();
+			} catch (ExecutionException e) {
+				Exception cause = e.getCause() instanceof Exception ? (Exception) e.getCause() : e;
+				ExceptionUtils.displayException(gui, cause);
+			}
+		}
+
+	}
+
+	/**
+	 * The components of a graph as they are exported, captured so they can
+	 * be drawn on any thread: the geometry and colors of each edge, copies
+	 * of the panels of the nodes, and grids of their bounds by index in the
+	 * order of the graph.
+	 */
+	private static final class Scene {
+
+		private EdgeShape[] shapes;
+		private Color[] edgeColors;
+		private int[] edgeWeights;
+		private NodePanel[] nodes;
+		private BoundsGrid<Integer> edgeGrid;
+		private BoundsGrid<Integer> nodeGrid;
+		private Rectangle bounds;
+
+		/**
+		 * @param context  The context to export.
+		 * @param cellSize The cell size of the grids, in editor coordinates.
+		 */
+		private Scene(GBContext context, double cellSize) {
+			edgeGrid = new BoundsGrid<>(cellSize);
+			nodeGrid = new BoundsGrid<>(cellSize);
+			Rectangle2D extent = null;
+
+			Map<UOPair<Node>, List<Edge>> edgeMap = context.getGraph().getEdges();
+			int numEdges = 0;
+			for (List<Edge> pairEdges : edgeMap.values()) {
+				numEdges += pairEdges.size();
+			}
+			shapes = new EdgeShape[numEdges];
+			edgeColors = new Color[numEdges];
+			edgeWeights = new int[numEdges];
+			int index = 0;
+			for (Map.Entry<UOPair<Node>, List<Edge>> entry : edgeMap.entrySet()) {
+				GBNode first = entry.getKey().getFirst().getGbNode();
+				List<Edge> pairEdges = entry.getValue();
+				for (int i = 0 ; i < pairEdges.size() ; i++) {
+					GBEdge edge = pairEdges.get(i).getGbEdge();
+					EdgeShape shape = EdgeShape.of(edge, first, i, pairEdges.size(), false);
+					Rectangle2D edgeBounds = shape.getBounds();
+					shapes[index] = shape;
+					edgeColors[index] = edge.getColor();
+					edgeWeights[index] = edge.getWeight();
+					edgeGrid.put(index, edgeBounds.getMinX(), edgeBounds.getMinY(), edgeBounds.getMaxX(),
+								 edgeBounds.getMaxY());
+					extent = union(extent, edgeBounds);
+					index++;
+				}
+			}
+
+			int numNodes = context.getGraph().getNumNodes();
+			nodes = new NodePanel[numNodes];
+			for (int i = 0 ; i < numNodes ; i++) {
+				NodePanel panel = new NodePanel(context.getGraph().getNodeAt(i).getGbNode().getPanel());
+				Rectangle2D nodeBounds = new Rectangle(panel.getXCoord(), panel.getYCoord(),
+													   panel.getPreferredSize().width,
+													   panel.getPreferredSize().height);
+				nodes[i] = panel;
+				nodeGrid.put(i, nodeBounds.getMinX(), nodeBounds.getMinY(), nodeBounds.getMaxX(),
+							 nodeBounds.getMaxY());
+				extent = union(extent, nodeBounds);
+			}
+
+			bounds = extent == null ? new Rectangle() : extent.getBounds();
+			bounds.grow(MARGIN, MARGIN);
+		}
+
+		private static Rectangle2D union(Rectangle2D extent, Rectangle2D bounds) {
+			if (extent == null) {
+				return new Rectangle2D.Double(bounds.getX(), bounds.getY(), bounds.getWidth(), bounds.getHeight());
+			}
+			extent.add(bounds);
+			return extent;
+		}
+
+	}
+
+}
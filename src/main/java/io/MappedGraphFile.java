@@ -0,0 +1,279 @@
+package io;
+
+import context.GBContext;
+import graph.MappedGraph;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBNode;
+import lombok.Getter;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * A read-only view of a {@link BinaryGraphFile binary} graph file, backed by
+ * memory mappings instead of objects. Opening a file only maps it and
+ * locates the strings in its string pool; the adjacency structure is
+ * available as a {@link MappedGraph} for running algorithms directly, and
+ * the node table is read in place. GBNode and NodePanel objects are only
+ * built when a node is requested, so a viewer can materialize just the
+ * nodes it displays.
+ *
+ * Node indices are positions in the file's node table, and match the node
+ * indices of the mapped graph. The file must not be modified while it is
+ * mapped.
+ *
+ * @author Brian Yao
+ */
+public class MappedGraphFile {
+
+	@Getter
+	private File file;
+	@Getter
+	private int idPool;
+	@Getter
+	private int constraints;
+	@Getter
+	private int numNodes;
+	@Getter
+	private int numEdges;
+
+	@Getter
+	private MappedGraph graph;
+
+	// The context owning the nodes built from this file
+	@Getter
+	private GBContext context;
+
+	private ByteBuffer strings;
+	private int[] stringPositions;
+	private ByteBuffer nodeTable;
+
+	private Map<Integer, GBNode> builtNodes;
+	private Map<Integer, Color> colors;
+
+	/**
+	 * Map the given binary graph file.
+	 *
+	 * @param file The file to map.
+	 * @throws IOException if the file is not a binary GraphBuilder file with a
+	 *                     mapped section, or could not be mapped.
+	 */
+	private MappedGraphFile(File file) throws IOException {
+		this.file = file;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			if (channel.size() < BinaryGraphFile.HEADER_SIZE) {
+				throw new IOException("Not a mappable binary GraphBuilder file.");
+			}
+			ByteBuffer header = map(channel, 0, BinaryGraphFile.HEADER_SIZE);
+			if (header.getInt(0) != BinaryGraphFile.MAGIC) {
+				throw new IOException("Not a binary GraphBuilder file.");
+			}
+			int version = header.getInt(4);
+			if (version < 2 || version > BinaryGraphFile.VERSION) {
+				throw new IOException("Binary GraphBuilder file version " + version + " cannot be mapped; " +
+										  "save it again to upgrade it.");
+			}
+			idPool = header.getInt(8);
+			constraints = header.getInt(12);
+			numNodes = header.getInt(16);
+			numEdges = header.getInt(20);
+			int numStrings = header.getInt(24);
+			long mappedPosition = header.getLong(BinaryGraphFile.MAPPED_POSITION_OFFSET);
+
+			// Only the lengths are read, so that strings are decoded on demand
+			strings = map(channel, BinaryGraphFile.HEADER_SIZE,
+						  Math.min(mappedPosition - BinaryGraphFile.HEADER_SIZE, Integer.MAX_VALUE));
+			stringPositions = new int[numStrings];
+			int position = 0;
+			for (int i = 0 ; i < numStrings ; i++) {
+				stringPositions[i] = position;
+				position += 4 + strings.getInt(position);
+			}
+
+			nodeTable = map(channel, BinaryGraphFile.HEADER_SIZE + position,
+							(long) BinaryGraphFile.NODE_RECORD_SIZE * numNodes);
+			graph = MappedGraph.open(channel, mappedPosition);
+		} catch (IndexOutOfBoundsException e) {
+			throw new IOException("Corrupt binary GraphBuilder file: " + e.getMessage(), e);
+		}
+
+		context = new GBContext(constraints);
+		context.setNextId(idPool);
+		builtNodes = new HashMap<>();
+		colors = new HashMap<>();
+	}
+
+	/**
+	 * Map the given binary graph file. This takes time proportional to the
+	 * number of pooled strings, not to the size of the graph.
+	 *
+	 * @param file The file to map.
+	 * @return the mapped file.
+	 * @throws IOException if the file is not a binary GraphBuilder file with a
+	 *                     mapped section, or could not be mapped.
+	 */
+	public static MappedGraphFile open(File file) throws IOException {
+		return new MappedGraphFile(file);
+	}
+
+	/**
+	 * @param index The index of a node.
+	 * @return the ID of the node.
+	 */
+	public int getNodeId(int index) {
+		return nodeTable.getInt(recordPosition(index));
+	}
+
+	/**
+	 * @param index The index of a node.
+	 * @return the x-coordinate of the node's top left corner.
+	 */
+	public int getNodeX(int index) {
+		return nodeTable.getInt(recordPosition(index) + 4);
+	}
+
+	/**
+	 * @param index The index of a node.
+	 * @return the y-coordinate of the node's top left corner.
+	 */
+	public int getNodeY(int index) {
+		return nodeTable.getInt(recordPosition(index) + 8);
+	}
+
+	/**
+	 * @param index The index of a node.
+	 * @return the radius of the node.
+	 */
+	public int getNodeRadius(int index) {
+		return nodeTable.getInt(recordPosition(index) + 12);
+	}
+
+	/**
+	 * @param index The index of a node.
+	 * @return the text of the node.
+	 */
+	public String getNodeText(int index) {
+		return this.getString(nodeTable.getInt(recordPosition(index) + 16));
+	}
+
+	/**
+	 * Find the nodes whose bounding boxes intersect the given rectangle,
+	 * reading only the node table.
+	 *
+	 * @param bounds The rectangle, in editor coordinates.
+	 * @return the indices of the intersecting nodes, in increasing order.
+	 */
+	public int[] findNodes(Rectangle bounds) {
+		int[] found = new int[16];
+		int numFound = 0;
+		for (int i = 0 ; i < numNodes ; i++) {
+			int diameter = 2 * this.getNodeRadius(i);
+			if (bounds.intersects(this.getNodeX(i), this.getNodeY(i), diameter, diameter)) {
+				if (numFound == found.length) {
+					int[] larger = new int[2 * found.length];
+					System.arraycopy(found, 0, larger, 0, numFound);
+					found = larger;
+				}
+				found[numFound++] = i;
+			}
+		}
+
+		int[] result = new int[numFound];
+		System.arraycopy(found, 0, result, 0, numFound);
+		return result;
+	}
+
+	/**
+	 * Get the GBNode for the node at the given index, building it and its
+	 * panel from the node table the first time it is requested. The node
+	 * belongs to this file's context, but is not added to its graph; the
+	 * structure of the graph is only available through {@link #getGraph()}.
+	 *
+	 * @param index The index of the node.
+	 * @return the GBNode at the given index.
+	 */
+	public GBNode getGbNode(int index) {
+		return builtNodes.computeIfAbsent(index, this::buildNode);
+	}
+
+	/**
+	 * @param index The index of a node.
+	 * @return true iff the GBNode at the given index has been built.
+	 */
+	public boolean isBuilt(int index) {
+		return builtNodes.containsKey(index);
+	}
+
+	// Private methods
+
+	/**
+	 * Build a GBNode from its record in the node table.
+	 *
+	 * @param index The index of the node.
+	 * @return the new GBNode.
+	 */
+	private GBNode buildNode(int index) {
+		int position = recordPosition(index);
+		NodePanel panel = new NodePanel(nodeTable.getInt(position + 4), nodeTable.getInt(position + 8),
+										nodeTable.getInt(position + 12));
+		panel.setText(this.getString(nodeTable.getInt(position + 16)));
+		panel.setFillColor(colors.computeIfAbsent(nodeTable.getInt(position + 20), Color::new));
+		panel.setBorderColor(colors.computeIfAbsent(nodeTable.getInt(position + 24), Color::new));
+		panel.setTextColor(colors.computeIfAbsent(nodeTable.getInt(position + 28), Color::new));
+		return new GBNode(new Node(nodeTable.getInt(position)), context, panel);
+	}
+
+	/**
+	 * Decode a string from the string pool.
+	 *
+	 * @param stringIndex The index of the string in the pool.
+	 * @return the decoded string.
+	 */
+	private String getString(int stringIndex) {
+		int position = stringPositions[stringIndex];
+		byte[] bytes = new byte[strings.getInt(position)];
+		ByteBuffer view = strings.duplicate();
+		view.position(position + 4);
+		view.get(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+	/**
+	 * @param index The index of a node.
+	 * @return the position of the node's record in the node table.
+	 */
+	private int recordPosition(int index) {
+		if (index < 0 || index >= numNodes) {
+			throw new IllegalArgumentException("No node at index " + index + ".");
+		}
+		return index * BinaryGraphFile.NODE_RECORD_SIZE;
+	}
+
+	/**
+	 * Map a read-only region of a file as a little-endian buffer.
+	 *
+	 * @param channel  The channel of the file.
+	 * @param position The start of the region.
+	 * @param size     The size of the region in bytes.
+	 * @return the mapped buffer.
+	 * @throws IOException if the region cannot be mapped.
+	 */
+	private static ByteBuffer map(FileChannel channel, long position, long size) throws IOException {
+		if (size < 0 || position + size > channel.size()) {
+			throw new IOException("Corrupt binary GraphBuilder file: region exceeds the file.");
+		} else if (size > Integer.MAX_VALUE) {
+			throw new IOException("Cannot map a node table larger than 2 GB.");
+		}
+		return channel.map(FileChannel.MapMode.READ_ONLY, position, size).order(ByteOrder.LITTLE_ENDIAN);
+	}
+
+}
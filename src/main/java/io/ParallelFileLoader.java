@@ -0,0 +1,341 @@
+package io;
+
+import context.GBContext;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import util.FileUtils;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads graphs in the text format by parsing several parts of the file at
+ * once. The file is split into line-aligned chunks, and each chunk is parsed
+ * on a ForkJoinPool into primitive arrays, without creating any graph
+ * components. The components are then built and added to the context in one
+ * batch on the calling thread, in the order they appear in the file. Edge
+ * endpoints are resolved through an array indexed by ID, which is possible
+ * because every ID in a file is below the file's ID pool.
+ *
+ * Fields are parsed straight from the file's bytes by a {@link TextScanner},
+ * and text fields are located by parsing the numeric fields after them from
+ * the end of the line, so text containing commas is read correctly.
+ *
+ * @author Brian Yao
+ */
+public class ParallelFileLoader {
+
+	// The preferred number of chunks per thread, to even out uneven chunks
+	private static final int CHUNKS_PER_THREAD = 4;
+	private static final long MIN_CHUNK_SIZE = 1 << 20;
+	private static final long MAX_CHUNK_SIZE = 1 << 28;
+
+	private static final int SCAN_BUFFER_SIZE = 1 << 12;
+
+	// The number of integer fields stored per node and per edge
+	private static final int NODE_INTS = 7;
+	private static final int EDGE_INTS = 6;
+
+	/**
+	 * Load the graph in the given text file on the common ForkJoinPool.
+	 *
+	 * @param file The text file containing the graph.
+	 * @return a new context containing the graph in the file.
+	 * @throws IOException if the file could not be read or is malformed.
+	 */
+	public static GBContext load(File file) throws IOException {
+		return load(file, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Load the graph in the given text file, parsing it on the given pool.
+	 *
+	 * @param file The text file containing the graph.
+	 * @param pool The pool to parse the file on.
+	 * @return a new context containing the graph in the file.
+	 * @throws IOException if the file could not be read or is malformed.
+	 */
+	public static GBContext load(File file, ForkJoinPool pool) throws IOException {
+		return load(file, pool, MIN_CHUNK_SIZE);
+	}
+
+	/**
+	 * Load the graph in the given text file, parsing it on the given pool.
+	 *
+	 * @param file         The text file containing the graph.
+	 * @param pool         The pool to parse the file on.
+	 * @param minChunkSize The smallest number of bytes worth parsing as a
+	 *                     separate chunk.
+	 * @return a new context containing the graph in the file.
+	 * @throws IOException if the file could not be read or is malformed.
+	 */
+	static GBContext load(File file, ForkJoinPool pool, long minChunkSize) throws IOException {
+		List<Chunk> chunks = new ArrayList<>();
+		int idPool;
+		int constraints;
+		try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+			long size = channel.size();
+
+			// The header is the ID pool and the constraints, one per line, and
+			// the constraints are followed by a tag if text fields are escaped
+			long constraintsStart = nextLine(channel, 0);
+			long bodyStart = nextLine(channel, constraintsStart);
+			idPool = scanHeaderLine(channel, 0, constraintsStart).nextInt();
+			TextScanner constraintsLine = scanHeaderLine(channel, constraintsStart, bodyStart);
+			constraints = constraintsLine.nextInt();
+			boolean escaped = constraintsLine.hasNext() &&
+				FileUtils.ESCAPED_TEXT_TAG.equals(constraintsLine.next());
+
+			long bodySize = size - bodyStart;
+			long numChunks = Math.max((bodySize + MAX_CHUNK_SIZE - 1) / MAX_CHUNK_SIZE,
+									  Math.min((long) CHUNKS_PER_THREAD * pool.getParallelism(),
+											   (bodySize + minChunkSize - 1) / minChunkSize));
+
+			// Move each chunk boundary forward to the start of a line
+			List<Callable<Chunk>> parsers = new ArrayList<>();
+			long start = bodyStart;
+			for (long i = 1 ; i <= numChunks && start < size ; i++) {
+				long end = i == numChunks ? size :
+					nextLine(channel, Math.max(start, bodyStart + bodySize * i / numChunks));
+				if (end > start) {
+					ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, start, end - start);
+					long chunkStart = start;
+					parsers.add(() -> new Chunk(escaped).parse(buffer, chunkStart));
+				}
+				start = end;
+			}
+
+			for (Future<Chunk> future : pool.invokeAll(parsers)) {
+				chunks.add(future.get());
+			}
+		} catch (ExecutionException e) {
+			throw new IOException("Malformed graph file: " + e.getCause().getMessage(), e.getCause());
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+			throw new IOException("Interrupted while loading the graph file.", e);
+		}
+
+		return build(chunks, idPool, constraints);
+	}
+
+	// Private methods
+
+	/**
+	 * Build the components parsed from every chunk, and add them to a new
+	 * context.
+	 *
+	 * @param chunks      The parsed chunks, in file order.
+	 * @param idPool      The ID pool of the file.
+	 * @param constraints The constraints of the graph.
+	 * @return a new context containing the graph.
+	 * @throws IOException if a component has an invalid ID or endpoint.
+	 */
+	private static GBContext build(List<Chunk> chunks, int idPool, int constraints) throws IOException {
+		GBContext context = new GBContext(constraints);
+		GBNode[] nodesById = new GBNode[idPool];
+		Map<Integer, Color> colors = new HashMap<>();
+
+		List<GBNode> nodes = new ArrayList<>(chunks.stream().mapToInt(c -> c.numNodes).sum());
+		for (Chunk chunk : chunks) {
+			int[] ints = chunk.nodeInts;
+			for (int i = 0 ; i < chunk.numNodes ; i++) {
+				int offset = i * NODE_INTS;
+				NodePanel panel = new NodePanel(ints[offset + 1], ints[offset + 2], ints[offset + 3]);
+				panel.setText(chunk.nodeTexts[i]);
+				panel.setFillColor(colors.computeIfAbsent(ints[offset + 4], Color::new));
+				panel.setBorderColor(colors.computeIfAbsent(ints[offset + 5], Color::new));
+				panel.setTextColor(colors.computeIfAbsent(ints[offset + 6], Color::new));
+
+				GBNode node = new GBNode(new Node(checkId(ints[offset], idPool)), context, panel);
+				nodesById[node.getId()] = node;
+				nodes.add(node);
+			}
+		}
+		context.addNodes(nodes);
+
+		List<GBEdge> edges = new ArrayList<>(chunks.stream().mapToInt(c -> c.numEdges).sum());
+		for (Chunk chunk : chunks) {
+			int[] ints = chunk.edgeInts;
+			for (int i = 0 ; i < chunk.numEdges ; i++) {
+				int offset = i * EDGE_INTS;
+				GBNode node1 = nodesById[checkId(ints[offset + 1], idPool)];
+				GBNode node2 = nodesById[checkId(ints[offset + 2], idPool)];
+				if (node1 == null || node2 == null) {
+					throw new IOException("Edge " + ints[offset] + " has an endpoint which is not in the file.");
+				}
+
+				GBEdge edge = new GBEdge(checkId(ints[offset], idPool), node1, node2, ints[offset + 5] == 1);
+				if (node1 == node2) {
+					edge.setAngle(chunk.edgeAngles[i]);
+				}
+				edge.setColor(colors.computeIfAbsent(ints[offset + 3], Color::new));
+				edge.setWeight(ints[offset + 4]);
+				edge.setText(chunk.edgeTexts[i]);
+				edges.add(edge);
+			}
+		}
+		context.addEdges(edges);
+
+		context.setNextId(idPool);
+		return context;
+	}
+
+	/**
+	 * @param id     A component ID read from the file.
+	 * @param idPool The ID pool of the file.
+	 * @return the given ID.
+	 * @throws IOException if the ID is not below the ID pool.
+	 */
+	private static int checkId(int id, int idPool) throws IOException {
+		if (id < 0 || id >= idPool) {
+			throw new IOException("Component ID " + id + " is outside the file's ID pool.");
+		}
+		return id;
+	}
+
+	/**
+	 * Find the start of the first line beginning after the given position.
+	 *
+	 * @param channel  The channel of the file.
+	 * @param position The position to search from.
+	 * @return the position after the next newline, or the size of the file if
+	 *         there is none.
+	 * @throws IOException if the file could not be read.
+	 */
+	private static long nextLine(FileChannel channel, long position) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate(SCAN_BUFFER_SIZE);
+		while (true) {
+			buffer.clear();
+			int read = channel.read(buffer, position);
+			if (read < 0) {
+				return channel.size();
+			}
+			for (int i = 0 ; i < read ; i++) {
+				if (buffer.get(i) == '\n') {
+					return position + i + 1;
+				}
+			}
+			position += read;
+		}
+	}
+
+	/**
+	 * Start scanning a header line.
+	 *
+	 * @param channel The channel of the file.
+	 * @param start   The start of the line.
+	 * @param end     The start of the next line.
+	 * @return a scanner positioned at the first field of the line.
+	 * @throws IOException if the file could not be read.
+	 */
+	private static TextScanner scanHeaderLine(FileChannel channel, long start, long end) throws IOException {
+		ByteBuffer buffer = ByteBuffer.allocate((int) Math.min(end - start, SCAN_BUFFER_SIZE));
+		while (buffer.hasRemaining() && channel.read(buffer, start + buffer.position()) >= 0) {
+			// Keep reading until the line is complete
+		}
+		TextScanner scanner = new TextScanner(buffer.flip(), ',');
+		scanner.startLine();
+		return scanner;
+	}
+
+	/**
+	 * The components parsed from one chunk of a file. Integer fields are
+	 * stored consecutively per component: a node's ID, x, y, radius, and
+	 * fill, border and text colors, and an edge's ID, endpoint IDs, color,
+	 * weight and directedness.
+	 */
+	private static final class Chunk {
+
+		private int numNodes;
+		private int[] nodeInts = new int[NODE_INTS * 16];
+		private String[] nodeTexts = new String[16];
+
+		private int numEdges;
+		private int[] edgeInts = new int[EDGE_INTS * 16];
+		private String[] edgeTexts = new String[16];
+		private double[] edgeAngles = new double[16];
+
+		private boolean escaped; // Whether text fields are escaped
+
+		/**
+		 * @param escaped Whether the text fields in the chunk are escaped.
+		 */
+		private Chunk(boolean escaped) {
+			this.escaped = escaped;
+		}
+
+		/**
+		 * Parse every line in the given buffer. Lines which are not nodes or
+		 * edges are skipped, as in the sequential loader.
+		 *
+		 * @param buffer The buffer containing whole lines.
+		 * @param start  The position of the buffer in the file.
+		 * @return this chunk.
+		 * @throws IOException if a line is malformed.
+		 */
+		private Chunk parse(ByteBuffer buffer, long start) throws IOException {
+			TextScanner scanner = new TextScanner(buffer, ',');
+			try {
+				while (scanner.startLine() >= 0) {
+					if (scanner.skipPrefix(FileUtils.NODE_PREFIX)) {
+						this.parseNode(scanner);
+					} else if (scanner.skipPrefix(FileUtils.EDGE_PREFIX)) {
+						this.parseEdge(scanner);
+					}
+					scanner.skipLine();
+				}
+			} catch (IOException e) {
+				// Line numbers count from the start of the chunk
+				throw new IOException("In the chunk at byte " + start + ": " + e.getMessage(), e);
+			}
+			return this;
+		}
+
+		private void parseNode(TextScanner scanner) throws IOException {
+			if (numNodes == nodeTexts.length) {
+				nodeInts = Arrays.copyOf(nodeInts, 2 * nodeInts.length);
+				nodeTexts = Arrays.copyOf(nodeTexts, 2 * nodeTexts.length);
+			}
+
+			// ID, x, y and radius come before the text, and the colors after it
+			int offset = numNodes * NODE_INTS;
+			for (int i = 0 ; i < 4 ; i++) {
+				nodeInts[offset + i] = scanner.nextInt();
+			}
+			for (int i = 6 ; i >= 4 ; i--) {
+				nodeInts[offset + i] = scanner.lastInt();
+			}
+			nodeTexts[numNodes++] = scanner.text(escaped);
+		}
+
+		private void parseEdge(TextScanner scanner) throws IOException {
+			if (numEdges == edgeTexts.length) {
+				edgeInts = Arrays.copyOf(edgeInts, 2 * edgeInts.length);
+				edgeTexts = Arrays.copyOf(edgeTexts, 2 * edgeTexts.length);
+				edgeAngles = Arrays.copyOf(edgeAngles, 2 * edgeAngles.length);
+			}
+
+			// Every field but the angle comes before the text
+			int offset = numEdges * EDGE_INTS;
+			for (int i = 0 ; i < EDGE_INTS ; i++) {
+				edgeInts[offset + i] = i == 4 ? (int) Math.round(scanner.nextDouble()) : scanner.nextInt();
+			}
+			edgeAngles[numEdges] = scanner.lastDouble();
+			edgeTexts[numEdges++] = scanner.text(escaped);
+		}
+
+	}
+
+}
@@ -0,0 +1,181 @@
+package io;
+
+import java.io.Closeable;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.CRC32;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+
+/**
+ * Writes an opaque RGB image as a PNG, a band of rows at a time, so that
+ * images far larger than memory can be written as they are rendered. Each
+ * row is filtered with the PNG "Sub" filter before it is compressed, and the
+ * compressed data is split into IDAT chunks of a fixed size.
+ *
+ * @author Brian Yao
+ */
+class PngWriter implements Closeable {
+
+	private static final byte[] SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+	private static final int BYTES_PER_PIXEL = 3;
+	private static final byte SUB_FILTER = 1;
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private DataOutputStream out;
+	private int width;
+	private int height;
+	private int rowsWritten;
+
+	private Deflater deflater;
+	private DeflaterOutputStream compressed;
+	private byte[] row;
+
+	/**
+	 * Start writing a PNG of the given size.
+	 *
+	 * @param out    The stream to write to, which is flushed but not closed with this writer.
+	 * @param width  The width of the image in pixels.
+	 * @param height The height of the image in pixels.
+	 * @throws IOException if the stream cannot be written to.
+	 */
+	PngWriter(OutputStream out, int width, int height) throws IOException {
+		if (width <= 0 || height <= 0) {
+			throw new IllegalArgumentException("The image must be at least one pixel wide and high.");
+		}
+		this.out = new DataOutputStream(out);
+		this.width = width;
+		this.height = height;
+		this.row = new byte[1 + width * BYTES_PER_PIXEL];
+
+		this.out.write(SIGNATURE);
+		ByteBuffer header = ByteBuffer.allocate(13).putInt(width).putInt(height);
+		header.put((byte) 8); // Bits per sample
+		header.put((byte) 2); // Truecolor, without alpha
+		header.put((byte) 0); // Deflate compression
+		header.put((byte) 0); // Adaptive filtering
+		header.put((byte) 0); // No interlacing
+		this.writeChunk("IHDR", header.array(), header.position());
+
+		deflater = new Deflater(Deflater.DEFAULT_COMPRESSION);
+		compressed = new DeflaterOutputStream(new IdatStream(), deflater, CHUNK_SIZE);
+	}
+
+	/**
+	 * Write the next rows of the image.
+	 *
+	 * @param pixels The pixels of the rows in 0xRRGGBB form, a row after another.
+	 * @param offset The index of the first pixel to write.
+	 * @param scan   The distance between the starts of consecutive rows in the array.
+	 * @param rows   The number of rows to write.
+	 * @throws IOException if the stream cannot be written to.
+	 */
+	void writeRows(int[] pixels, int offset, int scan, int rows) throws IOException {
+		if (rowsWritten + rows > height) {
+			throw new IllegalArgumentException("The image only has " + height + " rows.");
+		}
+		for (int r = 0 ; r < rows ; r++) {
+			row[0] = SUB_FILTER;
+			int start = offset + r * scan;
+			int previous = 0;
+			for (int i = 0 ; i < width ; i++) {
+				int pixel = pixels[start + i];
+				int at = 1 + i * BYTES_PER_PIXEL;
+				row[at] = (byte) ((pixel >> 16) - (previous >> 16));
+				row[at + 1] = (byte) ((pixel >> 8) - (previous >> 8));
+				row[at + 2] = (byte) (pixel - previous);
+				previous = pixel;
+			}
+			compressed.write(row);
+		}
+		rowsWritten += rows;
+	}
+
+	/**
+	 * Finish the image and flush the stream.
+	 *
+	 * @throws IOException if the stream cannot be written to, or not every
+	 *                     row of the image was written.
+	 */
+	@Override
+	public void close() throws IOException {
+		try {
+			if (rowsWritten < height) {
+				throw new IOException("Only " + rowsWritten + " of " + height + " rows were written.");
+			}
+			compressed.close();
+			this.writeChunk("IEND", new byte[0], 0);
+		} finally {
+			deflater.end();
+			out.flush();
+		}
+	}
+
+	/**
+	 * Write a chunk with its length and checksum.
+	 *
+	 * @param type   The four letter type of the chunk.
+	 * @param data   The data of the chunk.
+	 * @param length The number of bytes of data.
+	 * @throws IOException if the stream cannot be written to.
+	 */
+	private void writeChunk(String type, byte[] data, int length) throws IOException {
+		byte[] typeBytes = type.getBytes(StandardCharsets.US_ASCII);
+		CRC32 crc = new CRC32();
+		crc.update(typeBytes);
+		crc.update(data, 0, length);
+		out.writeInt(length);
+		out.write(typeBytes);
+		out.write(data, 0, length);
+		out.writeInt((int) crc.getValue());
+	}
+
+	/**
+	 * Receives the compressed image data, and writes it out as IDAT chunks.
+	 */
+	private final class IdatStream extends OutputStream {
+
+		private byte[] buffer = new byte[CHUNK_SIZE];
+		private int length;
+
+		@Override
+		public void write(int b) throws IOException {
+			buffer[length++] = (byte) b;
+			if (length == buffer.length) {
+				this.flushChunk();
+			}
+		}
+
+		@Override
+		public void write(byte[] bytes, int offset, int count) throws IOException {
+			while (count > 0) {
+				int copied = Math.min(count, buffer.length - length);
+				System.arraycopy(bytes, offset, buffer, length, copied);
+				length += copied;
+				offset += copied;
+				count -= copied;
+				if (length == buffer.length) {
+					this.flushChunk();
+				}
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			this.flushChunk();
+		}
+
+		private void flushChunk() throws IOException {
+			if (length > 0) {
+				writeChunk("IDAT", buffer, length);
+				length = 0;
+			}
+		}
+
+	}
+
+}
@@ -0,0 +1,499 @@
+package io;
+
+import util.FileUtils;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Arrays;
+
+/**
+ * Scans the bytes of a text file, parsing numbers and text fields in place.
+ * Fields are separated by whitespace, and optionally by a separator
+ * character such as a comma. Integers and decimal numbers are parsed
+ * straight from the bytes without creating strings; a decimal number is
+ * only turned into a string when it has too many digits to be converted
+ * exactly with a single multiplication or division, which never happens
+ * for numbers of up to 15 significant digits. Strings are only created for
+ * text fields and tokens which are asked for.
+ *
+ * The input is either a buffer holding all of it, or a stream which is read
+ * into a growable buffer. A line whose fields are read from its end must
+ * fit in memory, since it is buffered as a whole first.
+ *
+ * Parsing problems are reported as IOExceptions giving the line number.
+ *
+ * @author Brian Yao
+ */
+final class TextScanner {
+
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	// Every double up to this magnitude, and every power of ten in the table, is exact
+	private static final long MAX_EXACT_MANTISSA = 1L << 53;
+	private static final double[] POWERS_OF_TEN = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+	};
+
+	private InputStream source; // Refills the buffer, or null if the buffer holds all of the input
+	private ByteBuffer buffer;
+	private int position;
+	private int limit;
+
+	// The end of the fields remaining on the current line, once the line is buffered
+	private int lineEnd;
+
+	private byte separator;
+	private long line;
+	private Charset charset;
+	private byte[] scratch;
+
+	/**
+	 * Scan the text read from a stream. The stream is not closed.
+	 *
+	 * @param source    The stream to read.
+	 * @param separator The character separating fields, besides whitespace.
+	 */
+	TextScanner(InputStream source, char separator) {
+		this(ByteBuffer.wrap(new byte[BUFFER_SIZE]), separator);
+		this.source = source;
+		this.limit = 0;
+	}
+
+	/**
+	 * Scan the text between the position and the limit of a buffer. The
+	 * buffer's position and limit are not changed.
+	 *
+	 * @param buffer    The buffer holding the text.
+	 * @param separator The character separating fields, besides whitespace.
+	 */
+	TextScanner(ByteBuffer buffer, char separator) {
+		this.buffer = buffer;
+		this.position = buffer.position();
+		this.limit = buffer.limit();
+		this.lineEnd = -1;
+		this.separator = (byte) separator;
+		this.line = 1;
+		this.charset = Charset.defaultCharset();
+		this.scratch = new byte[64];
+	}
+
+	/**
+	 * Skip blank lines and leading whitespace.
+	 *
+	 * @return the first character of the next non-blank line, which is
+	 *         not consumed, or -1 if there are no more lines.
+	 * @throws IOException if the input could not be read.
+	 */
+	int startLine() throws IOException {
+		lineEnd = -1;
+		int c;
+		while ((c = this.peek()) == ' ' || c == '\t' || c == '\r' || c == '\n') {
+			if (c == '\n') {
+				line++;
+			}
+			position++;
+		}
+		return c;
+	}
+
+	/**
+	 * Skip the rest of the current line.
+	 *
+	 * @throws IOException if the input could not be read.
+	 */
+	void skipLine() throws IOException {
+		lineEnd = -1;
+		int c;
+		while ((c = this.peek()) >= 0) {
+			position++;
+			if (c == '\n') {
+				line++;
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Consume the given prefix if the input continues with it.
+	 *
+	 * @param prefix An ASCII prefix.
+	 * @return true iff the prefix was consumed.
+	 * @throws IOException if the input could not be read.
+	 */
+	boolean skipPrefix(String prefix) throws IOException {
+		while (limit - position < prefix.length() && this.fill()) {
+			// Buffer enough bytes to compare
+		}
+		if (limit - position < prefix.length()) {
+			return false;
+		}
+		for (int i = 0 ; i < prefix.length() ; i++) {
+			if (buffer.get(position + i) != prefix.charAt(i)) {
+				return false;
+			}
+		}
+		position += prefix.length();
+		return true;
+	}
+
+	/**
+	 * @return true iff there is another token on the current line.
+	 * @throws IOException if the input could not be read.
+	 */
+	boolean hasNext() throws IOException {
+		int c;
+		while ((c = this.peek()) == ' ' || c == '\t' || c == '\r') {
+			position++;
+		}
+		return c >= 0 && c != '\n';
+	}
+
+	/**
+	 * @return the next token on the current line.
+	 * @throws IOException if there is no token, or the input could not be read.
+	 */
+	String next() throws IOException {
+		int end = this.tokenEnd();
+		String token = this.string(position, end);
+		this.finishToken(end);
+		return token;
+	}
+
+	/**
+	 * @return the integer in the next token on the current line.
+	 * @throws IOException if there is no integer, or the input could not be read.
+	 */
+	long nextLong() throws IOException {
+		int end = this.tokenEnd();
+		long value = this.parseLong(position, end);
+		this.finishToken(end);
+		return value;
+	}
+
+	/**
+	 * @return the integer in the next token on the current line.
+	 * @throws IOException if there is no integer, it does not fit in an int,
+	 *                     or the input could not be read.
+	 */
+	int nextInt() throws IOException {
+		return this.toInt(this.nextLong());
+	}
+
+	/**
+	 * @return the number in the next token on the current line.
+	 * @throws IOException if there is no number, or the input could not be read.
+	 */
+	double nextDouble() throws IOException {
+		int end = this.tokenEnd();
+		double value = this.parseDouble(position, end);
+		this.finishToken(end);
+		return value;
+	}
+
+	/**
+	 * Parse the integer in the last field of the current line, and remove
+	 * the field and its separator from the line. Fields can be taken from
+	 * both ends of a line, so that a field in the middle may contain the
+	 * separator.
+	 *
+	 * @return the integer in the last field.
+	 * @throws IOException if there is no integer, or the input could not be read.
+	 */
+	int lastInt() throws IOException {
+		int start = this.lastFieldStart();
+		int value = this.toInt(this.parseLong(start, lineEnd));
+		lineEnd = start - 1;
+		return value;
+	}
+
+	/**
+	 * Parse the number in the last field of the current line, and remove
+	 * the field and its separator from the line.
+	 *
+	 * @return the number in the last field.
+	 * @throws IOException if there is no number, or the input could not be read.
+	 * @see #lastInt()
+	 */
+	double lastDouble() throws IOException {
+		int start = this.lastFieldStart();
+		double value = this.parseDouble(start, lineEnd);
+		lineEnd = start - 1;
+		return value;
+	}
+
+	/**
+	 * Take the rest of the current line as a text field.
+	 *
+	 * @param escaped Whether to decode the field's {@link FileUtils#escapeText
+	 *                escape sequences}, rather than take it as it is.
+	 * @return the text.
+	 * @throws IOException if the input could not be read.
+	 */
+	String text(boolean escaped) throws IOException {
+		this.bufferLine();
+		if (scratch.length < lineEnd - position) {
+			scratch = new byte[Math.max(lineEnd - position, 2 * scratch.length)];
+		}
+
+		int length = 0;
+		for (int i = position ; i < lineEnd ; i++) {
+			byte b = buffer.get(i);
+			if (escaped && b == '\\' && i + 1 < lineEnd) {
+				byte next = buffer.get(i + 1);
+				if (next == '\\' || next == 'n' || next == 'r') {
+					b = next == 'n' ? (byte) '\n' : next == 'r' ? (byte) '\r' : next;
+					i++;
+				}
+			}
+			scratch[length++] = b;
+		}
+		position = lineEnd;
+		return length == 0 ? "" : new String(scratch, 0, length, charset);
+	}
+
+	/**
+	 * @param message A description of the problem.
+	 * @return an exception describing a problem at the current line.
+	 */
+	IOException error(String message) {
+		return new IOException("Line " + line + ": " + message);
+	}
+
+	// Private methods
+
+	/**
+	 * @return the next byte without consuming it, or -1 at the end of the
+	 *         input.
+	 */
+	private int peek() throws IOException {
+		if (position == limit && !this.fill()) {
+			return -1;
+		}
+		return buffer.get(position) & 0xFF;
+	}
+
+	/**
+	 * Read more of the stream into the buffer, moving the unread bytes to
+	 * its start, and growing it if it is full. This moves the bytes of the
+	 * buffer, so positions other than the current one are invalidated.
+	 *
+	 * @return true iff more bytes were read.
+	 */
+	private boolean fill() throws IOException {
+		if (source == null) {
+			return false;
+		}
+
+		byte[] array = buffer.array();
+		if (position > 0) {
+			System.arraycopy(array, position, array, 0, limit - position);
+			limit -= position;
+			position = 0;
+		}
+		if (limit == array.length) {
+			array = Arrays.copyOf(array, 2 * array.length);
+			buffer = ByteBuffer.wrap(array);
+		}
+
+		int read = source.read(array, limit, array.length - limit);
+		if (read <= 0) {
+			return false;
+		}
+		limit += read;
+		return true;
+	}
+
+	/**
+	 * Buffer the next token on the current line.
+	 *
+	 * @return the end of the token, which starts at the current position.
+	 */
+	private int tokenEnd() throws IOException {
+		if (!this.hasNext()) {
+			throw this.error("Unexpected end of line.");
+		}
+
+		int i = position;
+		while (true) {
+			if (i == limit) {
+				int offset = i - position;
+				if (!this.fill()) {
+					return limit;
+				}
+				i = position + offset;
+			}
+			byte b = buffer.get(i);
+			if ((b & 0xFF) <= ' ' || b == separator) {
+				return i;
+			}
+			i++;
+		}
+	}
+
+	/**
+	 * Move past a token and the separator following it, if there is one.
+	 */
+	private void finishToken(int end) throws IOException {
+		position = end;
+		if (this.peek() == separator) {
+			position++;
+		}
+	}
+
+	/**
+	 * Buffer the rest of the current line, and mark where it ends.
+	 */
+	private void bufferLine() throws IOException {
+		if (lineEnd >= 0) {
+			return;
+		}
+
+		int i = position;
+		while (true) {
+			if (i == limit) {
+				int offset = i - position;
+				if (!this.fill()) {
+					break;
+				}
+				i = position + offset;
+			}
+			if (buffer.get(i) == '\n') {
+				break;
+			}
+			i++;
+		}
+		lineEnd = i > position && buffer.get(i - 1) == '\r' ? i - 1 : i;
+	}
+
+	/**
+	 * @return the start of the last field on the current line, which must
+	 *         have a separator before it.
+	 */
+	private int lastFieldStart() throws IOException {
+		this.bufferLine();
+		int i = lineEnd - 1;
+		while (i >= position && buffer.get(i) != separator) {
+			i--;
+		}
+		if (i < position) {
+			throw this.error("Too few fields.");
+		}
+		return i + 1;
+	}
+
+	/**
+	 * Parse an integer from the given range of the buffer.
+	 */
+	private long parseLong(int start, int end) throws IOException {
+		boolean negative = start < end && buffer.get(start) == '-';
+		int i = negative ? start + 1 : start;
+		if (i == end) {
+			throw this.error("Expected an integer: " + this.string(start, end));
+		}
+
+		long value = 0;
+		for ( ; i < end ; i++) {
+			int digit = buffer.get(i) - '0';
+			if (digit < 0 || digit > 9) {
+				throw this.error("Expected an integer: " + this.string(start, end));
+			} else if (value > (Long.MAX_VALUE - digit) / 10) {
+				throw this.error("Integer too large: " + this.string(start, end));
+			}
+			value = 10 * value + digit;
+		}
+		return negative ? -value : value;
+	}
+
+	/**
+	 * Parse a decimal number from the given range of the buffer. When the
+	 * digits form an integer of at most 53 bits and the power of ten is
+	 * exact, the result is a single correctly rounded operation; otherwise
+	 * the number is handed to {@link Double#parseDouble}, which is also used
+	 * for special values such as "NaN".
+	 */
+	private double parseDouble(int start, int end) throws IOException {
+		int i = start;
+		boolean negative = false;
+		if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+			negative = buffer.get(i) == '-';
+			i++;
+		}
+
+		long mantissa = 0;
+		int exponent = 0;
+		int digits = 0;
+		boolean exact = true;
+		boolean fraction = false;
+		for ( ; i < end ; i++) {
+			byte b = buffer.get(i);
+			if (b >= '0' && b <= '9') {
+				if (mantissa > (Long.MAX_VALUE - 9) / 10) {
+					exact = false;
+				} else {
+					mantissa = 10 * mantissa + (b - '0');
+				}
+				exponent -= fraction ? 1 : 0;
+				digits++;
+			} else if (b == '.' && !fraction) {
+				fraction = true;
+			} else {
+				break;
+			}
+		}
+
+		if (digits > 0 && i < end && (buffer.get(i) == 'e' || buffer.get(i) == 'E')) {
+			i++;
+			boolean negativeExponent = i < end && buffer.get(i) == '-';
+			if (i < end && (buffer.get(i) == '-' || buffer.get(i) == '+')) {
+				i++;
+			}
+			int exponentStart = i;
+			int explicit = 0;
+			for ( ; i < end && buffer.get(i) >= '0' && buffer.get(i) <= '9' ; i++) {
+				explicit = Math.min(10 * explicit + (buffer.get(i) - '0'), 1 << 20);
+			}
+			exact &= i > exponentStart;
+			exponent += negativeExponent ? -explicit : explicit;
+		}
+
+		if (digits > 0 && i == end && exact && mantissa <= MAX_EXACT_MANTISSA &&
+			Math.abs(exponent) < POWERS_OF_TEN.length) {
+			double value = exponent < 0 ? mantissa / POWERS_OF_TEN[-exponent] : mantissa * POWERS_OF_TEN[exponent];
+			return negative ? -value : value;
+		}
+
+		String token = this.string(start, end);
+		try {
+			return Double.parseDouble(token);
+		} catch (NumberFormatException e) {
+			throw this.error("Expected a number: " + token);
+		}
+	}
+
+	/**
+	 * @return the given integer as an int.
+	 */
+	private int toInt(long value) throws IOException {
+		if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+			throw this.error("Integer too large: " + value);
+		}
+		return (int) value;
+	}
+
+	/**
+	 * Decode the given range of the buffer.
+	 */
+	private String string(int start, int end) {
+		if (scratch.length < end - start) {
+			scratch = new byte[end - start];
+		}
+		for (int i = start ; i < end ; i++) {
+			scratch[i - start] = buffer.get(i);
+		}
+		return new String(scratch, 0, end - start, charset);
+	}
+
+}
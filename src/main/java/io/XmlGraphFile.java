@@ -0,0 +1,895 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLOutputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import javax.xml.stream.XMLStreamWriter;
+import java.awt.*;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Exports and imports graphs as GraphML or GEXF, for exchanging them with
+ * other tools. Both directions stream through StAX, so no document tree is
+ * built: writing holds nothing but a buffer, and reading holds nothing but
+ * the graph being built and a map from the file's node IDs to its nodes.
+ *
+ * The properties of GraphBuilder components map to the following:
+ *
+ * <ul>
+ *     <li>GraphML: the graph's constraints are graph data; a node's x, y,
+ *     radius, label and fill, border and text colors, and an edge's weight,
+ *     color, label and angle are node and edge data. Colors are written as
+ *     "#RRGGBB".</li>
+ *     <li>GEXF: a node's label, position, size (radius) and color (fill
+ *     color) use the standard label and viz elements, and its border and
+ *     text colors are attributes. An edge's weight, label and color use the
+ *     standard weight, label and viz elements, and its angle is an
+ *     attribute.</li>
+ * </ul>
+ *
+ * Colors and weights equal to GraphBuilder's defaults are left out, and
+ * declared as the defaults of their keys or attributes instead; defaults
+ * declared in other files are applied on import.
+ *
+ * Edge weight here is the thickness of a {@link GBEdge}. Components are
+ * given new IDs on import, in the order they appear in the file, since
+ * other tools use arbitrary strings as IDs. Properties missing from a file
+ * take their default values, and edges must appear after their endpoints.
+ *
+ * @author Brian Yao
+ */
+public class XmlGraphFile {
+
+	/**
+	 * The XML formats which can be read and written.
+	 */
+	public enum Format {
+
+		GRAPHML, GEXF;
+
+		/**
+		 * Guess the format of a file from its extension: ".gexf" for GEXF,
+		 * and GraphML otherwise.
+		 *
+		 * @param file The file whose format to guess.
+		 * @return the format of the file.
+		 */
+		public static Format of(File file) {
+			return file.getName().toLowerCase().endsWith(".gexf") ? GEXF : GRAPHML;
+		}
+
+	}
+
+	private static final String GRAPHML_NAMESPACE = "http://graphml.graphdrawing.org/xmlns";
+	private static final String GEXF_NAMESPACE = "http://gexf.net/1.3";
+	private static final String VIZ_NAMESPACE = "http://gexf.net/1.3/viz";
+
+	// Property names, used as GraphML keys and GEXF attribute IDs
+	private static final String CONSTRAINTS = "constraints";
+	private static final String X = "x";
+	private static final String Y = "y";
+	private static final String RADIUS = "radius";
+	private static final String LABEL = "label";
+	private static final String FILL_COLOR = "fill";
+	private static final String BORDER_COLOR = "border";
+	private static final String TEXT_COLOR = "textColor";
+	private static final String WEIGHT = "weight";
+	private static final String COLOR = "color";
+	private static final String ANGLE = "angle";
+
+	private static final int DEFAULT_RADIUS = 30;
+
+	// Default colors, which are not written for each component
+	private static final int RGB_MASK = 0xFFFFFF;
+	private static final int DEFAULT_FILL_RGB = GBNode.DEFAULT_FILL_COLOR.getRGB();
+	private static final int DEFAULT_BORDER_RGB = GBNode.DEFAULT_BORDER_COLOR.getRGB();
+	private static final int DEFAULT_TEXT_RGB = GBNode.DEFAULT_TEXT_COLOR.getRGB();
+	private static final int DEFAULT_EDGE_RGB = GBEdge.DEFAULT_COLOR.getRGB();
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	/**
+	 * Export the graph in the given context.
+	 *
+	 * @param context The context containing the graph to export.
+	 * @param target  The file to write to; it is replaced if it exists.
+	 * @param format  The format to write.
+	 * @throws IOException if the file could not be written.
+	 */
+	public static void write(GBContext context, File target, Format format) throws IOException {
+		write(GraphSnapshot.of(context), target, format);
+	}
+
+	/**
+	 * Export a snapshot of a graph.
+	 *
+	 * @param snapshot The snapshot of the graph to export.
+	 * @param target   The file to write to; it is replaced if it exists.
+	 * @param format   The format to write.
+	 * @throws IOException if the file could not be written.
+	 */
+	public static void write(GraphSnapshot snapshot, File target, Format format) throws IOException {
+		try (OutputStream stream = new BufferedOutputStream(new FileOutputStream(target), BUFFER_SIZE)) {
+			XMLStreamWriter writer = XMLOutputFactory.newFactory().createXMLStreamWriter(stream, "UTF-8");
+			writer.writeStartDocument("UTF-8", "1.0");
+			if (format == Format.GEXF) {
+				writeGexf(writer, snapshot);
+			} else {
+				writeGraphml(writer, snapshot);
+			}
+			writer.writeEndDocument();
+			writer.close();
+		} catch (XMLStreamException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Import a GraphML or GEXF file into a new context. The format is
+	 * detected from the document's root element.
+	 *
+	 * @param source The file to read.
+	 * @return a new context containing the graph in the file.
+	 * @throws IOException if the file could not be read, or is not a valid
+	 *                     GraphML or GEXF file.
+	 */
+	public static GBContext read(File source) throws IOException {
+		XMLInputFactory factory = XMLInputFactory.newInstance();
+		factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+		factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+		factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+
+		try (InputStream stream = new BufferedInputStream(new FileInputStream(source), BUFFER_SIZE)) {
+			XMLStreamReader reader = factory.createXMLStreamReader(stream);
+			try {
+				reader.nextTag();
+				Importer importer = new Importer(reader);
+				switch (reader.getLocalName()) {
+					case "graphml":
+						importer.readGraphml();
+						break;
+					case "gexf":
+						importer.readGexf();
+						break;
+					default:
+						throw importer.error("Not a GraphML or GEXF file.");
+				}
+				return importer.finish();
+			} finally {
+				reader.close();
+			}
+		} catch (XMLStreamException e) {
+			throw new IOException(e.getMessage(), e);
+		}
+	}
+
+	/**
+	 * Write the root element of a GraphML document.
+	 */
+	private static void writeGraphml(XMLStreamWriter writer, GraphSnapshot snapshot) throws XMLStreamException {
+		writer.setDefaultNamespace(GRAPHML_NAMESPACE);
+		writer.writeStartElement(GRAPHML_NAMESPACE, "graphml");
+		writer.writeDefaultNamespace(GRAPHML_NAMESPACE);
+		writeKey(writer, CONSTRAINTS, "graph", "int");
+		writeKey(writer, X, "node", "int");
+		writeKey(writer, Y, "node", "int");
+		writeKey(writer, RADIUS, "node", "int");
+		writeKey(writer, LABEL, "node", "string");
+		writeKey(writer, FILL_COLOR, "node", "string", FILL_COLOR, toHex(DEFAULT_FILL_RGB));
+		writeKey(writer, BORDER_COLOR, "node", "string", BORDER_COLOR, toHex(DEFAULT_BORDER_RGB));
+		writeKey(writer, TEXT_COLOR, "node", "string", TEXT_COLOR, toHex(DEFAULT_TEXT_RGB));
+		writeKey(writer, WEIGHT, "edge", "int", WEIGHT, Integer.toString(GBEdge.DEFAULT_WEIGHT));
+		writeKey(writer, COLOR, "edge", "string", COLOR, toHex(DEFAULT_EDGE_RGB));
+		writeKey(writer, "edge" + LABEL, "edge", "string", LABEL, null);
+		writeKey(writer, ANGLE, "edge", "double");
+
+		boolean directed = isDirected(snapshot.getConstraints());
+		writer.writeStartElement("graph");
+		writer.writeAttribute("id", "G");
+		writer.writeAttribute("edgedefault", directed ? "directed" : "undirected");
+		writeData(writer, CONSTRAINTS, Integer.toString(snapshot.getConstraints()));
+
+		for (int i = 0 ; i < snapshot.getNumNodes() ; i++) {
+			writer.writeStartElement("node");
+			writer.writeAttribute("id", "n" + i);
+			writeData(writer, X, Integer.toString(snapshot.nodeX[i]));
+			writeData(writer, Y, Integer.toString(snapshot.nodeY[i]));
+			writeData(writer, RADIUS, Integer.toString(snapshot.nodeRadii[i]));
+			if (!snapshot.nodeTexts[i].isEmpty()) {
+				writeData(writer, LABEL, snapshot.nodeTexts[i]);
+			}
+			writeColorData(writer, FILL_COLOR, snapshot.nodeFillColors[i], DEFAULT_FILL_RGB);
+			writeColorData(writer, BORDER_COLOR, snapshot.nodeBorderColors[i], DEFAULT_BORDER_RGB);
+			writeColorData(writer, TEXT_COLOR, snapshot.nodeTextColors[i], DEFAULT_TEXT_RGB);
+			writer.writeEndElement();
+		}
+
+		for (int i = 0 ; i < snapshot.getNumEdges() ; i++) {
+			writer.writeStartElement("edge");
+			writer.writeAttribute("id", "e" + i);
+			writer.writeAttribute("source", "n" + snapshot.edgeNode1[i]);
+			writer.writeAttribute("target", "n" + snapshot.edgeNode2[i]);
+			if (snapshot.edgeDirected[i] != directed) {
+				writer.writeAttribute("directed", Boolean.toString(snapshot.edgeDirected[i]));
+			}
+			if (snapshot.edgeWeights[i] != GBEdge.DEFAULT_WEIGHT) {
+				writeData(writer, WEIGHT, Integer.toString(snapshot.edgeWeights[i]));
+			}
+			writeColorData(writer, COLOR, snapshot.edgeColors[i], DEFAULT_EDGE_RGB);
+			if (!snapshot.edgeTexts[i].isEmpty()) {
+				writeData(writer, "edge" + LABEL, snapshot.edgeTexts[i]);
+			}
+			if (snapshot.edgeAngles[i] != 0) {
+				writeData(writer, ANGLE, Double.toString(snapshot.edgeAngles[i]));
+			}
+			writer.writeEndElement();
+		}
+
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+
+	private static void writeKey(XMLStreamWriter writer, String id, String domain,
+								 String type) throws XMLStreamException {
+		writeKey(writer, id, domain, type, id, null);
+	}
+
+	/**
+	 * Declare a GraphML key, with the value taken by elements without data
+	 * for the key if the default is not null.
+	 */
+	private static void writeKey(XMLStreamWriter writer, String id, String domain, String type, String name,
+								 String defaultValue) throws XMLStreamException {
+		if (defaultValue == null) {
+			writer.writeEmptyElement("key");
+		} else {
+			writer.writeStartElement("key");
+		}
+		writer.writeAttribute("id", id);
+		writer.writeAttribute("for", domain);
+		writer.writeAttribute("attr.name", name);
+		writer.writeAttribute("attr.type", type);
+		if (defaultValue != null) {
+			writer.writeStartElement("default");
+			writer.writeCharacters(defaultValue);
+			writer.writeEndElement();
+			writer.writeEndElement();
+		}
+	}
+
+	private static void writeData(XMLStreamWriter writer, String key, String value) throws XMLStreamException {
+		writer.writeStartElement("data");
+		writer.writeAttribute("key", key);
+		writer.writeCharacters(value);
+		writer.writeEndElement();
+	}
+
+	/**
+	 * Write a color as GraphML data, unless it is the key's default.
+	 */
+	private static void writeColorData(XMLStreamWriter writer, String key, int rgb,
+									   int defaultRgb) throws XMLStreamException {
+		if (((rgb ^ defaultRgb) & RGB_MASK) != 0) {
+			writeData(writer, key, toHex(rgb));
+		}
+	}
+
+	/**
+	 * Write the root element of a GEXF document.
+	 */
+	private static void writeGexf(XMLStreamWriter writer, GraphSnapshot snapshot) throws XMLStreamException {
+		writer.setDefaultNamespace(GEXF_NAMESPACE);
+		writer.setPrefix("viz", VIZ_NAMESPACE);
+		writer.writeStartElement(GEXF_NAMESPACE, "gexf");
+		writer.writeDefaultNamespace(GEXF_NAMESPACE);
+		writer.writeNamespace("viz", VIZ_NAMESPACE);
+		writer.writeAttribute("version", "1.3");
+
+		writer.writeStartElement("meta");
+		writer.writeStartElement("creator");
+		writer.writeCharacters("GraphBuilder");
+		writer.writeEndElement();
+		writer.writeEndElement();
+
+		boolean directed = isDirected(snapshot.getConstraints());
+		writer.writeStartElement("graph");
+		writer.writeAttribute("defaultedgetype", directed ? "directed" : "undirected");
+		writer.writeAttribute("mode", "static");
+
+		writer.writeStartElement("attributes");
+		writer.writeAttribute("class", "node");
+		writeAttributeDeclaration(writer, BORDER_COLOR, "string", toHex(DEFAULT_BORDER_RGB));
+		writeAttributeDeclaration(writer, TEXT_COLOR, "string", toHex(DEFAULT_TEXT_RGB));
+		writer.writeEndElement();
+		writer.writeStartElement("attributes");
+		writer.writeAttribute("class", "edge");
+		writeAttributeDeclaration(writer, ANGLE, "double", "0.0");
+		writer.writeEndElement();
+
+		writer.writeStartElement("nodes");
+		writer.writeAttribute("count", Integer.toString(snapshot.getNumNodes()));
+		for (int i = 0 ; i < snapshot.getNumNodes() ; i++) {
+			writer.writeStartElement("node");
+			writer.writeAttribute("id", "n" + i);
+			writer.writeAttribute(LABEL, snapshot.nodeTexts[i]);
+			boolean defaultBorder = ((snapshot.nodeBorderColors[i] ^ DEFAULT_BORDER_RGB) & RGB_MASK) == 0;
+			boolean defaultText = ((snapshot.nodeTextColors[i] ^ DEFAULT_TEXT_RGB) & RGB_MASK) == 0;
+			if (!defaultBorder || !defaultText) {
+				writer.writeStartElement("attvalues");
+				if (!defaultBorder) {
+					writeAttributeValue(writer, BORDER_COLOR, toHex(snapshot.nodeBorderColors[i]));
+				}
+				if (!defaultText) {
+					writeAttributeValue(writer, TEXT_COLOR, toHex(snapshot.nodeTextColors[i]));
+				}
+				writer.writeEndElement();
+			}
+			writeVizColor(writer, snapshot.nodeFillColors[i]);
+			writer.writeEmptyElement(VIZ_NAMESPACE, "position");
+			writer.writeAttribute("x", Integer.toString(snapshot.nodeX[i]));
+			writer.writeAttribute("y", Integer.toString(snapshot.nodeY[i]));
+			writer.writeAttribute("z", "0");
+			writer.writeEmptyElement(VIZ_NAMESPACE, "size");
+			writer.writeAttribute("value", Integer.toString(snapshot.nodeRadii[i]));
+			writer.writeEndElement();
+		}
+		writer.writeEndElement();
+
+		writer.writeStartElement("edges");
+		writer.writeAttribute("count", Integer.toString(snapshot.getNumEdges()));
+		for (int i = 0 ; i < snapshot.getNumEdges() ; i++) {
+			writer.writeStartElement("edge");
+			writer.writeAttribute("id", "e" + i);
+			writer.writeAttribute("source", "n" + snapshot.edgeNode1[i]);
+			writer.writeAttribute("target", "n" + snapshot.edgeNode2[i]);
+			if (snapshot.edgeDirected[i] != directed) {
+				writer.writeAttribute("type", snapshot.edgeDirected[i] ? "directed" : "undirected");
+			}
+			writer.writeAttribute(WEIGHT, Integer.toString(snapshot.edgeWeights[i]));
+			if (!snapshot.edgeTexts[i].isEmpty()) {
+				writer.writeAttribute(LABEL, snapshot.edgeTexts[i]);
+			}
+			if (snapshot.edgeAngles[i] != 0) {
+				writer.writeStartElement("attvalues");
+				writeAttributeValue(writer, ANGLE, Double.toString(snapshot.edgeAngles[i]));
+				writer.writeEndElement();
+			}
+			if (((snapshot.edgeColors[i] ^ DEFAULT_EDGE_RGB) & RGB_MASK) != 0) {
+				writeVizColor(writer, snapshot.edgeColors[i]);
+			}
+			writer.writeEndElement();
+		}
+		writer.writeEndElement();
+
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+
+	/**
+	 * Declare a GEXF attribute, with the value taken by elements without a
+	 * value for the attribute.
+	 */
+	private static void writeAttributeDeclaration(XMLStreamWriter writer, String id, String type,
+												  String defaultValue) throws XMLStreamException {
+		writer.writeStartElement("attribute");
+		writer.writeAttribute("id", id);
+		writer.writeAttribute("title", id);
+		writer.writeAttribute("type", type);
+		writer.writeStartElement("default");
+		writer.writeCharacters(defaultValue);
+		writer.writeEndElement();
+		writer.writeEndElement();
+	}
+
+	private static void writeAttributeValue(XMLStreamWriter writer, String id,
+											String value) throws XMLStreamException {
+		writer.writeEmptyElement("attvalue");
+		writer.writeAttribute("for", id);
+		writer.writeAttribute("value", value);
+	}
+
+	private static void writeVizColor(XMLStreamWriter writer, int rgb) throws XMLStreamException {
+		writer.writeEmptyElement(VIZ_NAMESPACE, "color");
+		writer.writeAttribute("r", Integer.toString((rgb >> 16) & 0xFF));
+		writer.writeAttribute("g", Integer.toString((rgb >> 8) & 0xFF));
+		writer.writeAttribute("b", Integer.toString(rgb & 0xFF));
+	}
+
+	/**
+	 * @return true iff edges of a graph with the given constraints are
+	 *         directed by default.
+	 */
+	private static boolean isDirected(int constraints) {
+		return (constraints & GraphConstraint.EDGE_BEHAVIOR_MASK) != GraphConstraint.UNDIRECTED;
+	}
+
+	/**
+	 * @return the given color in the form "#RRGGBB".
+	 */
+	private static String toHex(int rgb) {
+		char[] hex = new char[7];
+		hex[0] = '#';
+		for (int i = 6 ; i > 0 ; i--) {
+			hex[i] = Character.forDigit(rgb & 0xF, 16);
+			rgb >>= 4;
+		}
+		return new String(hex);
+	}
+
+	/**
+	 * Builds a context from the events of a GraphML or GEXF document. The
+	 * context is created when the first node or edge is read, once the
+	 * graph's constraints are known.
+	 */
+	private static final class Importer {
+
+		private XMLStreamReader reader;
+
+		private int constraints;
+		private GBContext context;
+		private boolean directed;
+		private Map<String, GBNode> nodesById;
+		private List<GBNode> nodes;
+		private List<GBEdge> edges;
+
+		// Property names by GraphML key ID or GEXF attribute ID, prefixed by
+		// their domain, and the declared defaults as pairs of name and value
+		private Map<String, String> names;
+		private List<String[]> nodeDefaults;
+		private List<String[]> edgeDefaults;
+
+		private Importer(XMLStreamReader reader) {
+			this.reader = reader;
+			this.nodesById = new HashMap<>();
+			this.nodes = new ArrayList<>();
+			this.edges = new ArrayList<>();
+			this.names = new HashMap<>();
+			this.nodeDefaults = new ArrayList<>();
+			this.edgeDefaults = new ArrayList<>();
+		}
+
+		/**
+		 * Read the contents of a GraphML root element.
+		 */
+		private void readGraphml() throws XMLStreamException, IOException {
+			boolean inGraph = false;
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+
+				switch (reader.getLocalName()) {
+					case "key":
+						String domain = reader.getAttributeValue(null, "for");
+						String name = reader.getAttributeValue(null, "attr.name");
+						names.put(domain + ":" + reader.getAttributeValue(null, "id"), name);
+						this.readDeclaration(domain, name);
+						break;
+					case "graph":
+						if (inGraph) {
+							throw this.error("Nested graphs are not supported.");
+						}
+						inGraph = true;
+						directed = !"undirected".equals(reader.getAttributeValue(null, "edgedefault"));
+						break;
+					case "data":
+						String key = reader.getAttributeValue(null, "key");
+						String text = this.readText();
+						if (CONSTRAINTS.equals(this.getName("graph", key))) {
+							constraints = this.parseInt(text);
+						}
+						break;
+					case "node":
+						this.readGraphmlNode();
+						break;
+					case "edge":
+						this.readGraphmlEdge();
+						break;
+				}
+			}
+		}
+
+		private void readGraphmlNode() throws XMLStreamException, IOException {
+			String id = reader.getAttributeValue(null, "id");
+			NodeProperties properties = this.createNodeProperties();
+			while (this.nextChild()) {
+				String name = this.getName("node", reader.getAttributeValue(null, "key"));
+				this.setNodeProperty(properties, name, this.readText());
+			}
+			this.addNode(id, properties);
+		}
+
+		private void readGraphmlEdge() throws XMLStreamException, IOException {
+			String directedValue = reader.getAttributeValue(null, "directed");
+			GBEdge edge = this.createEdge(reader.getAttributeValue(null, "source"),
+										  reader.getAttributeValue(null, "target"),
+										  directedValue == null ? directed : Boolean.parseBoolean(directedValue));
+			for (String[] property : edgeDefaults) {
+				this.setEdgeProperty(edge, property[0], property[1]);
+			}
+			while (this.nextChild()) {
+				String name = this.getName("edge", reader.getAttributeValue(null, "key"));
+				this.setEdgeProperty(edge, name, this.readText());
+			}
+		}
+
+		/**
+		 * Read the contents of a GEXF root element.
+		 */
+		private void readGexf() throws XMLStreamException, IOException {
+			String attributeClass = null;
+			while (reader.hasNext()) {
+				if (reader.next() != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+
+				switch (reader.getLocalName()) {
+					case "graph":
+						directed = "directed".equals(reader.getAttributeValue(null, "defaultedgetype"));
+						break;
+					case "attributes":
+						attributeClass = reader.getAttributeValue(null, "class");
+						break;
+					case "attribute":
+						String name = reader.getAttributeValue(null, "title");
+						names.put(attributeClass + ":" + reader.getAttributeValue(null, "id"), name);
+						this.readDeclaration(attributeClass, name);
+						break;
+					case "node":
+						this.readGexfNode();
+						break;
+					case "edge":
+						this.readGexfEdge();
+						break;
+				}
+			}
+		}
+
+		private void readGexfNode() throws XMLStreamException, IOException {
+			String id = reader.getAttributeValue(null, "id");
+			NodeProperties properties = this.createNodeProperties();
+			String label = reader.getAttributeValue(null, LABEL);
+			if (label != null) {
+				properties.text = label;
+			}
+
+			int depth = 1;
+			while (depth > 0) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+					continue;
+				} else if (event != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+
+				depth++;
+				switch (reader.getLocalName()) {
+					case "attvalue":
+						String name = names.get("node:" + reader.getAttributeValue(null, "for"));
+						this.setNodeProperty(properties, name, reader.getAttributeValue(null, "value"));
+						break;
+					case "color":
+						properties.fillColor = this.parseVizColor();
+						break;
+					case "position":
+						properties.x = (int) Math.round(this.parseDouble(reader.getAttributeValue(null, "x")));
+						properties.y = (int) Math.round(this.parseDouble(reader.getAttributeValue(null, "y")));
+						break;
+					case "size":
+						String size = reader.getAttributeValue(null, "value");
+						properties.radius = (int) Math.round(this.parseDouble(size));
+						break;
+				}
+			}
+			this.addNode(id, properties);
+		}
+
+		private void readGexfEdge() throws XMLStreamException, IOException {
+			String type = reader.getAttributeValue(null, "type");
+			GBEdge edge = this.createEdge(reader.getAttributeValue(null, "source"),
+										  reader.getAttributeValue(null, "target"),
+										  type == null ? directed : type.equals("directed"));
+			for (String[] property : edgeDefaults) {
+				this.setEdgeProperty(edge, property[0], property[1]);
+			}
+			String weight = reader.getAttributeValue(null, WEIGHT);
+			if (weight != null) {
+				edge.setWeight((int) Math.round(this.parseDouble(weight)));
+			}
+			String label = reader.getAttributeValue(null, LABEL);
+			if (label != null) {
+				edge.setText(label);
+			}
+
+			int depth = 1;
+			while (depth > 0) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+					continue;
+				} else if (event != XMLStreamConstants.START_ELEMENT) {
+					continue;
+				}
+
+				depth++;
+				switch (reader.getLocalName()) {
+					case "attvalue":
+						String name = names.get("edge:" + reader.getAttributeValue(null, "for"));
+						this.setEdgeProperty(edge, name, reader.getAttributeValue(null, "value"));
+						break;
+					case "color":
+						edge.setColor(this.parseVizColor());
+						break;
+				}
+			}
+		}
+
+		/**
+		 * Read the rest of a GraphML key or GEXF attribute declaration,
+		 * recording its default value if it has one.
+		 */
+		private void readDeclaration(String domain, String name) throws XMLStreamException {
+			while (this.nextChild()) {
+				boolean isDefault = reader.getLocalName().equals("default");
+				String value = this.readText();
+				if (!isDefault || name == null) {
+					continue;
+				}
+				if ("node".equals(domain) || "all".equals(domain)) {
+					nodeDefaults.add(new String[] {name, value});
+				}
+				if ("edge".equals(domain) || "all".equals(domain)) {
+					edgeDefaults.add(new String[] {name, value});
+				}
+			}
+		}
+
+		/**
+		 * @return the properties of a new node, with the declared defaults
+		 *         applied.
+		 */
+		private NodeProperties createNodeProperties() throws IOException {
+			NodeProperties properties = new NodeProperties();
+			for (String[] property : nodeDefaults) {
+				this.setNodeProperty(properties, property[0], property[1]);
+			}
+			return properties;
+		}
+
+		/**
+		 * Set the property of a node with the given name, if it is known.
+		 */
+		private void setNodeProperty(NodeProperties properties, String name, String value) throws IOException {
+			if (name == null) {
+				return;
+			}
+			switch (name) {
+				case X:
+					properties.x = (int) Math.round(this.parseDouble(value));
+					break;
+				case Y:
+					properties.y = (int) Math.round(this.parseDouble(value));
+					break;
+				case RADIUS:
+					properties.radius = (int) Math.round(this.parseDouble(value));
+					break;
+				case LABEL:
+					properties.text = value;
+					break;
+				case FILL_COLOR:
+					properties.fillColor = this.parseColor(value);
+					break;
+				case BORDER_COLOR:
+					properties.borderColor = this.parseColor(value);
+					break;
+				case TEXT_COLOR:
+					properties.textColor = this.parseColor(value);
+					break;
+			}
+		}
+
+		/**
+		 * Set the property of an edge with the given name, if it is known.
+		 */
+		private void setEdgeProperty(GBEdge edge, String name, String value) throws IOException {
+			if (name == null) {
+				return;
+			}
+			switch (name) {
+				case WEIGHT:
+					edge.setWeight((int) Math.round(this.parseDouble(value)));
+					break;
+				case COLOR:
+					edge.setColor(this.parseColor(value));
+					break;
+				case LABEL:
+					edge.setText(value);
+					break;
+				case ANGLE:
+					edge.setAngle(this.parseDouble(value));
+					break;
+			}
+		}
+
+		/**
+		 * Move to the next child element of the current element.
+		 *
+		 * @return true if a child element was found, or false if the end of
+		 *         the current element was reached instead.
+		 */
+		private boolean nextChild() throws XMLStreamException {
+			while (true) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					return true;
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					return false;
+				}
+			}
+		}
+
+		/**
+		 * Read the text directly inside the current element, skipping any
+		 * child elements, and move to the end of the element.
+		 */
+		private String readText() throws XMLStreamException {
+			StringBuilder text = new StringBuilder();
+			int depth = 1;
+			while (depth > 0) {
+				int event = reader.next();
+				if (event == XMLStreamConstants.START_ELEMENT) {
+					depth++;
+				} else if (event == XMLStreamConstants.END_ELEMENT) {
+					depth--;
+				} else if (depth == 1 && (event == XMLStreamConstants.CHARACTERS ||
+					event == XMLStreamConstants.CDATA)) {
+					text.append(reader.getText());
+				}
+			}
+			return text.toString();
+		}
+
+		/**
+		 * @return the property name of a GraphML key, which may be declared
+		 *         for the given domain or for all domains.
+		 */
+		private String getName(String domain, String key) {
+			String name = names.get(domain + ":" + key);
+			return name != null ? name : names.get("all:" + key);
+		}
+
+		/**
+		 * @return the context being built, creating it if necessary.
+		 */
+		private GBContext getContext() {
+			if (context == null) {
+				if (constraints == 0) {
+					constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.UNWEIGHTED |
+						(directed ? GraphConstraint.DIRECTED : GraphConstraint.UNDIRECTED);
+				}
+				context = new GBContext(constraints);
+			}
+			return context;
+		}
+
+		private void addNode(String id, NodeProperties properties) throws IOException {
+			GBContext context = this.getContext();
+			NodePanel panel = new NodePanel(properties.x, properties.y, properties.radius);
+			panel.setText(properties.text);
+			panel.setFillColor(properties.fillColor);
+			panel.setBorderColor(properties.borderColor);
+			panel.setTextColor(properties.textColor);
+
+			GBNode node = new GBNode(new Node(context.getNextIdAndInc()), context, panel);
+			if (nodesById.putIfAbsent(id, node) != null) {
+				throw this.error("Duplicate node ID: " + id);
+			}
+			nodes.add(node);
+		}
+
+		private GBEdge createEdge(String sourceId, String targetId, boolean directed) throws IOException {
+			GBContext context = this.getContext();
+			GBNode source = nodesById.get(sourceId);
+			GBNode target = nodesById.get(targetId);
+			if (source == null || target == null) {
+				throw this.error("Edge endpoint not found: " + (source == null ? sourceId : targetId));
+			}
+
+			// An edge against the default direction makes the graph mixed
+			if (directed != this.directed) {
+				context.getGraph().addConstraint(GraphConstraint.MIXED);
+			}
+			GBEdge edge = new GBEdge(context.getNextIdAndInc(), source, target, directed);
+			edges.add(edge);
+			return edge;
+		}
+
+		/**
+		 * Add the components read to the context.
+		 */
+		private GBContext finish() {
+			GBContext context = this.getContext();
+			context.addNodes(nodes);
+			context.addEdges(edges);
+			return context;
+		}
+
+		private Color parseVizColor() throws IOException {
+			try {
+				return new Color(this.parseInt(reader.getAttributeValue(null, "r")),
+								 this.parseInt(reader.getAttributeValue(null, "g")),
+								 this.parseInt(reader.getAttributeValue(null, "b")));
+			} catch (IllegalArgumentException e) {
+				throw this.error("Invalid color: " + e.getMessage());
+			}
+		}
+
+		private Color parseColor(String value) throws IOException {
+			try {
+				return Color.decode(value.trim());
+			} catch (NumberFormatException | NullPointerException e) {
+				throw this.error("Invalid color: " + value);
+			}
+		}
+
+		private int parseInt(String value) throws IOException {
+			try {
+				return Integer.parseInt(value.trim());
+			} catch (NumberFormatException | NullPointerException e) {
+				throw this.error("Invalid integer: " + value);
+			}
+		}
+
+		private double parseDouble(String value) throws IOException {
+			try {
+				return Double.parseDouble(value.trim());
+			} catch (NumberFormatException | NullPointerException e) {
+				throw this.error("Invalid number: " + value);
+			}
+		}
+
+		/**
+		 * @return an exception describing a problem at the current position.
+		 */
+		private IOException error(String message) {
+			return new IOException("Line " + reader.getLocation().getLineNumber() + ": " + message);
+		}
+
+	}
+
+	/**
+	 * The properties of a node being read, with their default values.
+	 */
+	private static final class NodeProperties {
+
+		private int x;
+		private int y;
+		private int radius = DEFAULT_RADIUS;
+		private String text = GBNode.DEFAULT_TEXT;
+		private Color fillColor = GBNode.DEFAULT_FILL_COLOR;
+		private Color borderColor = GBNode.DEFAULT_BORDER_COLOR;
+		private Color textColor = GBNode.DEFAULT_TEXT_COLOR;
+
+	}
+
+}
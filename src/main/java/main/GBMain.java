@@ -61,7 +61,10 @@ public class GBMain {
 			}
 		}
 
-		new GBFrame(startingContext);
+		GBFrame frame = new GBFrame(startingContext);
+		if (!frame.getEditor().getStats().register()) {
+			Logger.writeEntry(Logger.WARNING, "Unable to register the rendering statistics with JMX.");
+		}
 	}
 
 	/**
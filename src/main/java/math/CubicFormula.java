@@ -41,4 +41,80 @@ public class CubicFormula {
 		return roots;
 	}
 
+	/**
+	 * Compute the real roots of a polynomial equation of the form
+	 * ax^3 + bx^2 + cx + d = 0, without creating any objects. If a is zero,
+	 * the roots of the quadratic (or linear) equation are computed instead.
+	 * A repeated root may be reported once or several times, and an
+	 * equation with every coefficient zero has no reported roots.
+	 *
+	 * @param a     The coefficient of the x^3 term.
+	 * @param b     The coefficient of the x^2 term.
+	 * @param c     The coefficient of the x term.
+	 * @param d     The constant term.
+	 * @param roots An array of length at least 3 to hold the roots.
+	 * @return The number of real roots stored at the start of the array.
+	 */
+	public static int getRealRoots(double a, double b, double c, double d, double[] roots) {
+		if (a == 0) {
+			return getQuadraticRoots(b, c, d, roots);
+		}
+
+		// Substitute x = t - b/3 to get the depressed cubic t^3 + pt + q = 0
+		double b3 = b / (3 * a);
+		double p = c / a - 3 * b3 * b3;
+		double q = 2 * b3 * b3 * b3 - b3 * c / a + d / a;
+		double discriminant = q * q / 4 + p * p * p / 27;
+		if (p == 0 && q == 0) {
+			roots[0] = -b3;
+			return 1;
+		} else if (discriminant > 0) {
+			// One real root (Cardano's formula)
+			double sqrt = Math.sqrt(discriminant);
+			roots[0] = Math.cbrt(-q / 2 + sqrt) + Math.cbrt(-q / 2 - sqrt) - b3;
+			return 1;
+		}
+
+		// Three real roots (trigonometric method); p is negative here
+		double radius = 2 * Math.sqrt(-p / 3);
+		double cos = Math.max(-1, Math.min(1, 3 * q / (p * radius)));
+		double angle = Math.acos(cos) / 3;
+		for (int k = 0 ; k < 3 ; k++) {
+			roots[k] = radius * Math.cos(angle - 2 * Math.PI * k / 3) - b3;
+		}
+		return 3;
+	}
+
+	/**
+	 * Compute the real roots of ax^2 + bx + c = 0, or of bx + c = 0 if a is
+	 * zero.
+	 *
+	 * @return The number of real roots stored at the start of the array.
+	 */
+	private static int getQuadraticRoots(double a, double b, double c, double[] roots) {
+		if (a == 0) {
+			if (b == 0) {
+				return 0;
+			}
+			roots[0] = -c / b;
+			return 1;
+		}
+
+		double discriminant = b * b - 4 * a * c;
+		if (discriminant < 0) {
+			return 0;
+		}
+
+		// Avoid subtracting nearly equal values
+		double sqrt = Math.sqrt(discriminant);
+		double sum = b >= 0 ? -b - sqrt : -b + sqrt;
+		if (sum == 0) {
+			roots[0] = 0;
+			return 1;
+		}
+		roots[0] = sum / (2 * a);
+		roots[1] = 2 * c / sum;
+		return 2;
+	}
+
 }
@@ -3,6 +3,7 @@ package structures;
 import graph.components.Edge;
 import graph.components.Node;
 import lombok.Getter;
+import lombok.Setter;
 
 import java.util.HashMap;
 import java.util.HashSet;
@@ -41,6 +42,10 @@ public class AdjListData {
 
 	private Node node;
 
+	// The dense index of this data's node in the graph it belongs to
+	@Getter @Setter
+	private int index;
+
 	public AdjListData(Node n) {
 		node = n;
 		undirectedEdges = new HashMap<>();
@@ -0,0 +1,219 @@
+package structures;
+
+import java.util.*;
+
+/**
+ * A uniform grid over the bounding boxes of values, for finding the values
+ * near a point without looking at all of them. Each value is stored in
+ * every cell its bounding box overlaps, except for values whose boxes
+ * cover too many cells; those are kept in a separate list which every
+ * query includes, so that a few huge boxes cannot blow up the grid.
+ *
+ * @param <T> The type of value being stored.
+ *
+ * @author Brian Yao
+ */
+public class BoundsGrid<T> {
+
+	// Values covering more cells than this are not put in the cells
+	private static final int MAX_CELLS_PER_VALUE = 64;
+
+	private double cellSize;
+	private Map<Long, List<T>> cells;
+	private Map<T, int[]> ranges; // The columns and rows (min and max) covered by each value
+	private Set<T> oversized;
+
+	// The union of all bounding boxes added, which never shrinks
+	private double minX = Double.POSITIVE_INFINITY;
+	private double minY = Double.POSITIVE_INFINITY;
+	private double maxX = Double.NEGATIVE_INFINITY;
+	private double maxY = Double.NEGATIVE_INFINITY;
+
+	/**
+	 * Initialize an empty grid with the given cell size.
+	 *
+	 * @param cellSize The width and height of each cell.
+	 */
+	public BoundsGrid(double cellSize) {
+		if (!(cellSize > 0)) {
+			throw new IllegalArgumentException("The cell size must be positive.");
+		}
+		this.cellSize = cellSize;
+		this.cells = new HashMap<>();
+		this.ranges = new HashMap<>();
+		this.oversized = new HashSet<>();
+	}
+
+	/**
+	 * Add a value with the given bounding box, or move the value if it is
+	 * already in the grid. Moving a value within the cells it already
+	 * covers is cheap.
+	 *
+	 * @param value The value to add.
+	 * @param x1    The smallest x-coordinate of the bounding box.
+	 * @param y1    The smallest y-coordinate of the bounding box.
+	 * @param x2    The largest x-coordinate of the bounding box.
+	 * @param y2    The largest y-coordinate of the bounding box.
+	 */
+	public void put(T value, double x1, double y1, double x2, double y2) {
+		if (!Double.isFinite(x1) || !Double.isFinite(y1) || !Double.isFinite(x2) || !Double.isFinite(y2)) {
+			// A box which cannot be placed is treated as covering everything
+			this.remove(value);
+			ranges.put(value, new int[0]);
+			oversized.add(value);
+			return;
+		}
+
+		minX = Math.min(minX, x1);
+		minY = Math.min(minY, y1);
+		maxX = Math.max(maxX, x2);
+		maxY = Math.max(maxY, y2);
+
+		int minCol = this.cell(x1);
+		int minRow = this.cell(y1);
+		int maxCol = this.cell(x2);
+		int maxRow = this.cell(y2);
+		int[] previous = ranges.get(value);
+		if (previous != null && previous.length == 4 && previous[0] == minCol && previous[1] == minRow &&
+			previous[2] == maxCol && previous[3] == maxRow) {
+			return;
+		}
+		this.remove(value);
+
+		int[] range = {minCol, minRow, maxCol, maxRow};
+
+		ranges.put(value, range);
+		if (((long) range[2] - range[0] + 1) * ((long) range[3] - range[1] + 1) > MAX_CELLS_PER_VALUE) {
+			oversized.add(value);
+			return;
+		}
+		for (int col = range[0] ; col <= range[2] ; col++) {
+			for (int row = range[1] ; row <= range[3] ; row++) {
+				cells.computeIfAbsent(key(col, row), k -> new ArrayList<>(4)).add(value);
+			}
+		}
+	}
+
+	/**
+	 * Remove a value from the grid, if it is in the grid.
+	 *
+	 * @param value The value to remove.
+	 */
+	public void remove(T value) {
+		int[] range = ranges.remove(value);
+		if (range == null || oversized.remove(value)) {
+			return;
+		}
+		for (int col = range[0] ; col <= range[2] ; col++) {
+			for (int row = range[1] ; row <= range[3] ; row++) {
+				Long key = key(col, row);
+				List<T> cell = cells.get(key);
+				cell.remove(value);
+				if (cell.isEmpty()) {
+					cells.remove(key);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Find the values whose cells overlap the given box. This includes
+	 * every value whose bounding box overlaps it, and possibly some values
+	 * near it.
+	 *
+	 * @param x1 The smallest x-coordinate of the box.
+	 * @param y1 The smallest y-coordinate of the box.
+	 * @param x2 The largest x-coordinate of the box.
+	 * @param y2 The largest y-coordinate of the box.
+	 * @return the values found.
+	 */
+	public Set<T> query(double x1, double y1, double x2, double y2) {
+		Set<T> found = new HashSet<>(oversized);
+		if (cells.isEmpty()) {
+			return found;
+		}
+
+		int minCol = this.cell(Math.max(x1, minX));
+		int minRow = this.cell(Math.max(y1, minY));
+		int maxCol = this.cell(Math.min(x2, maxX));
+		int maxRow = this.cell(Math.min(y2, maxY));
+		if (((long) maxCol - minCol + 1) * ((long) maxRow - minRow + 1) > cells.size()) {
+			// The box covers more cells than are occupied; check each occupied cell instead
+			for (Map.Entry<Long, List<T>> cell : cells.entrySet()) {
+				int col = (int) (cell.getKey() >> 32);
+				int row = (int) (long) cell.getKey();
+				if (col >= minCol && col <= maxCol && row >= minRow && row <= maxRow) {
+					found.addAll(cell.getValue());
+				}
+			}
+		} else {
+			for (int col = minCol ; col <= maxCol ; col++) {
+				for (int row = minRow ; row <= maxRow ; row++) {
+					List<T> cell = cells.get(key(col, row));
+					if (cell != null) {
+						found.addAll(cell);
+					}
+				}
+			}
+		}
+		return found;
+	}
+
+	/**
+	 * Check whether a box contains the bounding boxes of all values ever
+	 * added to the grid, so that growing it further finds nothing new.
+	 *
+	 * @param x1 The smallest x-coordinate of the box.
+	 * @param y1 The smallest y-coordinate of the box.
+	 * @param x2 The largest x-coordinate of the box.
+	 * @param y2 The largest y-coordinate of the box.
+	 * @return true iff the box covers everything in the grid.
+	 */
+	public boolean covers(double x1, double y1, double x2, double y2) {
+		return x1 <= minX && y1 <= minY && x2 >= maxX && y2 >= maxY;
+	}
+
+	/**
+	 * @param value A value.
+	 * @return true iff the value is in the grid.
+	 */
+	public boolean contains(T value) {
+		return ranges.containsKey(value);
+	}
+
+	/**
+	 * @return the number of values in the grid.
+	 */
+	public int size() {
+		return ranges.size();
+	}
+
+	/**
+	 * Remove all values from the grid.
+	 */
+	public void clear() {
+		cells.clear();
+		ranges.clear();
+		oversized.clear();
+		minX = minY = Double.POSITIVE_INFINITY;
+		maxX = maxY = Double.NEGATIVE_INFINITY;
+	}
+
+	/**
+	 * @param coordinate A coordinate.
+	 * @return the column or row of the cell containing the coordinate.
+	 */
+	private int cell(double coordinate) {
+		return (int) Math.floor(coordinate / cellSize);
+	}
+
+	/**
+	 * @param col The column of a cell.
+	 * @param row The row of a cell.
+	 * @return the key of the cell in the cell map.
+	 */
+	private static long key(int col, int row) {
+		return ((long) col << 32) | (row & 0xFFFFFFFFL);
+	}
+
+}
@@ -1,13 +1,14 @@
 package structures;
 
+import config.Preferences;
 import context.GBContext;
-import graph.components.display.NodePanel;
 import graph.components.gb.GBComponent;
 import graph.components.gb.GBEdge;
 import graph.components.gb.GBNode;
 import lombok.Getter;
 import lombok.Setter;
 import ui.Editor;
+import ui.NodeDrag;
 
 import java.awt.*;
 import java.util.*;
@@ -47,9 +48,9 @@ public class EditorData {
 	@Getter
 	private Map<UOPair<GBNode>, List<GBEdge>> highlightedEdges;
 
-	// Map from panel to position on editor
-	@Getter
-	private Map<NodePanel, Point> nodePanelPositionMap;
+	// The nodes being dragged, if any
+	@Getter @Setter
+	private NodeDrag nodeDrag;
 
 	// Data for drawing preview edges
 	@Getter @Setter
@@ -65,6 +66,14 @@ public class EditorData {
 	@Getter @Setter
 	private GBEdge closestEdge;
 
+	// The bounding boxes of the edges, as last drawn
+	@Getter
+	private BoundsGrid<GBEdge> edgeGrid;
+
+	// The bounding boxes of the nodes in the graph, when nodes are drawn by the editor
+	@Getter
+	private BoundsGrid<GBNode> nodeGrid;
+
 	/**
 	 * Initialize editor data to be empty.
 	 *
@@ -78,7 +87,8 @@ public class EditorData {
 		selectedEdges = new HashMap<>();
 		highlightedNodes = new HashSet<>();
 		highlightedEdges = new HashMap<>();
-		nodePanelPositionMap = new HashMap<>();
+		edgeGrid = new BoundsGrid<>(Preferences.EDGE_GRID_CELL_SIZE);
+		nodeGrid = new BoundsGrid<>(Preferences.NODE_GRID_CELL_SIZE);
 	}
 
 	/**
@@ -89,30 +99,14 @@ public class EditorData {
 		selectedEdges.clear();
 		highlightedNodes.clear();
 		highlightedEdges.clear();
-		nodePanelPositionMap.clear();
+		nodeDrag = null;
+		edgeGrid.clear();
+		nodeGrid.clear();
 		clearPreviewEdge();
 		clearEdgeBasePoint();
 		clearPathBasePoint();
 	}
 
-	/**
-	 * Add a new entry to the mapping from node panel to position.
-	 *
-	 * @param np The node panel we want to add.
-	 */
-	public void addNodePanelEntry(NodePanel np) {
-		nodePanelPositionMap.put(np, np.getCoords());
-	}
-
-	/**
-	 * Remove an entry from the mapping from node panel to position.
-	 *
-	 * @param np The node panel whose entry to remove.
-	 */
-	public void removeNodePanelEntry(NodePanel np) {
-		nodePanelPositionMap.remove(np);
-	}
-
 	/**
 	 * Check if a component is selected.
 	 *
@@ -0,0 +1,127 @@
+package structures;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * A histogram of non-negative durations (or any other long values), cheap
+ * enough to record into on every frame. Like HdrHistogram, values are
+ * counted in buckets whose width grows with the magnitude of the value:
+ * each power of two is split into 16 buckets, so a recorded value is known
+ * to within about 6%, and any long fits in under a thousand buckets.
+ * Recording is lock-free and may happen on any thread.
+ *
+ * @author Brian Yao
+ */
+public class LatencyHistogram {
+
+	private static final int SUB_BUCKET_BITS = 4;
+	private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+
+	private AtomicLongArray counts;
+	private AtomicLong count;
+	private AtomicLong max;
+
+	/**
+	 * Initialize an empty histogram.
+	 */
+	public LatencyHistogram() {
+		counts = new AtomicLongArray((Long.SIZE - SUB_BUCKET_BITS) * SUB_BUCKETS);
+		count = new AtomicLong();
+		max = new AtomicLong();
+	}
+
+	/**
+	 * Count a value.
+	 *
+	 * @param value The value to count, such as a duration in nanoseconds.
+	 */
+	public void record(long value) {
+		if (value < 0) {
+			throw new IllegalArgumentException("Cannot record a negative value: " + value);
+		}
+		counts.incrementAndGet(bucket(value));
+		count.incrementAndGet();
+		max.accumulateAndGet(value, Math::max);
+	}
+
+	/**
+	 * @return the number of values counted.
+	 */
+	public long getCount() {
+		return count.get();
+	}
+
+	/**
+	 * @return the largest value counted, or 0 if there are none.
+	 */
+	public long getMax() {
+		return max.get();
+	}
+
+	/**
+	 * Get a value which the given percentage of the counted values do not
+	 * exceed. The value returned is the largest value of the bucket where
+	 * the percentile falls, so it overestimates by at most the bucket width.
+	 *
+	 * @param percentile A percentage between 0 and 100.
+	 * @return the value at the percentile, or 0 if nothing was counted.
+	 */
+	public long getValueAtPercentile(double percentile) {
+		if (!(percentile >= 0 && percentile <= 100)) {
+			throw new IllegalArgumentException("The percentile must be between 0 and 100: " + percentile);
+		}
+		long total = count.get();
+		if (total == 0) {
+			return 0;
+		}
+
+		long target = Math.max(1, (long) Math.ceil(percentile / 100 * total));
+		long seen = 0;
+		for (int i = 0 ; i < counts.length() ; i++) {
+			seen += counts.get(i);
+			if (seen >= target) {
+				return Math.min(highestValue(i), max.get());
+			}
+		}
+		return max.get();
+	}
+
+	/**
+	 * Forget all counted values. Values recorded while the histogram is
+	 * being reset may or may not be kept.
+	 */
+	public void reset() {
+		for (int i = 0 ; i < counts.length() ; i++) {
+			counts.set(i, 0);
+		}
+		count.set(0);
+		max.set(0);
+	}
+
+	/**
+	 * @param value A non-negative value.
+	 * @return the index of the bucket counting the value.
+	 */
+	private static int bucket(long value) {
+		if (value < SUB_BUCKETS) {
+			return (int) value;
+		}
+		int shift = Long.SIZE - 1 - Long.numberOfLeadingZeros(value) - SUB_BUCKET_BITS;
+		return (shift + 1) * SUB_BUCKETS + (int) (value >>> shift) - SUB_BUCKETS;
+	}
+
+	/**
+	 * @param bucket The index of a bucket.
+	 * @return the largest value counted in the bucket.
+	 */
+	private static long highestValue(int bucket) {
+		if (bucket < 2 * SUB_BUCKETS) {
+			return bucket;
+		}
+		int shift = bucket / SUB_BUCKETS - 1;
+		long lowest = (long) (bucket % SUB_BUCKETS + SUB_BUCKETS) << shift;
+		return lowest + (1L << shift) - 1;
+	}
+
+}
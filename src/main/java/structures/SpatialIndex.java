@@ -0,0 +1,155 @@
+package structures;
+
+import java.awt.*;
+import java.util.*;
+import java.util.List;
+
+/**
+ * A uniform grid which buckets values by the cell containing their
+ * location. Values are taken out of the index a cell at a time, either by
+ * the region they lie in or nearest to a given point first, so each value
+ * is handed out exactly once.
+ *
+ * @param <T> The type of value being stored.
+ *
+ * @author Brian Yao
+ */
+public class SpatialIndex<T> {
+
+	private int cellSize;
+	private Map<Long, List<T>> cells;
+	private int size;
+
+	/**
+	 * Initialize an empty index with the given cell size.
+	 *
+	 * @param cellSize The width and height of each cell, in pixels.
+	 */
+	public SpatialIndex(int cellSize) {
+		if (cellSize <= 0) {
+			throw new IllegalArgumentException("The cell size must be positive.");
+		}
+		this.cellSize = cellSize;
+		this.cells = new HashMap<>();
+	}
+
+	/**
+	 * Add a value at the given location.
+	 *
+	 * @param value The value to add.
+	 * @param x     The x-coordinate of the value's location.
+	 * @param y     The y-coordinate of the value's location.
+	 */
+	public void add(T value, int x, int y) {
+		cells.computeIfAbsent(key(Math.floorDiv(x, cellSize), Math.floorDiv(y, cellSize)),
+							  k -> new ArrayList<>()).add(value);
+		size++;
+	}
+
+	/**
+	 * @return the number of values remaining in this index.
+	 */
+	public int size() {
+		return size;
+	}
+
+	/**
+	 * @return true iff no values remain in this index.
+	 */
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Remove and return the values in all cells intersecting the given
+	 * region. Values near the region's border may lie slightly outside of it.
+	 *
+	 * @param region The region, in the same coordinates as the values.
+	 * @return the removed values.
+	 */
+	public List<T> removeRegion(Rectangle region) {
+		List<T> removed = new ArrayList<>();
+		if (region.isEmpty() || cells.isEmpty()) {
+			return removed;
+		}
+
+		int minCol = Math.floorDiv(region.x, cellSize);
+		int minRow = Math.floorDiv(region.y, cellSize);
+		int maxCol = Math.floorDiv(region.x + region.width - 1, cellSize);
+		int maxRow = Math.floorDiv(region.y + region.height - 1, cellSize);
+		if ((long) (maxCol - minCol + 1) * (maxRow - minRow + 1) > cells.size()) {
+			// The region covers more cells than are occupied; check each occupied cell instead
+			Iterator<Map.Entry<Long, List<T>>> it = cells.entrySet().iterator();
+			while (it.hasNext()) {
+				Map.Entry<Long, List<T>> cell = it.next();
+				int col = (int) (cell.getKey() >> 32);
+				int row = (int) (long) cell.getKey();
+				if (col >= minCol && col <= maxCol && row >= minRow && row <= maxRow) {
+					removed.addAll(cell.getValue());
+					it.remove();
+				}
+			}
+		} else {
+			for (int col = minCol ; col <= maxCol ; col++) {
+				for (int row = minRow ; row <= maxRow ; row++) {
+					List<T> cell = cells.remove(key(col, row));
+					if (cell != null) {
+						removed.addAll(cell);
+					}
+				}
+			}
+		}
+
+		size -= removed.size();
+		return removed;
+	}
+
+	/**
+	 * Remove and return the values in the occupied cell closest to the
+	 * given point.
+	 *
+	 * @param x The x-coordinate of the point.
+	 * @param y The y-coordinate of the point.
+	 * @return the removed values, or an empty list if this index is empty.
+	 */
+	public List<T> removeNearestCell(int x, int y) {
+		int pointCol = Math.floorDiv(x, cellSize);
+		int pointRow = Math.floorDiv(y, cellSize);
+		Long nearest = null;
+		long nearestDist = Long.MAX_VALUE;
+		for (Long key : cells.keySet()) {
+			long colDist = (key >> 32) - pointCol;
+			long rowDist = (int) (long) key - pointRow;
+			long dist = colDist * colDist + rowDist * rowDist;
+			if (dist < nearestDist) {
+				nearest = key;
+				nearestDist = dist;
+			}
+		}
+
+		if (nearest == null) {
+			return new ArrayList<>();
+		}
+		List<T> removed = cells.remove(nearest);
+		size -= removed.size();
+		return removed;
+	}
+
+	/**
+	 * Remove all values from this index.
+	 */
+	public void clear() {
+		cells.clear();
+		size = 0;
+	}
+
+	/**
+	 * @param col The column of a cell.
+	 * @param row The row of a cell.
+	 * @return the key of the cell in the cell map.
+	 */
+	private static long key(int col, int row) {
+		return ((long) col << 32) | (row & 0xFFFFFFFFL);
+	}
+
+}
@@ -4,29 +4,37 @@ import actions.PlaceNodeAction;
 import context.GBContext;
 import graph.Graph;
 import graph.GraphConstraint;
+import graph.GraphEvent;
+import graph.GraphListener;
+import graph.components.Edge;
 import graph.components.Node;
+import graph.components.display.EdgeShape;
 import graph.components.display.NodePanel;
 import graph.components.gb.GBEdge;
 import graph.components.gb.GBNode;
 import lombok.Getter;
-import math.Complex;
 import math.CubicFormula;
 import org.javatuples.Triplet;
 import config.Preferences;
+import structures.AdjListData;
+import structures.BoundsGrid;
 import structures.EditorData;
 import structures.UOPair;
 import tool.Tool;
+import ui.dialogs.GridSettingsDialog;
 import ui.menus.EditorRightClickMenu;
 import util.CoordinateUtils;
 
 import javax.swing.*;
+import javax.swing.Timer;
 import java.awt.*;
 import java.awt.event.MouseEvent;
 import java.awt.event.MouseListener;
 import java.awt.event.MouseMotionListener;
 import java.awt.geom.Ellipse2D;
 import java.awt.geom.Point2D;
-import java.awt.geom.QuadCurve2D;
+import java.awt.geom.Rectangle2D;
+import java.awt.image.BufferedImage;
 import java.util.*;
 import java.util.List;
 
@@ -41,11 +49,50 @@ public class Editor extends JPanel {
 
 	private static final Dimension DEFAULT_DIMENSION = new Dimension(4096, 4096);
 
+	// Pairs of nodes whose edges spread wider than this are never culled
+	private static final double MAX_BOUNDED_SPREAD_ANGLE = Math.toRadians(75);
+
+	// The size of the performance statistics overlay, and its distance from the corner of the view
+	private static final Dimension STATS_SIZE = new Dimension(260, 72);
+	private static final int STATS_MARGIN = 8;
+
 	private GBFrame gui; // The GBFrame this editor is placed in
 
 	@Getter
 	private EditorData data;
 
+	// True iff nodes are drawn by the editor itself rather than added as panel components
+	@Getter
+	private boolean lightweight;
+	private GBNode hoveredNode; // The node under the cursor, when nodes are drawn by the editor
+	private GBNode pressedNode; // The node receiving a press, drag and release, likewise
+
+	// True while nodes are dragged or the editor is panned; antialiasing is off meanwhile
+	@Getter
+	private boolean dragging;
+
+	// Cached images of the grid, of the graph, and of its selected and highlighted components
+	private EditorLayer gridLayer;
+	private EditorLayer graphLayer;
+	private EditorLayer selectionLayer;
+	private List<Object> gridKey; // The grid settings the grid layer was drawn with
+	private TexturePaint gridTile; // One cell of the grid, repeated to fill the grid layer
+
+	// The graph whose changes invalidate the layers
+	private Graph listenedGraph;
+	private GraphListener graphListener;
+
+	// The pair of nodes whose edges are drawn over the layers, along with the preview edge
+	private UOPair<Node> overlayPair;
+	private Rectangle overlayPairBounds;
+
+	// Timings of painting and input handling, shown over the editor while showingStats is set
+	@Getter
+	private RenderStats stats;
+	@Getter
+	private boolean showingStats;
+	private Timer statsTimer;
+
 	/**
 	 * Constructor for an editor panel.
 	 *
@@ -56,11 +103,20 @@ public class Editor extends JPanel {
 
 		gui = g;
 		data = new EditorData(this);
+		gridLayer = new EditorLayer(this::paintGrid);
+		graphLayer = new EditorLayer((g2d, area) -> this.paintGraph(g2d, area, false));
+		selectionLayer = new EditorLayer((g2d, area) -> this.paintGraph(g2d, area, true));
+		graphListener = this::graphChanged;
+		stats = new RenderStats();
+		statsTimer = new Timer(Preferences.STATS_REFRESH_DELAY, e -> this.repaint(this.getStatsBounds()));
 
 		// Initialize the panel with default settings...
 		setBackground(Color.WHITE);
 		setPreferredSize(DEFAULT_DIMENSION);
 
+		// Node panels position themselves (see NodePanel.enforceLocation)
+		setLayout(null);
+
 		// Listen for mouse events
 		addMouseListener(new MouseListener() {
 
@@ -69,18 +125,29 @@ public class Editor extends JPanel {
 
 			@Override
 			public void mouseEntered(MouseEvent evt) {
+				if (dispatchToNode(evt)) {
+					return;
+				}
+				Rectangle before = getPreviewBounds();
 				data.setLastMousePoint(evt.getX(), evt.getY());
-				repaint();
+				repaintPreview(before);
 			}
 
 			@Override
 			public void mouseExited(MouseEvent evt) {
+				if (dispatchToNode(evt)) {
+					return;
+				}
+				Rectangle before = getPreviewBounds();
 				data.setLastMousePoint(evt.getX(), evt.getY());
-				repaint();
+				repaintPreview(before);
 			}
 
 			@Override
 			public void mousePressed(MouseEvent evt) {
+				if (dispatchToNode(evt)) {
+					return;
+				}
 				// Clicking the editor will remove all highlights and ONLY do
 				// so, such that any other press actions require another press
 				if (!data.highlightsEmpty()) {
@@ -166,7 +233,10 @@ public class Editor extends JPanel {
 			}
 
 			@Override
-			public void mouseReleased(MouseEvent evt) {}
+			public void mouseReleased(MouseEvent evt) {
+				dispatchToNode(evt);
+				setDragging(false);
+			}
 
 		});
 
@@ -175,9 +245,13 @@ public class Editor extends JPanel {
 
 			@Override
 			public void mouseDragged(MouseEvent evt) {
+				if (dispatchToNode(evt)) {
+					return;
+				}
 				Tool current = gui.getCurrentTool();
 				Point mousePoint = data.getLastMousePoint();
 				if (current == Tool.PAN) {
+					setDragging(true);
 					Point currentPoint = evt.getPoint();
 					int changeX = currentPoint.x - mousePoint.x;
 					int changeY = currentPoint.y - mousePoint.y;
@@ -197,12 +271,17 @@ public class Editor extends JPanel {
 					vert.setValue(newVertVal);
 				}
 
+				Rectangle before = getPreviewBounds();
 				data.setLastMousePoint(evt.getX(), evt.getY());
-				repaint();
+				repaintPreview(before);
 			}
 
 			@Override
 			public void mouseMoved(MouseEvent evt) {
+				if (dispatchToNode(evt)) {
+					return;
+				}
+				Rectangle before = getPreviewBounds();
 				data.setLastMousePoint(evt.getX(), evt.getY());
 				Tool currentTool = gui.getCurrentTool();
 
@@ -210,8 +289,8 @@ public class Editor extends JPanel {
 					findClosestEdge();
 				}
 
-				// Repaint whenever the mouse moves
-				repaint();
+				// Repaint the previews which follow the mouse
+				repaintPreview(before);
 			}
 
 		});
@@ -235,6 +314,26 @@ public class Editor extends JPanel {
 		return gui.getContext();
 	}
 
+	/**
+	 * Switch to the graph of a new context: stop listening to the previous
+	 * graph, listen to the new one so the layers are redrawn where it
+	 * changes, and redraw the layers in full. This should be called as soon
+	 * as the GUI switches contexts, before the new graph is changed.
+	 *
+	 * @param context The new context of the GUI.
+	 */
+	public void updateContext(GBContext context) {
+		Graph graph = context.getGraph();
+		if (graph != listenedGraph) {
+			if (listenedGraph != null) {
+				listenedGraph.removeGraphListener(graphListener);
+			}
+			graph.addGraphListener(graphListener);
+			listenedGraph = graph;
+		}
+		this.repaint();
+	}
+
 	/**
 	 * Clears all data maintained by this editor, and remove all node panels.
 	 */
@@ -243,81 +342,325 @@ public class Editor extends JPanel {
 
 		// Remove all node panels
 		this.removeAll();
+		lightweight = false;
+		hoveredNode = null;
+		pressedNode = null;
+		dragging = false;
 	}
 
-	@Override
-	public void paintComponent(Graphics g) {
-		super.paintComponent(g);
-		Graphics2D g2d = (Graphics2D) g;
+	/**
+	 * Mark whether nodes are being dragged or the editor is being panned.
+	 * Nothing is antialiased meanwhile, and the editor is repainted with
+	 * antialiasing when the drag ends.
+	 *
+	 * @param dragging True iff a drag is in progress.
+	 */
+	public void setDragging(boolean dragging) {
+		if (this.dragging && !dragging) {
+			this.repaint();
+		}
+		this.dragging = dragging;
+	}
+
+	/**
+	 * Get the scale from the editor's coordinates to pixels on screen, by
+	 * which the level of detail thresholds are compared.
+	 *
+	 * @param g2d A graphics object drawing the editor.
+	 * @return the scale of the graphics' transform.
+	 */
+	public static double getScale(Graphics2D g2d) {
+		return Math.sqrt(Math.abs(g2d.getTransform().getDeterminant()));
+	}
+
+	/**
+	 * Choose whether the nodes of the current context are drawn by the
+	 * editor itself, rather than as one panel component per node. Swing does
+	 * not cope with hundreds of thousands of components, so large graphs
+	 * are drawn this way: the editor keeps a grid of node bounds, updated as
+	 * nodes are added, moved and removed, through which it finds the nodes
+	 * to paint in a region and the node under the cursor, and passes its
+	 * mouse events on to the node's panel. Switching to drawn nodes removes
+	 * the panels from the editor; switching back does not add them (see
+	 * ViewportLoader).
+	 *
+	 * @param lightweight True iff the editor should draw the nodes itself.
+	 */
+	public void setLightweight(boolean lightweight) {
+		this.lightweight = lightweight;
+		hoveredNode = null;
+		pressedNode = null;
+		data.getNodeGrid().clear();
+		if (lightweight) {
+			this.removeAll();
+			Graph graph = this.getContext().getGraph();
+			for (int i = 0 ; i < graph.getNumNodes() ; i++) {
+				this.indexNode(graph.getNodeAt(i).getGbNode());
+			}
+		}
+		this.revalidate();
+		this.repaint();
+	}
+
+	/**
+	 * Update the bounds of a node in the node grid after it moved, if the
+	 * editor draws it.
+	 *
+	 * @param node The node which moved.
+	 */
+	public void nodeMoved(GBNode node) {
+		if (lightweight && data.getNodeGrid().contains(node)) {
+			this.indexNode(node);
+		}
+	}
 
-		// Explicitly set the position of the nodes; this allows the pane to be scrollable while
-		// retaining the position of the circles relative to the top left corner of the editor panel
-		this.getContext().getGbNodes().forEach(node -> node.getPanel().enforceLocation());
+	/**
+	 * Show or hide the overlay of performance statistics in the corner of
+	 * the view, which is refreshed periodically while shown. The view is
+	 * not scrolled by copying its contents meanwhile, since the copy would
+	 * drag the overlay along.
+	 *
+	 * @param showingStats True iff the statistics should be shown.
+	 */
+	public void setShowingStats(boolean showingStats) {
+		this.showingStats = showingStats;
+		JViewport viewport = gui.getScrollPane().getViewport();
+		if (showingStats) {
+			viewport.setScrollMode(JViewport.SIMPLE_SCROLL_MODE);
+			statsTimer.start();
+		} else {
+			viewport.setScrollMode(JViewport.BLIT_SCROLL_MODE);
+			statsTimer.stop();
+		}
+		this.repaint(this.getStatsBounds());
+	}
 
-		// Set anti-aliasing on for smoother appearance
-		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+	/**
+	 * Repaint the whole editor. Callers use this after changing the graph or
+	 * the appearance of its components in any way, so the cached layers are
+	 * redrawn in full; repainting a region only (see
+	 * {@link #repaint(Rectangle)}) redraws the previews over the layers as
+	 * they are.
+	 */
+	@Override
+	public void repaint() {
+		if (graphLayer != null) {
+			graphLayer.invalidate();
+			selectionLayer.invalidate();
+		}
+		super.repaint();
+	}
+
+	/**
+	 * Redraw the graph within a region of the editor, such as the region
+	 * covered by nodes before and after they move.
+	 *
+	 * @param region The region of the editor whose contents changed.
+	 */
+	public void repaintGraph(Rectangle region) {
+		graphLayer.invalidate(region);
+		selectionLayer.invalidate(region);
+		this.repaint(region);
+	}
 
-		// Draw grid lines if they are enabled
-		if (gui.getGridSettingsDialog().getShowGrid()) {
+	/**
+	 * Get the region of the editor covered by the tool-specific previews
+	 * which follow the mouse, and by the edges between the endpoints of the
+	 * preview edge, if there is one.
+	 *
+	 * @return the bounds of the previews, or null if nothing is previewed.
+	 */
+	public Rectangle getPreviewBounds() {
+		Rectangle bounds = null;
+		Tool ctool = gui.getCurrentTool();
+		Point mousePoint = data.getLastMousePoint();
+		if (ctool == Tool.NODE) {
+			int currentRadius = gui.getNodeOptionsBar().getCurrentRadius();
 			int level = gui.getGridSettingsDialog().getGridLevel();
-			g2d.setStroke(new BasicStroke(1));
-			g2d.setColor(gui.getGridSettingsDialog().getGridColor());
-			for (int xi = level ; xi < this.getWidth() ; xi += level) {
-				g2d.drawLine(xi, 0, xi, this.getHeight());
+			boolean snap = gui.getGridSettingsDialog().getSnapToGrid();
+			int centerX = snap ? CoordinateUtils.closestGridCoordinate(mousePoint.x, level) : mousePoint.x;
+			int centerY = snap ? CoordinateUtils.closestGridCoordinate(mousePoint.y, level) : mousePoint.y;
+			bounds = new Rectangle(centerX - currentRadius, centerY - currentRadius,
+								   2 * currentRadius, 2 * currentRadius);
+		} else if (ctool == Tool.EDGE_SELECT && data.getClosestEdgePoint() != null) {
+			bounds = new Rectangle(data.getClosestEdgePoint());
+			bounds.add(mousePoint);
+		} else if ((ctool == Tool.EDGE || ctool == Tool.DIRECTED_EDGE) && data.getEdgeBasePoint() != null &&
+			!data.isPreviewUsingObject()) {
+			int weight = gui.getEdgeOptionsBar().getCurrentLineWeight();
+			int margin = (int) Math.ceil(Preferences.ARROW_TIP_SCALE_FACTOR * weight) + weight;
+			bounds = new Rectangle(data.getEdgeBasePoint().getPanel().getCenter());
+			bounds.add(mousePoint);
+			bounds.grow(margin, margin);
+		}
+
+		GBEdge previewEdge = data.getPreviewEdge();
+		if (previewEdge != null) {
+			UOPair<GBNode> previewPair = previewEdge.getUoEndpoints();
+			List<Edge> pairEdges = this.getContext().getGraph().getEdges().get(previewPair.map(GBNode::getNode));
+			int numEdges = pairEdges == null ? 1 : pairEdges.size() + 1;
+			int weight = pairEdges == null ? previewEdge.getWeight() :
+				Math.max(previewEdge.getWeight(), maxWeight(pairEdges));
+			Rectangle pairBounds = this.getPairBounds(previewPair, numEdges, weight);
+			if (bounds == null) {
+				bounds = pairBounds;
+			} else {
+				bounds.add(pairBounds);
 			}
-			for (int yi = level ; yi < this.getHeight() ; yi += level) {
-				g2d.drawLine(0, yi, this.getWidth(), yi);
+		}
+
+		if (bounds != null) {
+			// Leave room for strokes and anti-aliasing
+			bounds.grow(2, 2);
+		}
+		return bounds;
+	}
+
+	/**
+	 * Repaint the region covered by the previews before they were changed,
+	 * and the region they cover now.
+	 *
+	 * @param before The bounds of the previews before the change, as given by
+	 *               {@link #getPreviewBounds()}; may be null.
+	 */
+	public void repaintPreview(Rectangle before) {
+		Rectangle after = this.getPreviewBounds();
+		if (before == null) {
+			before = after;
+		} else if (after != null) {
+			before.add(after);
+		}
+		if (before != null) {
+			this.repaint(before);
+		}
+	}
+
+	/**
+	 * Get the region of the editor covered by the given nodes and all edges
+	 * connected to them. Repainting this region before and after the nodes
+	 * move redraws everything the move changed.
+	 *
+	 * @param nodes The nodes whose bounds to compute.
+	 * @return the bounds of the nodes and their edges.
+	 */
+	public Rectangle getNodeBounds(Collection<GBNode> nodes) {
+		Graph graph = this.getContext().getGraph();
+		Map<UOPair<Node>, List<Edge>> edgeMap = graph.getEdges();
+		Rectangle bounds = new Rectangle(0, 0, -1, -1); // Empty, so the first region added replaces it
+		for (GBNode gbNode : nodes) {
+			bounds.add(gbNode.getPanel().getBounds());
+
+			// The other endpoints of the edges connected to this node
+			Node node = gbNode.getNode();
+			AdjListData adjList = graph.getAdjListOf(node);
+			Set<Node> neighbors = new HashSet<>(adjList.getUndirectedEdges().keySet());
+			neighbors.addAll(adjList.getOutgoingDirectedEdges().keySet());
+			neighbors.addAll(adjList.getIncomingDirectedEdges().keySet());
+			if (!adjList.getSelfEdges().isEmpty()) {
+				neighbors.add(node);
+			}
+
+			for (Node neighbor : neighbors) {
+				UOPair<Node> nodePair = new UOPair<>(node, neighbor);
+				List<Edge> pairEdges = edgeMap.get(nodePair);
+				if (pairEdges != null) {
+					bounds.add(this.getPairBounds(nodePair.map(Node::getGbNode), pairEdges.size(),
+												  maxWeight(pairEdges)));
+				}
 			}
 		}
+		bounds.grow(2, 2);
+		return bounds;
+	}
 
-		// Draw all edges by iterating through pairs of nodes
-		Map<UOPair<GBNode>, List<GBEdge>> edgeMap = gui.getContext().getGbEdges();
+	@Override
+	protected void processMouseEvent(MouseEvent evt) {
+		long start = System.nanoTime();
+		super.processMouseEvent(evt);
+		stats.getMouseTimes().record(System.nanoTime() - start);
+	}
+
+	@Override
+	protected void processMouseMotionEvent(MouseEvent evt) {
+		long start = System.nanoTime();
+		super.processMouseMotionEvent(evt);
+		stats.getMouseTimes().record(System.nanoTime() - start);
+	}
+
+	@Override
+	public void paintComponent(Graphics g) {
+		long start = System.nanoTime();
+		super.paintComponent(g);
+		Graphics2D g2d = (Graphics2D) g;
+
+		// Only the visible part of the region being repainted needs to be drawn
+		Rectangle visible = this.getVisibleRect();
+		Rectangle area = new Rectangle(visible);
+		Rectangle clip = g.getClipBounds();
+		if (clip != null) {
+			SwingUtilities.computeIntersection(clip.x, clip.y, clip.width, clip.height, area);
+		}
+		if (area.isEmpty()) {
+			return;
+		}
+
+		// Refreshing the statistics overlay alone does not count as a frame
+		boolean statsOnly = showingStats && clip != null && this.getStatsBounds().contains(clip);
+		if (!statsOnly) {
+			stats.beginFrame();
+		}
+
+		// Set anti-aliasing on for smoother appearance, unless something is being dragged
+		g2d.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+							 dragging ? RenderingHints.VALUE_ANTIALIAS_OFF : RenderingHints.VALUE_ANTIALIAS_ON);
+		double scale = getScale(g2d);
+
+		Graph currentGraph = this.getContext().getGraph();
 
 		// Check if the preview edge's endpoint pair exists in the edge map
 		// If not, then we need to draw it separately
-		Graph currentGraph = this.getContext().getGraph();
+		Map<UOPair<Node>, List<Edge>> edgeMap = currentGraph.getEdges();
 		GBEdge previewEdge = data.getPreviewEdge();
+		UOPair<Node> previewPair = previewEdge == null ? null : previewEdge.getUoEndpoints().map(GBNode::getNode);
 		boolean violatesLoops = !currentGraph.hasConstraint(GraphConstraint.MULTIGRAPH) &&
 			previewEdge != null && previewEdge.isSelfEdge();
-		if (previewEdge != null) {
-			UOPair<GBNode> previewPair = previewEdge.getUoEndpoints();
-			if (!edgeMap.containsKey(previewPair) && !violatesLoops) {
-				List<GBEdge> previewList = Collections.singletonList(previewEdge);
-				drawEdgesBetweenNodePair(g2d, previewPair, previewList, false);
-			}
-		}
-
-		// Iterate through the pairs of nodes in the edge map, and draw the edges between them
-		// If there is a preview edge, we "add" it (not directly) to the list of existing edges
-		// before we draw the list of edges
-		int previewEdgeIndex = data.getPreviewEdgeIndex();
-		edgeMap.keySet().forEach(pair -> {
-			List<GBEdge> toDrawEdges;
-			List<GBEdge> pairEdges = edgeMap.get(pair);
-			if (previewEdge != null && pair.equals(previewEdge.getUoEndpoints())) {
-				// Check if drawing preview edge would violate a constraint
-				UOPair<Node> nodePair = pair.map(GBNode::getNode);
-				boolean violatesSimple = currentGraph.hasConstraint(GraphConstraint.SIMPLE) &&
-					currentGraph.getEdges().containsKey(nodePair);
-				if (!violatesLoops && !violatesSimple) {
-					toDrawEdges = new ArrayList<>(pairEdges);
-					int newIndex = previewEdgeIndex < 0 || previewEdgeIndex > pairEdges.size() ?
-						pairEdges.size() : previewEdgeIndex;
-					toDrawEdges.add(newIndex, previewEdge);
-				} else {
-					toDrawEdges = pairEdges;
-				}
-			} else {
-				toDrawEdges = pairEdges;
+		boolean previewFits = !violatesLoops && !currentGraph.hasConstraint(GraphConstraint.SIMPLE);
+		this.setOverlayPair(previewFits && edgeMap.containsKey(previewPair) ? previewPair : null);
+
+		// Draw the grid, the graph, and its selected and highlighted components from the cached layers
+		GridSettingsDialog gridSettings = gui.getGridSettingsDialog();
+		if (gridSettings.getShowGrid()) {
+			List<Object> key = Arrays.asList(gridSettings.getGridLevel(), gridSettings.getGridColor());
+			if (!key.equals(gridKey)) {
+				gridKey = key;
+				gridTile = null;
+				gridLayer.invalidate();
 			}
-
-			// Draw edges for this pair of nodes
-			drawEdgesBetweenNodePair(g2d, pair, toDrawEdges, previewEdge == null);
-		});
-
-		g2d.setStroke(new BasicStroke());
+			gridLayer.draw(g2d, visible);
+		}
+		graphLayer.draw(g2d, visible);
+		selectionLayer.draw(g2d, visible);
+
+		// Draw the preview edge over the layers, along with the edges already between its endpoints
+		// (which the layers leave out), unless drawing it would violate a constraint
+		if (previewEdge != null && !edgeMap.containsKey(previewPair) && !violatesLoops) {
+			List<GBEdge> previewList = Collections.singletonList(previewEdge);
+			stats.countEdges(drawEdgesBetweenNodePair(g2d, previewEdge.getUoEndpoints(), previewList, false,
+													  data.getEdgeGrid(), scale, null), 0);
+		} else if (overlayPair != null) {
+			List<Edge> pairEdges = edgeMap.get(overlayPair);
+			List<GBEdge> toDrawEdges = new ArrayList<>(pairEdges.size() + 1);
+			pairEdges.forEach(edge -> toDrawEdges.add(edge.getGbEdge()));
+			int previewEdgeIndex = data.getPreviewEdgeIndex();
+			int newIndex = previewEdgeIndex < 0 || previewEdgeIndex > pairEdges.size() ?
+				pairEdges.size() : previewEdgeIndex;
+			toDrawEdges.add(newIndex, previewEdge);
+			stats.countEdges(drawEdgesBetweenNodePair(g2d, previewEdge.getUoEndpoints(), toDrawEdges, false,
+													  data.getEdgeGrid(), scale, null), 0);
+		}
 
 		// Draw tool-specific graphics
+		g2d.setStroke(EdgeShape.getStroke(1));
 		Tool ctool = gui.getCurrentTool();
 		Point mousePoint = data.getLastMousePoint();
 		if (ctool == Tool.NODE) {
@@ -329,9 +672,10 @@ public class Editor extends JPanel {
 			Ellipse2D.Double preview;
 			if (gui.getGridSettingsDialog().getSnapToGrid()) {
 				// Draw the "snapped" preview circle
-				Point closestGridPoint = CoordinateUtils.closestGridPoint(gui, mousePoint);
-				preview = new Ellipse2D.Double(closestGridPoint.x - currentRadius,
-											   closestGridPoint.y - currentRadius,
+				int level = gui.getGridSettingsDialog().getGridLevel();
+				int centerX = CoordinateUtils.closestGridCoordinate(mousePoint.x, level);
+				int centerY = CoordinateUtils.closestGridCoordinate(mousePoint.y, level);
+				preview = new Ellipse2D.Double(centerX - currentRadius, centerY - currentRadius,
 											   2 * currentRadius, 2 * currentRadius);
 			} else {
 				// Draw the normal preview circle (at the cursor location)
@@ -353,7 +697,7 @@ public class Editor extends JPanel {
 			if (edgeBasePoint != null && !data.isPreviewUsingObject()) {
 				// Draw preview edge when not hovering over a node
 				int weight = gui.getEdgeOptionsBar().getCurrentLineWeight();
-				g2d.setStroke(new BasicStroke(weight));
+				g2d.setStroke(EdgeShape.getStroke(weight));
 				g2d.setColor(Preferences.PREVIEW_COLOR);
 				Point center = edgeBasePoint.getPanel().getLocation();
 				center.x += edgeBasePoint.getPanel().getRadius();
@@ -363,146 +707,588 @@ public class Editor extends JPanel {
 					double dist = Point.distance(mousePoint.x, mousePoint.y, center.x, center.y);
 					double unitX = (mousePoint.x - center.x) / dist;
 					double unitY = (mousePoint.y - center.y) / dist;
-					drawArrowTip(g2d, unitX, unitY, mousePoint, weight);
+					g2d.fill(EdgeShape.arrowTip(unitX, unitY, mousePoint, weight));
 				}
 			}
 		}
+
+		// The node under the cursor changes its border as the cursor moves, so it is drawn over the layers
+		if (lightweight && hoveredNode != null && currentGraph.containsNode(hoveredNode.getNode())) {
+			NodePanel panel = hoveredNode.getPanel();
+			g2d.translate(panel.getXCoord(), panel.getYCoord());
+			panel.paintNode(g2d, panel.getRadius() * scale >= Preferences.LOD_LABEL_MIN_RADIUS, panel.isHovering());
+			g2d.translate(-panel.getXCoord(), -panel.getYCoord());
+		}
+
+		if (showingStats) {
+			this.drawStats(g2d);
+		}
+		if (!statsOnly) {
+			stats.endFrame(start);
+		}
 	}
 
 	// Private instance methods
 
 	/**
-	 * Finds the edge closest to the cursor position, and sets the closestEdge
-	 * and closestEdgePoint fields.
+	 * @return the region covered by the performance statistics overlay.
 	 */
-	private void findClosestEdge() {
-		Point2D.Double mouse = new Point2D.Double(data.getLastMousePoint().x, data.getLastMousePoint().y);
+	private Rectangle getStatsBounds() {
+		Rectangle visible = this.getVisibleRect();
+		return new Rectangle(visible.x + STATS_MARGIN, visible.y + STATS_MARGIN, STATS_SIZE.width, STATS_SIZE.height);
+	}
 
-		// Get the closest edge and
-		gui.getContext().getGbEdgeSet().stream()
-			.map(e -> distanceToEdge(e, mouse))
-			.min(Comparator.comparingDouble(Triplet::getValue2))
-			.ifPresent(triplet -> {
-				data.setClosestEdge(triplet.getValue0());
-				data.setClosestEdgePoint(triplet.getValue1());
-			});
+	/**
+	 * Draw the performance statistics overlay in the corner of the view.
+	 *
+	 * @param g2d The graphics object to draw with.
+	 */
+	private void drawStats(Graphics2D g2d) {
+		Rectangle bounds = this.getStatsBounds();
+		g2d.setColor(Preferences.STATS_BACKGROUND_COLOR);
+		g2d.fill(bounds);
+		g2d.setColor(Preferences.STATS_TEXT_COLOR);
+		String[] lines = {
+			String.format("FPS: %d (%d frames)", stats.getFramesPerSecond(), stats.getFrameCount()),
+			String.format("Paint: p50 %.1f ms, p99 %.1f ms", stats.getPaintMillisP50(), stats.getPaintMillisP99()),
+			String.format("Edges: %d drawn, %d culled", stats.getEdgesDrawn(), stats.getEdgesCulled()),
+			String.format("Mouse: p99 %.1f ms, closest edge: p99 %.1f ms", stats.getMouseMillisP99(),
+						  stats.getClosestEdgeMillisP99())
+		};
+		int lineHeight = (bounds.height - STATS_MARGIN) / lines.length;
+		for (int i = 0 ; i < lines.length ; i++) {
+			g2d.drawString(lines[i], bounds.x + STATS_MARGIN / 2, bounds.y + (i + 1) * lineHeight);
+		}
 	}
 
-	// Private static methods
+	/**
+	 * Draw the grid lines crossing the given area; this paints the grid layer.
+	 * The area is filled with a tile holding one cell of the grid, which is
+	 * made again only when the grid level or color changes.
+	 *
+	 * @param g2d  The graphics object to draw with.
+	 * @param area The area being drawn.
+	 */
+	private void paintGrid(Graphics2D g2d, Rectangle area) {
+		if (gridTile == null) {
+			// A cell with its lines along the top and left, so the lines fall on multiples of the level
+			int level = gui.getGridSettingsDialog().getGridLevel();
+			BufferedImage tile = new BufferedImage(level, level, BufferedImage.TYPE_INT_ARGB);
+			Graphics2D tileGraphics = tile.createGraphics();
+			tileGraphics.setColor(gui.getGridSettingsDialog().getGridColor());
+			tileGraphics.fillRect(0, 0, level, 1);
+			tileGraphics.fillRect(0, 0, 1, level);
+			tileGraphics.dispose();
+			gridTile = new TexturePaint(tile, new Rectangle(0, 0, level, level));
+		}
+
+		// The lines along the top and left of the editor are left out
+		Rectangle filled = area.intersection(new Rectangle(1, 1, this.getWidth(), this.getHeight()));
+		if (!filled.isEmpty()) {
+			Paint paint = g2d.getPaint();
+			g2d.setPaint(gridTile);
+			g2d.fill(filled);
+			g2d.setPaint(paint);
+		}
+	}
 
 	/**
-	 * A helper method for drawing the edges between a pair of nodes.
+	 * Draw the edges (and the nodes, if the editor draws them) within the
+	 * given area; this paints the graph layer and the selection layer. The
+	 * edges between the endpoints of the preview edge are left out, since
+	 * they are drawn over the layers along with the preview edge.
 	 *
-	 * @param g2d       The Graphics2D object we want to draw with.
-	 * @param nodePair  The pair of nodes we are drawing edges between.
-	 * @param edges     The list of edges we need to draw between c1 and c2.
-	 * @param noPreview True if there is no preview object.
+	 * @param g2d        The graphics object to draw with.
+	 * @param area       The area being drawn.
+	 * @param emphasized True to draw only the selected and highlighted
+	 *                   components, false to draw only the others.
 	 */
-	private static void drawEdgesBetweenNodePair(Graphics2D g2d, UOPair<GBNode> nodePair,
-												 List<GBEdge> edges, boolean noPreview) {
-		// Draw edges between nodes c1 and c2; if edges.size() > 1, draw them as quadratic bezier curves
-		double lowerAngle = (1 - edges.size()) * Preferences.EDGE_SPREAD_ANGLE / 2.0;
-		int count = 0; // Keep count of how many edges have been drawn so far
+	private void paintGraph(Graphics2D g2d, Rectangle area, boolean emphasized) {
+		double scale = getScale(g2d);
+		Map<UOPair<Node>, List<Edge>> edgeMap = this.getContext().getGraph().getEdges();
+		Collection<UOPair<Node>> pairs = edgeMap.keySet();
+		if (emphasized) {
+			// Only the pairs with a selected or highlighted edge between them
+			pairs = new HashSet<>();
+			for (UOPair<GBNode> pair : data.getSelectedEdges().keySet()) {
+				pairs.add(pair.map(GBNode::getNode));
+			}
+			for (UOPair<GBNode> pair : data.getHighlightedEdges().keySet()) {
+				pairs.add(pair.map(GBNode::getNode));
+			}
+		}
 
-		GBNode n1 = nodePair.getFirst();
+		// Iterate through the pairs of nodes, skipping the pairs whose edges lie outside
+		// of the area, and draw the edges between them
+		for (UOPair<Node> nodePair : pairs) {
+			List<Edge> pairEdges = edgeMap.get(nodePair);
+			if (pairEdges == null || nodePair.equals(overlayPair)) {
+				continue;
+			}
+			UOPair<GBNode> pair = nodePair.map(Node::getGbNode);
+			if (!this.getPairBounds(pair, pairEdges.size(), maxWeight(pairEdges)).intersects(area)) {
+				stats.countEdges(0, pairEdges.size());
+				continue;
+			}
 
-		// Draw the edges
-		for (int i = 0 ; i < edges.size() ; i++) {
-			GBEdge e = edges.get(i);
+			List<GBEdge> toDrawEdges = new ArrayList<>(pairEdges.size());
+			pairEdges.forEach(edge -> toDrawEdges.add(edge.getGbEdge()));
+			stats.countEdges(drawEdgesBetweenNodePair(g2d, pair, toDrawEdges, true, data.getEdgeGrid(), scale,
+													  emphasized), 0);
+		}
 
-			// Get the visual properties of this edge
-			int weight = e.getWeight();
-			g2d.setStroke(new BasicStroke(weight));
-			g2d.setColor(trueEdgeColor(e));
+		// Draw the nodes which are not components of the editor over the edges
+		if (lightweight) {
+			this.drawNodes(g2d, area, scale, emphasized);
+		}
+	}
 
-			// Split cases by the type of edge
-			if (e.isSelfEdge()) {
-				drawSelfEdge(e, n1, g2d);
-				count++;
+	/**
+	 * Choose the pair of nodes whose edges are drawn over the layers along
+	 * with the preview edge, and redraw the layers where the pair's edges
+	 * are left out or put back.
+	 *
+	 * @param pair The endpoints of the preview edge, or null if the preview
+	 *             edge is not drawn among existing edges.
+	 */
+	private void setOverlayPair(UOPair<Node> pair) {
+		if (Objects.equals(pair, overlayPair)) {
+			return;
+		}
+		graphLayer.invalidate(overlayPairBounds);
+		selectionLayer.invalidate(overlayPairBounds);
+		overlayPair = pair;
+		overlayPairBounds = null;
+		if (pair != null) {
+			List<Edge> pairEdges = this.getContext().getGraph().getEdges().get(pair);
+			overlayPairBounds = this.getPairBounds(pair.map(Node::getGbNode), pairEdges.size() + 1,
+												   Math.max(data.getPreviewEdge().getWeight(), maxWeight(pairEdges)));
+			overlayPairBounds.grow(2, 2);
+			graphLayer.invalidate(overlayPairBounds);
+			selectionLayer.invalidate(overlayPairBounds);
+		}
+	}
+
+	/**
+	 * Redraw the layers where the graph changed: around the nodes added or
+	 * removed, and the pairs of nodes whose edges changed. Many changes at
+	 * once redraw the layers in full.
+	 *
+	 * @param events The changes made to the graph.
+	 */
+	private void graphChanged(List<GraphEvent> events) {
+		if (!SwingUtilities.isEventDispatchThread()) {
+			SwingUtilities.invokeLater(() -> this.graphChanged(events));
+			return;
+		}
+		Graph graph = this.getContext().getGraph();
+		if (graph != listenedGraph) {
+			return;
+		}
+		if (lightweight) {
+			for (GraphEvent event : events) {
+				if (event.getType() == GraphEvent.Type.NODE_ADDED) {
+					this.indexNode(event.getNode().getGbNode());
+				} else if (event.getType() == GraphEvent.Type.NODE_REMOVED) {
+					data.getNodeGrid().remove(event.getNode().getGbNode());
+				}
+			}
+		}
+		if (events.size() > Preferences.LAYER_MAX_REDRAWN_CHANGES) {
+			this.repaint();
+			return;
+		}
+
+		Map<UOPair<Node>, List<Edge>> edgeMap = graph.getEdges();
+		for (GraphEvent event : events) {
+			Rectangle region;
+			switch (event.getType()) {
+				case NODE_ADDED:
+				case NODE_REMOVED:
+					region = event.getNode().getGbNode().getPanel().getBounds();
+					break;
+				case EDGE_ADDED:
+				case EDGE_REMOVED:
+					// Cover the pair's edges both with and without the edge
+					GBEdge edge = event.getEdge().getGbEdge();
+					UOPair<GBNode> pair = edge.getUoEndpoints();
+					List<Edge> pairEdges = edgeMap.get(pair.map(GBNode::getNode));
+					region = pairEdges == null ? this.getPairBounds(pair, 1, edge.getWeight()) :
+						this.getPairBounds(pair, pairEdges.size() + 1, Math.max(edge.getWeight(), maxWeight(pairEdges)));
+					break;
+				default:
+					// Weights are not drawn
+					continue;
+			}
+			region.grow(2, 2);
+			this.repaintGraph(region);
+		}
+	}
+
+	/**
+	 * Draw the nodes whose panels intersect the given area, in the order of
+	 * the nodes in the graph. The nodes are found through the node grid, so
+	 * the cost depends on the nodes near the area rather than on the size of
+	 * the graph. Nodes too small on screen to make out, or all nodes if there are too
+	 * many in the area, are drawn as tiles shaded by how many nodes they
+	 * contain. Selected and highlighted nodes are always drawn in full.
+	 *
+	 * @param g2d        The graphics object to draw with.
+	 * @param area       The area being repainted.
+	 * @param scale      The scale from editor coordinates to pixels on screen.
+	 * @param emphasized True to draw only the selected and highlighted
+	 *                   nodes, false to draw only the others.
+	 */
+	private void drawNodes(Graphics2D g2d, Rectangle area, double scale, boolean emphasized) {
+		Graph graph = this.getContext().getGraph();
+		int right = area.x + area.width;
+		int bottom = area.y + area.height;
+		List<GBNode> found = new ArrayList<>();
+		for (GBNode node : data.getNodeGrid().query(area.x, area.y, right, bottom)) {
+			NodePanel panel = node.getPanel();
+			int x = panel.getXCoord();
+			int y = panel.getYCoord();
+			if (x < right && y < bottom && x + panel.getWidth() > area.x && y + panel.getHeight() > area.y &&
+				emphasized == (node.isSelected() || node.isHighlighted()) && graph.containsNode(node.getNode())) {
+				found.add(node);
+			}
+		}
+		found.sort(Comparator.comparingInt(node -> graph.getNodeIndex(node.getNode())));
+		List<NodePanel> visible = new ArrayList<>(found.size());
+		found.forEach(node -> visible.add(node.getPanel()));
+
+		// Count the nodes drawn as tiles in each tile, aligned to the editor so partial repaints line up
+		boolean tileAll = visible.size() > Preferences.LOD_MAX_DRAWN_NODES;
+		int tileSize = Math.max(1, (int) Math.ceil(Preferences.LOD_TILE_SIZE / scale));
+		int firstCol = Math.floorDiv(area.x, tileSize);
+		int firstRow = Math.floorDiv(area.y, tileSize);
+		int columns = Math.floorDiv(right - 1, tileSize) - firstCol + 1;
+		int rows = Math.floorDiv(bottom - 1, tileSize) - firstRow + 1;
+		int[] tiles = null;
+		List<NodePanel> detailed = new ArrayList<>();
+		for (NodePanel panel : visible) {
+			GBNode node = panel.getGbNode();
+			boolean tiny = panel.getRadius() * scale < Preferences.LOD_NODE_MIN_RADIUS;
+			if ((tileAll || tiny) && !node.isSelected() && !node.isHighlighted()) {
+				if (tiles == null) {
+					tiles = new int[columns * rows];
+				}
+				Point center = panel.getCenter();
+				int col = Math.min(columns - 1, Math.max(0, Math.floorDiv(center.x, tileSize) - firstCol));
+				int row = Math.min(rows - 1, Math.max(0, Math.floorDiv(center.y, tileSize) - firstRow));
+				tiles[row * columns + col]++;
 			} else {
-				// The edge is either a line or bezier curve; either way, they get drawn the same way
-				double initAngle = lowerAngle + count * Preferences.EDGE_SPREAD_ANGLE;
-				if (e.getFirstEnd() != n1) {
-					initAngle *= -1;
+				detailed.add(panel);
+			}
+		}
+
+		if (tiles != null) {
+			// Shade each tile by its count relative to the densest tile
+			int maxCount = Arrays.stream(tiles).max().orElse(1);
+			Color base = Preferences.LOD_TILE_COLOR;
+			Color[] shades = new Color[16];
+			for (int i = 0 ; i < shades.length ; i++) {
+				shades[i] = new Color(base.getRed(), base.getGreen(), base.getBlue(), 64 + 191 * i / (shades.length - 1));
+			}
+			for (int i = 0 ; i < tiles.length ; i++) {
+				if (tiles[i] > 0) {
+					g2d.setColor(shades[(int) ((long) (shades.length - 1) * tiles[i] / maxCount)]);
+					g2d.fillRect((firstCol + i % columns) * tileSize, (firstRow + i / columns) * tileSize,
+								 tileSize, tileSize);
 				}
-				Point p1 = e.getFirstEnd().getPanel().getCenter();
-				Point p2 = e.getSecondEnd().getPanel().getCenter();
-
-				// Distance between the centers of the nodes
-				double dist = p1.distance(p2);
-
-				// Get the radii of both ends
-				int p1r = e.getFirstEnd().getPanel().getRadius();
-				int p2r = e.getSecondEnd().getPanel().getRadius();
-
-				// Compute components of vectors pointing from one node to the other
-				// The length of the vectors is the radius of the node they point from
-				double radiusVectorX1 = p1r * (p2.x - p1.x) / dist;
-				double radiusVectorY1 = p1r * (p2.y - p1.y) / dist;
-				double radiusVectorX2 = p2r * (p1.x - p2.x) / dist;
-				double radiusVectorY2 = p2r * (p1.y - p2.y) / dist;
-
-				if (edges.size() % 2 == 1 && i == edges.size() / 2) {
-					// If the index corresponds to the "center" edge, it is drawn as a straight line.
-
-					// Draw the line
-					double linep1X = radiusVectorX1 + p1.x;
-					double linep1Y = radiusVectorY1 + p1.y;
-					double linep2X = radiusVectorX2 + p2.x;
-					double linep2Y = radiusVectorY2 + p2.y;
-					g2d.drawLine((int) linep1X, (int) linep1Y, (int) linep2X, (int) linep2Y);
-
-					// Set the endpoints and the control point to null
-					if (noPreview) {
-						e.setLineEnds(linep1X, linep1Y, linep2X, linep2Y);
-					}
+			}
+		}
 
-					// If this edge is directed, draw the arrow
-					if (e.isDirected()) {
-						Point tip = new Point((int) radiusVectorX2 + p2.x, (int) radiusVectorY2 + p2.y);
-						drawArrowTip(g2d, -radiusVectorX2, -radiusVectorY2, tip, weight);
-					}
-				} else {
-					// Otherwise, the edges are drawn as quadratic bezier curves
-
-					// Rotate the radius vectors by an angle; this is how the curved edges are separated
-					double circ1X = radiusVectorX1 * Math.cos(initAngle) + radiusVectorY1 * Math.sin(initAngle);
-					double circ1Y = radiusVectorY1 * Math.cos(initAngle) - radiusVectorX1 * Math.sin(initAngle);
-					double circ2X = radiusVectorX2 * Math.cos(initAngle) - radiusVectorY2 * Math.sin(initAngle);
-					double circ2Y = radiusVectorX2 * Math.sin(initAngle) + radiusVectorY2 * Math.cos(initAngle);
-
-					if (e.isDirected()) {
-						// Draw the triangular tip of the arrow if the edge is directed
-						Point tip = new Point((int) circ2X + p2.x, (int) circ2Y + p2.y);
-						drawArrowTip(g2d, -circ2X, -circ2Y, tip, weight);
-					}
+		for (NodePanel panel : detailed) {
+			int x = panel.getXCoord();
+			int y = panel.getYCoord();
+			g2d.translate(x, y);
+			panel.paintNode(g2d, panel.getRadius() * scale >= Preferences.LOD_LABEL_MIN_RADIUS, false);
+			g2d.translate(-x, -y);
+		}
+	}
+
+	/**
+	 * Find the node whose panel contains the given point, among the nodes
+	 * drawn by the editor. If panels overlap, the node drawn last is on top.
+	 *
+	 * @param point A point on the editor.
+	 * @return the node under the point, or null if there is none.
+	 */
+	private GBNode nodeAt(Point point) {
+		Graph graph = this.getContext().getGraph();
+		BoundsGrid<GBNode> nodeGrid = data.getNodeGrid();
+		GBNode top = null;
+		int topIndex = -1;
+		for (GBNode node : nodeGrid.query(point.x, point.y, point.x, point.y)) {
+			if (!graph.containsNode(node.getNode())) {
+				// The node was removed, and the editor has not been told yet
+				nodeGrid.remove(node);
+			} else if (node.getPanel().getBounds().contains(point)) {
+				int index = graph.getNodeIndex(node.getNode());
+				if (index > topIndex) {
+					top = node;
+					topIndex = index;
+				}
+			}
+		}
+		return top;
+	}
 
-					// Compute slopes of the rotated "radius vectors"
-					double slope1 = circ1Y / circ1X;
-					double slope2 = circ2Y / circ2X;
+	/**
+	 * Record the current bounds of a node drawn by the editor in the node
+	 * grid.
+	 *
+	 * @param node The node to record.
+	 */
+	private void indexNode(GBNode node) {
+		NodePanel panel = node.getPanel();
+		int x = panel.getXCoord();
+		int y = panel.getYCoord();
+		data.getNodeGrid().put(node, x, y, x + panel.getWidth(), y + panel.getHeight());
+	}
 
-					// Set the "base point" of these vectors
-					circ1X += p1.x;
-					circ1Y += p1.y;
-					circ2X += p2.x;
-					circ2Y += p2.y;
+	/**
+	 * When nodes are drawn by the editor, pass a mouse event on the editor to
+	 * the node it concerns, the way Swing would if the node panels were
+	 * components: the node under the cursor receives moves and is told when
+	 * the cursor enters or leaves it, and the node pressed receives the
+	 * drags and the release which follow the press.
+	 *
+	 * @param evt A mouse event on the editor.
+	 * @return true iff a node handled the event, so the editor should not.
+	 */
+	private boolean dispatchToNode(MouseEvent evt) {
+		if (!lightweight) {
+			return false;
+		}
 
-					// Compute the intersection of the two radius vectors (the control point for quadratic beziers)
-					double controlX = (slope2 * circ2X - slope1 * circ1X + circ1Y - circ2Y) / (slope2 - slope1);
-					double controlY = slope1 * (controlX - circ1X) + circ1Y;
+		switch (evt.getID()) {
+			case MouseEvent.MOUSE_PRESSED:
+				pressedNode = this.nodeAt(evt.getPoint());
+				if (pressedNode == null) {
+					return false;
+				}
+				forward(pressedNode, evt, MouseEvent.MOUSE_PRESSED);
+				return true;
+			case MouseEvent.MOUSE_DRAGGED:
+				if (pressedNode == null) {
+					return false;
+				}
+				forward(pressedNode, evt, MouseEvent.MOUSE_DRAGGED);
+				return true;
+			case MouseEvent.MOUSE_RELEASED:
+				if (pressedNode == null) {
+					return false;
+				}
+				GBNode released = pressedNode;
+				pressedNode = null;
+				forward(released, evt, MouseEvent.MOUSE_RELEASED);
+				this.updateHoveredNode(evt);
+				return true;
+			case MouseEvent.MOUSE_MOVED:
+			case MouseEvent.MOUSE_ENTERED:
+			case MouseEvent.MOUSE_EXITED:
+				this.updateHoveredNode(evt);
+				if (hoveredNode == null) {
+					return false;
+				}
+				if (evt.getID() == MouseEvent.MOUSE_MOVED) {
+					forward(hoveredNode, evt, MouseEvent.MOUSE_MOVED);
+				}
+				return true;
+			default:
+				return false;
+		}
+	}
 
-					// Draw the curve
-					QuadCurve2D curve = new QuadCurve2D.Double(circ1X, circ1Y, controlX, controlY, circ2X, circ2Y);
-					g2d.draw(curve);
+	/**
+	 * Find the node under the cursor, and tell the previous and new nodes
+	 * under the cursor if it changed.
+	 *
+	 * @param evt A mouse event on the editor.
+	 */
+	private void updateHoveredNode(MouseEvent evt) {
+		GBNode under = evt.getID() == MouseEvent.MOUSE_EXITED ? null : this.nodeAt(evt.getPoint());
+		if (under != hoveredNode) {
+			if (hoveredNode != null) {
+				forward(hoveredNode, evt, MouseEvent.MOUSE_EXITED);
+			}
+			hoveredNode = under;
+			if (under != null) {
+				forward(under, evt, MouseEvent.MOUSE_ENTERED);
+			}
+		}
+	}
 
-					// Only set the points if we are not also drawing a preview edge
-					if (noPreview) {
-						e.setBezierPoints(circ1X, circ1Y, controlX, controlY, circ2X, circ2Y);
-					}
+	/**
+	 * Finds the edge closest to the cursor position, and sets the closestEdge
+	 * and closestEdgePoint fields. Only the edges whose bounding boxes lie
+	 * near the cursor are measured: the search box grows until the closest
+	 * edge found lies within it, so no edge outside of it can be closer.
+	 */
+	private void findClosestEdge() {
+		long start = System.nanoTime();
+		Point2D.Double mouse = new Point2D.Double(data.getLastMousePoint().x, data.getLastMousePoint().y);
+		BoundsGrid<GBEdge> edgeGrid = data.getEdgeGrid();
+		Graph graph = getContext().getGraph();
+
+		Triplet<GBEdge, Point, Double> closest = null;
+		for (double reach = Preferences.EDGE_GRID_CELL_SIZE ; ; reach *= 2) {
+			double x1 = mouse.x - reach;
+			double y1 = mouse.y - reach;
+			double x2 = mouse.x + reach;
+			double y2 = mouse.y + reach;
+			for (GBEdge edge : edgeGrid.query(x1, y1, x2, y2)) {
+				if (!graph.containsEdge(edge.getEdge())) {
+					// The edge was removed since it was last drawn
+					edgeGrid.remove(edge);
+					continue;
+				}
+				Triplet<GBEdge, Point, Double> candidate = distanceToEdge(edge, mouse);
+				if (closest == null || candidate.getValue2() < closest.getValue2()) {
+					closest = candidate;
 				}
-				count++;
+			}
+
+			if ((closest != null && closest.getValue2() <= reach) || edgeGrid.covers(x1, y1, x2, y2)) {
+				break;
 			}
 		}
+
+		if (closest != null) {
+			data.setClosestEdge(closest.getValue0());
+			data.setClosestEdgePoint(closest.getValue1());
+		}
+		stats.getClosestEdgeTimes().record(System.nanoTime() - start);
+	}
+
+	/**
+	 * Get a box containing everything drawn for the edges between a pair of
+	 * nodes, including their arrow tips. The box is not tight, but is cheap
+	 * enough to compute for every pair on each repaint.
+	 *
+	 * @param pair      The pair of nodes.
+	 * @param numEdges  The number of edges drawn between the nodes.
+	 * @param maxWeight The largest weight of the edges drawn.
+	 * @return the bounds of the edges, or the bounds of the editor if the
+	 *         edges are spread too widely to be bounded this way.
+	 */
+	private Rectangle getPairBounds(UOPair<GBNode> pair, int numEdges, int maxWeight) {
+		NodePanel p1 = pair.getFirst().getPanel();
+		NodePanel p2 = pair.getSecond().getPanel();
+		int margin = (int) Math.ceil(Preferences.ARROW_TIP_SCALE_FACTOR * maxWeight) + maxWeight;
+		if (p1 == p2) {
+			// Self edges lie within twice the node's radius of its center
+			Point center = p1.getCenter();
+			int reach = 2 * p1.getRadius() + margin;
+			return new Rectangle(center.x - reach, center.y - reach, 2 * reach, 2 * reach);
+		}
+
+		double spreadAngle = (numEdges - 1) * Preferences.EDGE_SPREAD_ANGLE / 2;
+		if (spreadAngle >= MAX_BOUNDED_SPREAD_ANGLE) {
+			return new Rectangle(0, 0, this.getWidth(), this.getHeight());
+		}
+
+		// Each curve lies within the triangle formed by its ends (on the node circles) and its
+		// control point, which lies on the perpendicular bisector of the line between the centers
+		Point c1 = p1.getCenter();
+		Point c2 = p2.getCenter();
+		int bulge = (int) Math.ceil(c1.distance(c2) / 2 * Math.tan(spreadAngle));
+		Rectangle bounds = new Rectangle(c1.x - p1.getRadius(), c1.y - p1.getRadius(),
+										 2 * p1.getRadius(), 2 * p1.getRadius());
+		bounds.add(new Rectangle(c2.x - p2.getRadius(), c2.y - p2.getRadius(),
+								 2 * p2.getRadius(), 2 * p2.getRadius()));
+		bounds.grow(bulge + margin, bulge + margin);
+		return bounds;
+	}
+
+	// Private static methods
+
+	/**
+	 * Pass a mouse event on the editor to a node drawn by the editor, with
+	 * the event's point made relative to the node's panel.
+	 *
+	 * @param node The node to pass the event to.
+	 * @param evt  The mouse event on the editor.
+	 * @param id   The type of event the node receives.
+	 */
+	private static void forward(GBNode node, MouseEvent evt, int id) {
+		NodePanel panel = node.getPanel();
+		panel.handleMouseEvent(new MouseEvent(evt.getComponent(), id, evt.getWhen(), evt.getModifiersEx(),
+											  evt.getX() - panel.getXCoord(), evt.getY() - panel.getYCoord(),
+											  evt.getXOnScreen(), evt.getYOnScreen(), evt.getClickCount(),
+											  evt.isPopupTrigger(), evt.getButton()));
+	}
+
+	/**
+	 * @param edges A list of edges associated with a context.
+	 * @return the largest weight (thickness) of the edges.
+	 */
+	private static int maxWeight(List<Edge> edges) {
+		int maxWeight = 0;
+		for (Edge edge : edges) {
+			maxWeight = Math.max(maxWeight, edge.getGbEdge().getWeight());
+		}
+		return maxWeight;
+	}
+
+	/**
+	 * A helper method for drawing the edges between a pair of nodes. The
+	 * geometry of each edge is cached on the edge (see EdgeShape), so this
+	 * is mostly stroking and filling.
+	 *
+	 * @param g2d        The Graphics2D object we want to draw with.
+	 * @param nodePair   The pair of nodes we are drawing edges between.
+	 * @param edges      The list of edges we need to draw between c1 and c2.
+	 * @param noPreview  True if the preview edge is not among the edges.
+	 * @param edgeGrid   The grid of edge bounds, updated with the edges drawn
+	 *                   when the preview edge is not among them.
+	 * @param scale      The scale from editor coordinates to pixels on screen.
+	 *                   Edges too short on screen are drawn without arrow tips,
+	 *                   or as straight lines between the node centers.
+	 * @param emphasized True to draw only the selected and highlighted edges,
+	 *                   false to draw only the others, and null to draw all.
+	 * @return the number of edges drawn.
+	 */
+	private static int drawEdgesBetweenNodePair(Graphics2D g2d, UOPair<GBNode> nodePair, List<GBEdge> edges,
+												 boolean noPreview, BoundsGrid<GBEdge> edgeGrid, double scale,
+												 Boolean emphasized) {
+		GBNode n1 = nodePair.getFirst();
+		Point c1 = n1.getPanel().getCenter();
+		Point c2 = nodePair.getSecond().getPanel().getCenter();
+		double length = scale * (n1 == nodePair.getSecond() ? 2 * n1.getPanel().getRadius() : c1.distance(c2));
+		boolean arrows = length >= Preferences.LOD_ARROW_MIN_LENGTH;
+		boolean curves = length >= Preferences.LOD_CURVE_MIN_LENGTH;
+		int drawn = 0;
+		for (int i = 0 ; i < edges.size() ; i++) {
+			GBEdge e = edges.get(i);
+
+			// Only update the geometry cached on the edge if the preview edge is not among the edges
+			EdgeShape previous = e.getShape();
+			EdgeShape edgeShape = EdgeShape.of(e, n1, i, edges.size(), noPreview);
+			if (noPreview && (edgeShape != previous || !edgeGrid.contains(e))) {
+				Rectangle2D bounds = edgeShape.getBounds();
+				edgeGrid.put(e, bounds.getMinX(), bounds.getMinY(), bounds.getMaxX(), bounds.getMaxY());
+			}
+			if (emphasized != null && emphasized != (e.isSelected() || e.isHighlighted())) {
+				continue;
+			}
+
+			// Draw the edge with its visual properties
+			g2d.setStroke(EdgeShape.getStroke(e.getWeight()));
+			g2d.setColor(trueEdgeColor(e));
+			if (curves || e.isSelfEdge()) {
+				g2d.draw(edgeShape.getShape());
+			} else {
+				g2d.drawLine(c1.x, c1.y, c2.x, c2.y);
+			}
+			if (arrows && edgeShape.getArrow() != null) {
+				g2d.fill(edgeShape.getArrow());
+			}
+			drawn++;
+		}
+		return drawn;
 	}
 
 	/**
@@ -575,17 +1361,18 @@ public class Editor extends JPanel {
 					b * (3 * b - y + f) - 2 * d * (3 * b - d - y) - f * y;
 				double n4 = (c - a) * (a - x) + (d - b) * (b - y);
 
-				// Compute the roots of the equation n1x^3 + n2x^2 + n3x + n4 = 0
-				Complex[] roots = CubicFormula.getRoots(n1, n2, n3, n4);
+				// Compute the real roots of the equation n1x^3 + n2x^2 + n3x + n4 = 0
+				double[] roots = new double[3];
+				int numRoots = CubicFormula.getRealRoots(n1, n2, n3, n4, roots);
 
-				// Temporary holder of the points corresponding to the REAL roots of the cubic
+				// Temporary holder of the points corresponding to the roots of the cubic
 				List<Point2D.Double> candidatePoints = new ArrayList<>();
 
-				// Determine which roots are real; use these values of t to determine
+				// Use the roots within the curve as values of t to determine
 				// the candidate "closest" points
-				for (Complex rt : roots) {
-					if (rt.isReal() && rt.getReal() > 0 && rt.getReal() < 1) {
-						candidatePoints.add(getBezierPoint(bcp, rt.getReal()));
+				for (int i = 0 ; i < numRoots ; i++) {
+					if (roots[i] > 0 && roots[i] < 1) {
+						candidatePoints.add(getBezierPoint(bcp, roots[i]));
 					}
 				}
 
@@ -607,48 +1394,6 @@ public class Editor extends JPanel {
 		return new Triplet<>(edge, closestPoint, closestDist);
 	}
 
-	/**
-	 * Private helper method for drawing a self edge.
-	 *
-	 * @param e   The self edge.
-	 * @param n   The node of the self edge.
-	 * @param g2d The graphics object to draw with.
-	 */
-	private static void drawSelfEdge(GBEdge e, GBNode n, Graphics2D g2d) {
-		double offsetAngle = e.getAngle();
-
-		Point nodeCenter = n.getPanel().getCenter();
-
-		// The radius of n1's circle
-		int n1r = n.getPanel().getRadius();
-
-		double centralAngle = Preferences.SELF_EDGE_SUBTENDED_ANGLE;
-		double edgeAngle = Preferences.SELF_EDGE_ARC_ANGLE;
-
-		double edgeRadius = Math.sin(centralAngle / 2) * n1r / Math.sin(edgeAngle / 2);
-		double unitX = Math.cos(offsetAngle);
-		double unitY = Math.sin(offsetAngle);
-		double centralDist = edgeRadius * Math.cos(edgeAngle / 2) + n1r * Math.cos(centralAngle / 2);
-		double edgeCenterX = centralDist * unitX + nodeCenter.x;
-		double edgeCenterY = centralDist * unitY + nodeCenter.y;
-		g2d.drawOval((int) (edgeCenterX - edgeRadius), (int) (edgeCenterY - edgeRadius),
-					 (int) (2 * edgeRadius), (int) (2 * edgeRadius));
-
-		// If the edge is directed, draw the arrow tip
-		if (e.isDirected()) {
-			double toEndX = n1r * unitX * Math.cos(centralAngle / 2) -
-				n1r * unitY * Math.sin(centralAngle / 2);
-			double toEndY = n1r * unitX * Math.sin(centralAngle / 2) +
-				n1r * unitY * Math.cos(centralAngle / 2);
-
-			drawArrowTip(g2d, -toEndX, -toEndY,
-						 new Point((int) toEndX + nodeCenter.x, (int) toEndY + nodeCenter.y), e.getWeight());
-		}
-
-		e.setArcCenter(new Point2D.Double(edgeCenterX, edgeCenterY));
-		e.setRadius(edgeRadius);
-	}
-
 	/**
 	 * Get the color that will be used to draw the edge.
 	 *
@@ -665,32 +1410,6 @@ public class Editor extends JPanel {
 		}
 	}
 
-	/**
-	 * A helper method for drawing the tip of a directed edge (a triangle) given the
-	 * direction in which the edge is pointing (unit vector), the location of the arrow's tip,
-	 * and the weight (thickness) of the edge.
-	 *
-	 * @param g2d     The Graphics2D object which will draw the tip.
-	 * @param vectorX The x component of a vector in the direction the edge is pointing.
-	 * @param vectorY The y component of a vector in the direction the edge is pointing.
-	 * @param tip     The Point object representing the coordinates of the edge's tip.
-	 * @param weight  The weight of the edge.
-	 */
-	private static void drawArrowTip(Graphics2D g2d, double vectorX, double vectorY, Point tip, int weight) {
-		double scale = Preferences.ARROW_TIP_SCALE_FACTOR;
-		double halfScale = scale / 2;
-
-		double mag = Math.sqrt(vectorX * vectorX + vectorY * vectorY);
-		double unitVectorX = vectorX / mag;
-		double unitVectorY = vectorY / mag;
-		double leftCornerX = tip.x - scale * weight * unitVectorX + halfScale * weight * unitVectorY;
-		double leftCornerY = tip.y - scale * weight * unitVectorY - halfScale * weight * unitVectorX;
-		double rightCornerX = leftCornerX - scale * weight * unitVectorY;
-		double rightCornerY = leftCornerY + scale * weight * unitVectorX;
-		g2d.fillPolygon(new int[] {tip.x, (int) leftCornerX, (int) rightCornerX},
-						new int[] {tip.y, (int) leftCornerY, (int) rightCornerY}, 3);
-	}
-
 	/**
 	 * A helper method for obtaining the point on the given quadratic bezier at the parameter 0 <= t <= 1.
 	 *
@@ -0,0 +1,179 @@
+package ui;
+
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * A cached image of one layer of the editor's contents, covering the
+ * visible part of the editor. Drawing the layer redraws only the regions
+ * invalidated since it was last drawn, and copies everything else from the
+ * image. When the editor is scrolled, the part of the image which is still
+ * visible is kept, and only the uncovered strips are redrawn.
+ *
+ * @author Brian Yao
+ */
+class EditorLayer {
+
+	// Beyond this many invalidated regions, the layer redraws their union in one pass
+	private static final int MAX_DIRTY_REGIONS = 8;
+
+	/**
+	 * Draws the contents of a layer.
+	 */
+	@FunctionalInterface
+	interface Painter {
+
+		/**
+		 * @param g2d  The graphics object to draw with, in editor coordinates.
+		 *             Its clip is set to the area.
+		 * @param area The region of the editor to draw.
+		 */
+		void paint(Graphics2D g2d, Rectangle area);
+
+	}
+
+	private Painter painter;
+
+	private BufferedImage image;
+	private Rectangle bounds; // The region of the editor covered by the image
+	private double scale; // The scale from editor coordinates to pixels in the image
+	private boolean valid;
+	private List<Rectangle> dirty;
+
+	/**
+	 * @param painter Draws the contents of the layer.
+	 */
+	EditorLayer(Painter painter) {
+		this.painter = painter;
+		this.bounds = new Rectangle();
+		this.dirty = new ArrayList<>();
+	}
+
+	/**
+	 * Mark the whole layer as needing to be redrawn.
+	 */
+	void invalidate() {
+		valid = false;
+		dirty.clear();
+	}
+
+	/**
+	 * Mark a region of the layer as needing to be redrawn.
+	 *
+	 * @param region A region of the editor; may be null.
+	 */
+	void invalidate(Rectangle region) {
+		if (!valid || region == null || region.isEmpty()) {
+			return;
+		}
+		dirty.add(new Rectangle(region));
+		if (dirty.size() > MAX_DIRTY_REGIONS) {
+			Rectangle union = new Rectangle(dirty.get(0));
+			dirty.forEach(union::add);
+			dirty.clear();
+			dirty.add(union);
+		}
+	}
+
+	/**
+	 * Bring the layer up to date over the visible region, and draw it.
+	 *
+	 * @param g2d     The graphics object drawing the editor.
+	 * @param visible The visible region of the editor.
+	 */
+	void draw(Graphics2D g2d, Rectangle visible) {
+		double scale = Editor.getScale(g2d);
+		if (!valid || image == null || scale != this.scale ||
+			visible.width != bounds.width || visible.height != bounds.height) {
+			this.scale = scale;
+			this.bounds = new Rectangle(visible);
+			this.image = createImage(g2d, (int) Math.ceil(visible.width * scale),
+									 (int) Math.ceil(visible.height * scale));
+			dirty.clear();
+			dirty.add(new Rectangle(bounds));
+			valid = true;
+		} else if (!visible.equals(bounds)) {
+			this.scroll(visible);
+		}
+
+		if (!dirty.isEmpty()) {
+			Graphics2D layer = image.createGraphics();
+			layer.setRenderingHint(RenderingHints.KEY_ANTIALIASING,
+								   g2d.getRenderingHint(RenderingHints.KEY_ANTIALIASING));
+			layer.setFont(g2d.getFont());
+			layer.scale(scale, scale);
+			layer.translate(-bounds.x, -bounds.y);
+			for (Rectangle region : dirty) {
+				Rectangle area = region.intersection(bounds);
+				if (area.isEmpty()) {
+					continue;
+				}
+				layer.setClip(area);
+				layer.setComposite(AlphaComposite.Clear);
+				layer.fill(area);
+				layer.setComposite(AlphaComposite.SrcOver);
+				painter.paint(layer, area);
+			}
+			layer.dispose();
+			dirty.clear();
+		}
+
+		g2d.drawImage(image, bounds.x, bounds.y, bounds.width, bounds.height, null);
+	}
+
+	/**
+	 * Move the image to cover a region of the same size, keeping the part of
+	 * it which overlaps the new region and marking the rest as dirty.
+	 *
+	 * @param visible The new region covered by the image.
+	 */
+	private void scroll(Rectangle visible) {
+		int dx = bounds.x - visible.x;
+		int dy = bounds.y - visible.y;
+		double shiftX = dx * scale;
+		double shiftY = dy * scale;
+		bounds = new Rectangle(visible);
+		if (Math.abs(dx) >= bounds.width || Math.abs(dy) >= bounds.height ||
+			shiftX != Math.rint(shiftX) || shiftY != Math.rint(shiftY)) {
+			// Nothing is kept, or the image cannot be shifted by whole pixels
+			dirty.clear();
+			dirty.add(new Rectangle(bounds));
+			return;
+		}
+
+		Graphics2D layer = image.createGraphics();
+		layer.copyArea(0, 0, image.getWidth(), image.getHeight(), (int) shiftX, (int) shiftY);
+		layer.dispose();
+		if (dx > 0) {
+			dirty.add(new Rectangle(bounds.x, bounds.y, dx, bounds.height));
+		} else if (dx < 0) {
+			dirty.add(new Rectangle(bounds.x + bounds.width + dx, bounds.y, -dx, bounds.height));
+		}
+		if (dy > 0) {
+			dirty.add(new Rectangle(bounds.x, bounds.y, bounds.width, dy));
+		} else if (dy < 0) {
+			dirty.add(new Rectangle(bounds.x, bounds.y + bounds.height + dy, bounds.width, -dy));
+		}
+	}
+
+	/**
+	 * Create a transparent image suited to the device the editor is drawn on.
+	 *
+	 * @param g2d    The graphics object drawing the editor.
+	 * @param width  The width of the image in pixels.
+	 * @param height The height of the image in pixels.
+	 * @return the new image.
+	 */
+	private static BufferedImage createImage(Graphics2D g2d, int width, int height) {
+		width = Math.max(1, width);
+		height = Math.max(1, height);
+		GraphicsConfiguration config = g2d.getDeviceConfiguration();
+		if (config != null) {
+			return config.createCompatibleImage(width, height, Transparency.TRANSLUCENT);
+		}
+		return new BufferedImage(width, height, BufferedImage.TYPE_INT_ARGB_PRE);
+	}
+
+}
@@ -62,6 +62,8 @@ public class GBFrame extends JFrame {
 	@Getter
 	private JFileChooser fileChooser;
 
+	private JProgressBar progressBar; // Shows the progress of background tasks
+
 	@Getter
 	private Tool currentTool; // The tool currently being used
 
@@ -142,11 +144,24 @@ public class GBFrame extends JFrame {
 
 		// Initialize and set up the main editor panel
 		editor = new Editor(this);
+		editor.updateContext(context);
 		scrollPane = new JScrollPane(editor, JScrollPane.VERTICAL_SCROLLBAR_AS_NEEDED,
 									 JScrollPane.HORIZONTAL_SCROLLBAR_AS_NEEDED);
 		scrollPane.setBorder(BorderFactory.createLineBorder(Color.BLACK));
 		add(scrollPane, editorgbc);
 
+		// The progress bar sits below the editor, and is only shown while a task runs
+		GridBagConstraints progressgbc = new GridBagConstraints();
+		progressgbc.gridx = 0;
+		progressgbc.gridy = 4;
+		progressgbc.weightx = 1;
+		progressgbc.insets = new Insets(0, 9, 9, 9);
+		progressgbc.fill = GridBagConstraints.HORIZONTAL;
+		progressBar = new JProgressBar(0, 100);
+		progressBar.setStringPainted(true);
+		progressBar.setVisible(false);
+		add(progressBar, progressgbc);
+
 		// Initialize and set menu bar
 		menuBar = new MenuBar(this);
 		setJMenuBar(menuBar);
@@ -157,8 +172,8 @@ public class GBFrame extends JFrame {
 		updateTool(Tool.SELECT);
 		updateByConstraint();
 
-		// Add all node panels to the editor panel
-		context.getGbNodes().forEach(gn -> editor.add(gn.getPanel()));
+		// Add the node panels to the editor panel, starting with the visible ones
+		ViewportLoader.load(this);
 
 		// Update GBFrame title
 		setTitle(FileUtils.getGuiTitle(this));
@@ -231,6 +246,45 @@ public class GBFrame extends JFrame {
 		return new Point(topLeft.x + viewportWidth / 2, topLeft.y + viewportHeight / 2);
 	}
 
+	/**
+	 * Show the progress of a background task below the editor.
+	 *
+	 * @param task    A short description of the task.
+	 * @param percent The percentage of the task completed.
+	 */
+	public void showProgress(String task, int percent) {
+		progressBar.setIndeterminate(false);
+		progressBar.setValue(percent);
+		progressBar.setString(String.format("%s... %d%%", task, percent));
+		if (!progressBar.isVisible()) {
+			progressBar.setVisible(true);
+			revalidate();
+		}
+	}
+
+	/**
+	 * Show that a background task of unknown length is running below the
+	 * editor.
+	 *
+	 * @param task A short description of the task.
+	 */
+	public void showProgress(String task) {
+		progressBar.setIndeterminate(true);
+		progressBar.setString(task + "...");
+		if (!progressBar.isVisible()) {
+			progressBar.setVisible(true);
+			revalidate();
+		}
+	}
+
+	/**
+	 * Hide the progress bar once a background task is done.
+	 */
+	public void hideProgress() {
+		progressBar.setVisible(false);
+		revalidate();
+	}
+
 	/**
 	 * Make changes to certain parts of the GBFrame according to the current
 	 * set of constraints in the context graph.
@@ -249,9 +303,15 @@ public class GBFrame extends JFrame {
 	 */
 	public void updateContext(GBContext newContext) {
 		Logger.writeEntry(Logger.INFO, String.format("Switching context to %s.", newContext.getCurrentlyLoadedFile()));
+		if (context != newContext && context.getJournal() != null) {
+			// Saves still running trim the closed journal when they finish (see FileSaver)
+			context.getJournal().close();
+			context.setJournal(null);
+		}
 		context = newContext;
 		context.setGUI(this);
 		editor.clearState();
+		editor.updateContext(context);
 		updateByConstraint();
 		KeyActions.initialize(this); // Re-initialize key bindings with correct context
 		menuBar.updateWithNewContext();
@@ -0,0 +1,163 @@
+package ui;
+
+import actions.MoveNodesAction;
+import config.Preferences;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBNode;
+import lombok.Getter;
+
+import javax.swing.Timer;
+import java.awt.*;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * A drag of one or more nodes across the editor, which moves all of them
+ * by the same amount. The starting coordinates of the nodes are kept in
+ * arrays, so each drag event moves the nodes in one pass without
+ * allocating anything, and how far the nodes can move before one of them
+ * leaves the editor is worked out once, when the drag starts. The editor
+ * is not repainted for every drag event; the region covered by the nodes
+ * and their edges is repainted at most once per refresh of the display.
+ *
+ * @author Brian Yao
+ */
+public class NodeDrag {
+
+	private Editor editor;
+
+	private List<GBNode> nodes;
+	private NodePanel[] panels;
+	private int[] startX;
+	private int[] startY;
+
+	// The starting coordinates of the node under the cursor
+	private int anchorX;
+	private int anchorY;
+
+	// The range of movements which keep every node within the editor
+	private int minDx;
+	private int maxDx;
+	private int minDy;
+	private int maxDy;
+
+	// The movement of the nodes so far
+	@Getter
+	private int dx;
+	@Getter
+	private int dy;
+
+	private Rectangle painted; // The region covered by the nodes and their edges when last repainted
+	private Timer repaintTimer;
+
+	/**
+	 * Start dragging nodes from their current positions.
+	 *
+	 * @param editor The editor the nodes are on.
+	 * @param nodes  The nodes to move.
+	 * @param anchor The panel of the node under the cursor, which must be
+	 *               among the nodes.
+	 */
+	public NodeDrag(Editor editor, Collection<GBNode> nodes, NodePanel anchor) {
+		this.editor = editor;
+		this.nodes = new ArrayList<>(nodes);
+		this.panels = new NodePanel[nodes.size()];
+		this.startX = new int[nodes.size()];
+		this.startY = new int[nodes.size()];
+		this.anchorX = anchor.getXCoord();
+		this.anchorY = anchor.getYCoord();
+
+		minDx = minDy = Integer.MIN_VALUE;
+		maxDx = maxDy = Integer.MAX_VALUE;
+		for (int i = 0 ; i < panels.length ; i++) {
+			NodePanel panel = this.nodes.get(i).getPanel();
+			int diameter = 2 * panel.getRadius();
+			panels[i] = panel;
+			startX[i] = panel.getXCoord();
+			startY[i] = panel.getYCoord();
+			minDx = Math.max(minDx, -startX[i]);
+			maxDx = Math.min(maxDx, editor.getWidth() - diameter - startX[i]);
+			minDy = Math.max(minDy, -startY[i]);
+			maxDy = Math.min(maxDy, editor.getHeight() - diameter - startY[i]);
+		}
+
+		// Nodes already outside of the editor are not pushed back in
+		minDx = Math.min(minDx, 0);
+		maxDx = Math.max(maxDx, 0);
+		minDy = Math.min(minDy, 0);
+		maxDy = Math.max(maxDy, 0);
+
+		painted = editor.getNodeBounds(this.nodes);
+		repaintTimer = new Timer(frameInterval(editor), e -> this.repaintMoved());
+		repaintTimer.setRepeats(false);
+	}
+
+	/**
+	 * Move the nodes so that the node under the cursor is at the given
+	 * position, or as close to it as the bounds of the editor allow. The
+	 * other nodes move by the same amount.
+	 *
+	 * @param x The new x-coordinate of the upper left corner of the node under the cursor.
+	 * @param y The new y-coordinate of the upper left corner of the node under the cursor.
+	 */
+	public void moveAnchorTo(int x, int y) {
+		int newDx = Math.max(minDx, Math.min(maxDx, x - anchorX));
+		int newDy = Math.max(minDy, Math.min(maxDy, y - anchorY));
+		if (newDx == dx && newDy == dy) {
+			return;
+		}
+
+		dx = newDx;
+		dy = newDy;
+		for (int i = 0 ; i < panels.length ; i++) {
+			panels[i].setCoords(startX[i] + dx, startY[i] + dy);
+		}
+		if (!repaintTimer.isRunning()) {
+			repaintTimer.start();
+		}
+	}
+
+	/**
+	 * End the drag. The editor is expected to be repainted in full when a
+	 * drag ends (see {@link Editor#setDragging(boolean)}), so no repaint is
+	 * left pending.
+	 *
+	 * @return an action recording the movement of the nodes, or null if
+	 *         they did not move.
+	 */
+	public MoveNodesAction finish() {
+		repaintTimer.stop();
+		if (dx == 0 && dy == 0) {
+			return null;
+		}
+		return new MoveNodesAction(editor.getContext(), panels, dx, dy);
+	}
+
+	/**
+	 * Repaint the region covered by the nodes and their edges when they were
+	 * last repainted, and the region they cover now.
+	 */
+	private void repaintMoved() {
+		Rectangle now = editor.getNodeBounds(nodes);
+		Rectangle dirty = new Rectangle(painted);
+		dirty.add(now);
+		painted = now;
+		editor.repaintGraph(dirty);
+	}
+
+	/**
+	 * @param component A component on the display.
+	 * @return the time between refreshes of the display, in milliseconds.
+	 */
+	private static int frameInterval(Component component) {
+		GraphicsConfiguration config = component.getGraphicsConfiguration();
+		int rate = config == null ? DisplayMode.REFRESH_RATE_UNKNOWN :
+			config.getDevice().getDisplayMode().getRefreshRate();
+		if (rate <= 0) {
+			rate = Preferences.DEFAULT_REFRESH_RATE;
+		}
+		return Math.max(1, 1000 / rate);
+	}
+
+}
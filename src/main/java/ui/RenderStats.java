@@ -0,0 +1,203 @@
+package ui;
+
+import lombok.Getter;
+import structures.LatencyHistogram;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Timings of the editor's rendering and input handling, for finding out
+ * why the editor stutters and measuring the effect of changes to it. The
+ * editor records the time it takes to paint each frame, to paint node
+ * panels, to find the edge closest to the cursor and to handle mouse
+ * events, along with how many edges each frame draws and culls. The
+ * numbers are shown by the editor's statistics overlay, and through JMX
+ * once registered.
+ *
+ * @author Brian Yao
+ */
+public class RenderStats implements RenderStatsMBean {
+
+	public static final String OBJECT_NAME = "GraphBuilder:type=RenderStats";
+
+	private static final double NANOS_PER_MILLI = 1e6;
+	private static final long NANOS_PER_SECOND = 1_000_000_000L;
+
+	// Times in nanoseconds
+	@Getter
+	private LatencyHistogram paintTimes;
+	@Getter
+	private LatencyHistogram nodePaintTimes;
+	@Getter
+	private LatencyHistogram closestEdgeTimes;
+	@Getter
+	private LatencyHistogram mouseTimes;
+
+	// The counts of the frame being painted, published when it ends
+	private int drawing;
+	private int culling;
+	private volatile int edgesDrawn;
+	private volatile int edgesCulled;
+
+	// Frames are counted over windows of a second
+	private long windowStart;
+	private int windowFrames;
+	private volatile int framesPerSecond;
+	private volatile long lastFrame;
+
+	/**
+	 * Initialize statistics with nothing recorded.
+	 */
+	public RenderStats() {
+		paintTimes = new LatencyHistogram();
+		nodePaintTimes = new LatencyHistogram();
+		closestEdgeTimes = new LatencyHistogram();
+		mouseTimes = new LatencyHistogram();
+		windowStart = System.nanoTime();
+	}
+
+	/**
+	 * Register these statistics with the platform MBean server, unless
+	 * statistics are already registered there.
+	 *
+	 * @return true iff the statistics are available through JMX.
+	 */
+	public boolean register() {
+		try {
+			MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+			ObjectName name = new ObjectName(OBJECT_NAME);
+			if (!server.isRegistered(name)) {
+				server.registerMBean(this, name);
+			}
+			return true;
+		} catch (JMException | SecurityException e) {
+			return false;
+		}
+	}
+
+	/**
+	 * Start counting the edges of a new frame.
+	 */
+	void beginFrame() {
+		drawing = 0;
+		culling = 0;
+	}
+
+	/**
+	 * Count edges drawn and culled in the frame being painted.
+	 *
+	 * @param drawn  The number of edges drawn.
+	 * @param culled The number of edges skipped.
+	 */
+	void countEdges(int drawn, int culled) {
+		drawing += drawn;
+		culling += culled;
+	}
+
+	/**
+	 * Record the end of the frame being painted.
+	 *
+	 * @param start The value of {@link System#nanoTime()} when painting began.
+	 */
+	void endFrame(long start) {
+		long end = System.nanoTime();
+		paintTimes.record(end - start);
+		edgesDrawn = drawing;
+		edgesCulled = culling;
+
+		windowFrames++;
+		if (end - windowStart >= NANOS_PER_SECOND) {
+			framesPerSecond = (int) Math.round((double) windowFrames * NANOS_PER_SECOND / (end - windowStart));
+			windowStart = end;
+			windowFrames = 0;
+		}
+		lastFrame = end;
+	}
+
+	@Override
+	public int getFramesPerSecond() {
+		// Nothing is painted while the editor is idle
+		return System.nanoTime() - lastFrame > NANOS_PER_SECOND ? 0 : framesPerSecond;
+	}
+
+	@Override
+	public long getFrameCount() {
+		return paintTimes.getCount();
+	}
+
+	@Override
+	public double getPaintMillisP50() {
+		return millis(paintTimes, 50);
+	}
+
+	@Override
+	public double getPaintMillisP99() {
+		return millis(paintTimes, 99);
+	}
+
+	@Override
+	public double getPaintMillisMax() {
+		return paintTimes.getMax() / NANOS_PER_MILLI;
+	}
+
+	@Override
+	public double getNodePaintMillisP50() {
+		return millis(nodePaintTimes, 50);
+	}
+
+	@Override
+	public double getNodePaintMillisP99() {
+		return millis(nodePaintTimes, 99);
+	}
+
+	@Override
+	public double getClosestEdgeMillisP50() {
+		return millis(closestEdgeTimes, 50);
+	}
+
+	@Override
+	public double getClosestEdgeMillisP99() {
+		return millis(closestEdgeTimes, 99);
+	}
+
+	@Override
+	public double getMouseMillisP50() {
+		return millis(mouseTimes, 50);
+	}
+
+	@Override
+	public double getMouseMillisP99() {
+		return millis(mouseTimes, 99);
+	}
+
+	@Override
+	public int getEdgesDrawn() {
+		return edgesDrawn;
+	}
+
+	@Override
+	public int getEdgesCulled() {
+		return edgesCulled;
+	}
+
+	@Override
+	public void reset() {
+		paintTimes.reset();
+		nodePaintTimes.reset();
+		closestEdgeTimes.reset();
+		mouseTimes.reset();
+	}
+
+	/**
+	 * @param histogram  A histogram of times in nanoseconds.
+	 * @param percentile A percentage between 0 and 100.
+	 * @return the time at the percentile, in milliseconds.
+	 */
+	private static double millis(LatencyHistogram histogram, double percentile) {
+		return histogram.getValueAtPercentile(percentile) / NANOS_PER_MILLI;
+	}
+
+}
@@ -0,0 +1,56 @@
+package ui;
+
+/**
+ * The management interface of the editor's rendering statistics, through
+ * which JMX clients such as JConsole can read them. Times are in
+ * milliseconds.
+ *
+ * @author Brian Yao
+ */
+public interface RenderStatsMBean {
+
+	/**
+	 * @return the number of frames painted in the last second.
+	 */
+	int getFramesPerSecond();
+
+	/**
+	 * @return the number of frames painted since the statistics were reset.
+	 */
+	long getFrameCount();
+
+	double getPaintMillisP50();
+
+	double getPaintMillisP99();
+
+	double getPaintMillisMax();
+
+	double getNodePaintMillisP50();
+
+	double getNodePaintMillisP99();
+
+	double getClosestEdgeMillisP50();
+
+	double getClosestEdgeMillisP99();
+
+	double getMouseMillisP50();
+
+	double getMouseMillisP99();
+
+	/**
+	 * @return the number of edges drawn in the last frame.
+	 */
+	int getEdgesDrawn();
+
+	/**
+	 * @return the number of edges skipped in the last frame because they lie
+	 *         outside of the region being painted.
+	 */
+	int getEdgesCulled();
+
+	/**
+	 * Forget all times recorded so far.
+	 */
+	void reset();
+
+}
@@ -0,0 +1,176 @@
+package ui;
+
+import config.Preferences;
+import context.GBContext;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBNode;
+import structures.SpatialIndex;
+
+import javax.swing.*;
+import javax.swing.event.ChangeListener;
+import java.awt.*;
+import java.util.List;
+
+/**
+ * Adds the node panels of a context to the editor lazily. The node
+ * positions are put in a spatial index first, and only the panels in the
+ * visible part of the editor are added right away. Panels in regions which
+ * are scrolled into view are added as soon as they appear, and the rest are
+ * added in small chunks on the event dispatch thread, nearest to the
+ * viewport first, so the editor stays responsive while a large graph is
+ * filled in. The progress is shown below the editor. Graphs too large for
+ * one panel component per node are not given components at all; the
+ * editor draws their nodes itself (see Editor.setLightweight).
+ *
+ * @author Brian Yao
+ */
+public class ViewportLoader {
+
+	private static final String TASK = "Loading nodes";
+
+	private GBFrame gui;
+	private GBContext context;
+
+	private SpatialIndex<GBNode> index;
+	private int total;
+	private int margin; // The largest node radius, by which the viewport is grown
+
+	private ChangeListener viewportListener;
+	private Timer streamTimer;
+
+	/**
+	 * Index the nodes of the GUI's current context which are not yet in the
+	 * editor.
+	 *
+	 * @param gui The GUI whose editor will display the nodes.
+	 */
+	private ViewportLoader(GBFrame gui) {
+		this.gui = gui;
+		this.context = gui.getContext();
+		this.index = new SpatialIndex<>(Preferences.LAZY_LOADING_CELL_SIZE);
+		for (GBNode node : context.getGbNodes()) {
+			NodePanel panel = node.getPanel();
+			if (panel.getParent() == null) {
+				Point center = panel.getCenter();
+				index.add(node, center.x, center.y);
+				margin = Math.max(margin, panel.getRadius());
+			}
+		}
+		this.total = index.size();
+	}
+
+	/**
+	 * Start adding the node panels of the GUI's current context to its
+	 * editor. The nodes visible in the viewport are added before this method
+	 * returns. Loading stops early if the GUI switches to another context.
+	 * This must be called on the event dispatch thread.
+	 *
+	 * @param gui The GUI whose editor will display the nodes.
+	 */
+	public static void load(GBFrame gui) {
+		if (gui.getContext().getGraph().getNumNodes() >= Preferences.LIGHTWEIGHT_NODE_THRESHOLD) {
+			gui.getEditor().setLightweight(true);
+			return;
+		}
+
+		ViewportLoader loader = new ViewportLoader(gui);
+		if (loader.total > 0) {
+			loader.start();
+		}
+	}
+
+	// Private methods
+
+	/**
+	 * Add the visible panels, then listen for scrolling and stream the rest.
+	 */
+	private void start() {
+		JViewport viewport = gui.getScrollPane().getViewport();
+		viewportListener = e -> this.loadVisible();
+		viewport.addChangeListener(viewportListener);
+		this.loadVisible();
+
+		streamTimer = new Timer(Preferences.LAZY_LOADING_DELAY, e -> this.loadChunk());
+		streamTimer.start();
+	}
+
+	/**
+	 * Add the panels of the nodes in the visible part of the editor.
+	 */
+	private void loadVisible() {
+		if (!this.isCurrent()) {
+			this.stop();
+			return;
+		}
+
+		Rectangle visible = gui.getScrollPane().getViewport().getViewRect();
+		visible.grow(margin, margin);
+		this.attach(index.removeRegion(visible));
+	}
+
+	/**
+	 * Add the panels of a chunk of nodes, nearest to the viewport first.
+	 */
+	private void loadChunk() {
+		if (!this.isCurrent()) {
+			this.stop();
+			return;
+		}
+
+		Point center = gui.getEditorCenter();
+		int attached = 0;
+		while (attached < Preferences.LAZY_LOADING_CHUNK_SIZE && !index.isEmpty()) {
+			List<GBNode> cell = index.removeNearestCell(center.x, center.y);
+			this.attach(cell);
+			attached += cell.size();
+		}
+
+		if (index.isEmpty()) {
+			this.stop();
+		} else {
+			gui.showProgress(TASK, (int) (100L * (total - index.size()) / total));
+		}
+	}
+
+	/**
+	 * Add the panels of the given nodes to the editor, skipping nodes which
+	 * were removed from the graph or already added since they were indexed.
+	 *
+	 * @param nodes The nodes whose panels to add.
+	 */
+	private void attach(List<GBNode> nodes) {
+		if (nodes.isEmpty()) {
+			return;
+		}
+
+		Editor editor = gui.getEditor();
+		for (GBNode node : nodes) {
+			NodePanel panel = node.getPanel();
+			if (panel.getParent() == null && context.getGraph().containsNode(node.getNode())) {
+				editor.add(panel);
+			}
+		}
+		editor.repaint();
+		editor.revalidate();
+	}
+
+	/**
+	 * @return true iff the GUI is still displaying the context being loaded.
+	 */
+	private boolean isCurrent() {
+		return gui.getContext() == context;
+	}
+
+	/**
+	 * Stop listening for scrolling and streaming panels.
+	 */
+	private void stop() {
+		gui.getScrollPane().getViewport().removeChangeListener(viewportListener);
+		if (streamTimer != null) {
+			streamTimer.stop();
+			gui.hideProgress();
+		}
+		index.clear();
+	}
+
+}
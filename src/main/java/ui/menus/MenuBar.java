@@ -47,6 +47,7 @@ public class MenuBar extends JMenuBar {
 	private JMenuItem openFile;
 	private JMenuItem saveFile;
 	private JMenuItem saveAsFile;
+	private JMenuItem exportImage;
 	private JMenuItem exit;
 
 	private JMenuItem undo;
@@ -62,6 +63,7 @@ public class MenuBar extends JMenuBar {
 	private JMenuItem selectAll;
 
 	private JMenuItem grid;
+	private JCheckBoxMenuItem stats;
 
 	private JMenu search;
 	private JMenuItem bfs;
@@ -104,6 +106,8 @@ public class MenuBar extends JMenuBar {
 		saveAsFile = new JMenuItem("Save As");
 		saveAsFile.setAccelerator(KeyActions.SAVE_AS);
 		saveAsFile.setToolTipText("Save the graph as it is now to a new file.");
+		exportImage = new JMenuItem("Export Image");
+		exportImage.setToolTipText("Save a picture of the graph as a PNG, or as an SVG if the file name ends in .svg.");
 		exit = new JMenuItem("Exit");
 		exit.setAccelerator(KeyActions.EXIT);
 		exit.setToolTipText("Exit GraphBuilder.");
@@ -112,6 +116,7 @@ public class MenuBar extends JMenuBar {
 		file.add(openFile);
 		file.add(saveFile);
 		file.add(saveAsFile);
+		file.add(exportImage);
 		file.add(exit);
 
 		// Fill "Edit" menu
@@ -178,7 +183,12 @@ public class MenuBar extends JMenuBar {
 		grid.setToolTipText("View or change grid settings such as grid snapping.");
 		grid.addActionListener(e -> gui.getGridSettingsDialog().showDialog());
 
+		stats = new JCheckBoxMenuItem("Performance Statistics");
+		stats.setToolTipText("Show frame rate, paint times and edge counts over the editor.");
+		stats.addActionListener(e -> gui.getEditor().setShowingStats(stats.isSelected()));
+
 		view.add(grid);
+		view.add(stats);
 
 		// Fill "Graph" menu
 		search = new JMenu("Search");
@@ -311,7 +321,7 @@ public class MenuBar extends JMenuBar {
 	 */
 	public void updateWithNewContext() {
 		removeAllActionListeners(
-			newFile, openFile, saveFile, saveAsFile, exit, undo, redo, copy, copyFull, duplicate,
+			newFile, openFile, saveFile, saveAsFile, exportImage, exit, undo, redo, copy, copyFull, duplicate,
 			duplicateFull, paste, cut, cutFull, delete, duplicate, duplicateFull
 		);
 
@@ -319,6 +329,7 @@ public class MenuBar extends JMenuBar {
 		openFile.addActionListener(new Open(gui.getContext()));
 		saveFile.addActionListener(new Save(gui.getContext()));
 		saveAsFile.addActionListener(new SaveAs(gui.getContext()));
+		exportImage.addActionListener(e -> FileUtils.exportImageProcedure(gui.getContext()));
 		exit.addActionListener(e -> FileUtils.exitProcedure(gui.getContext()));
 
 		undo.addActionListener(new Undo(gui.getContext()));
@@ -9,6 +9,7 @@ import graph.components.display.NodePanel;
 import structures.EditorData;
 
 import javax.swing.*;
+import java.awt.*;
 
 /**
  * The right click menu which appears when the user right clicks on a node.
@@ -20,11 +21,13 @@ public class NodeRightClickMenu {
 	/**
 	 * Display the menu on the provided node at the specified location.
 	 *
-	 * @param n The node panel to display the menu on.
-	 * @param x The x-coordinate at which to display the menu.
-	 * @param y The y-coordinate at which to display the menu.
+	 * @param n       The node panel to display the menu for.
+	 * @param invoker The component the menu is displayed on; the node panel, or
+	 *                the editor if it draws the node itself.
+	 * @param x       The x-coordinate at which to display the menu, on the invoker.
+	 * @param y       The y-coordinate at which to display the menu, on the invoker.
 	 */
-	public static void show(final NodePanel n, final int x, final int y) {
+	public static void show(final NodePanel n, final Component invoker, final int x, final int y) {
 		final GBContext ctxt = n.getGbNode().getContext();
 		JPopupMenu menu = new JPopupMenu();
 
@@ -71,7 +74,7 @@ public class NodeRightClickMenu {
 		menu.add(cut);
 		menu.add(cutFull);
 		menu.add(delete);
-		menu.show(n, x, y);
+		menu.show(invoker, x, y);
 	}
 
 }
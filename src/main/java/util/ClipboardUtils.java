@@ -36,13 +36,9 @@ public class ClipboardUtils {
 		Set<GBNode> deletedNodes = new HashSet<>(editorData.getSelectedNodes());
 		Set<GBEdge> deletedEdges = new HashSet<>();
 		Map<UOPair<GBNode>, List<GBEdge>> originalEdgeMap = new HashMap<>();
-		Map<UOPair<GBNode>, List<GBEdge>> deletedEdgeMap = new HashMap<>();
 
 		// Delete the selected nodes
-		for (GBNode n : deletedNodes) {
-			Map<UOPair<GBNode>, List<GBEdge>> removedFromNode = ctxt.removeNode(n);
-			deletedEdgeMap.putAll(removedFromNode);
-		}
+		Map<UOPair<GBNode>, List<GBEdge>> deletedEdgeMap = ctxt.removeNodes(deletedNodes);
 
 		// Get the selected edges
 		editorData.getSelectedEdges().forEach((key, edges) -> {
@@ -52,7 +48,7 @@ public class ClipboardUtils {
 				deletedEdges.addAll(edges);
 
 				// Fill data remembering the original edges
-				originalEdgeMap.put(key, new ArrayList<>(ctxt.getGbEdges().get(key)));
+				originalEdgeMap.put(key, ctxt.getEdgesBetweenNodes(key));
 			}
 		});
 
@@ -22,31 +22,24 @@ public class CoordinateUtils {
 	 */
 	public static Point closestGridPoint(GBFrame g, Point from) {
 		int level = g.getGridSettingsDialog().getGridLevel();
+		return new Point(closestGridCoordinate(from.x, level), closestGridCoordinate(from.y, level));
+	}
 
-		// Compute the minimum distance from each of the four points
-		int lowX = from.x - (from.x % level);
-		int lowY = from.y - (from.y % level);
-		int highX = lowX + level;
-		int highY = lowY + level;
-		double dist1 = Point.distance(lowX, lowY, from.x, from.y);
-		double dist2 = Point.distance(lowX, highY, from.x, from.y);
-		double dist3 = Point.distance(highX, lowY, from.x, from.y);
-		double dist4 = Point.distance(highX, highY, from.x, from.y);
-		double minDist = Math.min(dist1, Math.min(dist2, Math.min(dist3, dist4)));
-
-		// Return the closest point
-		Point newPoint;
-		if (minDist == dist1) {
-			newPoint = new Point(lowX, lowY);
-		} else if (minDist == dist2) {
-			newPoint = new Point(lowX, highY);
-		} else if (minDist == dist3) {
-			newPoint = new Point(highX, lowY);
-		} else {
-			newPoint = new Point(highX, highY);
+	/**
+	 * Returns the closest multiple of the grid level to the given coordinate.
+	 * The grid points closest to a point are found one coordinate at a time
+	 * this way. A coordinate halfway between grid lines rounds down.
+	 *
+	 * @param coordinate The x or y-coordinate of a point.
+	 * @param level      The distance between grid lines.
+	 * @return The coordinate of the closest grid line.
+	 */
+	public static int closestGridCoordinate(int coordinate, int level) {
+		if (level <= 0) {
+			throw new IllegalArgumentException("The grid level must be positive.");
 		}
-
-		return newPoint;
+		int offset = Math.floorMod(coordinate, level);
+		return offset * 2 > level ? coordinate - offset + level : coordinate - offset;
 	}
 
 	/**
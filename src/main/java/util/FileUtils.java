@@ -1,9 +1,10 @@
 package util;
 
 import context.GBContext;
-import graph.components.gb.GBNode;
 import io.FileLoader;
 import io.FileSaver;
+import io.GraphJournal;
+import io.ImageExporter;
 import main.GBMain;
 import ui.GBFrame;
 import ui.dialogs.NewGraphDialog;
@@ -22,21 +23,31 @@ public class FileUtils {
 	public static final String NODE_PREFIX = "N:";
 	public static final String EDGE_PREFIX = "E:";
 
+	// Follows the constraints on the second line of a text file whose text fields are escaped (see escapeText)
+	public static final String ESCAPED_TEXT_TAG = "escaped";
+
 	/**
 	 * Checks if the contents in the given context are up to date with what
 	 * is currently on disk. If not, a dialog will appear, prompting the user
-	 * to either save or discard the changes.
+	 * to either save or discard the changes. Discarded changes stay in the
+	 * context's journal until the caller has replaced the context, so they
+	 * can still be recovered if it never does.
 	 *
 	 * @param context The current context.
+	 * @return true if the user chose to discard the changes, and false
+	 *         otherwise.
 	 */
-	public static void checkUnsaved(GBContext context) {
+	public static boolean checkUnsaved(GBContext context) {
 		GBFrame gui = context.getGUI();
 		if (context.isUnsaved()) {
 			int resp = JOptionPane.showConfirmDialog(gui, "You have unsaved changes. Do you want to save them first?", "Unsaved Changes", JOptionPane.YES_NO_CANCEL_OPTION);
 			if (resp == JOptionPane.YES_OPTION) {
 				saveFileProcedure(context);
+			} else if (resp == JOptionPane.NO_OPTION) {
+				return true;
 			}
 		}
+		return false;
 	}
 
 	/**
@@ -50,8 +61,13 @@ public class FileUtils {
 		Integer constraints = NewGraphDialog.getConstraints(gui);
 		if (constraints != null) {
 			GBContext newContext = new GBContext(constraints);
-			FileUtils.checkUnsaved(gui.getContext());
+			GBContext oldContext = gui.getContext();
+			GraphJournal oldJournal = oldContext.getJournal();
+			boolean discard = FileUtils.checkUnsaved(oldContext);
 			gui.updateContext(newContext);
+			if (discard) {
+				discardJournal(oldContext, oldJournal);
+			}
 		}
 	}
 
@@ -64,18 +80,23 @@ public class FileUtils {
 		GBFrame gui = context.getGUI();
 		JFileChooser fc = gui.getFileChooser();
 
-		checkUnsaved(context);
+		GraphJournal journal = context.getJournal();
+		boolean discard = checkUnsaved(context);
 
+		// The discarded changes are only thrown away once the opened file replaces them,
+		// unless the same file is reopened, which would otherwise recover them
 		int response = fc.showOpenDialog(gui);
 		if (response == JFileChooser.APPROVE_OPTION) {
-			File toOpen = fc.getSelectedFile();
-			GBContext newContext = FileLoader.loadGraph(toOpen);
-			gui.updateContext(newContext);
-			for (GBNode n : newContext.getGbNodes()) {
-				gui.getEditor().add(n.getPanel());
+			File file = fc.getSelectedFile();
+			boolean reopened = journal != null && journal.getFile().equals(GraphJournal.journalFileFor(file));
+			if (discard && reopened) {
+				discardJournal(context, journal);
 			}
-			gui.getEditor().repaint();
-			gui.getEditor().revalidate();
+			FileLoader.openGraph(gui, file, () -> {
+				if (discard && !reopened) {
+					discardJournal(context, journal);
+				}
+			});
 		}
 	}
 
@@ -108,6 +129,23 @@ public class FileUtils {
 		}
 	}
 
+	/**
+	 * Perform the procedure for exporting the graph as an image. The image
+	 * is written in the background, as SVG if the chosen file name ends in
+	 * ".svg", and as PNG otherwise.
+	 *
+	 * @param context The current context.
+	 */
+	public static void exportImageProcedure(GBContext context) {
+		GBFrame gui = context.getGUI();
+		JFileChooser fc = new JFileChooser(gui.getFileChooser().getCurrentDirectory());
+		fc.setDialogTitle("Export Image");
+		int response = fc.showSaveDialog(gui);
+		if (response == JFileChooser.APPROVE_OPTION) {
+			ImageExporter.exportImage(context, fc.getSelectedFile(), 1);
+		}
+	}
+
 	/**
 	 * Perform the procedure for exiting the program.
 	 *
@@ -121,6 +159,7 @@ public class FileUtils {
 			if (resp == JOptionPane.YES_OPTION) {
 				saveFileProcedure(context);
 			} else if (resp == JOptionPane.NO_OPTION) {
+				discardJournal(context, context.getJournal());
 				GBMain.exit();
 			}
 		} else {
@@ -140,6 +179,54 @@ public class FileUtils {
 		}
 	}
 
+	/**
+	 * Escape a text field for the text file format, so that it stays on
+	 * one line: backslashes, newlines and carriage returns are written as a
+	 * backslash followed by a backslash, 'n' or 'r'. A backslash followed by
+	 * anything else is read back as it is. Files written this way are marked
+	 * with the {@link #ESCAPED_TEXT_TAG}; text in older files is raw.
+	 *
+	 * @param text The text of a node or edge.
+	 * @return the escaped text.
+	 */
+	public static String escapeText(String text) {
+		if (text.indexOf('\\') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+			return text;
+		}
+
+		StringBuilder escaped = new StringBuilder(text.length() + 8);
+		for (int i = 0 ; i < text.length() ; i++) {
+			char c = text.charAt(i);
+			if (c == '\\') {
+				escaped.append("\\\\");
+			} else if (c == '\n') {
+				escaped.append("\\n");
+			} else if (c == '\r') {
+				escaped.append("\\r");
+			} else {
+				escaped.append(c);
+			}
+		}
+		return escaped.toString();
+	}
+
+	/**
+	 * Discard the journaled changes of a context, so they are not recovered
+	 * the next time its file is opened.
+	 *
+	 * @param context The context whose changes are discarded.
+	 * @param journal The context's journal, which may already be closed, or
+	 *                null if it has none.
+	 */
+	private static void discardJournal(GBContext context, GraphJournal journal) {
+		if (journal != null) {
+			journal.discard();
+			if (context.getJournal() == journal) {
+				context.setJournal(null);
+			}
+		}
+	}
+
 	/**
 	 * Get the base filename of a file (no extension).
 	 *
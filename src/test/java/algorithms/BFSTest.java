@@ -2,12 +2,19 @@ package algorithms;
 
 import graph.Graph;
 import graph.GraphConstraint;
+import graph.MappedGraph;
 import graph.components.Node;
 import org.junit.jupiter.api.Test;
 import util.SearchTemplates;
 import util.ShortestPathTemplates;
 
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * JUnit test cases for BFS.
@@ -80,4 +87,26 @@ public class BFSTest {
 		ShortestPathTemplates.testMSUM((graph, start, dest) -> BFS.search(graph, start, dest, true));
 	}
 
+	// Distances in indexed graphs
+
+	@Test
+	public void testDistancesIndexed() throws IOException {
+		int[][] arcs = {{0, 1}, {1, 2}, {0, 3}, {3, 2}, {2, 4}, {5, 0}};
+		File file = File.createTempFile("bfs", ".gbcs");
+		file.deleteOnExit();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			MappedGraph.build(raf.getChannel(), 0, GraphConstraint.DIRECTED, new int[] {0, 1, 2, 3, 4, 5},
+							  consumer -> {
+								  for (int[] arc : arcs) {
+									  consumer.accept(arc[0], arc[1], 1.0);
+								  }
+							  }, false);
+		}
+		MappedGraph graph = MappedGraph.open(file);
+
+		assertArrayEquals(new int[] {0, 1, 2, 1, 3, -1}, BFS.distances(graph, 0));
+		assertArrayEquals(new int[] {-1, -1, 0, -1, 1, -1}, BFS.distances(graph, 2));
+		assertThrows(IllegalArgumentException.class, () -> BFS.distances(graph, 6));
+	}
+
 }
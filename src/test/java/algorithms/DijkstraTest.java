@@ -2,12 +2,16 @@ package algorithms;
 
 import graph.Graph;
 import graph.GraphConstraint;
+import graph.MappedGraph;
 import graph.components.Edge;
 import graph.components.Node;
 import org.junit.jupiter.api.Test;
 import util.ShortestPathTemplates;
 import util.TestUtils;
 
+import java.io.File;
+import java.io.IOException;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -108,4 +112,53 @@ public class DijkstraTest {
 		ShortestPathTemplates.testMSUM(Dijkstra::execute);
 	}
 
+	@Test
+	public void testDistancesIndexed() throws IOException {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED | GraphConstraint.WEIGHTED;
+
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(5, 0);
+		Edge[] e = TestUtils.newWeightedEdges(new int[][] {{0, 1}, {1, 2}, {0, 2}, {2, 3}, {3, 2}, {4, 0}},
+											  new boolean[] {false, true, true, true, false, true},
+											  new double[] {1, 2, 5, 1.5, 0.5, 1}, n, n.length);
+		graph.addNodes(n);
+		assertTrue(graph.addEdges(e));
+
+		File file = File.createTempFile("dijkstra", ".gbcs");
+		file.deleteOnExit();
+		MappedGraph mapped = MappedGraph.write(graph, file);
+
+		int start = -1;
+		for (int i = 0 ; i < mapped.getNumNodes() ; i++) {
+			if (mapped.getNodeId(i) == 0) {
+				start = i;
+			}
+		}
+
+		double[] expected = {0, 1, 3, 3.5, Double.POSITIVE_INFINITY};
+		double[] distances = Dijkstra.distances(mapped, start);
+		for (int i = 0 ; i < mapped.getNumNodes() ; i++) {
+			assertEquals(expected[mapped.getNodeId(i)], distances[i]);
+		}
+	}
+
+	@Test
+	public void testDistancesIndexedNegativeWeights() throws IOException {
+		int constraints = GraphConstraint.SIMPLE | GraphConstraint.DIRECTED | GraphConstraint.WEIGHTED;
+
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(2, 0);
+		Edge[] e = TestUtils.newWeightedEdges(new int[][] {{0, 1}}, TestUtils.booleans(1, true),
+											  new double[] {-1}, n, n.length);
+		graph.addNodes(n);
+		assertTrue(graph.addEdges(e));
+
+		File file = File.createTempFile("dijkstra", ".gbcs");
+		file.deleteOnExit();
+		MappedGraph mapped = MappedGraph.write(graph, file);
+
+		int start = mapped.getNodeId(0) == 0 ? 0 : 1;
+		assertThrows(IllegalArgumentException.class, () -> Dijkstra.distances(mapped, start));
+	}
+
 }
@@ -0,0 +1,67 @@
+package benchmark;
+
+import io.BinaryGraphFile;
+import io.CompressedGraphFile;
+import io.GraphSnapshot;
+
+import java.io.File;
+import java.util.zip.Deflater;
+
+/**
+ * Compares the uncompressed binary format against the compressed format at
+ * several Deflate levels, reporting file size and save and load throughput
+ * on a generated graph. This is not a unit test; run its main method
+ * directly.
+ *
+ * Usage: CompressionBenchmark [numNodes] [numEdges]
+ *
+ * @author Brian Yao
+ */
+public class CompressionBenchmark {
+
+	private static final int ROUNDS = 3;
+	private static final int[] LEVELS = {Deflater.BEST_SPEED, 6, Deflater.BEST_COMPRESSION};
+
+	public static void main(String[] args) throws Exception {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int numEdges = args.length > 1 ? Integer.parseInt(args[1]) : 400_000;
+
+		GraphSnapshot snapshot = GraphSnapshot.of(RandomGraphs.createContext(numNodes, numEdges, true));
+		File file = File.createTempFile("benchmark", ".gbf");
+		file.deleteOnExit();
+		System.out.printf("%d nodes, %d edges, best of %d rounds%n", numNodes, numEdges, ROUNDS);
+		System.out.printf("%-12s %10s %12s %12s%n", "Codec", "Size (MB)", "Save (MB/s)", "Load (MB/s)");
+
+		// Throughput is measured against the size of the uncompressed binary file
+		double rawSize = 0;
+		for (int level = 0 ; level <= LEVELS.length ; level++) {
+			double save = Double.MAX_VALUE;
+			double load = Double.MAX_VALUE;
+			for (int r = 0 ; r < ROUNDS ; r++) {
+				long start = System.nanoTime();
+				if (level == 0) {
+					BinaryGraphFile.write(snapshot, file, progress -> {});
+				} else {
+					CompressedGraphFile.write(snapshot, file, LEVELS[level - 1], progress -> {});
+				}
+				save = Math.min(save, (System.nanoTime() - start) / 1e9);
+
+				start = System.nanoTime();
+				if (level == 0) {
+					BinaryGraphFile.read(file);
+				} else {
+					CompressedGraphFile.read(file);
+				}
+				load = Math.min(load, (System.nanoTime() - start) / 1e9);
+			}
+
+			double size = file.length() / 1e6;
+			if (level == 0) {
+				rawSize = size;
+			}
+			String name = level == 0 ? "None" : "Deflate " + LEVELS[level - 1];
+			System.out.printf("%-12s %10.2f %12.1f %12.1f%n", name, size, rawSize / save, rawSize / load);
+		}
+	}
+
+}
@@ -0,0 +1,103 @@
+package benchmark;
+
+import graph.ConcurrentGraph;
+import graph.Graph;
+import graph.GraphConstraint;
+import graph.components.Edge;
+import graph.components.Node;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Measures edge insertion throughput of ConcurrentGraph as the number of
+ * producer threads doubles from 1 to the number of available processors
+ * (or the given maximum), against a plain Graph filled by a single thread.
+ * This is not a unit test; run its main method directly.
+ *
+ * Usage: ConcurrentGraphBenchmark [numNodes] [numEdges] [maxThreads]
+ *
+ * @author Brian Yao
+ */
+public class ConcurrentGraphBenchmark {
+
+	private static final int CONSTRAINTS = GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED;
+	private static final int ROUNDS = 5;
+
+	public static void main(String[] args) throws Exception {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 100_000;
+		int numEdges = args.length > 1 ? Integer.parseInt(args[1]) : 2_000_000;
+
+		Node[] nodes = new Node[numNodes];
+		for (int i = 0 ; i < numNodes ; i++) {
+			nodes[i] = new Node(i);
+		}
+		Random random = new Random(0);
+		int[] ends = new int[2 * numEdges];
+		for (int i = 0 ; i < ends.length ; i++) {
+			ends[i] = random.nextInt(numNodes);
+		}
+
+		System.out.printf("%d nodes, %d edges, best of %d rounds%n", numNodes, numEdges, ROUNDS);
+
+		double baseline = Double.MAX_VALUE;
+		for (int r = 0 ; r < ROUNDS ; r++) {
+			Graph graph = new Graph(CONSTRAINTS);
+			long start = System.nanoTime();
+			graph.addNodes(nodes);
+			insert(graph, nodes, ends, 0, 1);
+			baseline = Math.min(baseline, (System.nanoTime() - start) / 1e9);
+		}
+		System.out.printf("%-20s %8.3f s %12.0f edges/s%n", "Graph (1 thread)", baseline, numEdges / baseline);
+
+		int maxThreads = args.length > 2 ? Integer.parseInt(args[2]) : Runtime.getRuntime().availableProcessors();
+		for (int threads = 1 ; threads <= maxThreads ; threads *= 2) {
+			double best = Double.MAX_VALUE;
+			ExecutorService executor = Executors.newFixedThreadPool(threads);
+			for (int r = 0 ; r < ROUNDS ; r++) {
+				Graph graph = new ConcurrentGraph(CONSTRAINTS);
+				long start = System.nanoTime();
+				List<Future<?>> futures = new ArrayList<>();
+				for (int t = 0 ; t < threads ; t++) {
+					int thread = t;
+					int numThreads = threads;
+					futures.add(executor.submit(() -> {
+						for (int i = thread ; i < nodes.length ; i += numThreads) {
+							graph.addNode(nodes[i]);
+						}
+					}));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+				futures.clear();
+				for (int t = 0 ; t < threads ; t++) {
+					int thread = t;
+					int numThreads = threads;
+					futures.add(executor.submit(() -> insert(graph, nodes, ends, thread, numThreads)));
+				}
+				for (Future<?> future : futures) {
+					future.get();
+				}
+				best = Math.min(best, (System.nanoTime() - start) / 1e9);
+			}
+			executor.shutdown();
+			System.out.printf("%-20s %8.3f s %12.0f edges/s %6.2fx%n", "Concurrent (" + threads + ")",
+							  best, numEdges / best, baseline / best);
+		}
+	}
+
+	/**
+	 * Insert every edge whose index is congruent to the given thread index.
+	 */
+	private static void insert(Graph graph, Node[] nodes, int[] ends, int thread, int numThreads) {
+		for (int i = thread ; i < ends.length / 2 ; i += numThreads) {
+			graph.addEdge(new Edge(nodes[ends[2 * i]], nodes[ends[2 * i + 1]], false));
+		}
+	}
+
+}
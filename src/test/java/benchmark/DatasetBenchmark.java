@@ -0,0 +1,52 @@
+package benchmark;
+
+import algorithms.BFS;
+import algorithms.Dijkstra;
+import graph.Graph;
+import graph.MappedGraph;
+import io.DatasetFile;
+
+import java.io.File;
+
+/**
+ * Imports a public dataset (a SNAP edge list, DIMACS .gr or Matrix Market
+ * .mtx file) and times the import, the conversion to a mapped graph, and
+ * breadth-first search and Dijkstra's algorithm from the first node. This
+ * is not a unit test; run its main method directly.
+ *
+ * Usage: DatasetBenchmark file
+ *
+ * @author Brian Yao
+ */
+public class DatasetBenchmark {
+
+	public static void main(String[] args) throws Exception {
+		if (args.length < 1) {
+			System.err.println("Usage: DatasetBenchmark file");
+			return;
+		}
+
+		long start = System.nanoTime();
+		Graph graph = DatasetFile.read(new File(args[0]));
+		System.out.printf("%-12s %8.3f s (%d nodes, %d edges)%n", "Import", (System.nanoTime() - start) / 1e9,
+						  graph.getNumNodes(), graph.getNumEdges());
+		if (graph.getNumNodes() == 0) {
+			return;
+		}
+
+		File mapped = File.createTempFile("benchmark", ".csr");
+		mapped.deleteOnExit();
+		start = System.nanoTime();
+		MappedGraph indexed = MappedGraph.write(graph, mapped);
+		System.out.printf("%-12s %8.3f s%n", "Map", (System.nanoTime() - start) / 1e9);
+
+		start = System.nanoTime();
+		BFS.distances(indexed, 0);
+		System.out.printf("%-12s %8.3f s%n", "BFS", (System.nanoTime() - start) / 1e9);
+
+		start = System.nanoTime();
+		Dijkstra.distances(indexed, 0);
+		System.out.printf("%-12s %8.3f s%n", "Dijkstra", (System.nanoTime() - start) / 1e9);
+	}
+
+}
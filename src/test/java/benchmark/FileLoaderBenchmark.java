@@ -0,0 +1,73 @@
+package benchmark;
+
+import graph.GraphConstraint;
+import io.FileLoader;
+import io.ParallelFileLoader;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileWriter;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.Random;
+
+/**
+ * Compares the sequential text loader against ParallelFileLoader on a
+ * generated text graph file of about one million lines. This is not a unit
+ * test; run its main method directly.
+ *
+ * Usage: FileLoaderBenchmark [numNodes] [numEdges]
+ *
+ * @author Brian Yao
+ */
+public class FileLoaderBenchmark {
+
+	private static final int CONSTRAINTS = GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED;
+	private static final int ROUNDS = 3;
+
+	public static void main(String[] args) throws Exception {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+		int numEdges = args.length > 1 ? Integer.parseInt(args[1]) : 800_000;
+
+		File file = File.createTempFile("benchmark", ".gbf");
+		file.deleteOnExit();
+		write(file, numNodes, numEdges);
+		System.out.printf("%d lines, %.1f MB, best of %d rounds%n", numNodes + numEdges + 2,
+						  file.length() / 1e6, ROUNDS);
+
+		double sequential = Double.MAX_VALUE;
+		double parallel = Double.MAX_VALUE;
+		for (int r = 0 ; r < ROUNDS ; r++) {
+			long start = System.nanoTime();
+			FileLoader.loadTextGraph(file);
+			sequential = Math.min(sequential, (System.nanoTime() - start) / 1e9);
+
+			start = System.nanoTime();
+			ParallelFileLoader.load(file);
+			parallel = Math.min(parallel, (System.nanoTime() - start) / 1e9);
+		}
+		System.out.printf("%-12s %8.3f s%n", "Sequential", sequential);
+		System.out.printf("%-12s %8.3f s %6.2fx%n", "Parallel", parallel, sequential / parallel);
+	}
+
+	/**
+	 * Write a random graph in the text format.
+	 */
+	private static void write(File file, int numNodes, int numEdges) throws IOException {
+		Random random = new Random(0);
+		try (PrintWriter writer = new PrintWriter(new BufferedWriter(new FileWriter(file)))) {
+			writer.print((numNodes + numEdges) + "\n" + CONSTRAINTS + "\n");
+			for (int i = 0 ; i < numNodes ; i++) {
+				writer.print("N:" + i + "," + random.nextInt(10_000) + "," + random.nextInt(10_000) + ",15,node " +
+								 i + ",-1,-16777216,-16777216\n");
+			}
+			for (int i = 0 ; i < numEdges ; i++) {
+				int node1 = random.nextInt(numNodes);
+				int node2 = random.nextInt(numNodes);
+				writer.print("E:" + (numNodes + i) + "," + node1 + "," + node2 + ",-16777216,1," +
+								 random.nextInt(2) + ",,0.0\n");
+			}
+		}
+	}
+
+}
@@ -0,0 +1,57 @@
+package benchmark;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Builds the random graphs the benchmarks run on. The graphs are the same
+ * from run to run, so results can be compared.
+ *
+ * @author Brian Yao
+ */
+class RandomGraphs {
+
+	static final int CONSTRAINTS = GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED;
+
+	/**
+	 * Create a context holding a random multigraph with directed and
+	 * undirected edges, sequential IDs, and labeled nodes.
+	 *
+	 * @param numNodes  The number of nodes.
+	 * @param numEdges  The number of edges.
+	 * @param clustered Whether to place the nodes on a grid, like graphs drawn
+	 *                  in the editor, rather than anywhere at random.
+	 * @return the new context.
+	 */
+	static GBContext createContext(int numNodes, int numEdges, boolean clustered) {
+		Random random = new Random(0);
+		GBContext context = new GBContext(CONSTRAINTS);
+		List<GBNode> nodes = new ArrayList<>(numNodes);
+		for (int i = 0 ; i < numNodes ; i++) {
+			NodePanel panel = clustered ?
+				new NodePanel(i % 1000 * 40 + random.nextInt(10), i / 1000 * 40 + random.nextInt(10), 15) :
+				new NodePanel(random.nextInt(10_000), random.nextInt(10_000), 15);
+			panel.setText("node " + i);
+			nodes.add(new GBNode(new Node(context.getNextIdAndInc()), context, panel));
+		}
+		context.addNodes(nodes);
+
+		List<GBEdge> edges = new ArrayList<>(numEdges);
+		for (int i = 0 ; i < numEdges ; i++) {
+			GBNode node1 = nodes.get(random.nextInt(numNodes));
+			GBNode node2 = nodes.get(random.nextInt(numNodes));
+			edges.add(new GBEdge(context.getNextIdAndInc(), node1, node2, random.nextBoolean()));
+		}
+		context.addEdges(edges);
+		return context;
+	}
+
+}
@@ -0,0 +1,75 @@
+package benchmark;
+
+import io.GraphSnapshot;
+import io.XmlGraphFile;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamReader;
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.InputStream;
+
+/**
+ * Measures GraphML and GEXF export and import throughput, in elements
+ * (nodes and edges) per second, on a generated graph. The target is at
+ * least one million elements per second. Importing also builds a context,
+ * so the throughput of just scanning the file with StAX is reported
+ * separately. This is not a unit test; run its main method directly.
+ *
+ * Usage: XmlBenchmark [numNodes] [numEdges]
+ *
+ * @author Brian Yao
+ */
+public class XmlBenchmark {
+
+	private static final int ROUNDS = 3;
+
+	public static void main(String[] args) throws Exception {
+		int numNodes = args.length > 0 ? Integer.parseInt(args[0]) : 200_000;
+		int numEdges = args.length > 1 ? Integer.parseInt(args[1]) : 800_000;
+
+		GraphSnapshot snapshot = GraphSnapshot.of(RandomGraphs.createContext(numNodes, numEdges, false));
+		File file = File.createTempFile("benchmark", ".xml");
+		file.deleteOnExit();
+		double elements = numNodes + numEdges;
+		System.out.printf("%d nodes, %d edges, best of %d rounds%n", numNodes, numEdges, ROUNDS);
+		System.out.printf("%-8s %10s %16s %16s %16s%n", "Format", "Size (MB)", "Export (elem/s)",
+						  "Scan (elem/s)", "Import (elem/s)");
+
+		for (XmlGraphFile.Format format : XmlGraphFile.Format.values()) {
+			double export = Double.MAX_VALUE;
+			double scan = Double.MAX_VALUE;
+			double load = Double.MAX_VALUE;
+			for (int r = 0 ; r < ROUNDS ; r++) {
+				long start = System.nanoTime();
+				XmlGraphFile.write(snapshot, file, format);
+				export = Math.min(export, (System.nanoTime() - start) / 1e9);
+
+				start = System.nanoTime();
+				scan(file);
+				scan = Math.min(scan, (System.nanoTime() - start) / 1e9);
+
+				start = System.nanoTime();
+				XmlGraphFile.read(file);
+				load = Math.min(load, (System.nanoTime() - start) / 1e9);
+			}
+			System.out.printf("%-8s %10.1f %16.0f %16.0f %16.0f%n", format, file.length() / 1e6,
+							  elements / export, elements / scan, elements / load);
+		}
+	}
+
+	/**
+	 * Read every event of an XML file without building anything.
+	 */
+	private static void scan(File file) throws Exception {
+		try (InputStream stream = new BufferedInputStream(new FileInputStream(file), 1 << 16)) {
+			XMLStreamReader reader = XMLInputFactory.newInstance().createXMLStreamReader(stream);
+			while (reader.hasNext()) {
+				reader.next();
+			}
+			reader.close();
+		}
+	}
+
+}
@@ -0,0 +1,173 @@
+package graph;
+
+import graph.components.Edge;
+import graph.components.Node;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for testing the ConcurrentGraph class.
+ *
+ * @author Brian Yao
+ */
+public class ConcurrentGraphTest {
+
+	private static final int THREADS = 8;
+
+	@Test
+	public void testParallelInsertion() throws Exception {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED;
+		Graph graph = new ConcurrentGraph(constraints, 4);
+		Node[] nodes = new Node[100];
+		for (int i = 0 ; i < nodes.length ; i++) {
+			nodes[i] = new Node(i);
+		}
+
+		// Every thread adds its share of the nodes, then edges between all of them
+		runInParallel(t -> {
+			for (int i = t ; i < nodes.length ; i += THREADS) {
+				graph.addNode(nodes[i]);
+			}
+		});
+		runInParallel(t -> {
+			for (int i = 0 ; i < nodes.length ; i++) {
+				graph.addEdge(new Edge(nodes[i], nodes[(i + t + 1) % nodes.length], false));
+			}
+		});
+
+		assertEquals(nodes.length, graph.getNodes().size());
+		assertEquals(nodes.length * THREADS, graph.getEdgeSet().size());
+		for (Node node : nodes) {
+			assertEquals(2 * THREADS, graph.getAdjListOf(node).getNeighboringEdges(false).values().stream()
+				.mapToInt(Set::size).sum());
+			assertEquals(node, graph.getNodeAt(graph.getNodeIndex(node)));
+		}
+		assertEquals(nodes.length * THREADS, graph.getNumEdges());
+		for (int i = 0 ; i < graph.getNumEdges() ; i++) {
+			assertEquals(i, graph.getEdgeIndex(graph.getEdgeAt(i)));
+		}
+	}
+
+	@Test
+	public void testSimpleUnderContention() throws Exception {
+		int constraints = GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED;
+		Graph graph = new ConcurrentGraph(constraints);
+		Node node1 = new Node(0);
+		Node node2 = new Node(1);
+		graph.addNodes(node1, node2);
+
+		// Exactly one thread may add an edge between the two nodes
+		AtomicInteger added = new AtomicInteger();
+		runInParallel(t -> {
+			try {
+				graph.addEdge(new Edge(node1, node2, false));
+				added.incrementAndGet();
+			} catch (IllegalArgumentException e) {
+				// Expected for all but one thread
+			}
+		});
+
+		assertEquals(1, added.get());
+		assertEquals(1, graph.getEdgeSet().size());
+	}
+
+	@Test
+	public void testRemoval() {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED;
+		Graph graph = new ConcurrentGraph(constraints);
+		Node node1 = new Node(0);
+		Node node2 = new Node(1);
+		Edge edge1 = new Edge(node1, node2, false);
+		Edge edge2 = new Edge(node1, node2, false);
+		graph.addNodes(node1, node2);
+		graph.addEdges(edge1, edge2);
+
+		assertEquals(1, graph.removeEdge(edge2));
+		assertEquals(1, graph.removeNode(node2).size());
+		assertTrue(graph.getEdgeSet().isEmpty());
+		assertThrows(IllegalArgumentException.class, () -> new ConcurrentGraph(constraints, 0));
+	}
+
+	@Test
+	public void testEventsInParallel() throws Exception {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED;
+		Graph graph = new ConcurrentGraph(constraints);
+		Queue<GraphEvent> events = new ConcurrentLinkedQueue<>();
+		graph.addGraphListener(events::addAll);
+
+		// A batch left open on one thread does not hold back the changes of others
+		Node held = new Node(-1);
+		ExecutorService executor = Executors.newSingleThreadExecutor();
+		try {
+			executor.submit(() -> {
+				graph.beginBatch();
+				graph.addNode(held);
+			}).get(30, TimeUnit.SECONDS);
+			graph.addNode(new Node(-2));
+			assertEquals(2, events.size());
+			executor.submit(graph::endBatch).get(30, TimeUnit.SECONDS);
+		} finally {
+			executor.shutdownNow();
+		}
+
+		// Every change made by any thread is delivered exactly once
+		events.clear();
+		Node[] nodes = new Node[100];
+		for (int i = 0 ; i < nodes.length ; i++) {
+			nodes[i] = new Node(i);
+		}
+		runInParallel(t -> {
+			for (int i = t ; i < nodes.length ; i += THREADS) {
+				graph.addNode(nodes[i]);
+				graph.addEdge(new Edge(nodes[i], held, false));
+			}
+		});
+		assertEquals(2 * nodes.length, events.size());
+		assertEquals(nodes.length, events.stream().filter(e -> e.getType() == GraphEvent.Type.EDGE_ADDED).count());
+		assertEquals(nodes.length, events.stream().filter(e -> e.getType() == GraphEvent.Type.NODE_ADDED)
+			.map(GraphEvent::getNode).distinct().count());
+	}
+
+	/**
+	 * Run the given task on several threads at once, and wait for all of
+	 * them to finish.
+	 *
+	 * @param task The task to run; it is given the index of its thread.
+	 */
+	private static void runInParallel(IntTask task) throws Exception {
+		ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+		CountDownLatch start = new CountDownLatch(1);
+		List<Future<?>> futures = new ArrayList<>();
+		for (int t = 0 ; t < THREADS ; t++) {
+			int thread = t;
+			futures.add(executor.submit(() -> {
+				start.await();
+				task.run(thread);
+				return null;
+			}));
+		}
+
+		start.countDown();
+		try {
+			for (Future<?> future : futures) {
+				future.get(30, TimeUnit.SECONDS);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	@FunctionalInterface
+	private interface IntTask {
+		void run(int thread);
+	}
+
+}
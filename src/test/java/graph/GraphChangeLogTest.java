@@ -0,0 +1,60 @@
+package graph;
+
+import graph.components.Edge;
+import graph.components.Node;
+import graph.components.WeightedEdge;
+import org.junit.jupiter.api.Test;
+import util.TestUtils;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the GraphChangeLog class.
+ *
+ * @author Brian Yao
+ */
+public class GraphChangeLogTest {
+
+	@Test
+	public void testLogging() {
+		Graph graph = new Graph(GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED | GraphConstraint.WEIGHTED);
+		GraphChangeLog log = new GraphChangeLog(4);
+		graph.addGraphListener(log);
+
+		Node[] n = TestUtils.newNodes(2, 0);
+		WeightedEdge edge = new WeightedEdge(n[0], n[1], false, 1.);
+		graph.addNodes(n);
+		long afterNodes = log.getSequence();
+		graph.addEdge(edge);
+		graph.setEdgeWeight(edge, 3.);
+
+		assertEquals(4, log.getSequence());
+		List<GraphEvent> events = log.getEventsSince(afterNodes);
+		assertEquals(2, events.size());
+		assertEquals(GraphEvent.Type.EDGE_ADDED, events.get(0).getType());
+		assertEquals(edge, events.get(0).getEdge());
+		assertEquals(GraphEvent.Type.WEIGHT_CHANGED, events.get(1).getType());
+		assertEquals(1., events.get(1).getOldWeight());
+		assertEquals(3., edge.getWeight());
+
+		// Removing a node removes its edges first
+		graph.removeNode(n[0]);
+		assertEquals(6, log.getSequence());
+		assertEquals(2, log.getOldestSequence());
+		assertFalse(log.isAvailable(afterNodes - 1));
+		assertThrows(IllegalArgumentException.class, () -> log.getEventsSince(0));
+
+		events = log.getEventsSince(4);
+		assertEquals(GraphEvent.Type.EDGE_REMOVED, events.get(0).getType());
+		assertEquals(GraphEvent.Type.NODE_REMOVED, events.get(1).getType());
+		assertEquals(n[0], events.get(1).getNode());
+		assertTrue(log.getEventsSince(log.getSequence()).isEmpty());
+
+		assertThrows(IllegalArgumentException.class, () -> new GraphChangeLog(0));
+		assertThrows(IllegalArgumentException.class,
+					 () -> graph.setEdgeWeight(new WeightedEdge(n[1], n[1], false, 0.), 1.));
+	}
+
+}
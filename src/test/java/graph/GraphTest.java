@@ -174,6 +174,146 @@ public class GraphTest {
 		assertEquals(3, edges.size());
 	}
 
+	@Test
+	public void testRemoveNodeMixed() {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED | GraphConstraint.UNWEIGHTED;
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(3, 0);
+		Edge[] e = TestUtils.newEdges(new int[][] {{0, 1}, {0, 1}, {1, 0}, {0, 0}, {1, 2}},
+									  new boolean[] {false, true, true, true, false}, n, 0);
+		graph.addNodes(n);
+		assertTrue(graph.addEdges(e));
+
+		Map<UOPair<Node>, List<Edge>> removedEdges = graph.removeNode(n[0]);
+		assertEquals(2, removedEdges.size());
+		assertEquals(Arrays.asList(e[0], e[1], e[2]), removedEdges.get(new UOPair<>(n[0], n[1])));
+		assertEquals(Collections.singletonList(e[3]), removedEdges.get(new UOPair<>(n[0], n[0])));
+		assertTrue(graph.getAdjListOf(n[1]).getNeighbors(false).equals(Collections.singleton(n[2])));
+		assertEquals(Collections.singleton(e[4]), graph.getEdgeSet());
+	}
+
+	@Test
+	public void testRemoveNodes() {
+		int constraints = GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED | GraphConstraint.UNWEIGHTED;
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(5, 0);
+		Edge[] e = TestUtils.newEdges(new int[][] {{0, 1}, {1, 2}, {2, 3}, {3, 4}},
+									  TestUtils.booleans(4, false), n, 0);
+		graph.addNodes(n);
+		assertTrue(graph.addEdges(e));
+
+		Map<UOPair<Node>, List<Edge>> removedEdges = graph.removeNodes(Arrays.asList(n[1], n[2]));
+		assertEquals(3, removedEdges.size());
+		assertEquals(new HashSet<>(Arrays.asList(n[0], n[3], n[4])), graph.getNodes());
+		assertEquals(Collections.singleton(e[3]), graph.getEdgeSet());
+		assertTrue(graph.getAdjListOf(n[0]).getNeighbors(false).isEmpty());
+	}
+
+	@Test
+	public void testRemoveEdges() {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED | GraphConstraint.UNWEIGHTED;
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(3, 0);
+		Edge[] e = TestUtils.newEdges(new int[][] {{0, 1}, {0, 1}, {0, 1}, {1, 2}},
+									  TestUtils.booleans(4, false), n, 0);
+		graph.addNodes(n);
+		assertTrue(graph.addEdges(e));
+
+		Edge notAdded = new Edge(n[0], n[2], false);
+		assertThrows(IllegalArgumentException.class, () -> graph.removeEdges(Arrays.asList(e[0], notAdded)));
+		assertTrue(graph.containsEdge(e[0]));
+
+		graph.removeEdges(Arrays.asList(e[0], e[2], e[3]));
+		assertEquals(Collections.singletonList(e[1]), graph.getEdges().get(new UOPair<>(n[0], n[1])));
+		assertFalse(graph.getEdges().containsKey(e[3].getUoEndpoints()));
+		assertFalse(graph.getAdjListOf(n[0]).hasEdge(e[0]));
+		assertFalse(graph.getAdjListOf(n[2]).hasEdge(e[3]));
+		assertTrue(graph.getAdjListOf(n[1]).hasEdge(e[1]));
+	}
+
+	@Test
+	public void testIndices() {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED | GraphConstraint.UNWEIGHTED;
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(4, 0);
+		Edge[] e = TestUtils.newEdges(new int[][] {{0, 1}, {1, 2}, {2, 3}, {3, 0}},
+									  TestUtils.booleans(4, false), n, 0);
+		graph.addNodes(n);
+		assertTrue(graph.addEdges(e));
+
+		assertEquals(4, graph.getNumNodes());
+		assertEquals(4, graph.getNumEdges());
+		for (int i = 0 ; i < 4 ; i++) {
+			assertEquals(i, graph.getNodeIndex(n[i]));
+			assertEquals(n[i], graph.getNodeAt(i));
+			assertEquals(i, graph.getEdgeIndex(e[i]));
+			assertEquals(e[i], graph.getEdgeAt(i));
+		}
+
+		// The last edge takes over the index of the removed edge
+		graph.removeEdge(e[1]);
+		assertEquals(3, graph.getNumEdges());
+		assertEquals(1, graph.getEdgeIndex(e[3]));
+		assertEquals(e[3], graph.getEdgeAt(1));
+		assertThrows(IllegalArgumentException.class, () -> graph.getEdgeIndex(e[1]));
+
+		// Removing node 0 also removes edges 0 and 3
+		graph.removeNode(n[0]);
+		assertEquals(3, graph.getNumNodes());
+		assertEquals(0, graph.getNodeIndex(n[3]));
+		assertEquals(n[3], graph.getNodeAt(0));
+		assertEquals(1, graph.getNumEdges());
+		assertEquals(e[2], graph.getEdgeAt(0));
+		assertThrows(IllegalArgumentException.class, () -> graph.getNodeIndex(n[0]));
+
+		Graph copy = new Graph(graph);
+		assertEquals(3, copy.getNumNodes());
+		assertEquals(1, copy.getNumEdges());
+		for (int i = 0 ; i < 3 ; i++) {
+			assertEquals(i, copy.getNodeIndex(copy.getNodeAt(i)));
+		}
+	}
+
+	@Test
+	public void testListeners() {
+		int constraints = GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED | GraphConstraint.UNWEIGHTED;
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(3, 0);
+		Edge[] e = TestUtils.newEdges(new int[][] {{0, 1}, {1, 2}}, TestUtils.booleans(2, false), n, 0);
+
+		List<List<GraphEvent>> batches = new ArrayList<>();
+		GraphListener listener = events -> {
+			// The graph is consistent when listeners are called
+			assertEquals(graph.getNumNodes(), graph.getNodes().size());
+			batches.add(events);
+		};
+		graph.addGraphListener(listener);
+
+		// Bulk operations are delivered as one batch
+		graph.addNodes(n);
+		assertEquals(1, batches.size());
+		assertEquals(3, batches.get(0).size());
+		assertEquals(GraphEvent.Type.NODE_ADDED, batches.get(0).get(2).getType());
+		assertEquals(n[2], batches.get(0).get(2).getNode());
+
+		graph.beginBatch();
+		graph.addEdge(e[0]);
+		graph.addEdge(e[1]);
+		assertEquals(1, batches.size());
+		graph.endBatch();
+		assertEquals(2, batches.size());
+		assertEquals(2, batches.get(1).size());
+
+		// Failed operations deliver nothing
+		assertThrows(IllegalArgumentException.class, () -> graph.addEdge(e[0]));
+		assertEquals(2, batches.size());
+		assertThrows(IllegalStateException.class, graph::endBatch);
+
+		graph.removeGraphListener(listener);
+		graph.removeNode(n[1]);
+		assertEquals(2, batches.size());
+	}
+
 	@Test
 	public void testInducedSubgraph() {
 		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED | GraphConstraint.UNWEIGHTED;
@@ -198,6 +338,12 @@ public class GraphTest {
 		assertEquals(e[3], subgraph.getEdges().get(ends3).get(0));
 		assertEquals(e[4], subgraph.getEdges().get(ends3).get(1));
 		assertEquals(2, subgraph.getEdges().get(ends3).size());
+
+		// The subgraph's edge lists are its own
+		subgraph.removeEdge(e[4]);
+		assertTrue(graph.containsEdge(e[4]));
+		assertEquals(4, subgraph.getNumNodes());
+		assertEquals(3, subgraph.getNumEdges());
 	}
 
 	@Test
@@ -0,0 +1,124 @@
+package graph;
+
+import graph.components.Edge;
+import graph.components.Node;
+import org.junit.jupiter.api.Test;
+import util.TestUtils;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for testing the MappedGraph class.
+ *
+ * @author Brian Yao
+ */
+public class MappedGraphTest {
+
+	@Test
+	public void testWriteUndirected() throws IOException {
+		int constraints = GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED | GraphConstraint.UNWEIGHTED;
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(4, 0);
+		Edge[] e = TestUtils.newEdges(new int[][] {{0, 1}, {1, 2}, {1, 3}}, TestUtils.booleans(3, false),
+									  n, n.length);
+		graph.addNodes(n);
+		assertTrue(graph.addEdges(e));
+
+		MappedGraph mapped = MappedGraph.write(graph, tempFile());
+		assertEquals(constraints, mapped.getConstraints());
+		assertEquals(4, mapped.getNumNodes());
+		assertEquals(6, mapped.getNumArcs());
+
+		List<Integer> ids = new ArrayList<>();
+		for (int i = 0 ; i < mapped.getNumNodes() ; i++) {
+			ids.add(mapped.getNodeId(i));
+			assertEquals(graph.getAdjListOf(nodeWithId(n, mapped.getNodeId(i))).getNeighbors(true).size(),
+						 mapped.arcEnd(i) - mapped.arcStart(i));
+			assertEquals(1.0, mapped.arcWeight(mapped.arcStart(i)));
+		}
+		Collections.sort(ids);
+		assertEquals(List.of(0, 1, 2, 3), ids);
+	}
+
+	@Test
+	public void testWriteDirectedWeighted() throws IOException {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.DIRECTED | GraphConstraint.WEIGHTED;
+		Graph graph = new Graph(constraints);
+		Node[] n = TestUtils.newNodes(3, 0);
+		Edge[] e = TestUtils.newWeightedEdges(new int[][] {{0, 1}, {0, 1}, {2, 2}}, TestUtils.booleans(3, true),
+											  new double[] {1.5, 2.5, 4}, n, n.length);
+		graph.addNodes(n);
+		assertTrue(graph.addEdges(e));
+
+		MappedGraph mapped = MappedGraph.write(graph, tempFile());
+		assertEquals(3, mapped.getNumArcs());
+
+		double weightSum = 0;
+		for (int i = 0 ; i < mapped.getNumNodes() ; i++) {
+			for (int arc = mapped.arcStart(i) ; arc < mapped.arcEnd(i) ; arc++) {
+				int sourceId = mapped.getNodeId(i);
+				int targetId = mapped.getNodeId(mapped.arcTarget(arc));
+				assertTrue((sourceId == 0 && targetId == 1) || (sourceId == 2 && targetId == 2));
+				weightSum += mapped.arcWeight(arc);
+			}
+		}
+		assertEquals(8.0, weightSum);
+	}
+
+	@Test
+	public void testBuildFromArcs() throws IOException {
+		int[][] arcs = {{2, 0}, {0, 1}, {2, 1}, {1, 2}};
+		File file = tempFile();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			long size = MappedGraph.build(raf.getChannel(), 0, GraphConstraint.DIRECTED, new int[] {10, 11, 12},
+										  consumer -> {
+											  for (int[] arc : arcs) {
+												  consumer.accept(arc[0], arc[1], arc[0] + arc[1]);
+											  }
+										  }, true);
+			assertEquals(size, raf.length());
+		}
+
+		MappedGraph mapped = MappedGraph.open(file);
+		assertEquals(11, mapped.getNodeId(1));
+		assertEquals(1, mapped.arcEnd(0) - mapped.arcStart(0));
+		assertEquals(1, mapped.arcEnd(1) - mapped.arcStart(1));
+		assertEquals(2, mapped.arcEnd(2) - mapped.arcStart(2));
+		assertEquals(0, mapped.arcTarget(mapped.arcStart(2)));
+		assertEquals(1, mapped.arcTarget(mapped.arcStart(2) + 1));
+		assertEquals(3.0, mapped.arcWeight(mapped.arcStart(1)));
+	}
+
+	@Test
+	public void testOpenInvalidFile() throws IOException {
+		File file = tempFile();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.write(new byte[MappedGraph.HEADER_SIZE]);
+		}
+
+		assertThrows(IOException.class, () -> MappedGraph.open(file));
+	}
+
+	private static File tempFile() throws IOException {
+		File file = File.createTempFile("mapped", ".gbcs");
+		file.deleteOnExit();
+		return file;
+	}
+
+	private static Node nodeWithId(Node[] nodes, int id) {
+		for (Node node : nodes) {
+			if (node.getId() == id) {
+				return node;
+			}
+		}
+		return null;
+	}
+
+}
@@ -0,0 +1,72 @@
+package graph.components.display;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.QuadCurve2D;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the EdgeShape class.
+ *
+ * @author Brian Yao
+ */
+public class EdgeShapeTest {
+
+	private GBNode node1;
+	private GBNode node2;
+	private GBEdge edge;
+
+	@BeforeEach
+	public void setup() {
+		GBContext context = new GBContext(GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED);
+		node1 = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(0, 0, 10));
+		node2 = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(100, 0, 10));
+		edge = new GBEdge(context.getNextIdAndInc(), node1, node2, true);
+	}
+
+	@Test
+	public void testCachedUntilChanged() {
+		EdgeShape line = EdgeShape.of(edge, node1, 0, 1, true);
+		assertTrue(line.getShape() instanceof Line2D);
+		assertNotNull(line.getArrow());
+		assertTrue(line.getBounds().contains(((Line2D) line.getShape()).getP1()));
+		assertTrue(line.getBounds().contains(((Line2D) line.getShape()).getP2()));
+		assertSame(line, edge.getShape());
+		assertSame(line, EdgeShape.of(edge, node1, 0, 1, true));
+
+		// Another edge between the nodes turns this one into a curve
+		EdgeShape curve = EdgeShape.of(edge, node1, 0, 2, true);
+		assertNotSame(line, curve);
+		assertTrue(curve.getShape() instanceof QuadCurve2D);
+		assertNotNull(edge.getBezierPoints()[1]);
+
+		// Moving an endpoint invalidates the geometry
+		node2.getPanel().setCoords(100, 50);
+		EdgeShape moved = EdgeShape.of(edge, node1, 0, 2, true);
+		assertNotSame(curve, moved);
+		assertSame(moved, EdgeShape.of(edge, node1, 0, 2, true));
+	}
+
+	@Test
+	public void testUncachedGeometry() {
+		EdgeShape cached = EdgeShape.of(edge, node1, 0, 1, true);
+
+		// Geometry computed for a preview does not replace the cached geometry
+		EdgeShape preview = EdgeShape.of(edge, node1, 1, 3, false);
+		assertNotSame(cached, preview);
+		assertSame(cached, edge.getShape());
+		assertNull(edge.getBezierPoints()[1]);
+
+		assertSame(EdgeShape.getStroke(3), EdgeShape.getStroke(3));
+		assertEquals(3, EdgeShape.getStroke(3).getLineWidth());
+	}
+
+}
@@ -60,4 +60,15 @@ public class NodePanelTest {
 		assertEquals(new Point(469, 290), np.getCenter());
 	}
 
+	@Test
+	public void testBoundsFollowCoords() {
+		// Panels keep their own bounds, whether or not they are components of the editor
+		NodePanel np = new NodePanel(10, 20, 25);
+		Dimension size = np.getPreferredSize();
+		assertEquals(new Rectangle(10, 20, size.width, size.height), np.getBounds());
+
+		np.setCoords(new Point(-5, 40));
+		assertEquals(new Rectangle(-5, 40, size.width, size.height), np.getBounds());
+	}
+
 }
@@ -0,0 +1,122 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+import structures.UOPair;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the BinaryGraphFile class.
+ *
+ * @author Brian Yao
+ */
+public class BinaryGraphFileTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED | GraphConstraint.UNWEIGHTED;
+		GBContext context = new GBContext(constraints);
+		GBNode[] nodes = new GBNode[3];
+		for (int i = 0 ; i < nodes.length ; i++) {
+			NodePanel panel = new NodePanel(10 * i, 20 * i, 5 + i);
+			panel.setText(i == 0 ? "" : "n\u00e9ud " + i);
+			panel.setFillColor(new Color(i, 2 * i, 3 * i));
+			panel.setBorderColor(Color.BLACK);
+			panel.setTextColor(Color.BLUE);
+			nodes[i] = new GBNode(new Node(context.getNextIdAndInc()), context, panel);
+			context.addNode(nodes[i]);
+		}
+
+		GBEdge[] edges = new GBEdge[] {
+			new GBEdge(context.getNextIdAndInc(), nodes[0], nodes[1], false),
+			new GBEdge(context.getNextIdAndInc(), nodes[1], nodes[0], true),
+			new GBEdge(context.getNextIdAndInc(), nodes[2], nodes[2], false)
+		};
+		edges[0].setText("first");
+		edges[1].setColor(Color.RED);
+		edges[1].setWeight(7);
+		edges[2].setAngle(1.25);
+		for (GBEdge edge : edges) {
+			context.addEdge(edge);
+		}
+
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		BinaryGraphFile.write(context, file);
+		assertTrue(BinaryGraphFile.isBinary(file));
+
+		GBContext loaded = BinaryGraphFile.read(file);
+		assertEquals(constraints, loaded.getGraph().getConstraints());
+		assertEquals(context.getNextId(), loaded.getNextId());
+		assertEquals(3, loaded.getGraph().getNumNodes());
+		assertEquals(3, loaded.getGraph().getNumEdges());
+
+		for (GBNode node : nodes) {
+			NodePanel panel = ((GBNode) loaded.getFromId(node.getId())).getPanel();
+			assertEquals(node.getPanel().getCoords(), panel.getCoords());
+			assertEquals(node.getPanel().getRadius(), panel.getRadius());
+			assertEquals(node.getPanel().getText(), panel.getText());
+			assertEquals(node.getPanel().getFillColor(), panel.getFillColor());
+			assertEquals(node.getPanel().getTextColor(), panel.getTextColor());
+		}
+
+		// Parallel edges keep their order
+		GBNode loaded0 = (GBNode) loaded.getFromId(nodes[0].getId());
+		GBNode loaded1 = (GBNode) loaded.getFromId(nodes[1].getId());
+		List<GBEdge> pairEdges = loaded.getEdgesBetweenNodes(new UOPair<>(loaded0, loaded1));
+		assertEquals(edges[0].getId(), pairEdges.get(0).getId());
+		assertEquals("first", pairEdges.get(0).getText());
+		assertFalse(pairEdges.get(0).isDirected());
+		assertEquals(edges[1].getId(), pairEdges.get(1).getId());
+		assertTrue(pairEdges.get(1).isDirected());
+		assertEquals(loaded1, pairEdges.get(1).getFirstEnd());
+		assertEquals(Color.RED, pairEdges.get(1).getColor());
+		assertEquals(7, pairEdges.get(1).getWeight());
+		assertEquals(1.25, ((GBEdge) loaded.getFromId(edges[2].getId())).getAngle());
+	}
+
+	@Test
+	public void testVersion1() throws IOException {
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		int constraints = GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED;
+		ByteBuffer buffer = ByteBuffer.allocate(BinaryGraphFile.V1_HEADER_SIZE + 4).order(ByteOrder.LITTLE_ENDIAN);
+		buffer.putInt(BinaryGraphFile.MAGIC).putInt(1).putInt(5).putInt(constraints).putInt(0).putInt(0).putInt(1)
+			.putInt(0);
+		Files.write(file.toPath(), buffer.array());
+
+		GBContext loaded = BinaryGraphFile.read(file);
+		assertEquals(constraints, loaded.getGraph().getConstraints());
+		assertEquals(5, loaded.getNextId());
+		assertThrows(IOException.class, () -> MappedGraphFile.open(file));
+	}
+
+	@Test
+	public void testTextFileDetection() throws IOException {
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.println(0);
+			writer.println(GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED);
+		}
+
+		assertFalse(BinaryGraphFile.isBinary(file));
+		assertThrows(IOException.class, () -> BinaryGraphFile.read(file));
+	}
+
+}
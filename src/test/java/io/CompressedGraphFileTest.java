@@ -0,0 +1,136 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+import structures.UOPair;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.Deflater;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the CompressedGraphFile class.
+ *
+ * @author Brian Yao
+ */
+public class CompressedGraphFileTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED | GraphConstraint.UNWEIGHTED;
+		GBContext context = new GBContext(constraints);
+		GBNode[] nodes = new GBNode[3];
+		for (int i = 0 ; i < nodes.length ; i++) {
+			NodePanel panel = new NodePanel(100 - 40 * i, 20 * i, 5 + i);
+			panel.setText(i == 0 ? "" : "n\u00e9ud " + i);
+			panel.setFillColor(new Color(i, 2 * i, 3 * i));
+			panel.setBorderColor(Color.BLACK);
+			panel.setTextColor(new Color(0x102030));
+			nodes[i] = new GBNode(new Node(context.getNextIdAndInc()), context, panel);
+			context.addNode(nodes[i]);
+		}
+
+		GBEdge[] edges = new GBEdge[] {
+			new GBEdge(context.getNextIdAndInc(), nodes[2], nodes[0], false),
+			new GBEdge(context.getNextIdAndInc(), nodes[0], nodes[2], true),
+			new GBEdge(context.getNextIdAndInc(), nodes[1], nodes[1], false)
+		};
+		edges[0].setText("first");
+		edges[1].setColor(Color.RED);
+		edges[1].setWeight(-7);
+		edges[2].setAngle(1.25);
+		for (GBEdge edge : edges) {
+			context.addEdge(edge);
+		}
+
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		CompressedGraphFile.write(context, file, Deflater.BEST_COMPRESSION);
+		assertTrue(CompressedGraphFile.isCompressed(file));
+		assertFalse(BinaryGraphFile.isBinary(file));
+
+		GBContext loaded = CompressedGraphFile.read(file);
+		assertEquals(constraints, loaded.getGraph().getConstraints());
+		assertEquals(context.getNextId(), loaded.getNextId());
+		assertEquals(3, loaded.getGraph().getNumNodes());
+		assertEquals(3, loaded.getGraph().getNumEdges());
+
+		for (GBNode node : nodes) {
+			NodePanel panel = ((GBNode) loaded.getFromId(node.getId())).getPanel();
+			assertEquals(node.getPanel().getCoords(), panel.getCoords());
+			assertEquals(node.getPanel().getRadius(), panel.getRadius());
+			assertEquals(node.getPanel().getText(), panel.getText());
+			assertEquals(node.getPanel().getFillColor(), panel.getFillColor());
+			assertEquals(node.getPanel().getBorderColor(), panel.getBorderColor());
+			assertEquals(node.getPanel().getTextColor(), panel.getTextColor());
+		}
+
+		// Parallel edges keep their order and direction
+		GBNode loaded0 = (GBNode) loaded.getFromId(nodes[0].getId());
+		GBNode loaded2 = (GBNode) loaded.getFromId(nodes[2].getId());
+		List<GBEdge> pairEdges = loaded.getEdgesBetweenNodes(new UOPair<>(loaded0, loaded2));
+		assertEquals(edges[0].getId(), pairEdges.get(0).getId());
+		assertEquals("first", pairEdges.get(0).getText());
+		assertFalse(pairEdges.get(0).isDirected());
+		assertEquals(edges[1].getId(), pairEdges.get(1).getId());
+		assertTrue(pairEdges.get(1).isDirected());
+		assertEquals(loaded0, pairEdges.get(1).getFirstEnd());
+		assertEquals(Color.RED, pairEdges.get(1).getColor());
+		assertEquals(-7, pairEdges.get(1).getWeight());
+		assertEquals(1.25, ((GBEdge) loaded.getFromId(edges[2].getId())).getAngle());
+	}
+
+	@Test
+	public void testSmallerThanBinary() throws IOException {
+		GBContext context = new GBContext(GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED);
+		GBNode previous = null;
+		for (int i = 0 ; i < 1000 ; i++) {
+			GBNode node = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(i % 50, i / 50, 10));
+			context.addNode(node);
+			if (previous != null) {
+				context.addEdge(new GBEdge(context.getNextIdAndInc(), previous, node, false));
+			}
+			previous = node;
+		}
+
+		File binary = File.createTempFile("graph", ".gbf");
+		binary.deleteOnExit();
+		File compressed = File.createTempFile("graph", ".gbf");
+		compressed.deleteOnExit();
+		BinaryGraphFile.write(context, binary);
+		CompressedGraphFile.write(context, compressed, Deflater.BEST_SPEED);
+		assertTrue(compressed.length() * 10 < binary.length());
+
+		GBContext loaded = CompressedGraphFile.read(compressed);
+		assertEquals(1000, loaded.getGraph().getNumNodes());
+		assertEquals(999, loaded.getGraph().getNumEdges());
+	}
+
+	@Test
+	public void testCorruptFile() throws IOException {
+		GBContext context = new GBContext(GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED);
+		context.addNode(new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(0, 0, 10)));
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		CompressedGraphFile.write(context, file, 6);
+
+		// A truncated file is reported rather than partially loaded
+		byte[] bytes = Files.readAllBytes(file.toPath());
+		Files.write(file.toPath(), Arrays.copyOf(bytes, bytes.length - 4));
+		assertThrows(IOException.class, () -> CompressedGraphFile.read(file));
+
+		assertThrows(IllegalArgumentException.class, () -> CompressedGraphFile.write(context, file, 0));
+	}
+
+}
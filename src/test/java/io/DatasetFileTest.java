@@ -0,0 +1,140 @@
+package io;
+
+import graph.Graph;
+import graph.GraphConstraint;
+import graph.components.Edge;
+import graph.components.Node;
+import graph.components.WeightedEdge;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the DatasetFile class.
+ *
+ * @author Brian Yao
+ */
+public class DatasetFileTest {
+
+	@Test
+	public void testReadEdgeList() throws IOException {
+		File file = createFile(".txt", "# Directed graph\n# FromNodeId\tToNodeId\n0\t1\n1\t2\n\n2 0\r\n7 7\n0 1\n");
+		Graph graph = DatasetFile.read(file);
+		assertEquals(4, graph.getNumNodes());
+		assertEquals(5, graph.getNumEdges());
+		assertTrue(graph.getEdgeAt(0).isDirected());
+		assertEquals(0, graph.getEdgeAt(0).getFirstEnd().getId());
+		assertEquals(7, graph.getEdgeAt(3).getFirstEnd().getId());
+		assertTrue(graph.getEdgeAt(3).isSelfEdge());
+
+		// Weights are read for weighted graphs, and default to 1
+		file = createFile(".txt", "1 2 2.5\n2 3\n");
+		graph = DatasetFile.readEdgeList(file, GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED |
+			GraphConstraint.WEIGHTED);
+		assertFalse(graph.getEdgeAt(0).isDirected());
+		assertEquals(2.5, graph.getEdgeAt(0).getNumericWeight());
+		assertEquals(1, graph.getEdgeAt(1).getNumericWeight());
+
+		assertThrows(IOException.class, () -> DatasetFile.read(createFile(".txt", "1 -2\n")));
+		assertThrows(IOException.class, () -> DatasetFile.read(createFile(".txt", "1\n")));
+		assertThrows(IOException.class, () -> DatasetFile.read(createFile(".txt", "1 2x\n")));
+	}
+
+	@Test
+	public void testReadDimacs() throws IOException {
+		File file = createFile(".gr", "c 9th DIMACS Implementation Challenge\np sp 4 3\nc arcs\na 1 2 803\n" +
+			"a 2 1 803\na 2 4 7\n");
+		Graph graph = DatasetFile.read(file);
+		assertEquals(GraphConstraint.MULTIGRAPH | GraphConstraint.DIRECTED | GraphConstraint.WEIGHTED,
+					 graph.getConstraints());
+		assertEquals(4, graph.getNumNodes());
+		assertEquals(3, graph.getNumEdges());
+		Edge edge = graph.getEdgeAt(2);
+		assertTrue(edge instanceof WeightedEdge);
+		assertEquals(2, edge.getFirstEnd().getId());
+		assertEquals(4, edge.getSecondEnd().getId());
+		assertEquals(7, edge.getNumericWeight());
+
+		assertThrows(IOException.class, () -> DatasetFile.read(createFile(".gr", "a 1 2 3\n")));
+		assertThrows(IOException.class, () -> DatasetFile.read(createFile(".gr", "p sp 2 2\na 1 2 3\n")));
+		assertThrows(IOException.class, () -> DatasetFile.read(createFile(".gr", "p sp 2 1\na 1 3 3\n")));
+	}
+
+	@Test
+	public void testReadMatrixMarket() throws IOException {
+		File file = createFile(".mtx", "%%MatrixMarket matrix coordinate real symmetric\n% comment\n" +
+			"3 3 3\n1 1 4.0\n2 1 -1e-3\n3 2 2\n");
+		Graph graph = DatasetFile.read(file);
+		assertEquals(GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED | GraphConstraint.WEIGHTED,
+					 graph.getConstraints());
+		assertEquals(3, graph.getNumNodes());
+		assertEquals(3, graph.getNumEdges());
+		assertFalse(graph.getEdgeAt(1).isDirected());
+		assertEquals(-1e-3, graph.getEdgeAt(1).getNumericWeight());
+
+		file = createFile(".mtx", "%%MatrixMarket matrix coordinate pattern general\n2 4 1\n1 4\n");
+		graph = DatasetFile.read(file);
+		assertEquals(4, graph.getNumNodes());
+		assertTrue(graph.getEdgeAt(0).isDirected());
+
+		assertThrows(IOException.class, () -> DatasetFile.read(createFile(".mtx",
+			"%%MatrixMarket matrix array real general\n2 2\n1\n2\n3\n4\n")));
+		assertThrows(IOException.class, () -> DatasetFile.read(createFile(".mtx",
+			"%%MatrixMarket matrix coordinate pattern general\n2 2 2\n1 2\n")));
+	}
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		Graph graph = new Graph(GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED | GraphConstraint.WEIGHTED);
+		Node[] nodes = new Node[4];
+		for (int i = 0 ; i < nodes.length ; i++) {
+			nodes[i] = new Node(10 * i);
+			graph.addNode(nodes[i]);
+		}
+		graph.addEdges(new WeightedEdge(nodes[0], nodes[1], false, 1.5),
+					   new WeightedEdge(nodes[1], nodes[2], false, 3),
+					   new WeightedEdge(nodes[3], nodes[3], false, 2));
+
+		// Symmetric matrices keep edges undirected
+		File file = createFile(".mtx", "");
+		DatasetFile.write(graph, file, DatasetFile.Format.MATRIX_MARKET);
+		Graph read = DatasetFile.read(file);
+		assertEquals(graph.getConstraints(), read.getConstraints());
+		assertEquals(4, read.getNumNodes());
+		assertEquals(3, read.getNumEdges());
+		assertEquals(1.5, read.getEdgeAt(0).getNumericWeight());
+		assertFalse(read.getEdgeAt(1).isDirected());
+		assertEquals(read.getNodeAt(1), read.getEdgeAt(1).getSecondEnd());
+		assertEquals(read.getNodeAt(2), read.getEdgeAt(1).getFirstEnd());
+
+		// DIMACS graphs are directed, so undirected edges become two arcs
+		file = createFile(".gr", "");
+		DatasetFile.write(graph, file, DatasetFile.Format.DIMACS);
+		read = DatasetFile.read(file);
+		assertEquals(4, read.getNumNodes());
+		assertEquals(5, read.getNumEdges());
+		assertEquals(3, read.getEdgeAt(2).getNumericWeight());
+
+		// Edge lists keep node IDs
+		file = createFile(".txt", "");
+		DatasetFile.write(graph, file, DatasetFile.Format.EDGE_LIST);
+		read = DatasetFile.readEdgeList(file, graph.getConstraints());
+		assertEquals(3, read.getNumEdges());
+		assertEquals(10, read.getEdgeAt(0).getSecondEnd().getId());
+		assertEquals(30, read.getEdgeAt(2).getFirstEnd().getId());
+		assertEquals(2, read.getEdgeAt(2).getNumericWeight());
+	}
+
+	private static File createFile(String extension, String contents) throws IOException {
+		File file = File.createTempFile("dataset", extension);
+		file.deleteOnExit();
+		Files.write(file.toPath(), contents.getBytes(StandardCharsets.US_ASCII));
+		return file;
+	}
+
+}
@@ -0,0 +1,114 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the FileSaver class.
+ *
+ * @author Brian Yao
+ */
+public class FileSaverTest {
+
+	@Test
+	public void testWriteGraph() throws IOException {
+		GBContext context = createContext();
+		File directory = Files.createTempDirectory("graphs").toFile();
+		directory.deleteOnExit();
+		File target = new File(directory, "graph.gbf");
+		target.deleteOnExit();
+		Files.write(target.toPath(), new byte[] {1, 2, 3});
+
+		// The snapshot is unaffected by later changes to the context
+		GraphSnapshot snapshot = GraphSnapshot.of(context);
+		context.addNode(new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(0, 0, 5)));
+
+		List<Integer> progress = new ArrayList<>();
+		FileSaver.writeGraph(snapshot, target, GraphFileFormat.BINARY, progress::add);
+		assertEquals(0, (int) progress.get(0));
+		assertEquals(100, (int) progress.get(progress.size() - 1));
+		for (int i = 1 ; i < progress.size() ; i++) {
+			assertTrue(progress.get(i - 1) < progress.get(i));
+		}
+
+		// Only the target remains, with the snapshot's contents
+		assertArrayEquals(new String[] {"graph.gbf"}, directory.list());
+		GBContext loaded = BinaryGraphFile.read(target);
+		assertEquals(2, loaded.getGraph().getNumNodes());
+		assertEquals(1, loaded.getGraph().getNumEdges());
+		assertEquals(snapshot.getIdPool(), loaded.getNextId());
+	}
+
+	@Test
+	public void testSaveGraph() throws Exception {
+		GBContext context = createContext();
+		File target = File.createTempFile("graph", "");
+		target.deleteOnExit();
+		File saved = new File(target.getAbsolutePath() + ".gbf");
+		saved.deleteOnExit();
+
+		SwingWorker<File, Void> worker = FileSaver.saveGraph(context, target);
+		assertEquals(saved, worker.get(30, TimeUnit.SECONDS));
+
+		// The context is updated on the event dispatch thread shortly after the worker is done
+		long deadline = System.currentTimeMillis() + 30_000;
+		while (context.getCurrentlyLoadedFile() == null && System.currentTimeMillis() < deadline) {
+			SwingUtilities.invokeAndWait(() -> {});
+			Thread.sleep(10);
+		}
+
+		assertEquals(saved, context.getCurrentlyLoadedFile());
+		assertEquals(2, BinaryGraphFile.read(saved).getGraph().getNumNodes());
+	}
+
+	@Test
+	public void testSaveFormat() throws Exception {
+		File directory = Files.createTempDirectory("graphs").toFile();
+		directory.deleteOnExit();
+		File text = new File(directory, "text.gbf");
+		text.deleteOnExit();
+		GraphJournal.journalFileFor(text).deleteOnExit();
+		File other = new File(directory, "other.gbf");
+		other.deleteOnExit();
+		FileSaver.writeGraph(GraphSnapshot.of(createContext()), text, GraphFileFormat.TEXT, progress -> {});
+
+		GBContext loaded = FileLoader.readGraph(text);
+		assertEquals(GraphFileFormat.TEXT, loaded.getFileFormat());
+		loaded.getJournal().discard();
+		loaded.setJournal(null);
+
+		// Saving a file again keeps its format, and saving under a new name uses the preferred one
+		FileSaver.saveGraph(loaded, text).get(30, TimeUnit.SECONDS);
+		assertEquals(GraphFileFormat.TEXT, GraphFileFormat.of(text));
+		FileSaver.saveGraph(loaded, other).get(30, TimeUnit.SECONDS);
+		assertEquals(GraphFileFormat.preferred(), GraphFileFormat.of(other));
+	}
+
+	/**
+	 * @return a context with two nodes and an edge between them.
+	 */
+	private static GBContext createContext() {
+		GBContext context = new GBContext(GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED);
+		GBNode node1 = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(0, 0, 10));
+		GBNode node2 = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(40, 0, 10));
+		context.addNodes(List.of(node1, node2));
+		context.addEdge(new GBEdge(context.getNextIdAndInc(), node1, node2, false));
+		return context;
+	}
+
+}
@@ -0,0 +1,217 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+
+import javax.swing.*;
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the GraphJournal class.
+ *
+ * @author Brian Yao
+ */
+public class GraphJournalTest {
+
+	@Test
+	public void testReplay() throws IOException {
+		GBContext context = new GBContext(GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED);
+		GBNode node1 = addNode(context, 0, 0);
+		GBNode node2 = addNode(context, 50, 0);
+		File graphFile = graphFile();
+		BinaryGraphFile.write(context, graphFile);
+
+		GraphJournal journal = GraphJournal.open(context, graphFile);
+		try {
+			NodePanel panel = new NodePanel(100, 0, 10);
+			panel.setText("added");
+			GBNode node3 = new GBNode(new Node(context.getNextIdAndInc()), context, panel);
+			context.addNode(node3);
+			journal.commit();
+
+			node1.getPanel().setCoords(10, 20);
+			journal.recordMove(node1);
+			journal.commit();
+
+			GBEdge edge1 = new GBEdge(context.getNextIdAndInc(), node1, node3, false);
+			GBEdge edge2 = new GBEdge(context.getNextIdAndInc(), node1, node3, false);
+			edge2.setColor(Color.RED);
+			context.addEdge(edge1);
+			context.addEdge(edge2, 0);
+			journal.commit();
+
+			context.removeNode(node2);
+			journal.commit();
+		} finally {
+			journal.close();
+		}
+
+		GBContext loaded = BinaryGraphFile.read(graphFile);
+		assertEquals(4, GraphJournal.replay(loaded, graphFile));
+		assertState(context, loaded);
+
+		// Replaying changes which are already in place does nothing
+		assertEquals(4, GraphJournal.replay(loaded, graphFile));
+		assertState(context, loaded);
+	}
+
+	@Test
+	public void testTornTransaction() throws IOException {
+		GBContext context = new GBContext(GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED);
+		File graphFile = graphFile();
+		BinaryGraphFile.write(context, graphFile);
+
+		GraphJournal journal = GraphJournal.open(context, graphFile);
+		addNode(context, 5, 5);
+		journal.commit();
+		journal.close();
+		long length = journal.getFile().length();
+
+		// A crash in the middle of appending leaves part of a transaction
+		Files.write(journal.getFile().toPath(), new byte[] {100, 0, 0, 0, 1, 2}, StandardOpenOption.APPEND);
+		GBContext loaded = BinaryGraphFile.read(graphFile);
+		assertEquals(1, GraphJournal.replay(loaded, graphFile));
+		assertEquals(1, loaded.getGraph().getNumNodes());
+
+		// Reopening the journal drops the torn transaction
+		journal = GraphJournal.open(loaded, graphFile);
+		assertEquals(length, journal.getFile().length());
+
+		// Dropping saved transactions leaves an empty journal
+		BinaryGraphFile.write(loaded, graphFile);
+		journal.drop(journal.getLength());
+		journal.close();
+		assertEquals(GraphJournal.HEADER_SIZE, journal.getFile().length());
+		assertEquals(0, GraphJournal.replay(BinaryGraphFile.read(graphFile), graphFile));
+
+		journal.discard();
+		assertFalse(journal.getFile().exists());
+	}
+
+	@Test
+	public void testCheckpoint() throws Exception {
+		GBContext context = new GBContext(GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED);
+		File graphFile = graphFile();
+		BinaryGraphFile.write(context, graphFile);
+		byte[] contents = Files.readAllBytes(graphFile.toPath());
+
+		GraphJournal journal = GraphJournal.open(context, graphFile);
+		journal.getCheckpointFile().deleteOnExit();
+		context.setJournal(journal);
+		addNode(context, 5, 5);
+		journal.commit();
+
+		// The checkpoint takes over the journal's transactions, and leaves the graph file and save state alone
+		FileSaver.saveCheckpoint(context, journal.getCheckpointFile()).get(30, TimeUnit.SECONDS);
+		awaitOnEventThread(() -> journal.getFile().length() == GraphJournal.HEADER_SIZE);
+		assertArrayEquals(contents, Files.readAllBytes(graphFile.toPath()));
+		assertNull(context.getCurrentlyLoadedFile());
+		addNode(context, 10, 10);
+		journal.commit();
+		journal.close();
+
+		GBContext loaded = FileLoader.readGraph(graphFile);
+		loaded.getJournal().close();
+		assertState(context, loaded);
+
+		// Saving the graph file makes the checkpoint obsolete
+		GraphJournal reopened = GraphJournal.open(context, graphFile);
+		context.setJournal(reopened);
+		FileSaver.saveGraph(context, graphFile).get(30, TimeUnit.SECONDS);
+		awaitOnEventThread(() -> !reopened.getCheckpointFile().exists());
+		reopened.discard();
+		assertState(context, FileLoader.readGraph(graphFile));
+	}
+
+	@Test
+	public void testDropClosed() throws IOException {
+		GBContext context = new GBContext(GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED);
+		File graphFile = graphFile();
+		BinaryGraphFile.write(context, graphFile);
+
+		GraphJournal journal = GraphJournal.open(context, graphFile);
+		addNode(context, 5, 5);
+		journal.commit();
+		long saved = journal.getLength();
+		addNode(context, 10, 10);
+		journal.commit();
+		long length = journal.getFile().length();
+		journal.close();
+		assertFalse(journal.isOpen());
+
+		// A save which finishes after the journal is closed still trims it on disk
+		BinaryGraphFile.write(context, graphFile);
+		journal.drop(saved);
+		assertTrue(journal.getFile().length() < length);
+		GBContext loaded = BinaryGraphFile.read(graphFile);
+		assertEquals(1, GraphJournal.replay(loaded, graphFile));
+		assertState(context, loaded);
+
+		// A discarded journal stays discarded
+		journal.discard();
+		journal.drop(journal.getLength() + 1);
+		assertFalse(journal.getFile().exists());
+	}
+
+	/**
+	 * Wait for a condition to hold, checking it on the event dispatch thread
+	 * so that workers finish updating the context first.
+	 */
+	private static void awaitOnEventThread(BooleanSupplier condition) throws Exception {
+		long deadline = System.currentTimeMillis() + 30_000;
+		boolean[] holds = new boolean[1];
+		do {
+			SwingUtilities.invokeAndWait(() -> holds[0] = condition.getAsBoolean());
+		} while (!holds[0] && System.currentTimeMillis() < deadline);
+		assertTrue(holds[0]);
+	}
+
+	/**
+	 * Assert that two contexts have graphs with the same nodes, locations
+	 * and edges.
+	 */
+	private static void assertState(GBContext expected, GBContext actual) {
+		assertEquals(expected.getNextId(), actual.getNextId());
+		assertEquals(expected.getGraph().getNumNodes(), actual.getGraph().getNumNodes());
+		assertEquals(expected.getGraph().getNumEdges(), actual.getGraph().getNumEdges());
+		for (GBNode node : expected.getGbNodes()) {
+			GBNode actualNode = (GBNode) actual.getFromId(node.getId());
+			assertTrue(actual.getGraph().containsNode(actualNode.getNode()));
+			assertEquals(node.getPanel().getCoords(), actualNode.getPanel().getCoords());
+			assertEquals(node.getPanel().getText(), actualNode.getPanel().getText());
+		}
+		for (GBEdge edge : expected.getGbEdgeSet()) {
+			GBEdge actualEdge = (GBEdge) actual.getFromId(edge.getId());
+			assertEquals(edge.getColor(), actualEdge.getColor());
+			assertEquals(expected.getEdgesBetweenNodes(edge.getUoEndpoints()).indexOf(edge),
+						 actual.getEdgesBetweenNodes(actualEdge.getUoEndpoints()).indexOf(actualEdge));
+		}
+	}
+
+	private static GBNode addNode(GBContext context, int x, int y) {
+		GBNode node = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(x, y, 10));
+		context.addNode(node);
+		return node;
+	}
+
+	private static File graphFile() throws IOException {
+		File graphFile = File.createTempFile("graph", ".gbf");
+		graphFile.deleteOnExit();
+		GraphJournal.journalFileFor(graphFile).deleteOnExit();
+		return graphFile;
+	}
+
+}
@@ -0,0 +1,132 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+import org.w3c.dom.Document;
+
+import javax.imageio.ImageIO;
+import javax.xml.parsers.DocumentBuilderFactory;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.nio.file.Files;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the ImageExporter class.
+ *
+ * @author Brian Yao
+ */
+public class ImageExporterTest {
+
+	@Test
+	public void testWritePng() throws IOException {
+		GBContext context = createContext();
+		Rectangle bounds = ImageExporter.getBounds(context);
+		NodePanel panel = context.getGraph().getNodeAt(0).getGbNode().getPanel();
+		NodePanel other = context.getGraph().getNodeAt(1).getGbNode().getPanel();
+		assertEquals(panel.getXCoord() - 16, bounds.x);
+		assertEquals(panel.getYCoord() - 16, bounds.y);
+		assertEquals(other.getXCoord() + other.getPreferredSize().width + 16, bounds.x + bounds.width);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ImageExporter.writePng(context, out, 2);
+		BufferedImage image = ImageIO.read(new ByteArrayInputStream(out.toByteArray()));
+		assertEquals(2 * bounds.width, image.getWidth());
+		assertEquals(2 * bounds.height, image.getHeight());
+
+		// The center of the first node is in its fill color, and the margin is blank
+		Point center = panel.getCenter();
+		assertEquals(panel.getFillColor().getRGB(),
+					 image.getRGB(2 * (center.x - bounds.x), 2 * (center.y - bounds.y)));
+		assertEquals(Color.WHITE.getRGB(), image.getRGB(2, 2));
+
+		// Small tiles rendered in parallel make the same image as a single tile
+		ByteArrayOutputStream tiled = new ByteArrayOutputStream();
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			ImageExporter.writePng(context, tiled, 2, pool, 16);
+		} finally {
+			pool.shutdown();
+		}
+		BufferedImage tiledImage = ImageIO.read(new ByteArrayInputStream(tiled.toByteArray()));
+		for (int y = 0 ; y < image.getHeight() ; y++) {
+			for (int x = 0 ; x < image.getWidth() ; x++) {
+				assertEquals(image.getRGB(x, y), tiledImage.getRGB(x, y), x + ", " + y);
+			}
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> ImageExporter.writePng(context, out, 0));
+		assertThrows(IllegalArgumentException.class, () -> ImageExporter.writePng(context, out, Double.NaN));
+	}
+
+	@Test
+	public void testWriteSvg() throws Exception {
+		GBContext context = createContext();
+		context.getGraph().getNodeAt(0).getGbNode().getPanel().setText("a < b & c");
+
+		StringWriter out = new StringWriter();
+		ImageExporter.writeSvg(context, out);
+		Document svg = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+			.parse(new ByteArrayInputStream(out.toString().getBytes("UTF-8")));
+
+		assertEquals("svg", svg.getDocumentElement().getTagName());
+		Rectangle bounds = ImageExporter.getBounds(context);
+		assertEquals(bounds.x + " " + bounds.y + " " + bounds.width + " " + bounds.height,
+					 svg.getDocumentElement().getAttribute("viewBox"));
+		assertEquals(3, svg.getElementsByTagName("circle").getLength());
+		assertEquals(1, svg.getElementsByTagName("path").getLength());
+		assertEquals("a < b & c", svg.getElementsByTagName("text").item(0).getTextContent());
+	}
+
+	@Test
+	public void testExportImage() throws Exception {
+		GBContext context = createContext();
+		File directory = Files.createTempDirectory("images").toFile();
+		directory.deleteOnExit();
+		File png = new File(directory, "graph.png");
+		png.deleteOnExit();
+		File svg = new File(directory, "graph.SVG");
+		svg.deleteOnExit();
+
+		assertEquals(png, ImageExporter.exportImage(context, png, 1).get(30, TimeUnit.SECONDS));
+		assertEquals(svg, ImageExporter.exportImage(context, svg, 1).get(30, TimeUnit.SECONDS));
+
+		// Only the images remain, each in the format named by its extension
+		String[] names = directory.list();
+		Arrays.sort(names);
+		assertArrayEquals(new String[] {"graph.SVG", "graph.png"}, names);
+		Rectangle bounds = ImageExporter.getBounds(context);
+		assertEquals(bounds.width, ImageIO.read(png).getWidth());
+		assertEquals("svg", DocumentBuilderFactory.newInstance().newDocumentBuilder().parse(svg)
+			.getDocumentElement().getTagName());
+	}
+
+	/**
+	 * @return a context with three nodes and an edge between the first two.
+	 */
+	private static GBContext createContext() {
+		GBContext context = new GBContext(GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED);
+		GBNode node1 = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(0, -5, 10));
+		GBNode node2 = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(40, 0, 10));
+		GBNode node3 = new GBNode(new Node(context.getNextIdAndInc()), context, new NodePanel(40, 0, 5));
+		context.addNodes(List.of(node1, node2, node3));
+		context.addEdge(new GBEdge(context.getNextIdAndInc(), node1, node2, false));
+		return context;
+	}
+
+}
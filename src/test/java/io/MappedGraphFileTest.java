@@ -0,0 +1,90 @@
+package io;
+
+import algorithms.BFS;
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.MappedGraph;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the MappedGraphFile class.
+ *
+ * @author Brian Yao
+ */
+public class MappedGraphFileTest {
+
+	@Test
+	public void testMappedFile() throws IOException {
+		int constraints = GraphConstraint.SIMPLE | GraphConstraint.UNDIRECTED | GraphConstraint.UNWEIGHTED;
+		GBContext context = new GBContext(constraints);
+		GBNode[] nodes = new GBNode[4];
+		for (int i = 0 ; i < nodes.length ; i++) {
+			NodePanel panel = new NodePanel(100 * i, 50, 10);
+			panel.setText("node " + i);
+			panel.setFillColor(Color.YELLOW);
+			nodes[i] = new GBNode(new Node(context.getNextIdAndInc()), context, panel);
+			context.addNode(nodes[i]);
+		}
+		for (int i = 0 ; i + 1 < nodes.length ; i++) {
+			context.addEdge(new GBEdge(context.getNextIdAndInc(), nodes[i], nodes[i + 1], false));
+		}
+
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		BinaryGraphFile.write(context, file);
+
+		MappedGraphFile mapped = FileLoader.mapGraph(file);
+		assertEquals(constraints, mapped.getConstraints());
+		assertEquals(context.getNextId(), mapped.getIdPool());
+		assertEquals(4, mapped.getNumNodes());
+		assertEquals(3, mapped.getNumEdges());
+
+		// The mapped graph and node table share node indices
+		MappedGraph graph = mapped.getGraph();
+		assertEquals(4, graph.getNumNodes());
+		assertEquals(6, graph.getNumArcs());
+		for (int i = 0 ; i < nodes.length ; i++) {
+			assertEquals(graph.getNodeId(i), mapped.getNodeId(i));
+			assertEquals(context.getGraph().getNodeIndex(nodes[i].getNode()), i);
+			assertEquals("node " + i, mapped.getNodeText(i));
+			assertEquals(100 * i, mapped.getNodeX(i));
+		}
+		assertArrayEquals(new int[] {0, 1, 2, 3}, BFS.distances(graph, 0));
+
+		// Only the nodes in view are built
+		assertArrayEquals(new int[] {1, 2}, mapped.findNodes(new Rectangle(100, 0, 150, 100)));
+		assertFalse(mapped.isBuilt(1));
+		GBNode built = mapped.getGbNode(1);
+		assertSame(built, mapped.getGbNode(1));
+		assertTrue(mapped.isBuilt(1));
+		assertFalse(mapped.isBuilt(2));
+		assertEquals(nodes[1].getId(), built.getId());
+		assertEquals(new Point(100, 50), built.getPanel().getCoords());
+		assertEquals("node 1", built.getPanel().getText());
+		assertEquals(Color.YELLOW, built.getPanel().getFillColor());
+		assertThrows(IllegalArgumentException.class, () -> mapped.getGbNode(4));
+	}
+
+	@Test
+	public void testUnmappableFile() throws IOException {
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		try (RandomAccessFile raf = new RandomAccessFile(file, "rw")) {
+			raf.write(new byte[BinaryGraphFile.HEADER_SIZE]);
+		}
+
+		assertThrows(IOException.class, () -> MappedGraphFile.open(file));
+	}
+
+}
@@ -0,0 +1,105 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+import structures.UOPair;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.io.PrintWriter;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the ParallelFileLoader class.
+ *
+ * @author Brian Yao
+ */
+public class ParallelFileLoaderTest {
+
+	private static final int NUM_NODES = 200;
+
+	@Test
+	public void testMatchesSequentialLoader() throws IOException {
+		int constraints = GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED | GraphConstraint.UNWEIGHTED;
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.print(3 * NUM_NODES + "\n" + constraints + "\n");
+			for (int i = 0 ; i < NUM_NODES ; i++) {
+				writer.printf("N:%d,%d,%d,%d,%s,%d,%d,%d\n", i, 3 * i, -i, 10, i % 3 == 0 ? "" : "node " + i,
+							  Color.WHITE.getRGB(), Color.BLACK.getRGB(), i);
+			}
+			for (int i = 0 ; i < NUM_NODES ; i++) {
+				int id = NUM_NODES + 2 * i;
+				writer.printf("E:%d,%d,%d,%d,%d,%d,%s,%s\r\n", id, i, (i + 1) % NUM_NODES, Color.RED.getRGB(), i,
+							  i % 2, "edge " + i, 0.0);
+				writer.printf("E:%d,%d,%d,%d,%d,%d,%s,%s\n", id + 1, i, i, Color.BLUE.getRGB(), 1, 0, "", i / 4.0);
+			}
+		}
+
+		GBContext expected = FileLoader.loadTextGraph(file);
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			// Small chunks put boundaries all over the file
+			GBContext loaded = ParallelFileLoader.load(file, pool, 256);
+			assertEquals(constraints, loaded.getGraph().getConstraints());
+			assertEquals(expected.getNextId(), loaded.getNextId());
+			assertEquals(NUM_NODES, loaded.getGraph().getNumNodes());
+			assertEquals(2 * NUM_NODES, loaded.getGraph().getNumEdges());
+
+			for (int i = 0 ; i < NUM_NODES ; i++) {
+				GBNode expectedNode = (GBNode) expected.getFromId(i);
+				GBNode loadedNode = (GBNode) loaded.getFromId(i);
+				assertEquals(expectedNode.getPanel().getCoords(), loadedNode.getPanel().getCoords());
+				assertEquals(expectedNode.getPanel().getText(), loadedNode.getPanel().getText());
+				assertEquals(expectedNode.getPanel().getTextColor(), loadedNode.getPanel().getTextColor());
+			}
+
+			for (int id = NUM_NODES ; id < 3 * NUM_NODES ; id++) {
+				GBEdge expectedEdge = (GBEdge) expected.getFromId(id);
+				GBEdge loadedEdge = (GBEdge) loaded.getFromId(id);
+				assertEquals(expectedEdge.getFirstEnd().getId(), loadedEdge.getFirstEnd().getId());
+				assertEquals(expectedEdge.getSecondEnd().getId(), loadedEdge.getSecondEnd().getId());
+				assertEquals(expectedEdge.isDirected(), loadedEdge.isDirected());
+				assertEquals(expectedEdge.getColor(), loadedEdge.getColor());
+				assertEquals(expectedEdge.getWeight(), loadedEdge.getWeight());
+				assertEquals(expectedEdge.getText(), loadedEdge.getText());
+				assertEquals(expectedEdge.getAngle(), loadedEdge.getAngle());
+			}
+
+			// Parallel edges keep their order in the file
+			GBNode node = (GBNode) loaded.getFromId(0);
+			List<GBEdge> selfEdges = loaded.getEdgesBetweenNodes(new UOPair<>(node, node));
+			assertEquals(1, selfEdges.size());
+			assertEquals(NUM_NODES + 1, selfEdges.get(0).getId());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	@Test
+	public void testMalformedFile() throws IOException {
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.print("2\n" + GraphConstraint.SIMPLE + "\n");
+			writer.print("N:0,1,2,3,text,4,5\n");
+		}
+		assertThrows(IOException.class, () -> ParallelFileLoader.load(file));
+
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.print("2\n" + GraphConstraint.SIMPLE + "\n");
+			writer.print("N:0,1,2,3,,4,5,6\n");
+			writer.print("E:1,0,7,0,0,0,,0.0\n");
+		}
+		assertThrows(IOException.class, () -> ParallelFileLoader.load(file));
+	}
+
+}
@@ -0,0 +1,157 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+import util.FileUtils;
+
+import java.io.ByteArrayInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.PrintWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.Charset;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the TextScanner class.
+ *
+ * @author Brian Yao
+ */
+public class TextScannerTest {
+
+	@Test
+	public void testDoublesMatchParseDouble() throws IOException {
+		Random random = new Random(40);
+		StringBuilder text = new StringBuilder("0 -0 1. .5 +2 1e3 -4.25E-2 123456789012345 9007199254740993 " +
+												   "0.1 1e-300 1e308 4.9e-324 NaN -Infinity 0.30000000000000004 " +
+												   "3.141592653589793 1e22 1e23 2.5e-22");
+		for (int i = 0 ; i < 2000 ; i++) {
+			double value;
+			switch (i % 4) {
+				case 0: value = random.nextDouble(); break;
+				case 1: value = Math.round(random.nextGaussian() * 1e6) / 1e3; break;
+				case 2: value = Double.longBitsToDouble(random.nextLong()); break;
+				default: value = random.nextInt(); break;
+			}
+			text.append(' ').append(value);
+		}
+
+		String[] tokens = text.toString().split(" ");
+		TextScanner scanner = new TextScanner(new OneByteStream(text.toString()), ' ');
+		scanner.startLine();
+		for (String token : tokens) {
+			assertEquals(Double.doubleToLongBits(Double.parseDouble(token)),
+						 Double.doubleToLongBits(scanner.nextDouble()), token);
+		}
+		assertFalse(scanner.hasNext());
+	}
+
+	@Test
+	public void testFields() throws IOException {
+		String text = "N:-12,34,,x\\\\y\\nz\\q, with commas,7,-8\r\n\n  E:5\n";
+		ByteBuffer buffer = ByteBuffer.wrap(text.getBytes(Charset.defaultCharset()));
+		TextScanner scanner = new TextScanner(buffer, ',');
+		assertEquals('N', scanner.startLine());
+		assertFalse(scanner.skipPrefix("E:"));
+		assertTrue(scanner.skipPrefix("N:"));
+		assertEquals(-12, scanner.nextInt());
+		assertEquals(34, scanner.nextInt());
+		assertThrows(IOException.class, scanner::nextInt);
+		assertEquals(-8, scanner.lastInt());
+		assertEquals(7.0, scanner.lastDouble());
+		assertEquals(",x\\y\nz\\q, with commas", scanner.text(true));
+		scanner.skipLine();
+
+		assertEquals('E', scanner.startLine());
+		assertTrue(scanner.skipPrefix("E:"));
+		assertEquals(5, scanner.nextInt());
+		IOException error = assertThrows(IOException.class, scanner::lastInt);
+		assertTrue(error.getMessage().startsWith("Line 3:"), error.getMessage());
+		scanner.skipLine();
+		assertEquals(-1, scanner.startLine());
+
+		// Text from files without escapes is taken as it is
+		TextScanner raw = new TextScanner(ByteBuffer.wrap("C:\\new\\\\x\n".getBytes(Charset.defaultCharset())), ',');
+		raw.startLine();
+		assertEquals("C:\\new\\\\x", raw.text(false));
+	}
+
+	@Test
+	public void testTextGraphRoundTrip() throws IOException {
+		GBContext context = new GBContext(GraphConstraint.MULTIGRAPH | GraphConstraint.UNDIRECTED);
+		NodePanel panel = new NodePanel(3, 4, 10);
+		panel.setText("two\nlines, a comma and a \\");
+		GBNode node = new GBNode(new Node(context.getNextIdAndInc()), context, panel);
+		context.addNode(node);
+		GBEdge edge = new GBEdge(context.getNextIdAndInc(), node, node, false);
+		edge.setText("\r\\n");
+		edge.setAngle(Math.toRadians(100));
+		edge.setWeight(7);
+		context.addEdge(edge);
+
+		File file = File.createTempFile("graph", ".gbf");
+		file.deleteOnExit();
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.print(context.getNextId() + "\n" + context.getGraph().getConstraints() + "," +
+							 FileUtils.ESCAPED_TEXT_TAG + "\n");
+			writer.print(node.toStorageString() + "\n" + edge.toStorageString() + "\n");
+		}
+
+		GBContext loaded = FileLoader.loadTextGraph(file);
+		GBNode loadedNode = (GBNode) loaded.getFromId(node.getId());
+		GBEdge loadedEdge = (GBEdge) loaded.getFromId(edge.getId());
+		assertEquals(panel.getText(), loadedNode.getPanel().getText());
+		assertEquals(panel.getCoords(), loadedNode.getPanel().getCoords());
+		assertEquals(edge.getText(), loadedEdge.getText());
+		assertEquals(edge.getAngle(), loadedEdge.getAngle());
+		assertEquals(edge.getWeight(), loadedEdge.getWeight());
+
+		// Files written before text was escaped have no tag, and their text is read as it is
+		try (PrintWriter writer = new PrintWriter(file)) {
+			writer.print("2\n" + context.getGraph().getConstraints() + "\n");
+			writer.print("N:0,3,4,10,C:\\new\\\\x,-1,-16777216,-16777216\n");
+		}
+		assertEquals("C:\\new\\\\x", ((GBNode) FileLoader.loadTextGraph(file).getFromId(0)).getPanel().getText());
+		ForkJoinPool pool = new ForkJoinPool(2);
+		try {
+			GBContext parallel = ParallelFileLoader.load(file, pool, 1);
+			assertEquals("C:\\new\\\\x", ((GBNode) parallel.getFromId(0)).getPanel().getText());
+		} finally {
+			pool.shutdown();
+		}
+	}
+
+	/**
+	 * A stream returning one byte per read, so that every token crosses a
+	 * refill of the scanner's buffer.
+	 */
+	private static final class OneByteStream extends InputStream {
+
+		private ByteArrayInputStream bytes;
+
+		private OneByteStream(String text) {
+			bytes = new ByteArrayInputStream(text.getBytes(Charset.defaultCharset()));
+		}
+
+		@Override
+		public int read() {
+			return bytes.read();
+		}
+
+		@Override
+		public int read(byte[] buffer, int offset, int length) {
+			return length == 0 ? 0 : bytes.read(buffer, offset, 1);
+		}
+
+	}
+
+}
@@ -0,0 +1,137 @@
+package io;
+
+import context.GBContext;
+import graph.GraphConstraint;
+import graph.components.Node;
+import graph.components.display.NodePanel;
+import graph.components.gb.GBEdge;
+import graph.components.gb.GBNode;
+import org.junit.jupiter.api.Test;
+import structures.UOPair;
+
+import java.awt.*;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the XmlGraphFile class.
+ *
+ * @author Brian Yao
+ */
+public class XmlGraphFileTest {
+
+	@Test
+	public void testRoundTrip() throws IOException {
+		for (XmlGraphFile.Format format : XmlGraphFile.Format.values()) {
+			GBContext context = new GBContext(GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED |
+				GraphConstraint.UNWEIGHTED);
+			GBNode[] nodes = new GBNode[3];
+			for (int i = 0 ; i < nodes.length ; i++) {
+				NodePanel panel = new NodePanel(10 * i, -20 * i, 5 + i);
+				panel.setText(i == 0 ? "" : "<n\u00e9ud & " + i + ">");
+				panel.setFillColor(new Color(i, 2 * i, 3 * i));
+				panel.setBorderColor(Color.ORANGE);
+				panel.setTextColor(Color.BLUE);
+				nodes[i] = new GBNode(new Node(context.getNextIdAndInc()), context, panel);
+				context.addNode(nodes[i]);
+			}
+
+			GBEdge[] edges = new GBEdge[] {
+				new GBEdge(context.getNextIdAndInc(), nodes[0], nodes[1], false),
+				new GBEdge(context.getNextIdAndInc(), nodes[1], nodes[0], true),
+				new GBEdge(context.getNextIdAndInc(), nodes[2], nodes[2], false)
+			};
+			edges[0].setText("first");
+			edges[1].setColor(Color.RED);
+			edges[1].setWeight(7);
+			edges[2].setAngle(1.25);
+			for (GBEdge edge : edges) {
+				context.addEdge(edge);
+			}
+
+			File file = File.createTempFile("graph", format == XmlGraphFile.Format.GEXF ? ".gexf" : ".graphml");
+			file.deleteOnExit();
+			XmlGraphFile.write(context, file, XmlGraphFile.Format.of(file));
+			GBContext loaded = XmlGraphFile.read(file);
+			assertEquals(context.getGraph().getConstraints(), loaded.getGraph().getConstraints());
+			assertEquals(3, loaded.getGraph().getNumNodes());
+			assertEquals(3, loaded.getGraph().getNumEdges());
+
+			for (int i = 0 ; i < nodes.length ; i++) {
+				NodePanel expected = nodes[i].getPanel();
+				NodePanel panel = loaded.getGraph().getNodeAt(i).getGbNode().getPanel();
+				assertEquals(expected.getCoords(), panel.getCoords());
+				assertEquals(expected.getRadius(), panel.getRadius());
+				assertEquals(expected.getText(), panel.getText());
+				assertEquals(expected.getFillColor(), panel.getFillColor());
+				assertEquals(expected.getBorderColor(), panel.getBorderColor());
+				assertEquals(expected.getTextColor(), panel.getTextColor());
+			}
+
+			// Parallel edges keep their order
+			GBNode loaded0 = loaded.getGraph().getNodeAt(0).getGbNode();
+			GBNode loaded1 = loaded.getGraph().getNodeAt(1).getGbNode();
+			List<GBEdge> pairEdges = loaded.getEdgesBetweenNodes(new UOPair<>(loaded0, loaded1));
+			assertEquals("first", pairEdges.get(0).getText());
+			assertFalse(pairEdges.get(0).isDirected());
+			assertTrue(pairEdges.get(1).isDirected());
+			assertEquals(loaded1, pairEdges.get(1).getFirstEnd());
+			assertEquals(Color.RED, pairEdges.get(1).getColor());
+			assertEquals(7, pairEdges.get(1).getWeight());
+			GBNode loaded2 = loaded.getGraph().getNodeAt(2).getGbNode();
+			assertEquals(1.25, loaded.getEdgesBetweenNodes(new UOPair<>(loaded2, loaded2)).get(0).getAngle());
+		}
+	}
+
+	@Test
+	public void testForeignGraphml() throws IOException {
+		// Keys with other IDs, data nested in other elements, and missing properties
+		File file = createFile(".graphml", "<?xml version=\"1.0\"?>\n" +
+			"<graphml xmlns=\"http://graphml.graphdrawing.org/xmlns\" xmlns:y=\"http://www.yworks.com/xml/graphml\">\n" +
+			"<key id=\"d0\" for=\"node\" attr.name=\"x\" attr.type=\"double\"/>\n" +
+			"<key id=\"d1\" for=\"all\" attr.name=\"label\" attr.type=\"string\"/>\n" +
+			"<key id=\"d2\" for=\"node\" attr.name=\"border\"><desc>Border</desc><default>#00FF00</default></key>\n" +
+			"<graph edgedefault=\"undirected\">\n" +
+			"<node id=\"a\"><data key=\"d0\">12</data><data key=\"d1\">A</data>" +
+			"<data key=\"d9\"><y:ShapeNode><y:Fill color=\"#FF0000\"/></y:ShapeNode></data></node>\n" +
+			"<node id=\"b\"/>\n" +
+			"<edge source=\"a\" target=\"b\"><data key=\"d1\">ab</data></edge>\n" +
+			"<edge source=\"b\" target=\"a\" directed=\"true\"/>\n" +
+			"</graph></graphml>\n");
+		GBContext loaded = XmlGraphFile.read(file);
+		assertEquals(GraphConstraint.MULTIGRAPH | GraphConstraint.MIXED | GraphConstraint.UNWEIGHTED,
+					 loaded.getGraph().getConstraints());
+		assertEquals(2, loaded.getGraph().getNumNodes());
+		NodePanel panel = loaded.getGraph().getNodeAt(0).getGbNode().getPanel();
+		assertEquals(new Point(12, 0), panel.getCoords());
+		assertEquals("A", panel.getText());
+		assertEquals(GBNode.DEFAULT_FILL_COLOR, panel.getFillColor());
+		assertEquals(Color.GREEN, panel.getBorderColor());
+		assertEquals("ab", loaded.getGraph().getEdgeAt(0).getGbEdge().getText());
+		assertFalse(loaded.getGraph().getEdgeAt(0).isDirected());
+		assertTrue(loaded.getGraph().getEdgeAt(1).isDirected());
+	}
+
+	@Test
+	public void testInvalidFiles() throws IOException {
+		assertThrows(IOException.class, () -> XmlGraphFile.read(createFile(".xml", "<html></html>")));
+		assertThrows(IOException.class, () -> XmlGraphFile.read(createFile(".graphml",
+			"<graphml><graph><edge source=\"a\" target=\"b\"/></graph></graphml>")));
+		assertThrows(IOException.class, () -> XmlGraphFile.read(createFile(".gexf",
+			"<gexf><graph><nodes><node id=\"a\"><color r=\"300\" g=\"0\" b=\"0\"/></node></nodes></graph></gexf>")));
+		assertThrows(IOException.class, () -> XmlGraphFile.read(createFile(".graphml", "<graphml><graph>")));
+	}
+
+	private static File createFile(String extension, String contents) throws IOException {
+		File file = File.createTempFile("graph", extension);
+		file.deleteOnExit();
+		Files.write(file.toPath(), contents.getBytes(StandardCharsets.UTF_8));
+		return file;
+	}
+
+}
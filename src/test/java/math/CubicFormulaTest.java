@@ -0,0 +1,66 @@
+package math;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the CubicFormula class.
+ *
+ * @author Brian Yao
+ */
+public class CubicFormulaTest {
+
+	private static final double TOLERANCE = 1e-7;
+
+	@Test
+	public void testRealRoots() {
+		double[] roots = new double[3];
+
+		// (x - 1)(x - 2)(x - 3)
+		assertRoots(roots, CubicFormula.getRealRoots(1, -6, 11, -6, roots), 1, 2, 3);
+		// (x + 2)(x^2 + 1)
+		assertRoots(roots, CubicFormula.getRealRoots(2, 4, 2, 4, roots), -2);
+		// (x - 5)^3
+		assertRoots(roots, CubicFormula.getRealRoots(1, -15, 75, -125, roots), 5);
+		// Quadratic, linear and constant equations
+		assertRoots(roots, CubicFormula.getRealRoots(0, 2, -2, -4, roots), -1, 2);
+		assertRoots(roots, CubicFormula.getRealRoots(0, 0, 4, -2, roots), 0.5);
+		assertRoots(roots, CubicFormula.getRealRoots(0, 1, 0, 1, roots));
+		assertRoots(roots, CubicFormula.getRealRoots(0, 0, 0, 1, roots));
+	}
+
+	@Test
+	public void testRandomRoots() {
+		Random random = new Random(41);
+		double[] roots = new double[3];
+		for (int i = 0 ; i < 1000 ; i++) {
+			double scale = random.nextGaussian();
+			double r1 = random.nextInt(2000) / 100.0 - 10;
+			double r2 = r1 + 0.5 + random.nextInt(1000) / 100.0;
+			double r3 = r2 + 0.5 + random.nextInt(1000) / 100.0;
+
+			// scale * (x - r1)(x - r2)(x - r3)
+			assertRoots(roots, CubicFormula.getRealRoots(scale, -scale * (r1 + r2 + r3),
+														 scale * (r1 * r2 + r1 * r3 + r2 * r3),
+														 -scale * r1 * r2 * r3, roots), r1, r2, r3);
+
+			// scale * (x - r1)(x^2 + r2 x + r2^2), where the quadratic has no real roots
+			assertRoots(roots, CubicFormula.getRealRoots(scale, scale * (r2 - r1), scale * (r2 * r2 - r1 * r2),
+														 -scale * r1 * r2 * r2, roots), r1);
+		}
+	}
+
+	private static void assertRoots(double[] roots, int numRoots, double... expected) {
+		assertEquals(expected.length, numRoots);
+		double[] found = Arrays.copyOf(roots, numRoots);
+		Arrays.sort(found);
+		for (int i = 0 ; i < numRoots ; i++) {
+			assertEquals(expected[i], found[i], TOLERANCE);
+		}
+	}
+
+}
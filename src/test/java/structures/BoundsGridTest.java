@@ -0,0 +1,59 @@
+package structures;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the BoundsGrid structure.
+ *
+ * @author Brian Yao
+ */
+public class BoundsGridTest {
+
+	@Test
+	public void testQuery() {
+		BoundsGrid<String> grid = new BoundsGrid<>(10);
+		grid.put("a", 0, 0, 5, 5);
+		grid.put("b", 12, 3, 28, 8);
+		grid.put("c", -15, -15, -11, -11);
+		assertEquals(3, grid.size());
+
+		assertEquals(Set.of("a"), grid.query(1, 1, 2, 2));
+		assertEquals(Set.of("a", "b"), grid.query(8, 0, 14, 1));
+		assertEquals(Set.of("c"), grid.query(-12, -12, -12, -12));
+		assertTrue(grid.query(100, 100, 200, 200).isEmpty());
+		assertEquals(Set.of("a", "b", "c"), grid.query(-1e9, -1e9, 1e9, 1e9));
+
+		assertTrue(grid.covers(-15, -15, 28, 8));
+		assertFalse(grid.covers(-14, -15, 28, 8));
+	}
+
+	@Test
+	public void testMoveAndRemove() {
+		BoundsGrid<String> grid = new BoundsGrid<>(10);
+		grid.put("a", 0, 0, 5, 5);
+		grid.put("a", 50, 50, 55, 55);
+		assertTrue(grid.query(0, 0, 5, 5).isEmpty());
+		assertEquals(Set.of("a"), grid.query(52, 52, 53, 53));
+		assertEquals(1, grid.size());
+
+		// Huge and unplaceable boxes are found by every query
+		grid.put("huge", 0, 0, 1000, 1000);
+		grid.put("nan", Double.NaN, 0, 1, 1);
+		assertEquals(Set.of("huge", "nan"), grid.query(-500, -500, -400, -400));
+
+		grid.remove("a");
+		grid.remove("huge");
+		grid.put("nan", 0, 0, 1, 1);
+		assertEquals(Set.of("nan"), grid.query(0, 0, 1, 1));
+		assertEquals(1, grid.size());
+
+		grid.clear();
+		assertEquals(0, grid.size());
+		assertTrue(grid.query(0, 0, 1, 1).isEmpty());
+	}
+
+}
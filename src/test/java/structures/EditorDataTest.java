@@ -51,7 +51,7 @@ public class EditorDataTest {
 		assertNotNull(editorData.getSelectedEdges());
 		assertNotNull(editorData.getHighlightedNodes());
 		assertNotNull(editorData.getHighlightedEdges());
-		assertNotNull(editorData.getNodePanelPositionMap());
+		assertNull(editorData.getNodeDrag());
 		assertNotNull(editorData.getLastMousePoint());
 	}
 
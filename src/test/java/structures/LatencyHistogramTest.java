@@ -0,0 +1,57 @@
+package structures;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the LatencyHistogram structure.
+ *
+ * @author Brian Yao
+ */
+public class LatencyHistogramTest {
+
+	@Test
+	public void testPercentiles() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		assertEquals(0, histogram.getValueAtPercentile(50));
+
+		for (int value = 1 ; value <= 10_000 ; value++) {
+			histogram.record(value);
+		}
+		assertEquals(10_000, histogram.getCount());
+		assertEquals(10_000, histogram.getMax());
+		assertEquals(10_000, histogram.getValueAtPercentile(100));
+		assertEquals(1, histogram.getValueAtPercentile(0));
+
+		// Percentiles are bucket bounds, within a sixteenth above the exact value
+		for (double percentile : new double[] {10, 50, 90, 99, 99.9}) {
+			long exact = (long) Math.ceil(percentile * 100);
+			long value = histogram.getValueAtPercentile(percentile);
+			assertTrue(value >= exact && value <= exact + exact / 16, percentile + ": " + value);
+		}
+	}
+
+	@Test
+	public void testSmallAndLargeValues() {
+		LatencyHistogram histogram = new LatencyHistogram();
+		for (int value = 0 ; value < 32 ; value++) {
+			histogram.record(value);
+		}
+		// Values below 32 are counted exactly
+		assertEquals(15, histogram.getValueAtPercentile(50));
+
+		histogram.record(Long.MAX_VALUE);
+		assertEquals(Long.MAX_VALUE, histogram.getValueAtPercentile(100));
+
+		histogram.reset();
+		assertEquals(0, histogram.getCount());
+		assertEquals(0, histogram.getMax());
+		assertEquals(0, histogram.getValueAtPercentile(99));
+
+		assertThrows(IllegalArgumentException.class, () -> histogram.record(-1));
+		assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(101));
+		assertThrows(IllegalArgumentException.class, () -> histogram.getValueAtPercentile(Double.NaN));
+	}
+
+}
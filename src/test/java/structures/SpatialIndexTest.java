@@ -0,0 +1,61 @@
+package structures;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the SpatialIndex structure.
+ *
+ * @author Brian Yao
+ */
+public class SpatialIndexTest {
+
+	@Test
+	public void testRemoveRegion() {
+		SpatialIndex<Integer> index = new SpatialIndex<>(100);
+		index.add(0, 10, 10);
+		index.add(1, 150, 50);
+		index.add(2, -20, -20);
+		index.add(3, 950, 950);
+		assertEquals(4, index.size());
+
+		// Whole cells intersecting the region are removed
+		assertEquals(Set.of(0, 1), new HashSet<>(index.removeRegion(new Rectangle(50, 50, 60, 10))));
+		assertEquals(2, index.size());
+
+		// Each value is only handed out once
+		assertTrue(index.removeRegion(new Rectangle(0, 0, 200, 100)).isEmpty());
+
+		// Negative coordinates, and regions much larger than the occupied cells
+		assertEquals(List.of(2), index.removeRegion(new Rectangle(-1, -1, 1, 1)));
+		assertEquals(List.of(3), index.removeRegion(new Rectangle(-100000, -100000, 200000, 200000)));
+		assertTrue(index.isEmpty());
+	}
+
+	@Test
+	public void testRemoveNearestCell() {
+		SpatialIndex<Integer> index = new SpatialIndex<>(10);
+		index.add(0, 500, 500);
+		index.add(1, 5, 5);
+		index.add(2, 8, 2);
+		index.add(3, 95, 0);
+
+		assertEquals(Set.of(1, 2), new HashSet<>(index.removeNearestCell(30, 30)));
+		assertEquals(List.of(3), index.removeNearestCell(30, 30));
+		assertEquals(List.of(0), index.removeNearestCell(30, 30));
+		assertTrue(index.removeNearestCell(30, 30).isEmpty());
+		assertEquals(0, index.size());
+	}
+
+	@Test
+	public void testInvalidCellSize() {
+		assertThrows(IllegalArgumentException.class, () -> new SpatialIndex<Integer>(0));
+	}
+
+}
@@ -0,0 +1,49 @@
+package util;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * JUnit test cases for the CoordinateUtils class.
+ *
+ * @author Brian Yao
+ */
+public class CoordinateUtilsTest {
+
+	@Test
+	public void testClosestGridCoordinate() {
+		assertEquals(0, CoordinateUtils.closestGridCoordinate(0, 20));
+		assertEquals(0, CoordinateUtils.closestGridCoordinate(9, 20));
+		assertEquals(20, CoordinateUtils.closestGridCoordinate(11, 20));
+		assertEquals(40, CoordinateUtils.closestGridCoordinate(40, 20));
+
+		// Halfway between grid lines rounds down
+		assertEquals(0, CoordinateUtils.closestGridCoordinate(10, 20));
+		assertEquals(20, CoordinateUtils.closestGridCoordinate(25, 10));
+		assertEquals(-20, CoordinateUtils.closestGridCoordinate(-10, 20));
+		assertEquals(-20, CoordinateUtils.closestGridCoordinate(-11, 20));
+		assertEquals(0, CoordinateUtils.closestGridCoordinate(-9, 20));
+
+		// Matches the closest of the four surrounding grid points
+		for (int x = -50 ; x <= 50 ; x++) {
+			for (int y = -50 ; y <= 50 ; y += 7) {
+				int level = 15;
+				Point closest = new Point(CoordinateUtils.closestGridCoordinate(x, level),
+										  CoordinateUtils.closestGridCoordinate(y, level));
+				int lowX = Math.floorDiv(x, level) * level;
+				int lowY = Math.floorDiv(y, level) * level;
+				for (int gx = lowX ; gx <= lowX + level ; gx += level) {
+					for (int gy = lowY ; gy <= lowY + level ; gy += level) {
+						assertTrue(closest.distance(x, y) <= Point.distance(gx, gy, x, y));
+					}
+				}
+			}
+		}
+
+		assertThrows(IllegalArgumentException.class, () -> CoordinateUtils.closestGridCoordinate(5, 0));
+	}
+
+}